@@ -0,0 +1,144 @@
+package com.rsomeara.artifact.repo.versions.jcenter.type;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rsomeara.artifact.repo.versions.type.AbstractContentHandler;
+import com.rsomeara.artifact.repo.versions.type.IArtifact;
+import com.rsomeara.artifact.repo.versions.type.PooledJsonParser;
+
+/**
+ * Measures parsing of BinTray package documents with large numbers of versions, with and without per-thread parser
+ * reuse
+ *
+ * <p>
+ * Documents are shaped as returned by BinTray - the versions precede the latest version, and are followed by fields
+ * which are not read. Run a subset with, for example, {@code -p versions=1000}
+ * </p>
+ *
+ * @author romeara
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JCenterArtifactBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    private int versions;
+
+    private byte[] document;
+
+    private VersionCountingHandler handler;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StringBuilder json = new StringBuilder("{\"name\":\"artifact\",\"repo\":\"maven\",\"owner\":\"owner\",\"versions\":[");
+
+        for (int version = versions; version > 0; version--) {
+            json.append('"').append(version / 100).append('.').append(version % 100).append(".0\"");
+
+            if (version > 1) {
+                json.append(',');
+            }
+        }
+
+        json.append("],\"latest_version\":\"").append(versions / 100).append('.').append(versions % 100).append(".0\",");
+        json.append("\"desc\":\"").append(new String(new char[4096]).replace('\0', 'x')).append("\",");
+        json.append("\"labels\":[\"a\",\"b\",\"c\"],\"followers_count\":0}");
+
+        document = json.toString().getBytes(StandardCharsets.UTF_8);
+        handler = new VersionCountingHandler();
+    }
+
+    /**
+     * Measures parsing with a new parser and reader per document, as performed before parsers were pooled
+     */
+    @Benchmark
+    public int newParser() throws IOException, ParseException {
+        new JSONParser().parse(new InputStreamReader(new ByteArrayInputStream(document), StandardCharsets.UTF_8), handler, false);
+
+        return handler.getCount();
+    }
+
+    /**
+     * Measures parsing with the calling thread's pooled parser and decoding buffers
+     */
+    @Benchmark
+    public int pooledParser() throws IOException, ParseException {
+        return PooledJsonParser.parse(new ByteArrayInputStream(document), handler).getCount();
+    }
+
+    /**
+     * Measures creation of the artifact representation, including retention of the versions read
+     */
+    @Benchmark
+    public IArtifact createArtifact() {
+        return JCenterArtifact.create(new ByteArrayInputStream(document));
+    }
+
+    /**
+     * Counts versions until the latest version is read, stopping as the artifact representation does
+     *
+     * @author romeara
+     */
+    private static final class VersionCountingHandler extends AbstractContentHandler {
+
+        private int count;
+
+        private boolean latestRead;
+
+        /**
+         * @return The number of versions read from the last document
+         */
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        protected void reset() {
+            super.reset();
+
+            count = 0;
+            latestRead = false;
+        }
+
+        @Override
+        public boolean primitive(Object value) throws ParseException, IOException {
+            if ("versions".equals(getCurrentKey())) {
+                count++;
+            } else if ("latest_version".equals(getCurrentKey())) {
+                latestRead = true;
+            }
+
+            return !isComplete();
+        }
+
+        @Override
+        protected boolean isComplete() {
+            return latestRead;
+        }
+
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.rsomeara.artifact.repo.versions;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+import com.rsomeara.artifact.repo.versions.async.AsyncArtifactRepository;
+import com.rsomeara.artifact.repo.versions.cache.CachingArtifactRepository;
+import com.rsomeara.artifact.repo.versions.jcenter.type.JCenterArtifactRepository;
+import com.rsomeara.artifact.repo.versions.type.ArtifactCoordinate;
+import com.rsomeara.artifact.repo.versions.type.ArtifactUpdate;
+import com.rsomeara.artifact.repo.versions.type.IArtifact;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRelease;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRepository;
+
+/**
+ * Simple example of library use which retrieves the log4j artifact and latest release from BinTray/JCenter, then
+ * checks a list of dependencies for updates
+ *
+ * <p>
+ * Dependencies to check may be provided as arguments, in "group:artifact:version" form
+ * </p>
+ *
+ * @author romeara
+ */
+public class Main {
+
+    /** Logger reference to output information to the application log files */
+    private static final Logger logger = LoggerFactory.getLogger(Main.class);
+
+    private static final String ORGANIZATION_ID = "bintray";
+
+    private static final String REPOSITORY_ID = "jcenter";
+
+    private static final String ARTIFACT_ID = "org.apache.logging.log4j:log4j";
+
+    /** Dependencies checked if none are provided as arguments */
+    private static final List<String> DEFAULT_DEPENDENCIES = Arrays.asList(
+            "org.apache.logging.log4j:log4j:2.0",
+            "com.google.guava:guava:18.0",
+            "org.slf4j:slf4j-api:1.7.5",
+            "org.slf4j:slf4j-simple:1.7.7",
+            "com.googlecode.json-simple:json-simple:1.1.1");
+
+    /** The maximum number of lookups performed against JCenter at once */
+    private static final int MAX_CONCURRENT_REQUESTS = 8;
+
+    public static void main(String[] args) {
+        new Main().doMain(args);
+    }
+
+    public void doMain(String[] args) {
+        try {
+            IArtifactRepository artifactRepository = CachingArtifactRepository.newBuilder(JCenterArtifactRepository.create(ORGANIZATION_ID, REPOSITORY_ID))
+                    .build();
+
+            Optional<IArtifact> artifact = artifactRepository.findArtifact(ARTIFACT_ID);
+
+            if (artifact.isPresent()) {
+                logger.info("Latest Release: {}", artifact.get().getLatestReleaseId());
+
+                for (String version : artifact.get().getAvailableReleases()) {
+                    logger.info("\tAvailable Release: {}", version);
+                }
+
+                // Demonstrates how the library handles APIs which require API keys (JCenter API Keys are found in User
+                // Profile -> Edit -> API Key)
+                Optional<IArtifactRelease> latestRelease = artifactRepository.findLatestArtifactRelease(ARTIFACT_ID);
+
+                if (latestRelease.isPresent()) {
+                    logger.info("Latest Release: {}", latestRelease.get().getReleaseId());
+                } else {
+                    logger.error("No \"latest\" release found");
+                }
+            } else {
+                logger.error("Did not find expected artifact");
+            }
+
+            checkForUpdates(artifactRepository, (args.length > 0 ? Arrays.asList(args) : DEFAULT_DEPENDENCIES));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Demonstrates checking a list of dependencies for updates, with artifacts looked up concurrently and results
+     * reported as each lookup completes
+     *
+     * @param artifactRepository
+     *            Repository to look up artifacts in
+     * @param dependencies
+     *            Dependencies to check, in "group:artifact:version" form
+     */
+    private void checkForUpdates(IArtifactRepository artifactRepository, List<String> dependencies) {
+        List<ArtifactCoordinate> coordinates = Lists.newArrayListWithCapacity(dependencies.size());
+
+        for (String dependency : dependencies) {
+            coordinates.add(ArtifactCoordinate.parse(dependency));
+        }
+
+        try (AsyncArtifactRepository asyncRepository = AsyncArtifactRepository.create(artifactRepository, MAX_CONCURRENT_REQUESTS)) {
+            List<ArtifactUpdate> updates = asyncRepository.checkForUpdates(coordinates, update -> {
+                switch (update.getStatus()) {
+                case OUTDATED:
+                    logger.info("{}: {} newer release(s), latest {}", update.getCoordinate(), update.getNewerReleaseIds().size(),
+                            update.getLatestReleaseId());
+                    break;
+                case CURRENT:
+                    logger.info("{}: up to date", update.getCoordinate());
+                    break;
+                case NOT_FOUND:
+                    logger.warn("{}: artifact not found", update.getCoordinate());
+                    break;
+                default:
+                    logger.error(update.getCoordinate() + ": lookup failed", update.getFailure());
+                }
+            }).join();
+
+            long outdated = updates.stream().filter(ArtifactUpdate::isOutdated).count();
+
+            logger.info("{} of {} dependencies have updates available", outdated, updates.size());
+        }
+    }
+
+}
@@ -0,0 +1,219 @@
+package com.rsomeara.artifact.repo.versions.async;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.SetMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.rsomeara.artifact.repo.versions.type.ArtifactCoordinate;
+import com.rsomeara.artifact.repo.versions.type.ArtifactUpdate;
+import com.rsomeara.artifact.repo.versions.type.IArtifact;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRelease;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRepository;
+import com.rsomeara.artifact.repo.versions.type.IAsyncArtifactRepository;
+
+/**
+ * Performs lookups against a blocking artifact repository asynchronously, on a bounded pool of threads. The size of the
+ * pool limits the number of requests made to the remote repository at once - lookups beyond the limit are queued until
+ * a thread is available
+ *
+ * <p>
+ * The wrapped repository must be safe for concurrent use. Threads of the pool do not prevent the JVM from exiting, but
+ * the pool should be released by calling {@link #close()} once the repository is no longer needed
+ * </p>
+ *
+ * @author romeara
+ */
+public class AsyncArtifactRepository implements IAsyncArtifactRepository, Closeable {
+
+    /** Logger reference to output information to the application log files */
+    private static final Logger logger = LoggerFactory.getLogger(AsyncArtifactRepository.class);
+
+    /** Time an idle thread of the pool is retained before it is released */
+    private static final long IDLE_THREAD_SECONDS = 30;
+
+    /** The blocking repository lookups are delegated to */
+    private final IArtifactRepository repository;
+
+    /** Pool which lookups are performed on */
+    private final ExecutorService executor;
+
+    /**
+     * @param repository
+     *            The blocking repository to delegate lookups to
+     * @param maxConcurrentRequests
+     *            The maximum number of lookups to perform at once
+     */
+    private AsyncArtifactRepository(@Nonnull IArtifactRepository repository, int maxConcurrentRequests) {
+        Objects.requireNonNull(repository);
+        Preconditions.checkArgument(maxConcurrentRequests > 0, "At least one concurrent request must be allowed");
+
+        this.repository = repository;
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxConcurrentRequests, maxConcurrentRequests,
+                IDLE_THREAD_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("artifact-lookup-%d").setDaemon(true).build());
+        pool.allowCoreThreadTimeOut(true);
+
+        executor = pool;
+    }
+
+    @Override
+    public CompletableFuture<Optional<IArtifact>> findArtifact(String artifactId) {
+        Objects.requireNonNull(artifactId);
+
+        return submit(() -> repository.findArtifact(artifactId));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Optional<IArtifact>>> findArtifacts(Collection<String> artifactIds) {
+        Objects.requireNonNull(artifactIds);
+
+        Set<String> uniqueIds = new LinkedHashSet<>(artifactIds);
+        List<CompletableFuture<Optional<IArtifact>>> lookups = Lists.newArrayListWithCapacity(uniqueIds.size());
+
+        logger.debug("Looking up {} artifacts ({} requested)", uniqueIds.size(), artifactIds.size());
+
+        for (String artifactId : uniqueIds) {
+            lookups.add(findArtifact(artifactId));
+        }
+
+        return CompletableFuture.allOf(lookups.toArray(new CompletableFuture<?>[lookups.size()]))
+                .thenApply(ignored -> {
+                    ImmutableMap.Builder<String, Optional<IArtifact>> result = ImmutableMap.builder();
+                    int index = 0;
+
+                    for (String artifactId : uniqueIds) {
+                        result.put(artifactId, lookups.get(index++).join());
+                    }
+
+                    return result.build();
+                });
+    }
+
+    @Override
+    public CompletableFuture<Optional<IArtifactRelease>> findSpecifiedArtifactRelease(String artifactId, String releaseId) {
+        Objects.requireNonNull(artifactId);
+        Objects.requireNonNull(releaseId);
+
+        return submit(() -> repository.findSpecifiedArtifactRelease(artifactId, releaseId));
+    }
+
+    @Override
+    public CompletableFuture<Optional<IArtifactRelease>> findLatestArtifactRelease(String artifactId) {
+        Objects.requireNonNull(artifactId);
+
+        return submit(() -> repository.findLatestArtifactRelease(artifactId));
+    }
+
+    @Override
+    public CompletableFuture<List<ArtifactUpdate>> checkForUpdates(Collection<ArtifactCoordinate> coordinates, Consumer<? super ArtifactUpdate> listener) {
+        Objects.requireNonNull(coordinates);
+        Objects.requireNonNull(listener);
+
+        SetMultimap<String, ArtifactCoordinate> byArtifact = LinkedHashMultimap.create();
+
+        for (ArtifactCoordinate coordinate : coordinates) {
+            byArtifact.put(coordinate.getArtifactId(), coordinate);
+        }
+
+        logger.debug("Checking {} dependencies for updates ({} artifacts)", byArtifact.size(), byArtifact.keySet().size());
+
+        // Serializes calls to the listener, which are made from the lookup threads as each lookup completes
+        Object listenerLock = new Object();
+        List<CompletableFuture<List<ArtifactUpdate>>> checks = Lists.newArrayListWithCapacity(byArtifact.keySet().size());
+
+        for (Map.Entry<String, Collection<ArtifactCoordinate>> artifact : byArtifact.asMap().entrySet()) {
+            checks.add(findArtifact(artifact.getKey()).handle((found, failure) -> {
+                ImmutableList.Builder<ArtifactUpdate> updates = ImmutableList.builder();
+
+                for (ArtifactCoordinate coordinate : artifact.getValue()) {
+                    updates.add(failure == null ? ArtifactUpdate.evaluate(coordinate, found) : ArtifactUpdate.failed(coordinate, unwrap(failure)));
+                }
+
+                List<ArtifactUpdate> result = updates.build();
+
+                synchronized (listenerLock) {
+                    result.forEach(listener);
+                }
+
+                return result;
+            }));
+        }
+
+        return CompletableFuture.allOf(checks.toArray(new CompletableFuture<?>[checks.size()]))
+                .thenApply(ignored -> {
+                    ImmutableList.Builder<ArtifactUpdate> result = ImmutableList.builder();
+
+                    for (CompletableFuture<List<ArtifactUpdate>> check : checks) {
+                        result.addAll(check.join());
+                    }
+
+                    return result.build();
+                });
+    }
+
+    /**
+     * Stops accepting new lookups. Lookups already submitted are completed
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * @param lookup
+     *            Blocking lookup to perform on the pool
+     * @return Future which completes with the result of the lookup
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> lookup) {
+        return CompletableFuture.supplyAsync(lookup, executor);
+    }
+
+    /**
+     * @param failure
+     *            Failure of a lookup, as provided to dependent stages of its future
+     * @return The failure thrown by the lookup itself
+     */
+    private static Throwable unwrap(@Nonnull Throwable failure) {
+        return (failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+    }
+
+    /**
+     * Creates a new asynchronous view of a blocking artifact repository
+     *
+     * @param repository
+     *            The repository to delegate lookups to. Must be safe for concurrent use
+     * @param maxConcurrentRequests
+     *            The maximum number of lookups to perform at once
+     * @return Asynchronous representation of the provided repository
+     */
+    public static AsyncArtifactRepository create(@Nonnull IArtifactRepository repository, int maxConcurrentRequests) {
+        return new AsyncArtifactRepository(repository, maxConcurrentRequests);
+    }
+
+}
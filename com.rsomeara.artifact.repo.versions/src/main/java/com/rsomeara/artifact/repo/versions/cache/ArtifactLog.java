@@ -0,0 +1,674 @@
+package com.rsomeara.artifact.repo.versions.cache;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.rsomeara.artifact.repo.versions.type.IArtifact;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRelease;
+import com.rsomeara.artifact.repo.versions.type.VersionIndex;
+
+/**
+ * Append-only file of artifact repository lookup results. Each record is written with its length and checksum, so a
+ * record partially written when the process stopped is detected and discarded when the file is next opened, without
+ * affecting earlier records
+ *
+ * <p>
+ * Later records for a lookup replace earlier ones. Once replaced records accumulate, the file may be compacted by
+ * writing the current records to a new file, which atomically replaces the original - so a failure during compaction
+ * leaves the original file intact
+ * </p>
+ *
+ * @author romeara
+ */
+@NotThreadSafe
+final class ArtifactLog implements Closeable {
+
+    /** Logger reference to output information to the application log files */
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactLog.class);
+
+    /** Identifies files written by this class */
+    private static final int MAGIC = 0x41525643;
+
+    /** Revision of the record format, changed if the format changes incompatibly */
+    private static final int FORMAT_VERSION = 1;
+
+    /** Length of the magic number and format version at the start of the file */
+    private static final int HEADER_LENGTH = 8;
+
+    /** Length of the record length and checksum preceding each record */
+    private static final int RECORD_HEADER_LENGTH = 12;
+
+    /** Records larger than this are treated as corrupt */
+    private static final int MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+
+    private final Path path;
+
+    private FileChannel channel;
+
+    /** The number of records in the file, including replaced records */
+    private int recordCount;
+
+    /** False if a failed append could not be removed from the file, so further records would not be read back */
+    private boolean appendable;
+
+    /**
+     * @param path
+     *            Location of the file
+     * @param channel
+     *            Open channel to the file, positioned after the last valid record
+     * @param recordCount
+     *            The number of valid records in the file
+     */
+    private ArtifactLog(@Nonnull Path path, @Nonnull FileChannel channel, int recordCount) {
+        this.path = Objects.requireNonNull(path);
+        this.channel = Objects.requireNonNull(channel);
+        this.recordCount = recordCount;
+        appendable = true;
+    }
+
+    /**
+     * Opens a log file, creating it if it does not exist. Any incomplete or corrupt records at the end of the file are
+     * removed
+     *
+     * @param path
+     *            Location of the file
+     * @param records
+     *            Map to populate with the current record for each lookup in the file
+     * @return The opened log, ready to append records to
+     * @throws IOException
+     *             If the file cannot be read or created
+     */
+    @Nonnull
+    static ArtifactLog open(@Nonnull Path path, @Nonnull Map<LookupKey, Record> records) throws IOException {
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(records);
+
+        // A compaction interrupted before replacing the file leaves an incomplete copy, which is not needed
+        Files.deleteIfExists(getCompactionPath(path));
+
+        long validLength = 0;
+        int recordCount = 0;
+
+        if (Files.exists(path)) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                if (readHeader(input)) {
+                    validLength = HEADER_LENGTH;
+                    Record record = readRecord(input);
+
+                    while (record != null) {
+                        records.put(record.getKey(), record);
+                        validLength += RECORD_HEADER_LENGTH + record.getEncodedLength();
+                        recordCount++;
+
+                        record = readRecord(input);
+                    }
+                } else {
+                    logger.warn("Artifact cache file {} is not in a recognized format, and will be replaced", path);
+                }
+            }
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            if (channel.size() > validLength) {
+                logger.warn("Discarding {} bytes of incomplete records from artifact cache file {}", channel.size() - validLength, path);
+                channel.truncate(validLength);
+            }
+
+            if (validLength == 0) {
+                writeFully(channel, encodeHeader());
+            }
+
+            channel.position(channel.size());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        logger.debug("Read {} artifact cache records ({} current) from {}", recordCount, records.size(), path);
+
+        return new ArtifactLog(path, channel, recordCount);
+    }
+
+    /**
+     * Adds a record to the end of the file. If the record cannot be written, any part of it which was written is
+     * removed, so later records remain readable. If that also fails, the file is not appended to until it is next
+     * compacted
+     *
+     * @param record
+     *            Record to add to the end of the file
+     * @throws IOException
+     *             If the record cannot be written, or the file is not appendable
+     * @see #isAppendable()
+     */
+    void append(@Nonnull Record record) throws IOException {
+        Objects.requireNonNull(record);
+
+        if (!appendable) {
+            throw new IOException("Artifact cache file " + path + " holds an incomplete record, and must be compacted before appending");
+        }
+
+        ByteBuffer content = encodeRecord(record);
+        long startPosition = channel.position();
+
+        try {
+            writeFully(channel, content);
+        } catch (IOException e) {
+            try {
+                channel.truncate(startPosition);
+                channel.position(startPosition);
+            } catch (IOException truncateException) {
+                appendable = false;
+                e.addSuppressed(truncateException);
+            }
+
+            throw e;
+        }
+
+        recordCount++;
+    }
+
+    /**
+     * Replaces the file with one which contains only the provided records
+     *
+     * @param records
+     *            The current record for each lookup to retain
+     * @throws IOException
+     *             If the new file cannot be written. The original file remains in use in this case
+     */
+    void compact(@Nonnull Collection<Record> records) throws IOException {
+        Objects.requireNonNull(records);
+
+        Path compactionPath = getCompactionPath(path);
+
+        try (FileChannel compacted = FileChannel.open(compactionPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            writeFully(compacted, encodeHeader());
+
+            for (Record record : records) {
+                writeFully(compacted, encodeRecord(record));
+            }
+
+            // The new file must be durable before it replaces the original
+            compacted.force(true);
+        }
+
+        Files.move(compactionPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        FileChannel replaced = channel;
+
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+
+        replaced.close();
+
+        logger.debug("Compacted artifact cache file {} from {} to {} records", path, recordCount, records.size());
+
+        recordCount = records.size();
+        appendable = true;
+    }
+
+    /**
+     * @return True if records may be appended to the file, false if it must first be compacted, as a failed append
+     *         could not be removed from it
+     */
+    boolean isAppendable() {
+        return appendable;
+    }
+
+    /**
+     * @return The number of records in the file, including records replaced by later records
+     */
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * @param path
+     *            Location of a log file
+     * @return Location a compacted copy of the file is written to, before replacing the file
+     */
+    @Nonnull
+    private static Path getCompactionPath(@Nonnull Path path) {
+        return path.resolveSibling(path.getFileName() + ".compact");
+    }
+
+    /**
+     * @param channel
+     *            Channel to write to
+     * @param content
+     *            Content to write in its entirety
+     * @throws IOException
+     *             If the content cannot be written
+     */
+    private static void writeFully(@Nonnull FileChannel channel, @Nonnull ByteBuffer content) throws IOException {
+        while (content.hasRemaining()) {
+            channel.write(content);
+        }
+    }
+
+    /**
+     * @return The header which starts every log file
+     */
+    @Nonnull
+    private static ByteBuffer encodeHeader() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+
+        return header;
+    }
+
+    /**
+     * @param input
+     *            Stream positioned at the start of a log file
+     * @return True if the file starts with a header of the supported format
+     * @throws IOException
+     *             If the file cannot be read
+     */
+    private static boolean readHeader(@Nonnull DataInputStream input) throws IOException {
+        boolean result = false;
+
+        try {
+            result = input.readInt() == MAGIC && input.readInt() == FORMAT_VERSION;
+        } catch (EOFException e) {
+            // A file too short to hold a header holds no records
+            result = false;
+        }
+
+        return result;
+    }
+
+    /**
+     * @param record
+     *            Record to encode
+     * @return The record, preceded by its length and checksum
+     * @throws IOException
+     *             If the record cannot be encoded
+     */
+    @Nonnull
+    private static ByteBuffer encodeRecord(@Nonnull Record record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            // Reserve space for the length and checksum, which are filled in once the content is known
+            output.writeInt(0);
+            output.writeLong(0);
+
+            record.writeTo(output);
+        }
+
+        ByteBuffer result = ByteBuffer.wrap(bytes.toByteArray());
+        int length = result.remaining() - RECORD_HEADER_LENGTH;
+
+        CRC32 checksum = new CRC32();
+        checksum.update(result.array(), RECORD_HEADER_LENGTH, length);
+
+        result.putInt(0, length);
+        result.putLong(4, checksum.getValue());
+
+        return result;
+    }
+
+    /**
+     * @param input
+     *            Stream positioned at the start of a record
+     * @return The record, or null if there are no further complete and valid records
+     * @throws IOException
+     *             If the file cannot be read
+     */
+    @CheckForNull
+    private static Record readRecord(@Nonnull DataInputStream input) throws IOException {
+        Record result = null;
+
+        try {
+            int length = input.readInt();
+            long expectedChecksum = input.readLong();
+
+            if (length > 0 && length <= MAX_RECORD_LENGTH) {
+                byte[] content = new byte[length];
+                input.readFully(content);
+
+                CRC32 checksum = new CRC32();
+                checksum.update(content);
+
+                if (checksum.getValue() == expectedChecksum) {
+                    result = decodeRecord(content);
+                }
+            }
+        } catch (EOFException e) {
+            // The last record was not completely written
+            result = null;
+        }
+
+        return result;
+    }
+
+    /**
+     * @param content
+     *            Complete content of a record which passed its checksum
+     * @return The decoded record, or null if the content is not a valid record
+     */
+    @CheckForNull
+    private static Record decodeRecord(@Nonnull byte[] content) {
+        Record result = null;
+
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(content))) {
+            result = Record.readFrom(input, content.length);
+        } catch (IOException e) {
+            logger.warn("Artifact cache record could not be decoded", e);
+            result = null;
+        }
+
+        return result;
+    }
+
+    /**
+     * The result of a lookup, and the time it was retrieved
+     *
+     * @author romeara
+     */
+    @Immutable
+    static final class Record {
+
+        private final LookupKey key;
+
+        private final long storedAtMillis;
+
+        private final Optional<?> result;
+
+        /** Length of the encoded record, if it was read from a file */
+        private final int encodedLength;
+
+        /**
+         * @param key
+         *            Identifies the lookup
+         * @param storedAtMillis
+         *            Time the result was retrieved, in milliseconds since the epoch
+         * @param result
+         *            The result of the lookup - an {@link IArtifact} for artifact lookups, or an
+         *            {@link IArtifactRelease} otherwise
+         */
+        Record(@Nonnull LookupKey key, long storedAtMillis, @Nonnull Optional<?> result) {
+            this(key, storedAtMillis, result, 0);
+        }
+
+        /**
+         * @param key
+         *            Identifies the lookup
+         * @param storedAtMillis
+         *            Time the result was retrieved, in milliseconds since the epoch
+         * @param result
+         *            The result of the lookup
+         * @param encodedLength
+         *            Length of the encoded record
+         */
+        private Record(@Nonnull LookupKey key, long storedAtMillis, @Nonnull Optional<?> result, int encodedLength) {
+            this.key = Objects.requireNonNull(key);
+            this.storedAtMillis = storedAtMillis;
+            this.result = Objects.requireNonNull(result);
+            this.encodedLength = encodedLength;
+        }
+
+        /**
+         * @return Identifies the lookup
+         */
+        @Nonnull
+        LookupKey getKey() {
+            return key;
+        }
+
+        /**
+         * @return Time the result was retrieved, in milliseconds since the epoch
+         */
+        long getStoredAtMillis() {
+            return storedAtMillis;
+        }
+
+        /**
+         * @return The result of the lookup
+         */
+        @Nonnull
+        Optional<?> getResult() {
+            return result;
+        }
+
+        /**
+         * @return Length of the encoded record
+         */
+        private int getEncodedLength() {
+            return encodedLength;
+        }
+
+        /**
+         * @param output
+         *            Stream to write the encoded record to
+         * @throws IOException
+         *             If the record cannot be written
+         */
+        private void writeTo(@Nonnull DataOutputStream output) throws IOException {
+            output.writeByte(key.getKind().ordinal());
+            output.writeUTF(key.getArtifactId());
+            writeNullableUTF(output, key.getReleaseId());
+            output.writeLong(storedAtMillis);
+            output.writeBoolean(result.isPresent());
+
+            if (result.isPresent()) {
+                if (key.getKind() == LookupKey.Kind.ARTIFACT) {
+                    IArtifact artifact = (IArtifact) result.get();
+                    List<String> releases = ImmutableList.copyOf(artifact.getAvailableReleases());
+
+                    output.writeUTF(artifact.getArtifactId());
+                    writeNullableUTF(output, artifact.getLatestReleaseId());
+                    output.writeInt(releases.size());
+
+                    for (String release : releases) {
+                        output.writeUTF(release);
+                    }
+                } else {
+                    IArtifactRelease release = (IArtifactRelease) result.get();
+
+                    output.writeUTF(release.getArtifactId());
+                    output.writeUTF(release.getReleaseId());
+                }
+            }
+        }
+
+        /**
+         * @param input
+         *            Stream containing exactly one encoded record
+         * @param encodedLength
+         *            Length of the encoded record
+         * @return The decoded record
+         * @throws IOException
+         *             If the record cannot be read
+         */
+        @Nonnull
+        private static Record readFrom(@Nonnull DataInputStream input, int encodedLength) throws IOException {
+            int kindOrdinal = input.readUnsignedByte();
+
+            if (kindOrdinal >= LookupKey.Kind.values().length) {
+                throw new IOException("Unrecognized lookup type " + kindOrdinal);
+            }
+
+            LookupKey.Kind kind = LookupKey.Kind.values()[kindOrdinal];
+            LookupKey key = new LookupKey(kind, input.readUTF(), readNullableUTF(input));
+            long storedAtMillis = input.readLong();
+            Optional<?> result = Optional.absent();
+
+            if (input.readBoolean()) {
+                if (kind == LookupKey.Kind.ARTIFACT) {
+                    String artifactId = input.readUTF();
+                    String latestReleaseId = readNullableUTF(input);
+                    int releaseCount = input.readInt();
+                    List<String> releases = Lists.newArrayListWithCapacity(releaseCount);
+
+                    for (int i = 0; i < releaseCount; i++) {
+                        releases.add(input.readUTF());
+                    }
+
+                    result = Optional.of(new StoredArtifact(artifactId, latestReleaseId, releases));
+                } else {
+                    result = Optional.of(new StoredArtifactRelease(input.readUTF(), input.readUTF()));
+                }
+            }
+
+            return new Record(key, storedAtMillis, result, encodedLength);
+        }
+
+        /**
+         * @param output
+         *            Stream to write to
+         * @param value
+         *            Value to write, which may be null
+         * @throws IOException
+         *             If the value cannot be written
+         */
+        private static void writeNullableUTF(@Nonnull DataOutputStream output, @Nullable String value) throws IOException {
+            output.writeBoolean(value != null);
+
+            if (value != null) {
+                output.writeUTF(value);
+            }
+        }
+
+        /**
+         * @param input
+         *            Stream to read from
+         * @return The value read, which may be null
+         * @throws IOException
+         *             If the value cannot be read
+         */
+        @CheckForNull
+        private static String readNullableUTF(@Nonnull DataInputStream input) throws IOException {
+            return (input.readBoolean() ? input.readUTF() : null);
+        }
+
+    }
+
+    /**
+     * Artifact read from a log file
+     *
+     * @author romeara
+     */
+    @Immutable
+    private static final class StoredArtifact implements IArtifact {
+
+        private final String artifactId;
+
+        private final String latestReleaseId;
+
+        private final List<String> availableReleases;
+
+        /** Built on first use, as many lookups of an artifact only require its latest release */
+        private final Supplier<VersionIndex> versionIndex;
+
+        /**
+         * @param artifactId
+         *            ID of the artifact
+         * @param latestReleaseId
+         *            Release ID for the most recent release of the artifact
+         * @param availableReleases
+         *            IDs of all releases available for the artifact
+         */
+        private StoredArtifact(@Nonnull String artifactId, @Nullable String latestReleaseId, @Nonnull List<String> availableReleases) {
+            this.artifactId = Objects.requireNonNull(artifactId);
+            this.latestReleaseId = latestReleaseId;
+            this.availableReleases = ImmutableList.copyOf(availableReleases);
+            versionIndex = Suppliers.memoize(() -> VersionIndex.of(this.availableReleases));
+        }
+
+        @Override
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        @Override
+        public String getLatestReleaseId() {
+            return latestReleaseId;
+        }
+
+        @Override
+        public Iterable<String> getAvailableReleases() {
+            return availableReleases;
+        }
+
+        @Override
+        public VersionIndex getVersionIndex() {
+            return versionIndex.get();
+        }
+
+    }
+
+    /**
+     * Artifact release read from a log file
+     *
+     * @author romeara
+     */
+    @Immutable
+    private static final class StoredArtifactRelease implements IArtifactRelease {
+
+        private final String artifactId;
+
+        private final String releaseId;
+
+        /**
+         * @param artifactId
+         *            ID of the artifact the release belongs to
+         * @param releaseId
+         *            ID of the release
+         */
+        private StoredArtifactRelease(@Nonnull String artifactId, @Nonnull String releaseId) {
+            this.artifactId = Objects.requireNonNull(artifactId);
+            this.releaseId = Objects.requireNonNull(releaseId);
+        }
+
+        @Override
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        @Override
+        public String getReleaseId() {
+            return releaseId;
+        }
+
+    }
+
+}
@@ -0,0 +1,359 @@
+package com.rsomeara.artifact.repo.versions.cache;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.rsomeara.artifact.repo.versions.type.IArtifact;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRelease;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRepository;
+
+/**
+ * Retains results of lookups against another artifact repository, so repeated lookups of the same artifacts do not
+ * consume remote queries
+ *
+ * <p>
+ * Found artifacts and releases are retained for a longer time than "not found" answers, as new artifacts may be
+ * published at any time. The number of retained results is bounded, and the least recently used results are evicted
+ * first. Concurrent lookups of the same uncached artifact or release wait for a single request to the wrapped
+ * repository. Failed lookups are not retained
+ * </p>
+ *
+ * @author romeara
+ */
+public class CachingArtifactRepository implements IArtifactRepository {
+
+    /** Logger reference to output information to the application log files */
+    private static final Logger logger = LoggerFactory.getLogger(CachingArtifactRepository.class);
+
+    /** Default time found results are retained */
+    private static final long DEFAULT_POSITIVE_TTL_MINUTES = 60;
+
+    /** Default time "not found" results are retained */
+    private static final long DEFAULT_NEGATIVE_TTL_MINUTES = 5;
+
+    /** Default maximum number of retained results */
+    private static final long DEFAULT_MAX_ENTRIES = 10_000;
+
+    /** The repository lookups are delegated to on a cache miss */
+    private final IArtifactRepository repository;
+
+    private final long positiveTtlNanos;
+
+    private final long negativeTtlNanos;
+
+    private final Ticker ticker;
+
+    private final Cache<LookupKey, CachedResult> cache;
+
+    private final AtomicLong requestCount;
+
+    private final AtomicLong missCount;
+
+    /**
+     * @param builder
+     *            Builder which contains the configuration of the cache
+     */
+    private CachingArtifactRepository(@Nonnull Builder builder) {
+        Objects.requireNonNull(builder);
+
+        repository = Objects.requireNonNull(builder.repository);
+        positiveTtlNanos = builder.positiveTtlNanos;
+        negativeTtlNanos = builder.negativeTtlNanos;
+        ticker = builder.ticker;
+
+        // Entries are expired individually on read, as their lifetime depends on the result - the cache removes entries
+        // once even the longest lifetime has passed
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(builder.maxEntries)
+                .expireAfterWrite(Math.max(positiveTtlNanos, negativeTtlNanos), TimeUnit.NANOSECONDS)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+
+        requestCount = new AtomicLong();
+        missCount = new AtomicLong();
+    }
+
+    @Override
+    public Optional<IArtifact> findArtifact(String artifactId) {
+        Objects.requireNonNull(artifactId);
+
+        return get(new LookupKey(LookupKey.Kind.ARTIFACT, artifactId, null), IArtifact.class);
+    }
+
+    @Override
+    public Optional<IArtifactRelease> findSpecifiedArtifactRelease(String artifactId, String releaseId) {
+        Objects.requireNonNull(artifactId);
+        Objects.requireNonNull(releaseId);
+
+        return get(new LookupKey(LookupKey.Kind.SPECIFIED_RELEASE, artifactId, releaseId), IArtifactRelease.class);
+    }
+
+    @Override
+    public Optional<IArtifactRelease> findLatestArtifactRelease(String artifactId) {
+        Objects.requireNonNull(artifactId);
+
+        return get(new LookupKey(LookupKey.Kind.LATEST_RELEASE, artifactId, null), IArtifactRelease.class);
+    }
+
+    /**
+     * Removes all retained results. Statistics are not reset
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return The approximate number of results currently retained
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * @return The number of lookups answered without a request to the wrapped repository, including lookups which
+     *         waited for a concurrent request of the same artifact or release
+     */
+    public long getHitCount() {
+        return requestCount.get() - missCount.get();
+    }
+
+    /**
+     * @return The number of lookups which required a request to the wrapped repository
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return The number of results removed to remain within the configured bounds
+     */
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("repository", repository)
+                .add("size", size())
+                .add("hitCount", getHitCount())
+                .add("missCount", getMissCount())
+                .add("evictionCount", getEvictionCount())
+                .toString();
+    }
+
+    /**
+     * @param key
+     *            Identifies the lookup to perform
+     * @param type
+     *            The type of result the lookup provides
+     * @return The retained result of the lookup if still valid, or the result of a new lookup otherwise
+     */
+    private <T> Optional<T> get(@Nonnull LookupKey key, @Nonnull Class<T> type) {
+        requestCount.incrementAndGet();
+
+        CachedResult cached = cache.getIfPresent(key);
+
+        if (cached == null || cached.isExpired(ticker.read())) {
+            // Remove only the expired result, in case a concurrent lookup has already replaced it
+            if (cached != null) {
+                cache.asMap().remove(key, cached);
+            }
+
+            cached = load(key);
+        }
+
+        return cached.getResult(type);
+    }
+
+    /**
+     * @param key
+     *            Identifies the lookup to perform
+     * @return The result of the lookup, shared with any concurrent lookups of the same key
+     */
+    private CachedResult load(@Nonnull LookupKey key) {
+        try {
+            return cache.get(key, () -> {
+                missCount.incrementAndGet();
+                logger.debug("Cache miss for {}", key);
+
+                Optional<?> result = key.lookup(repository);
+
+                return new CachedResult(result, ticker.read() + (result.isPresent() ? positiveTtlNanos : negativeTtlNanos));
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            // Lookups only throw unchecked exceptions, which are provided to the caller unwrapped
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * @param repository
+     *            The repository to delegate lookups to on a cache miss. Must be safe for concurrent use if the caching
+     *            repository is used concurrently
+     * @return A new builder for a caching repository, with default bounds and lifetimes
+     */
+    public static Builder newBuilder(@Nonnull IArtifactRepository repository) {
+        Objects.requireNonNull(repository);
+
+        return new Builder(repository);
+    }
+
+    /**
+     * The result of a lookup, and the time it is valid until
+     *
+     * @author romeara
+     */
+    private static final class CachedResult {
+
+        private final Optional<?> result;
+
+        /** Ticker time, in nanoseconds, the result expires at */
+        private final long expiresAt;
+
+        /**
+         * @param result
+         *            The result of the lookup
+         * @param expiresAt
+         *            Ticker time, in nanoseconds, the result expires at
+         */
+        private CachedResult(@Nonnull Optional<?> result, long expiresAt) {
+            this.result = Objects.requireNonNull(result);
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * @param now
+         *            The current ticker time, in nanoseconds
+         * @return True if the result should no longer be provided
+         */
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+        /**
+         * @param type
+         *            The type of result the lookup provides
+         * @return The result of the lookup
+         */
+        private <T> Optional<T> getResult(@Nonnull Class<T> type) {
+            return (result.isPresent() ? Optional.of(type.cast(result.get())) : Optional.absent());
+        }
+
+    }
+
+    /**
+     * Allows configuration of the bounds and lifetimes of a caching repository
+     *
+     * @author romeara
+     */
+    public static final class Builder {
+
+        private final IArtifactRepository repository;
+
+        private long positiveTtlNanos;
+
+        private long negativeTtlNanos;
+
+        private long maxEntries;
+
+        private Ticker ticker;
+
+        /**
+         * @param repository
+         *            The repository to delegate lookups to on a cache miss
+         */
+        private Builder(@Nonnull IArtifactRepository repository) {
+            this.repository = Objects.requireNonNull(repository);
+
+            positiveTtlNanos = TimeUnit.MINUTES.toNanos(DEFAULT_POSITIVE_TTL_MINUTES);
+            negativeTtlNanos = TimeUnit.MINUTES.toNanos(DEFAULT_NEGATIVE_TTL_MINUTES);
+            maxEntries = DEFAULT_MAX_ENTRIES;
+            ticker = Ticker.systemTicker();
+        }
+
+        /**
+         * @param duration
+         *            Time found artifacts and releases are retained. Defaults to one hour
+         * @param unit
+         *            The unit of the duration
+         * @return This builder instance
+         */
+        public Builder positiveTtl(long duration, @Nonnull TimeUnit unit) {
+            Objects.requireNonNull(unit);
+            Preconditions.checkArgument(duration > 0, "Lifetime of found results must be positive");
+
+            positiveTtlNanos = unit.toNanos(duration);
+
+            return this;
+        }
+
+        /**
+         * @param duration
+         *            Time "not found" answers are retained. Defaults to five minutes
+         * @param unit
+         *            The unit of the duration
+         * @return This builder instance
+         */
+        public Builder negativeTtl(long duration, @Nonnull TimeUnit unit) {
+            Objects.requireNonNull(unit);
+            Preconditions.checkArgument(duration > 0, "Lifetime of not found results must be positive");
+
+            negativeTtlNanos = unit.toNanos(duration);
+
+            return this;
+        }
+
+        /**
+         * @param maxEntries
+         *            The maximum number of results to retain. Defaults to 10,000
+         * @return This builder instance
+         */
+        public Builder maxEntries(long maxEntries) {
+            Preconditions.checkArgument(maxEntries > 0, "Cache must be allowed at least one entry");
+
+            this.maxEntries = maxEntries;
+
+            return this;
+        }
+
+        /**
+         * @param ticker
+         *            Source of time used to expire results. Defaults to the system ticker
+         * @return This builder instance
+         */
+        public Builder ticker(@Nonnull Ticker ticker) {
+            this.ticker = Objects.requireNonNull(ticker);
+
+            return this;
+        }
+
+        /**
+         * @return A new caching repository with the configured bounds and lifetimes
+         */
+        public CachingArtifactRepository build() {
+            return new CachingArtifactRepository(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,382 @@
+package com.rsomeara.artifact.repo.versions.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.rsomeara.artifact.repo.versions.type.IArtifact;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRelease;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRepository;
+
+/**
+ * Retains results of lookups against another artifact repository in a file, so they remain available after the
+ * application restarts. Intended to be placed beneath a {@link CachingArtifactRepository}, so frequently used results
+ * are served from memory and the file is read only on startup
+ *
+ * <p>
+ * Results older than their lifetime are still provided, but are refreshed from the wrapped repository in the
+ * background - so a restarted application answers immediately, and catches up with new releases over time. Lookups
+ * with no stored result are performed on the caller's thread. Failed lookups are not stored, and a failure to write the
+ * file does not fail the lookup
+ * </p>
+ *
+ * <p>
+ * Results are appended to the file as they are retrieved. Once most of the file holds replaced results, it is
+ * compacted - see {@link ArtifactLog} for how the file remains consistent if the application stops unexpectedly
+ * </p>
+ *
+ * @author romeara
+ */
+public class DiskCachingArtifactRepository implements IArtifactRepository, Closeable {
+
+    /** Logger reference to output information to the application log files */
+    private static final Logger logger = LoggerFactory.getLogger(DiskCachingArtifactRepository.class);
+
+    /** Default time found results are used before being refreshed */
+    private static final long DEFAULT_POSITIVE_TTL_HOURS = 24;
+
+    /** Default time "not found" results are used before being refreshed */
+    private static final long DEFAULT_NEGATIVE_TTL_HOURS = 1;
+
+    /** The smallest file, in records, which is compacted - smaller files are cheap to read regardless */
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+
+    /** The repository lookups are delegated to when no result is stored, or a stored result is refreshed */
+    private final IArtifactRepository repository;
+
+    private final long positiveTtlMillis;
+
+    private final long negativeTtlMillis;
+
+    private final Clock clock;
+
+    @GuardedBy("records")
+    private final Map<LookupKey, ArtifactLog.Record> records;
+
+    @GuardedBy("records")
+    private final ArtifactLog log;
+
+    /** Set once the file is closed, after which results are no longer stored */
+    @GuardedBy("records")
+    private boolean closed;
+
+    /** Lookups currently being refreshed in the background, so each is refreshed once at a time */
+    private final Set<LookupKey> refreshing;
+
+    private final ExecutorService refreshExecutor;
+
+    /**
+     * @param builder
+     *            Builder which contains the configuration of the repository
+     * @throws IOException
+     *             If the file cannot be read or created
+     */
+    private DiskCachingArtifactRepository(@Nonnull Builder builder) throws IOException {
+        Objects.requireNonNull(builder);
+
+        repository = Objects.requireNonNull(builder.repository);
+        positiveTtlMillis = builder.positiveTtlMillis;
+        negativeTtlMillis = builder.negativeTtlMillis;
+        clock = builder.clock;
+
+        records = Maps.newHashMap();
+        log = ArtifactLog.open(builder.path, records);
+
+        refreshing = ConcurrentHashMap.newKeySet();
+        refreshExecutor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("artifact-cache-refresh-%d").setDaemon(true).build());
+    }
+
+    @Override
+    public Optional<IArtifact> findArtifact(String artifactId) {
+        Objects.requireNonNull(artifactId);
+
+        return get(new LookupKey(LookupKey.Kind.ARTIFACT, artifactId, null), IArtifact.class);
+    }
+
+    @Override
+    public Optional<IArtifactRelease> findSpecifiedArtifactRelease(String artifactId, String releaseId) {
+        Objects.requireNonNull(artifactId);
+        Objects.requireNonNull(releaseId);
+
+        return get(new LookupKey(LookupKey.Kind.SPECIFIED_RELEASE, artifactId, releaseId), IArtifactRelease.class);
+    }
+
+    @Override
+    public Optional<IArtifactRelease> findLatestArtifactRelease(String artifactId) {
+        Objects.requireNonNull(artifactId);
+
+        return get(new LookupKey(LookupKey.Kind.LATEST_RELEASE, artifactId, null), IArtifactRelease.class);
+    }
+
+    /**
+     * @return The number of lookups with a stored result
+     */
+    public int size() {
+        synchronized (records) {
+            return records.size();
+        }
+    }
+
+    /**
+     * Stops background refreshes and closes the file. Refreshes already in progress are completed, but their results
+     * are not stored. Later lookups are delegated to the wrapped repository, and their results are not stored either
+     *
+     * @throws IOException
+     *             If the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        refreshExecutor.shutdown();
+
+        synchronized (records) {
+            if (!closed) {
+                closed = true;
+                log.close();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("repository", repository)
+                .add("size", size())
+                .toString();
+    }
+
+    /**
+     * @param key
+     *            Identifies the lookup to perform
+     * @param type
+     *            The type of result the lookup provides
+     * @return The stored result of the lookup if there is one, or the result of a new lookup otherwise
+     */
+    private <T> Optional<T> get(@Nonnull LookupKey key, @Nonnull Class<T> type) {
+        ArtifactLog.Record record = null;
+
+        synchronized (records) {
+            record = records.get(key);
+        }
+
+        if (record == null) {
+            record = fetch(key);
+        } else if (isStale(record)) {
+            scheduleRefresh(key);
+        }
+
+        Optional<?> result = record.getResult();
+
+        return (result.isPresent() ? Optional.of(type.cast(result.get())) : Optional.absent());
+    }
+
+    /**
+     * @param record
+     *            A stored lookup result
+     * @return True if the result has outlived its lifetime, and should be refreshed
+     */
+    private boolean isStale(@Nonnull ArtifactLog.Record record) {
+        long ttlMillis = (record.getResult().isPresent() ? positiveTtlMillis : negativeTtlMillis);
+
+        return clock.millis() - record.getStoredAtMillis() >= ttlMillis;
+    }
+
+    /**
+     * Performs a lookup against the wrapped repository, and stores the result unless the file has been closed
+     *
+     * @param key
+     *            Identifies the lookup to perform
+     * @return The result of the lookup
+     */
+    @Nonnull
+    private ArtifactLog.Record fetch(@Nonnull LookupKey key) {
+        logger.debug("Retrieving {} from wrapped repository", key);
+
+        ArtifactLog.Record record = new ArtifactLog.Record(key, clock.millis(), key.lookup(repository));
+
+        synchronized (records) {
+            if (closed) {
+                logger.debug("Artifact cache file closed, not storing result for {}", key);
+            } else {
+                store(record);
+            }
+        }
+
+        return record;
+    }
+
+    /**
+     * Retains a result, and appends it to the file
+     *
+     * @param record
+     *            The result to store
+     */
+    @GuardedBy("records")
+    private void store(@Nonnull ArtifactLog.Record record) {
+        records.put(record.getKey(), record);
+
+        try {
+            if (log.isAppendable()) {
+                log.append(record);
+            }
+
+            // A file left with an incomplete record by a failed append is rewritten, rather than appended to
+            if (!log.isAppendable()
+                    || (log.getRecordCount() >= MIN_COMPACTION_RECORDS && log.getRecordCount() > 2 * records.size())) {
+                log.compact(ImmutableList.copyOf(records.values()));
+            }
+        } catch (IOException e) {
+            // The result is still valid for this run of the application
+            logger.warn("Unable to store artifact cache record for " + record.getKey(), e);
+        }
+    }
+
+    /**
+     * Refreshes a stored result in the background, unless a refresh of it is already in progress
+     *
+     * @param key
+     *            Identifies the lookup to refresh
+     */
+    private void scheduleRefresh(@Nonnull LookupKey key) {
+        if (refreshing.add(key)) {
+            try {
+                refreshExecutor.execute(() -> {
+                    try {
+                        fetch(key);
+                    } catch (RuntimeException e) {
+                        logger.warn("Background refresh of " + key + " failed, stored result remains in use", e);
+                    } finally {
+                        refreshing.remove(key);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The repository has been closed
+                refreshing.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @param repository
+     *            The repository to delegate lookups to. Must be safe for concurrent use, as refreshes are performed on
+     *            a background thread
+     * @param path
+     *            Location of the file to store results in. Created if it does not exist
+     * @return A new builder for a disk caching repository, with default lifetimes
+     */
+    public static Builder newBuilder(@Nonnull IArtifactRepository repository, @Nonnull Path path) {
+        Objects.requireNonNull(repository);
+        Objects.requireNonNull(path);
+
+        return new Builder(repository, path);
+    }
+
+    /**
+     * Allows configuration of the file and lifetimes of a disk caching repository
+     *
+     * @author romeara
+     */
+    public static final class Builder {
+
+        private final IArtifactRepository repository;
+
+        private final Path path;
+
+        private long positiveTtlMillis;
+
+        private long negativeTtlMillis;
+
+        private Clock clock;
+
+        /**
+         * @param repository
+         *            The repository to delegate lookups to
+         * @param path
+         *            Location of the file to store results in
+         */
+        private Builder(@Nonnull IArtifactRepository repository, @Nonnull Path path) {
+            this.repository = Objects.requireNonNull(repository);
+            this.path = Objects.requireNonNull(path);
+
+            positiveTtlMillis = TimeUnit.HOURS.toMillis(DEFAULT_POSITIVE_TTL_HOURS);
+            negativeTtlMillis = TimeUnit.HOURS.toMillis(DEFAULT_NEGATIVE_TTL_HOURS);
+            clock = Clock.systemUTC();
+        }
+
+        /**
+         * @param duration
+         *            Time found artifacts and releases are used before being refreshed. Defaults to one day
+         * @param unit
+         *            The unit of the duration
+         * @return This builder instance
+         */
+        public Builder positiveTtl(long duration, @Nonnull TimeUnit unit) {
+            Objects.requireNonNull(unit);
+            Preconditions.checkArgument(duration > 0, "Lifetime of found results must be positive");
+
+            positiveTtlMillis = unit.toMillis(duration);
+
+            return this;
+        }
+
+        /**
+         * @param duration
+         *            Time "not found" answers are used before being refreshed. Defaults to one hour
+         * @param unit
+         *            The unit of the duration
+         * @return This builder instance
+         */
+        public Builder negativeTtl(long duration, @Nonnull TimeUnit unit) {
+            Objects.requireNonNull(unit);
+            Preconditions.checkArgument(duration > 0, "Lifetime of not found results must be positive");
+
+            negativeTtlMillis = unit.toMillis(duration);
+
+            return this;
+        }
+
+        /**
+         * @param clock
+         *            Source of the time results are stored at, which is retained across restarts. Defaults to the
+         *            system clock
+         * @return This builder instance
+         */
+        public Builder clock(@Nonnull Clock clock) {
+            this.clock = Objects.requireNonNull(clock);
+
+            return this;
+        }
+
+        /**
+         * @return A new disk caching repository, populated from the file if it exists
+         * @throws IOException
+         *             If the file cannot be read or created
+         */
+        public DiskCachingArtifactRepository build() throws IOException {
+            return new DiskCachingArtifactRepository(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.rsomeara.artifact.repo.versions.cache;
+
+import java.util.Objects;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRepository;
+
+/**
+ * Identifies a lookup against an artifact repository, so its result may be retained
+ *
+ * @author romeara
+ */
+final class LookupKey {
+
+    /**
+     * Types of lookup supported by artifact repositories
+     *
+     * @author romeara
+     */
+    enum Kind {
+        ARTIFACT,
+        SPECIFIED_RELEASE,
+        LATEST_RELEASE;
+    }
+
+    private final Kind kind;
+
+    private final String artifactId;
+
+    private final String releaseId;
+
+    /**
+     * @param kind
+     *            The type of lookup
+     * @param artifactId
+     *            ID of the artifact
+     * @param releaseId
+     *            ID of the release, if the lookup is for a specified release
+     */
+    LookupKey(@Nonnull Kind kind, @Nonnull String artifactId, @Nullable String releaseId) {
+        this.kind = Objects.requireNonNull(kind);
+        this.artifactId = Objects.requireNonNull(artifactId);
+        this.releaseId = releaseId;
+    }
+
+    /**
+     * @return The type of lookup
+     */
+    @Nonnull
+    Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return ID of the artifact
+     */
+    @Nonnull
+    String getArtifactId() {
+        return artifactId;
+    }
+
+    /**
+     * @return ID of the release, if the lookup is for a specified release
+     */
+    @CheckForNull
+    String getReleaseId() {
+        return releaseId;
+    }
+
+    /**
+     * @param repository
+     *            Repository to perform the lookup against
+     * @return The result of the lookup
+     */
+    @Nonnull
+    Optional<?> lookup(@Nonnull IArtifactRepository repository) {
+        Optional<?> result = null;
+
+        switch (kind) {
+        case ARTIFACT:
+            result = repository.findArtifact(artifactId);
+            break;
+        case SPECIFIED_RELEASE:
+            result = repository.findSpecifiedArtifactRelease(artifactId, releaseId);
+            break;
+        case LATEST_RELEASE:
+            result = repository.findLatestArtifactRelease(artifactId);
+            break;
+        default:
+            throw new IllegalStateException("Unsupported lookup type " + kind);
+        }
+
+        return Objects.requireNonNull(result);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, artifactId, releaseId);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        boolean result = false;
+
+        if (this == obj) {
+            result = true;
+        } else if (obj instanceof LookupKey) {
+            LookupKey compare = (LookupKey) obj;
+
+            result = Objects.equals(compare.kind, kind)
+                    && Objects.equals(compare.artifactId, artifactId)
+                    && Objects.equals(compare.releaseId, releaseId);
+        }
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .omitNullValues()
+                .add("kind", kind)
+                .add("artifactId", artifactId)
+                .add("releaseId", releaseId)
+                .toString();
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.rsomeara.artifact.repo.versions.exception;
+
+/**
+ * Represents a lookup which was not performed because the remote repository's query allowance has been used
+ *
+ * @author romeara
+ */
+public class QueryLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param message
+     *            Description of the exact issue encountered
+     */
+    public QueryLimitExceededException(String message) {
+        super(message);
+    }
+
+}
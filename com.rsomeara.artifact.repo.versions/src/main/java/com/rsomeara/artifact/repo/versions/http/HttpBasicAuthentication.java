@@ -2,11 +2,18 @@ package com.rsomeara.artifact.repo.versions.http;
 
 import java.io.IOException;
 import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
 import javax.security.auth.callback.Callback;
 import javax.security.auth.callback.CallbackHandler;
 import javax.security.auth.callback.NameCallback;
@@ -20,8 +27,15 @@ import com.rsomeara.artifact.repo.versions.exception.AuthenticationException;
 /**
  * Handles addition of HTTP basic authentication information to a connection
  *
+ * <p>
+ * Credentials are requested from the callback handler once, and the encoded header value is retained for later
+ * connections - a single instance should be used for all connections to a service. The password is cleared once
+ * encoded. If the service rejects the credentials, {@link #invalidate(String)} causes them to be requested again
+ * </p>
+ *
  * @author romeara
  */
+@ThreadSafe
 public class HttpBasicAuthentication {
 
     /** Constant which prefixes the HTTP basic authentication value */
@@ -29,10 +43,15 @@ public class HttpBasicAuthentication {
 
     private final CallbackHandler callbackHandler;
 
+    @GuardedBy("this")
     private final NameCallback nameCallback;
 
+    @GuardedBy("this")
     private final PasswordCallback passwordCallback;
 
+    /** The encoded "Authorization" header value, or null if credentials have not been requested */
+    private final AtomicReference<String> authorizationValue;
+
     /**
      * @param callbackHandler
      *            Handler which can populate username and password information when a request is made
@@ -57,6 +76,8 @@ public class HttpBasicAuthentication {
         this.callbackHandler = callbackHandler;
         this.nameCallback = nameCallback;
         this.passwordCallback = passwordCallback;
+
+        authorizationValue = new AtomicReference<>();
     }
 
     /**
@@ -73,19 +94,70 @@ public class HttpBasicAuthentication {
     public <T extends URLConnection> T applyAuthentication(@Nonnull T connection) throws AuthenticationException {
         Objects.requireNonNull(connection);
 
-        String encoded = getEncodedAuthenticationValue();
-
-        connection.addRequestProperty(HttpHeaders.AUTHORIZATION, BASIC_AUTH + encoded);
+        connection.setRequestProperty(HttpHeaders.AUTHORIZATION, getAuthorizationValue());
 
         return connection;
     }
 
+    /**
+     * @return The value of the "Authorization" header for the credentials, requesting them if they have not been
+     *         requested since creation or invalidation
+     * @throws AuthenticationException
+     *             If there is an issue obtaining authentication information. (Required callbacks not supported by
+     *             handler, IO issue with handler, any authentication information is not filled in by handler)
+     */
+    @Nonnull
+    public String getAuthorizationValue() throws AuthenticationException {
+        String result = authorizationValue.get();
+
+        if (result == null) {
+            result = resolveAuthorizationValue();
+        }
+
+        return result;
+    }
+
+    /**
+     * Discards retained credentials which the service has rejected, so they are requested again for the next
+     * connection. Has no effect if the credentials have already been replaced, so concurrent rejections of the same
+     * credentials cause a single new request
+     *
+     * @param rejectedValue
+     *            The "Authorization" header value the service rejected, as provided by {@link #getAuthorizationValue()}
+     * @return True if the retained credentials were discarded
+     */
+    public boolean invalidate(@Nonnull String rejectedValue) {
+        Objects.requireNonNull(rejectedValue);
+
+        return authorizationValue.compareAndSet(rejectedValue, null);
+    }
+
+    /**
+     * Requests credentials from the callback handler, unless a concurrent caller already has, and retains their encoding
+     *
+     * @return The value of the "Authorization" header for the credentials
+     * @throws AuthenticationException
+     *             If there is an issue obtaining authentication information
+     */
+    private synchronized String resolveAuthorizationValue() throws AuthenticationException {
+        String result = authorizationValue.get();
+
+        if (result == null) {
+            result = BASIC_AUTH + getEncodedAuthenticationValue();
+
+            authorizationValue.set(result);
+        }
+
+        return result;
+    }
+
     /**
      * @return The string value to put in the connection's parameters for authentication
      * @throws AuthenticationException
      *             If there is an issue obtaining authentication information. (Required callbacks not supported by
      *             handler, IO issue with handler, any authentication information is not filled in by handler)
      */
+    @GuardedBy("this")
     private String getEncodedAuthenticationValue() throws AuthenticationException {
         List<Callback> callbacks = Lists.newLinkedList();
 
@@ -107,8 +179,6 @@ public class HttpBasicAuthentication {
             }
         }
 
-        StringBuilder authenticationBuilder = new StringBuilder();
-
         String username = nameCallback.getName();
         char[] password = passwordCallback.getPassword();
 
@@ -118,8 +188,26 @@ public class HttpBasicAuthentication {
             throw new AuthenticationException("Callback handler did not populate PasswordCallback");
         }
 
-        authenticationBuilder.append(username).append(':').append(new String(password));
-
-        return Base64.getEncoder().encodeToString(authenticationBuilder.toString().getBytes());
+        // Encoded without creating strings of the password, so every copy of it may be cleared
+        char[] credentials = new char[username.length() + 1 + password.length];
+        username.getChars(0, username.length(), credentials, 0);
+        credentials[username.length()] = ':';
+        System.arraycopy(password, 0, credentials, username.length() + 1, password.length);
+
+        ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(credentials));
+
+        try {
+            return StandardCharsets.US_ASCII.decode(Base64.getEncoder().encode(encoded)).toString();
+        } finally {
+            Arrays.fill(credentials, '\0');
+            Arrays.fill(password, '\0');
+            Arrays.fill(encoded.array(), (byte) 0);
+
+            // Requested again if these credentials are invalidated. Clearing overwrites the password but retains it, so
+            // it is also removed
+            passwordCallback.clearPassword();
+            passwordCallback.setPassword(null);
+            nameCallback.setName(null);
+        }
     }
 }
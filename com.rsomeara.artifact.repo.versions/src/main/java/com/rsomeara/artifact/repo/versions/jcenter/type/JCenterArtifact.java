@@ -1,17 +1,21 @@
 package com.rsomeara.artifact.repo.versions.jcenter.type;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
-import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.Lists;
 import com.rsomeara.artifact.repo.versions.type.AbstractContentHandler;
 import com.rsomeara.artifact.repo.versions.type.IArtifact;
+import com.rsomeara.artifact.repo.versions.type.PooledJsonParser;
+import com.rsomeara.artifact.repo.versions.type.VersionIndex;
 
 /**
  * Representation of an artifact retrieved from a JCenter/BinTray repository. Handles converting from return of
@@ -26,12 +30,18 @@ import com.rsomeara.artifact.repo.versions.type.IArtifact;
  */
 public class JCenterArtifact implements IArtifact {
 
+    /** Content handlers are reset for each document, so one is retained per parsing thread */
+    private static final ThreadLocal<JsonContentHandler> HANDLERS = ThreadLocal.withInitial(JsonContentHandler::new);
+
     private final String artifactId;
 
     private final String latestReleaseId;
 
     private final Iterable<String> availableReleases;
 
+    /** Built on first use, as many lookups of an artifact only require its latest release */
+    private final Supplier<VersionIndex> versionIndex;
+
     /**
      * @param json
      *            Content handler which has traversed returned JSON and found interesting data entries
@@ -42,6 +52,7 @@ public class JCenterArtifact implements IArtifact {
         artifactId = json.getArtifactId();
         latestReleaseId = json.getLatestReleaseId();
         availableReleases = (json.getAvailableReleases() != null ? json.getAvailableReleases() : Collections.EMPTY_LIST);
+        versionIndex = Suppliers.memoize(() -> VersionIndex.of(availableReleases));
     }
 
     @Override
@@ -59,6 +70,11 @@ public class JCenterArtifact implements IArtifact {
         return availableReleases;
     }
 
+    @Override
+    public VersionIndex getVersionIndex() {
+        return versionIndex.get();
+    }
+
     // TODO Object methods
 
     /**
@@ -74,21 +90,46 @@ public class JCenterArtifact implements IArtifact {
      *         expected patterns
      */
     public static IArtifact create(Reader json) {
-        IArtifact result = null;
-
-        JsonContentHandler contentHandler = new JsonContentHandler();
-        JSONParser parser = new JSONParser();
-
         try {
-            parser.parse(json, contentHandler, false);
+            return create(PooledJsonParser.parse(json, HANDLERS.get()));
+        } catch (IOException | ParseException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
-            // If no artifact ID, we didn't get the expected JSON back - got a "no such artifact" message
-            if (contentHandler.getArtifactId() != null) {
-                result = new JCenterArtifact(contentHandler);
-            }
+    /**
+     * Creates an artifact representation from UTF-8 encoded JSON retrieved from JCenter/BinTray APIs. Reading stops
+     * once all values of interest have been found, so the stream may not be read to its end
+     * <p>
+     * See <a href="https://bintray.com/docs/api/#_get_package">API documentation</a> for a full description of API use
+     * expected
+     * </p>
+     *
+     * @param json
+     *            Stream of the JSON read from JCenter/BinTray. Not closed by this method
+     * @return An artifact representation from the provided JSON, or null if the representation provided did not meet
+     *         expected patterns
+     */
+    public static IArtifact create(InputStream json) {
+        try {
+            return create(PooledJsonParser.parse(json, HANDLERS.get()));
         } catch (IOException | ParseException e) {
             throw new RuntimeException(e);
         }
+    }
+
+    /**
+     * @param contentHandler
+     *            Content handler which has traversed returned JSON
+     * @return An artifact representation from the handler's values, or null if the JSON did not meet expected patterns
+     */
+    private static IArtifact create(JsonContentHandler contentHandler) {
+        IArtifact result = null;
+
+        // If no artifact ID, we didn't get the expected JSON back - got a "no such artifact" message
+        if (contentHandler.getArtifactId() != null) {
+            result = new JCenterArtifact(contentHandler);
+        }
 
         return result;
     }
@@ -113,6 +154,16 @@ public class JCenterArtifact implements IArtifact {
 
         private List<String> availableReleases = null;
 
+        @Override
+        protected void reset() {
+            super.reset();
+
+            // Artifacts retain the list of releases read, so a new list is created for each document rather than cleared
+            artifactId = null;
+            latestReleaseId = null;
+            availableReleases = null;
+        }
+
         /**
          * @return The artifact ID read
          */
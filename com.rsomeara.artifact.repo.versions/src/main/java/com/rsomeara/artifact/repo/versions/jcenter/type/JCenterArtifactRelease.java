@@ -1,14 +1,15 @@
 package com.rsomeara.artifact.repo.versions.jcenter.type;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.util.Objects;
 
-import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
 import com.rsomeara.artifact.repo.versions.type.AbstractContentHandler;
 import com.rsomeara.artifact.repo.versions.type.IArtifactRelease;
+import com.rsomeara.artifact.repo.versions.type.PooledJsonParser;
 
 /**
  * Representation of an artifact release retrieved from a JCenter/BinTray repository. Handles converting from return of
@@ -23,6 +24,9 @@ import com.rsomeara.artifact.repo.versions.type.IArtifactRelease;
  */
 public class JCenterArtifactRelease implements IArtifactRelease {
 
+    /** Content handlers are reset for each document, so one is retained per parsing thread */
+    private static final ThreadLocal<JsonContentHandler> HANDLERS = ThreadLocal.withInitial(JsonContentHandler::new);
+
     private final String artifactId;
 
     private final String releaseId;
@@ -62,21 +66,47 @@ public class JCenterArtifactRelease implements IArtifactRelease {
      *         meet expected patterns
      */
     public static IArtifactRelease create(Reader json) {
-        IArtifactRelease result = null;
-
-        JsonContentHandler contentHandler = new JsonContentHandler();
-        JSONParser parser = new JSONParser();
-
         try {
-            parser.parse(json, contentHandler, false);
+            return create(PooledJsonParser.parse(json, HANDLERS.get()));
+        } catch (IOException | ParseException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
-            // If no artifact ID, we didn't get the expected JSON back - got a "no such version" message
-            if (contentHandler.getArtifactId() != null && contentHandler.getReleaseId() != null) {
-                result = new JCenterArtifactRelease(contentHandler);
-            }
+    /**
+     * Creates an artifact release representation from UTF-8 encoded JSON retrieved from JCenter/BinTray APIs. Reading
+     * stops once all values of interest have been found, so the stream may not be read to its end
+     * <p>
+     * See <a href="https://bintray.com/docs/api/#_get_version">API documentation</a> for a full description of API use
+     * expected
+     * </p>
+     *
+     * @param json
+     *            Stream of the JSON read from JCenter/BinTray. Not closed by this method
+     * @return An artifact release representation from the provided JSON, or null if the representation provided did not
+     *         meet expected patterns
+     */
+    public static IArtifactRelease create(InputStream json) {
+        try {
+            return create(PooledJsonParser.parse(json, HANDLERS.get()));
         } catch (IOException | ParseException e) {
             throw new RuntimeException(e);
         }
+    }
+
+    /**
+     * @param contentHandler
+     *            Content handler which has traversed returned JSON
+     * @return An artifact release representation from the handler's values, or null if the JSON did not meet expected
+     *         patterns
+     */
+    private static IArtifactRelease create(JsonContentHandler contentHandler) {
+        IArtifactRelease result = null;
+
+        // If no artifact ID, we didn't get the expected JSON back - got a "no such version" message
+        if (contentHandler.getArtifactId() != null && contentHandler.getReleaseId() != null) {
+            result = new JCenterArtifactRelease(contentHandler);
+        }
 
         return result;
     }
@@ -97,6 +127,14 @@ public class JCenterArtifactRelease implements IArtifactRelease {
 
         private String releaseId = null;
 
+        @Override
+        protected void reset() {
+            super.reset();
+
+            artifactId = null;
+            releaseId = null;
+        }
+
         /**
          * @return The artifact ID read
          */
@@ -2,12 +2,19 @@ package com.rsomeara.artifact.repo.versions.jcenter.type;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.security.auth.callback.Callback;
 import javax.security.auth.callback.CallbackHandler;
 import javax.security.auth.callback.NameCallback;
@@ -20,7 +27,13 @@ import org.slf4j.LoggerFactory;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.HttpHeaders;
 import com.rsomeara.artifact.repo.versions.exception.AuthenticationException;
+import com.rsomeara.artifact.repo.versions.exception.QueryLimitExceededException;
 import com.rsomeara.artifact.repo.versions.http.HttpBasicAuthentication;
 import com.rsomeara.artifact.repo.versions.type.IArtifact;
 import com.rsomeara.artifact.repo.versions.type.IArtifactRelease;
@@ -34,6 +47,25 @@ import com.rsomeara.artifact.repo.versions.type.IArtifactRepository;
  * BinTray API documentation can be found <a href="https://bintray.com/docs/api/">here</a>
  * </p>
  *
+ * <p>
+ * Instances are safe for concurrent use, and may be wrapped by an
+ * {@link com.rsomeara.artifact.repo.versions.async.AsyncArtifactRepository} to perform many lookups at once
+ * </p>
+ *
+ * <p>
+ * Small unread remainders of responses are consumed, so the underlying connection is returned to the JDK's keep-alive
+ * pool and reused by later lookups against the same host. The validators (ETag and Last-Modified) of recent responses are retained with
+ * their parsed results, and sent with later lookups of the same resource - an unchanged resource is answered with
+ * "304 Not Modified" and no body, and the retained result is provided without parsing
+ * </p>
+ *
+ * <p>
+ * Queries are limited by the daily allowance BinTray reports on each response. Once little of the allowance remains,
+ * lookups with a retained result are answered from it without a query, saving the remainder for new lookups. Lookups
+ * which cannot be answered once the allowance is used wait for it to refill, up to a configured time, then fail with a
+ * {@link QueryLimitExceededException}
+ * </p>
+ *
  * @author romeara
  */
 public class JCenterArtifactRepository implements IArtifactRepository {
@@ -59,54 +91,81 @@ public class JCenterArtifactRepository implements IArtifactRepository {
      */
     private static final String BINTRAY_REST_API_URL = "https://bintray.com/api/v1/";
 
+    /** Default time allowed to establish a connection */
+    private static final long DEFAULT_CONNECT_TIMEOUT_SECONDS = 10;
+
+    /** Default time allowed between reads of response data */
+    private static final long DEFAULT_READ_TIMEOUT_SECONDS = 30;
+
+    /** Default maximum number of responses whose validators are retained for conditional requests */
+    private static final long DEFAULT_MAX_VALIDATED_RESPONSES = 10_000;
+
+    /** Default fraction of the daily query allowance reserved for lookups without a retained result */
+    private static final double DEFAULT_QUERY_RESERVE = 0.1;
+
+    /** Status returned by BinTray when the daily query allowance has been used */
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    /**
+     * The most unread response data consumed so a connection may be reused. Beyond this, closing the connection is
+     * cheaper than reading data which will be discarded
+     */
+    private static final long MAX_DRAINED_BYTES = 64 * 1024;
+
     /** The URL of the repository represented by this Java artifact repository instance */
     private final String repositoryUrl;
 
-    /** Callback handler used if username/API-key authentication is required to access necessary APIs */
-    private CallbackHandler callbackHandler;
+    /** Username/API-key authentication applied to APIs which require it, resolved once and shared by all lookups */
+    private final HttpBasicAuthentication authentication;
+
+    private final int connectTimeoutMillis;
+
+    private final int readTimeoutMillis;
+
+    /** Validators and parsed results of recent responses, keyed by URL */
+    private final Cache<String, ValidatedResponse> validatedResponses;
+
+    /** The number of lookups answered by the server as unchanged */
+    private final AtomicLong notModifiedCount;
+
+    /** Estimate of the daily query allowance remaining */
+    private final QueryBudget queryBudget;
+
+    private final long maxQueryWaitMillis;
+
+    /** The number of lookups answered from retained results to conserve the query allowance */
+    private final AtomicLong deferredCount;
 
     /**
-     * @param organization
-     *            Key of the BinTray organization which owns the represented repository
-     * @param repository
-     *            Key of the repository to represent
-     * @param callbackHandler
-     *            Callback handler which handles getting any credentials required. Only used for version-specific
-     *            lookups
+     * @param builder
+     *            Builder which contains the location and configuration of the repository
      */
-    private JCenterArtifactRepository(@Nonnull String organization, @Nonnull String repository, @Nonnull CallbackHandler callbackHandler) {
-        Preconditions.checkArgument(!Strings.isNullOrEmpty(organization) && !organization.trim().isEmpty());
-        Preconditions.checkArgument(!Strings.isNullOrEmpty(repository) && !repository.trim().isEmpty());
-        Objects.requireNonNull(callbackHandler);
+    private JCenterArtifactRepository(@Nonnull Builder builder) {
+        Objects.requireNonNull(builder);
 
-        this.callbackHandler = callbackHandler;
-        repositoryUrl = new StringBuilder(BINTRAY_REST_API_URL)
+        authentication = new HttpBasicAuthentication(Objects.requireNonNull(builder.callbackHandler),
+                new NameCallback("Username: "), new PasswordCallback("API Key: ", false));
+        repositoryUrl = new StringBuilder(builder.baseUrl)
                 .append("packages/")
-                .append(organization).append('/')
-                .append(repository).append('/').toString();
+                .append(builder.organization).append('/')
+                .append(builder.repository).append('/').toString();
+
+        connectTimeoutMillis = builder.connectTimeoutMillis;
+        readTimeoutMillis = builder.readTimeoutMillis;
+        validatedResponses = CacheBuilder.newBuilder()
+                .maximumSize(builder.maxValidatedResponses)
+                .build();
+        notModifiedCount = new AtomicLong();
+        queryBudget = new QueryBudget(builder.queryReserve, builder.ticker);
+        maxQueryWaitMillis = builder.maxQueryWaitMillis;
+        deferredCount = new AtomicLong();
     }
 
     @Override
     public Optional<IArtifact> findArtifact(String artifactId) {
-        IArtifact artifact = null;
-
         String artifactUrl = new StringBuilder(repositoryUrl).append(artifactId).toString();
 
-        logger.trace("Attempting connection to BinTray APIs at {}", artifactUrl);
-
-        try {
-            URLConnection connection = new URL(artifactUrl).openConnection();
-
-            try (InputStreamReader reader = new InputStreamReader(connection.getInputStream())) {
-                artifact = JCenterArtifact.create(reader);
-            }
-
-            logQueryLimits(connection);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-
-        return Optional.fromNullable(artifact);
+        return request(artifactUrl, false, JCenterArtifact::create);
     }
 
     @Override
@@ -119,6 +178,36 @@ public class JCenterArtifactRepository implements IArtifactRepository {
         return findArtifactVersion(artifactId, LATEST_VERSION_KEY);
     }
 
+    /**
+     * @return The number of lookups answered by the server as unchanged since a previous lookup, which were provided
+     *         from previously parsed results
+     */
+    public long getNotModifiedCount() {
+        return notModifiedCount.get();
+    }
+
+    /**
+     * @return The estimated number of queries remaining of the daily allowance, or -1 if BinTray has not yet reported
+     *         its limits
+     */
+    public long getRemainingQueries() {
+        return queryBudget.getRemaining();
+    }
+
+    /**
+     * @return The daily query allowance last reported by BinTray, or -1 if it has not yet been reported
+     */
+    public long getQueryLimit() {
+        return queryBudget.getLimit();
+    }
+
+    /**
+     * @return The number of lookups answered from a retained result without a query, to conserve the daily allowance
+     */
+    public long getDeferredCount() {
+        return deferredCount.get();
+    }
+
     /**
      * Looks up an artifact version using a BinTray version ID
      *
@@ -130,42 +219,244 @@ public class JCenterArtifactRepository implements IArtifactRepository {
      * @return A representation of an artifact release, if one was found with the given identifiers
      */
     private Optional<IArtifactRelease> findArtifactVersion(String artifactId, String releaseId) {
-        IArtifactRelease release = null;
-
         String releaseUrl = new StringBuilder(repositoryUrl).append(artifactId).append('/').append("versions/").append(releaseId).toString();
 
-        logger.trace("Attempting connection to BinTray APIs at {}", releaseUrl);
+        return request(releaseUrl, true, JCenterArtifactRelease::create);
+    }
+
+    /**
+     * Performs a request against the BinTray APIs, if permitted by the daily query allowance. Once little of the
+     * allowance remains, a retained result for the same resource is provided instead
+     *
+     * @param url
+     *            Location of the resource to request
+     * @param authenticate
+     *            True if the API requires authentication
+     * @param parser
+     *            Function which reads the UTF-8 response body, providing null if it does not describe the expected
+     *            resource. Need not read the body to its end
+     * @return The parsed response, or an absent optional if the resource was not found
+     * @throws QueryLimitExceededException
+     *             If the allowance has been used, and there is no retained result for the resource
+     */
+    private <T> Optional<T> request(@Nonnull String url, boolean authenticate, @Nonnull Function<InputStream, T> parser) {
+        Optional<T> result = null;
+        ValidatedResponse validated = validatedResponses.getIfPresent(url);
+
+        if (queryBudget.tryAcquire(validated != null)) {
+            result = query(url, authenticate, parser, validated, true);
+        } else if (validated != null) {
+            logger.debug("Query allowance low, using previously parsed response for {}", url);
+            deferredCount.incrementAndGet();
+
+            result = validated.getResult();
+        } else {
+            awaitQuery(url);
+
+            result = query(url, authenticate, parser, validated, true);
+        }
+
+        return result;
+    }
+
+    /**
+     * Performs a request against the BinTray APIs, conditional on any retained validators for the same resource
+     *
+     * @param url
+     *            Location of the resource to request
+     * @param authenticate
+     *            True if the API requires authentication
+     * @param parser
+     *            Function which reads the UTF-8 response body, providing null if it does not describe the expected
+     *            resource. Need not read the body to its end
+     * @param validated
+     *            Retained validators and result for the resource, if any
+     * @param retryUnauthorized
+     *            True if the request should be repeated with newly requested credentials if the credentials used are
+     *            rejected. The repeated request requires a further query of the allowance
+     * @return The parsed response, or an absent optional if the resource was not found
+     * @throws QueryLimitExceededException
+     *             If the allowance does not permit a repeated request
+     */
+    private <T> Optional<T> query(@Nonnull String url, boolean authenticate, @Nonnull Function<InputStream, T> parser, @Nullable ValidatedResponse validated,
+            boolean retryUnauthorized) {
+        Optional<T> result = Optional.absent();
+
+        logger.trace("Attempting connection to BinTray APIs at {}", url);
 
         try {
-            URLConnection connection = new URL(releaseUrl).openConnection();
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(connectTimeoutMillis);
+            connection.setReadTimeout(readTimeoutMillis);
+            connection.setUseCaches(false);
 
-            HttpBasicAuthentication authentication = new HttpBasicAuthentication(callbackHandler,
-                    new NameCallback("Username: "), new PasswordCallback("API Key: ", false));
-            connection = authentication.applyAuthentication(connection);
+            String authorization = null;
 
-            try (InputStreamReader reader = new InputStreamReader(connection.getInputStream())) {
-                release = JCenterArtifactRelease.create(reader);
+            if (authenticate) {
+                // Retained by the authentication, so credentials are only requested and encoded once
+                authorization = authentication.getAuthorizationValue();
+                connection.setRequestProperty(HttpHeaders.AUTHORIZATION, authorization);
             }
 
-            logQueryLimits(connection);
+            if (validated != null) {
+                validated.applyValidators(connection);
+            }
+
+            int status = connection.getResponseCode();
+
+            updateQueryLimits(connection);
+
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && validated != null) {
+                logger.trace("{} not modified, using previously parsed response", url);
+                notModifiedCount.incrementAndGet();
+
+                result = validated.getResult();
+                drain(connection.getInputStream());
+            } else if (status == HttpURLConnection.HTTP_OK) {
+                InputStream body = connection.getInputStream();
+                boolean consumed = false;
+
+                try {
+                    result = Optional.fromNullable(parser.apply(body));
+
+                    // The parser may stop before the end of the body, which must be consumed for the connection to be
+                    // reused
+                    consumed = drain(body, MAX_DRAINED_BYTES);
+                } finally {
+                    if (consumed) {
+                        body.close();
+                    } else {
+                        // Discard the connection rather than reading a large remainder, or one left unusable by a failure.
+                        // The JDK may still keep the connection if it can drain the remainder itself, without this thread
+                        logger.trace("Closing connection to {} with unread response data", url);
+                        connection.disconnect();
+                    }
+                }
+
+                retainValidators(url, connection, result);
+            } else if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+                drain(connection.getErrorStream());
+            } else if (status == HttpURLConnection.HTTP_UNAUTHORIZED && authorization != null) {
+                drain(connection.getErrorStream());
+                authentication.invalidate(authorization);
+
+                if (!retryUnauthorized) {
+                    throw new AuthenticationException("BinTray rejected the provided username and API key for " + url);
+                }
+
+                logger.debug("Credentials rejected for {}, retrying with new credentials", url);
+
+                // The rejected request was counted against the allowance, so the retry is a further query
+                awaitQuery(url);
+                result = query(url, authenticate, parser, validated, false);
+            } else if (status == HTTP_TOO_MANY_REQUESTS) {
+                drain(connection.getErrorStream());
+                queryBudget.exhausted();
+
+                throw new QueryLimitExceededException("BinTray daily query allowance used, unable to request " + url);
+            } else {
+                drain(connection.getErrorStream());
+
+                throw new IOException("Unexpected response " + status + " from " + url);
+            }
         } catch (IOException | AuthenticationException e) {
             throw new RuntimeException(e);
         }
 
-        return Optional.fromNullable(release);
+        return result;
+    }
+
+    /**
+     * Retains the validators of a response, if the server provided any
+     *
+     * @param url
+     *            Location of the requested resource
+     * @param connection
+     *            Connection the response was read from
+     * @param result
+     *            The parsed response
+     */
+    private void retainValidators(@Nonnull String url, @Nonnull URLConnection connection, @Nonnull Optional<?> result) {
+        String entityTag = connection.getHeaderField(HttpHeaders.ETAG);
+        String lastModified = connection.getHeaderField(HttpHeaders.LAST_MODIFIED);
+
+        if (entityTag != null || lastModified != null) {
+            validatedResponses.put(url, new ValidatedResponse(entityTag, lastModified, result));
+        } else {
+            validatedResponses.invalidate(url);
+        }
     }
 
     /**
-     * Logs any returned query limit information to the console
+     * Reads and discards the remainder of a response body, then closes it
+     *
+     * @param body
+     *            Response body to consume. May be null if there is no body
+     * @throws IOException
+     *             If the body cannot be read
+     */
+    private static void drain(@Nullable InputStream body) throws IOException {
+        if (body != null) {
+            try (InputStream stream = body) {
+                ByteStreams.copy(stream, ByteStreams.nullOutputStream());
+            }
+        }
+    }
+
+    /**
+     * Reads and discards a bounded remainder of a response body
+     *
+     * @param body
+     *            Response body to consume
+     * @param limit
+     *            The most bytes to read
+     * @return True if the end of the body was reached, false if more than the limit remained
+     * @throws IOException
+     *             If the body cannot be read
+     */
+    private static boolean drain(@Nonnull InputStream body, long limit) throws IOException {
+        return ByteStreams.copy(ByteStreams.limit(body, limit + 1), ByteStreams.nullOutputStream()) <= limit;
+    }
+
+    /**
+     * Waits for the daily query allowance to permit a query which cannot be answered from a retained result
+     *
+     * @param url
+     *            Location of the resource to request
+     * @throws QueryLimitExceededException
+     *             If no query is permitted within the configured wait
+     */
+    private void awaitQuery(@Nonnull String url) {
+        boolean acquired = false;
+
+        try {
+            acquired = queryBudget.acquire(maxQueryWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!acquired) {
+            throw new QueryLimitExceededException("BinTray daily query allowance used, unable to request " + url);
+        }
+    }
+
+    /**
+     * Updates the estimated query allowance from any returned query limit information, and logs it to the console
      *
      * @param usedConnection
      *            The connection used to make a query
      */
-    private void logQueryLimits(URLConnection usedConnection) {
+    private void updateQueryLimits(URLConnection usedConnection) {
         String maximumQueries = usedConnection.getHeaderField(MAXIMUM_DAILY_QUERIES_HEADER);
         String remainingQueries = usedConnection.getHeaderField(REMAINING_DAILY_QUERIES_HEADER);
 
         if (maximumQueries != null && remainingQueries != null) {
+            try {
+                queryBudget.update(Long.parseLong(maximumQueries.trim()), Long.parseLong(remainingQueries.trim()));
+            } catch (IllegalArgumentException e) {
+                logger.debug("Unreadable rate limit information returned by remote call", e);
+            }
+
             logger.warn("{} daily queries to JCenter APIs remaining of {}", remainingQueries, maximumQueries);
         } else {
             logger.debug("No rate limit information returned by remote call");
@@ -182,7 +473,7 @@ public class JCenterArtifactRepository implements IArtifactRepository {
      * @return Representation of the artifact repository at the given location
      */
     public static IArtifactRepository create(@Nonnull String organization, @Nonnull String repository) {
-        return new JCenterArtifactRepository(organization, repository, new AuthenticationCallback());
+        return newBuilder(organization, repository).build();
     }
 
     /**
@@ -198,42 +489,281 @@ public class JCenterArtifactRepository implements IArtifactRepository {
      * @return Representation of the artifact repository at the given location
      */
     public static IArtifactRepository create(@Nonnull String organization, @Nonnull String repository, @Nonnull CallbackHandler callbackHandler) {
-        return new JCenterArtifactRepository(organization, repository, callbackHandler);
+        return newBuilder(organization, repository).callbackHandler(callbackHandler).build();
     }
 
     /**
-     * Basic callback handler which prompts the user for authentication information via the console each run
+     * @param organization
+     *            Key of the BinTray organization which owns the represented repository
+     * @param repository
+     *            Key of the repository to represent
+     * @return A new builder for a JCenter artifact repository representation, which prompts for credentials on the
+     *         console and uses default timeouts
+     */
+    public static Builder newBuilder(@Nonnull String organization, @Nonnull String repository) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(organization) && !organization.trim().isEmpty());
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(repository) && !repository.trim().isEmpty());
+
+        return new Builder(organization, repository);
+    }
+
+    /**
+     * Validators of a response, and the result parsed from it
      *
      * @author romeara
      */
-    private static final class AuthenticationCallback implements CallbackHandler {
+    private static final class ValidatedResponse {
+
+        private final String entityTag;
+
+        private final String lastModified;
+
+        private final Optional<?> result;
+
+        /**
+         * @param entityTag
+         *            The ETag of the response, if provided
+         * @param lastModified
+         *            The Last-Modified time of the response, if provided
+         * @param result
+         *            The result parsed from the response
+         */
+        private ValidatedResponse(@Nullable String entityTag, @Nullable String lastModified, @Nonnull Optional<?> result) {
+            this.entityTag = entityTag;
+            this.lastModified = lastModified;
+            this.result = Objects.requireNonNull(result);
+        }
+
+        /**
+         * @param connection
+         *            Connection to make conditional on the resource having changed since this response
+         */
+        private void applyValidators(@Nonnull URLConnection connection) {
+            if (entityTag != null) {
+                connection.setRequestProperty(HttpHeaders.IF_NONE_MATCH, entityTag);
+            }
+
+            if (lastModified != null) {
+                connection.setRequestProperty(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+        }
+
+        /**
+         * @return The result parsed from the response
+         */
+        @SuppressWarnings("unchecked")
+        private <T> Optional<T> getResult() {
+            // Responses are retained by URL, and each URL is always parsed to the same type
+            return (Optional<T>) result;
+        }
+
+    }
+
+    /**
+     * Allows configuration of a JCenter artifact repository representation
+     *
+     * @author romeara
+     */
+    public static final class Builder {
+
+        private final String organization;
+
+        private final String repository;
+
+        private String baseUrl;
 
-        private String username = null;
+        private CallbackHandler callbackHandler;
 
-        private String apiKey = null;
+        private int connectTimeoutMillis;
+
+        private int readTimeoutMillis;
+
+        private long maxValidatedResponses;
+
+        private double queryReserve;
+
+        private long maxQueryWaitMillis;
+
+        private Ticker ticker;
+
+        /**
+         * @param organization
+         *            Key of the BinTray organization which owns the represented repository
+         * @param repository
+         *            Key of the repository to represent
+         */
+        private Builder(@Nonnull String organization, @Nonnull String repository) {
+            this.organization = Objects.requireNonNull(organization);
+            this.repository = Objects.requireNonNull(repository);
+
+            baseUrl = BINTRAY_REST_API_URL;
+            callbackHandler = new AuthenticationCallback();
+            connectTimeoutMillis = (int) TimeUnit.SECONDS.toMillis(DEFAULT_CONNECT_TIMEOUT_SECONDS);
+            readTimeoutMillis = (int) TimeUnit.SECONDS.toMillis(DEFAULT_READ_TIMEOUT_SECONDS);
+            maxValidatedResponses = DEFAULT_MAX_VALIDATED_RESPONSES;
+            queryReserve = DEFAULT_QUERY_RESERVE;
+            maxQueryWaitMillis = 0;
+            ticker = Ticker.systemTicker();
+        }
+
+        /**
+         * @param baseUrl
+         *            Base web address of the BinTray REST APIs, ending in a slash. Defaults to the public BinTray
+         *            service - may be changed to use a mirror or local stand-in
+         * @return This builder instance
+         */
+        public Builder baseUrl(@Nonnull String baseUrl) {
+            Objects.requireNonNull(baseUrl);
+            Preconditions.checkArgument(baseUrl.endsWith("/"), "Base URL must end with a slash");
+
+            this.baseUrl = baseUrl;
+
+            return this;
+        }
+
+        /**
+         * @param callbackHandler
+         *            Callback handler which retrieves username and API key data if required for accessed APIs. Must
+         *            support NameCallback and PasswordCallback. Defaults to prompting on the console
+         * @return This builder instance
+         */
+        public Builder callbackHandler(@Nonnull CallbackHandler callbackHandler) {
+            this.callbackHandler = Objects.requireNonNull(callbackHandler);
+
+            return this;
+        }
+
+        /**
+         * @param timeout
+         *            Time allowed to establish a connection. Defaults to 10 seconds
+         * @param unit
+         *            The unit of the timeout
+         * @return This builder instance
+         */
+        public Builder connectTimeout(long timeout, @Nonnull TimeUnit unit) {
+            connectTimeoutMillis = toTimeoutMillis(timeout, unit);
+
+            return this;
+        }
+
+        /**
+         * @param timeout
+         *            Time allowed between reads of response data. Defaults to 30 seconds
+         * @param unit
+         *            The unit of the timeout
+         * @return This builder instance
+         */
+        public Builder readTimeout(long timeout, @Nonnull TimeUnit unit) {
+            readTimeoutMillis = toTimeoutMillis(timeout, unit);
+
+            return this;
+        }
+
+        /**
+         * @param maxValidatedResponses
+         *            The maximum number of responses whose validators are retained for conditional requests. Defaults
+         *            to 10,000
+         * @return This builder instance
+         */
+        public Builder maxValidatedResponses(long maxValidatedResponses) {
+            Preconditions.checkArgument(maxValidatedResponses >= 0, "Maximum validated responses may not be negative");
+
+            this.maxValidatedResponses = maxValidatedResponses;
+
+            return this;
+        }
+
+        /**
+         * @param queryReserve
+         *            Fraction of the daily query allowance reserved for lookups without a retained result - once less
+         *            remains, lookups with a retained result are answered from it. Defaults to 0.1
+         * @return This builder instance
+         */
+        public Builder queryReserve(double queryReserve) {
+            Preconditions.checkArgument(queryReserve >= 0 && queryReserve <= 1, "Query reserve must be between 0 and 1");
+
+            this.queryReserve = queryReserve;
+
+            return this;
+        }
+
+        /**
+         * @param timeout
+         *            Time a lookup waits for the daily query allowance to refill once it has been used, before failing.
+         *            Defaults to zero - lookups fail immediately
+         * @param unit
+         *            The unit of the timeout
+         * @return This builder instance
+         */
+        public Builder maxQueryWait(long timeout, @Nonnull TimeUnit unit) {
+            Objects.requireNonNull(unit);
+            Preconditions.checkArgument(timeout >= 0, "Query wait may not be negative");
+
+            maxQueryWaitMillis = unit.toMillis(timeout);
+
+            return this;
+        }
+
+        /**
+         * @param ticker
+         *            Source of time used to refill the estimated query allowance. Defaults to the system ticker
+         * @return This builder instance
+         */
+        public Builder ticker(@Nonnull Ticker ticker) {
+            this.ticker = Objects.requireNonNull(ticker);
+
+            return this;
+        }
+
+        /**
+         * @return Representation of the artifact repository at the configured location
+         */
+        public JCenterArtifactRepository build() {
+            return new JCenterArtifactRepository(this);
+        }
+
+        /**
+         * @param timeout
+         *            A connection timeout
+         * @param unit
+         *            The unit of the timeout
+         * @return The timeout in milliseconds, as accepted by {@link URLConnection}
+         */
+        private static int toTimeoutMillis(long timeout, @Nonnull TimeUnit unit) {
+            Objects.requireNonNull(unit);
+            Preconditions.checkArgument(timeout > 0, "Timeouts must be positive");
+
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(1, unit.toMillis(timeout)));
+        }
+
+    }
+
+    /**
+     * Basic callback handler which prompts the user for authentication information via the console. Credentials are
+     * retained by the repository once provided, so the user is only prompted again if BinTray rejects them
+     *
+     * @author romeara
+     */
+    private static final class AuthenticationCallback implements CallbackHandler {
 
         @Override
-        public void handle(Callback[] callbacks) throws IOException, UnsupportedCallbackException {
+        public synchronized void handle(Callback[] callbacks) throws IOException, UnsupportedCallbackException {
             for (Callback callback : callbacks) {
                 if (callback instanceof NameCallback) {
                     NameCallback cb = (NameCallback) callback;
 
-                    if (username == null) {
-                        username = getInput(cb.getPrompt());
-                    }
-
-                    cb.setName(username);
+                    cb.setName(getInput(cb.getPrompt()));
                 } else if (callback instanceof PasswordCallback) {
                     PasswordCallback cb = (PasswordCallback) callback;
+                    String apiKey = getInput(cb.getPrompt());
 
-                    if (apiKey == null) {
-                        apiKey = getInput(cb.getPrompt());
-                    }
-
-                    char[] passwd = new char[apiKey.length()];
-                    apiKey.getChars(0, passwd.length, passwd, 0);
+                    if (apiKey != null) {
+                        char[] passwd = new char[apiKey.length()];
+                        apiKey.getChars(0, passwd.length, passwd, 0);
 
-                    cb.setPassword(passwd);
+                        cb.setPassword(passwd);
+                        Arrays.fill(passwd, '\0');
+                    }
                 } else {
                     throw new UnsupportedCallbackException(callback);
                 }
@@ -0,0 +1,185 @@
+package com.rsomeara.artifact.repo.versions.jcenter.type;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+
+/**
+ * Token bucket tracking the daily query allowance of the BinTray APIs. The bucket holds the number of queries the
+ * server last reported as remaining, less queries made since, and refills continuously at the daily limit spread over a
+ * day
+ *
+ * <p>
+ * Until the server has reported its limits, queries are not restricted. Once fewer queries than the reserve remain,
+ * queries which could be answered from a retained response are declined, so the remaining allowance is spent on
+ * lookups which cannot be answered any other way
+ * </p>
+ *
+ * @author romeara
+ */
+@ThreadSafe
+final class QueryBudget {
+
+    /** Value reported when the server has not provided its limits */
+    static final long UNKNOWN = -1;
+
+    private static final long NANOS_PER_DAY = TimeUnit.DAYS.toNanos(1);
+
+    private final double reserveFraction;
+
+    private final Ticker ticker;
+
+    /** The daily limit reported by the server, or {@link #UNKNOWN} */
+    @GuardedBy("this")
+    private long limit;
+
+    @GuardedBy("this")
+    private double tokens;
+
+    /** Ticker time, in nanoseconds, tokens were last refilled */
+    @GuardedBy("this")
+    private long refilledAt;
+
+    /**
+     * @param reserveFraction
+     *            Fraction of the daily limit held back for lookups which cannot be answered from retained responses
+     * @param ticker
+     *            Source of time used to refill the bucket
+     */
+    QueryBudget(double reserveFraction, @Nonnull Ticker ticker) {
+        Preconditions.checkArgument(reserveFraction >= 0 && reserveFraction <= 1, "Reserve must be a fraction of the limit");
+
+        this.reserveFraction = reserveFraction;
+        this.ticker = Objects.requireNonNull(ticker);
+
+        limit = UNKNOWN;
+        tokens = 0;
+        refilledAt = ticker.read();
+    }
+
+    /**
+     * Takes a query from the budget, if one is available without waiting
+     *
+     * @param answerable
+     *            True if the lookup could be answered from a retained response instead of a query
+     * @return True if the query may be made
+     */
+    synchronized boolean tryAcquire(boolean answerable) {
+        refill();
+
+        boolean result = (limit == UNKNOWN);
+
+        if (!result && tokens >= 1 && (!answerable || tokens > reserveFraction * limit)) {
+            tokens--;
+            result = true;
+        }
+
+        return result;
+    }
+
+    /**
+     * Takes a query from the budget, waiting for the budget to refill if none are available
+     *
+     * @param timeout
+     *            The longest time to wait
+     * @param unit
+     *            The unit of the timeout
+     * @return True if the query may be made, false if none became available before the timeout
+     * @throws InterruptedException
+     *             If interrupted while waiting
+     */
+    synchronized boolean acquire(long timeout, @Nonnull TimeUnit unit) throws InterruptedException {
+        long deadline = ticker.read() + unit.toNanos(timeout);
+        boolean result = tryAcquire(false);
+
+        while (!result && deadline - ticker.read() > 0) {
+            // Wake when a token is expected, or sooner if the server reports a new allowance
+            long waitNanos = Math.min(deadline - ticker.read(), nanosUntilToken());
+
+            TimeUnit.NANOSECONDS.timedWait(this, Math.max(waitNanos, 1));
+            result = tryAcquire(false);
+        }
+
+        return result;
+    }
+
+    /**
+     * Replaces the estimated allowance with limits reported by the server. Queries made concurrently with the reporting
+     * request may not yet be reflected, so the estimate may briefly exceed the true allowance
+     *
+     * @param limit
+     *            The daily limit
+     * @param remaining
+     *            The number of queries remaining today
+     */
+    synchronized void update(long limit, long remaining) {
+        Preconditions.checkArgument(limit >= 0, "Limit must not be negative");
+
+        refill();
+
+        this.limit = limit;
+        tokens = Math.max(0, Math.min(limit, remaining));
+
+        notifyAll();
+    }
+
+    /**
+     * Records that the server has refused a query for exceeding the allowance
+     */
+    synchronized void exhausted() {
+        refill();
+
+        tokens = 0;
+    }
+
+    /**
+     * @return The estimated number of queries remaining, or {@link #UNKNOWN} if the server has not reported its limits
+     */
+    synchronized long getRemaining() {
+        refill();
+
+        return (limit == UNKNOWN ? UNKNOWN : (long) tokens);
+    }
+
+    /**
+     * @return The daily limit reported by the server, or {@link #UNKNOWN}
+     */
+    synchronized long getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("limit", limit)
+                .add("remaining", (long) tokens)
+                .toString();
+    }
+
+    @GuardedBy("this")
+    private void refill() {
+        long now = ticker.read();
+
+        if (limit > 0) {
+            tokens = Math.min(limit, tokens + (double) (now - refilledAt) * limit / NANOS_PER_DAY);
+        }
+
+        refilledAt = now;
+    }
+
+    /**
+     * @return Time, in nanoseconds, until the bucket next holds a whole token
+     */
+    @GuardedBy("this")
+    private long nanosUntilToken() {
+        return (limit > 0 ? (long) Math.ceil((1 - tokens % 1) * NANOS_PER_DAY / limit) : NANOS_PER_DAY);
+    }
+
+}
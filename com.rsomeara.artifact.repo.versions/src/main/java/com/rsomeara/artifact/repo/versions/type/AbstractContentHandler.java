@@ -9,6 +9,11 @@ import org.json.simple.parser.ParseException;
  * JSON-Simple content handler boilerplate. Reads keys as they are encountered and provides simpler API to implement for
  * clients which just need to read primitive key values
  *
+ * <p>
+ * Handlers are reset at the start of each JSON document, so a single handler may be reused for many documents - see
+ * {@link PooledJsonParser}
+ * </p>
+ *
  * @author romeara
  *
  */
@@ -21,6 +26,14 @@ public abstract class AbstractContentHandler implements ContentHandler {
      */
     protected abstract boolean isComplete();
 
+    /**
+     * Clears any values read from a previous document. Called at the start of each document - implementations which
+     * hold values must override this method, and call the super-class implementation
+     */
+    protected void reset() {
+        currentKey = null;
+    }
+
     /**
      * @return The current JSON key of the values being provided
      */
@@ -30,7 +43,7 @@ public abstract class AbstractContentHandler implements ContentHandler {
 
     @Override
     public void startJSON() throws ParseException, IOException {
-        currentKey = null;
+        reset();
     }
 
     @Override
@@ -0,0 +1,110 @@
+package com.rsomeara.artifact.repo.versions.type;
+
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Identifies a dependency of a project - an artifact, and the release of it currently in use
+ *
+ * @author romeara
+ */
+@Immutable
+public final class ArtifactCoordinate {
+
+    private final String artifactId;
+
+    private final String currentReleaseId;
+
+    /**
+     * @param artifactId
+     *            ID of the artifact
+     * @param currentReleaseId
+     *            ID of the release currently in use
+     */
+    private ArtifactCoordinate(@Nonnull String artifactId, @Nonnull String currentReleaseId) {
+        this.artifactId = Objects.requireNonNull(artifactId);
+        this.currentReleaseId = Objects.requireNonNull(currentReleaseId);
+    }
+
+    /**
+     * @return ID of the artifact
+     */
+    @Nonnull
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    /**
+     * @return ID of the release currently in use
+     */
+    @Nonnull
+    public String getCurrentReleaseId() {
+        return currentReleaseId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(artifactId, currentReleaseId);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        boolean result = false;
+
+        if (this == obj) {
+            result = true;
+        } else if (obj instanceof ArtifactCoordinate) {
+            ArtifactCoordinate compare = (ArtifactCoordinate) obj;
+
+            result = Objects.equals(compare.artifactId, artifactId)
+                    && Objects.equals(compare.currentReleaseId, currentReleaseId);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return The coordinate in "artifact:release" form, as accepted by {@link #parse(String)}
+     */
+    @Override
+    public String toString() {
+        return artifactId + ":" + currentReleaseId;
+    }
+
+    /**
+     * @param artifactId
+     *            ID of the artifact
+     * @param currentReleaseId
+     *            ID of the release currently in use
+     * @return A coordinate of the given artifact and release
+     */
+    @Nonnull
+    public static ArtifactCoordinate create(@Nonnull String artifactId, @Nonnull String currentReleaseId) {
+        return new ArtifactCoordinate(artifactId, currentReleaseId);
+    }
+
+    /**
+     * @param coordinate
+     *            A coordinate in "artifact:release" form, such as "org.apache.logging.log4j:log4j:2.5" - the release is
+     *            read from after the last separator
+     * @return The parsed coordinate
+     * @throws IllegalArgumentException
+     *             If the coordinate does not contain both an artifact and a release
+     */
+    @Nonnull
+    public static ArtifactCoordinate parse(@Nonnull String coordinate) {
+        Objects.requireNonNull(coordinate);
+
+        int separator = coordinate.lastIndexOf(':');
+
+        Preconditions.checkArgument(separator > 0 && separator < coordinate.length() - 1,
+                "Coordinate %s must be in artifact:release form", coordinate);
+
+        return new ArtifactCoordinate(coordinate.substring(0, separator), coordinate.substring(separator + 1));
+    }
+
+}
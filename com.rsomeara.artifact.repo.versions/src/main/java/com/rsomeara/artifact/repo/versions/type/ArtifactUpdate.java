@@ -0,0 +1,202 @@
+package com.rsomeara.artifact.repo.versions.type;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+
+/**
+ * The result of checking a dependency for newer releases
+ *
+ * <p>
+ * If the release in use is not a pre-release, pre-releases are not considered updates. If the release in use cannot be
+ * read as a version, it is considered outdated if it differs from the artifact's latest release
+ * </p>
+ *
+ * @author romeara
+ */
+@Immutable
+public final class ArtifactUpdate {
+
+    /**
+     * Outcomes of checking a dependency for newer releases
+     *
+     * @author romeara
+     */
+    public enum Status {
+        /** No newer release is available */
+        CURRENT,
+        /** At least one newer release is available */
+        OUTDATED,
+        /** The artifact was not found in the repository */
+        NOT_FOUND,
+        /** The artifact could not be looked up */
+        FAILED;
+    }
+
+    private final ArtifactCoordinate coordinate;
+
+    private final Status status;
+
+    private final String latestReleaseId;
+
+    private final List<String> newerReleaseIds;
+
+    private final Throwable failure;
+
+    /**
+     * @param coordinate
+     *            The dependency checked
+     * @param status
+     *            The outcome of the check
+     * @param latestReleaseId
+     *            ID of the release to update to, or the latest release if there is no update
+     * @param newerReleaseIds
+     *            IDs of releases newer than the one in use
+     * @param failure
+     *            The reason the artifact could not be looked up, if the check failed
+     */
+    private ArtifactUpdate(@Nonnull ArtifactCoordinate coordinate, @Nonnull Status status, @Nullable String latestReleaseId,
+            @Nonnull List<String> newerReleaseIds, @Nullable Throwable failure) {
+        this.coordinate = Objects.requireNonNull(coordinate);
+        this.status = Objects.requireNonNull(status);
+        this.latestReleaseId = latestReleaseId;
+        this.newerReleaseIds = ImmutableList.copyOf(newerReleaseIds);
+        this.failure = failure;
+    }
+
+    /**
+     * @return The dependency checked
+     */
+    @Nonnull
+    public ArtifactCoordinate getCoordinate() {
+        return coordinate;
+    }
+
+    /**
+     * @return The outcome of the check
+     */
+    @Nonnull
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return True if at least one newer release is available
+     */
+    public boolean isOutdated() {
+        return status == Status.OUTDATED;
+    }
+
+    /**
+     * @return ID of the newest release to update to. If no update is available, the artifact's latest release. Null if
+     *         the artifact was not found, or could not be looked up
+     */
+    @CheckForNull
+    public String getLatestReleaseId() {
+        return latestReleaseId;
+    }
+
+    /**
+     * @return IDs of releases newer than the one in use, from oldest to newest
+     */
+    @Nonnull
+    public List<String> getNewerReleaseIds() {
+        return newerReleaseIds;
+    }
+
+    /**
+     * @return The reason the artifact could not be looked up, if the check failed
+     */
+    @CheckForNull
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .omitNullValues()
+                .add("coordinate", coordinate)
+                .add("status", status)
+                .add("latestReleaseId", latestReleaseId)
+                .add("newerReleases", newerReleaseIds.size())
+                .add("failure", failure)
+                .toString();
+    }
+
+    /**
+     * Determines whether newer releases of an artifact than the one in use are available
+     *
+     * @param coordinate
+     *            The dependency to check
+     * @param artifact
+     *            The artifact looked up, or an absent optional if it was not found
+     * @return The result of the check
+     */
+    @Nonnull
+    public static ArtifactUpdate evaluate(@Nonnull ArtifactCoordinate coordinate, @Nonnull Optional<IArtifact> artifact) {
+        Objects.requireNonNull(coordinate);
+        Objects.requireNonNull(artifact);
+
+        ArtifactUpdate result = null;
+
+        if (!artifact.isPresent()) {
+            result = new ArtifactUpdate(coordinate, Status.NOT_FOUND, null, Collections.emptyList(), null);
+        } else {
+            String current = coordinate.getCurrentReleaseId();
+            String latest = artifact.get().getLatestReleaseId();
+            Version currentVersion = Version.parse(current);
+
+            List<String> newer = Collections.emptyList();
+            boolean outdated = false;
+
+            if (currentVersion != null) {
+                newer = artifact.get().getVersionIndex().newerThan(current);
+
+                if (currentVersion.getPreRelease() == null) {
+                    newer = ImmutableList.copyOf(Iterables.filter(newer, ArtifactUpdate::isRelease));
+                }
+
+                outdated = !newer.isEmpty();
+                latest = (outdated ? newer.get(newer.size() - 1) : latest);
+            } else {
+                outdated = latest != null && !latest.equals(current);
+            }
+
+            result = new ArtifactUpdate(coordinate, (outdated ? Status.OUTDATED : Status.CURRENT), latest, newer, null);
+        }
+
+        return result;
+    }
+
+    /**
+     * @param coordinate
+     *            The dependency which could not be checked
+     * @param failure
+     *            The reason the artifact could not be looked up
+     * @return A failed check of the dependency
+     */
+    @Nonnull
+    public static ArtifactUpdate failed(@Nonnull ArtifactCoordinate coordinate, @Nonnull Throwable failure) {
+        Objects.requireNonNull(failure);
+
+        return new ArtifactUpdate(coordinate, Status.FAILED, null, Collections.emptyList(), failure);
+    }
+
+    private static boolean isRelease(@Nonnull String releaseId) {
+        Version version = Version.parse(releaseId);
+
+        return version != null && version.getPreRelease() == null;
+    }
+
+}
@@ -22,4 +22,15 @@ public interface IArtifact {
      */
     Iterable<String> getAvailableReleases();
 
+    /**
+     * Provides the available releases indexed by version, for queries such as the latest release within a range.
+     * Implementations should build the index once and retain it - the default implementation builds a new index on
+     * each call
+     *
+     * @return Index of all releases available for the artifact
+     */
+    default VersionIndex getVersionIndex() {
+        return VersionIndex.of(getAvailableReleases());
+    }
+
 }
@@ -1,6 +1,15 @@
 package com.rsomeara.artifact.repo.versions.type;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
 import com.google.common.base.Optional;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.SetMultimap;
 
 /**
  * Representation of a repository which provides artifacts for dependency management systems
@@ -37,4 +46,49 @@ public interface IArtifactRepository {
      * @return Representation of the latest release, or an absent optional if information could not be retrieved
      */
     Optional<IArtifactRelease> findLatestArtifactRelease(String artifactId);
+
+    /**
+     * Checks each of the specified dependencies for newer releases. Each artifact is looked up once, however many
+     * releases of it are in use, and artifacts are looked up one after another - see
+     * {@link IAsyncArtifactRepository#checkForUpdates(Collection, Consumer)} to look up artifacts concurrently
+     *
+     * @param coordinates
+     *            The dependencies to check
+     * @param listener
+     *            Provided with the result for each distinct dependency as soon as its artifact has been looked up
+     * @return The result for each distinct dependency, grouped by artifact in the order artifacts are first provided. A
+     *         failed lookup is reported as a failed result, rather than ending the check
+     */
+    default List<ArtifactUpdate> checkForUpdates(Collection<ArtifactCoordinate> coordinates, Consumer<? super ArtifactUpdate> listener) {
+        Objects.requireNonNull(coordinates);
+        Objects.requireNonNull(listener);
+
+        SetMultimap<String, ArtifactCoordinate> byArtifact = LinkedHashMultimap.create();
+        List<ArtifactUpdate> result = Lists.newArrayListWithCapacity(coordinates.size());
+
+        for (ArtifactCoordinate coordinate : coordinates) {
+            byArtifact.put(coordinate.getArtifactId(), coordinate);
+        }
+
+        for (Map.Entry<String, Collection<ArtifactCoordinate>> artifact : byArtifact.asMap().entrySet()) {
+            Optional<IArtifact> found = null;
+            RuntimeException failure = null;
+
+            try {
+                found = findArtifact(artifact.getKey());
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+
+            for (ArtifactCoordinate coordinate : artifact.getValue()) {
+                ArtifactUpdate update = (failure == null ? ArtifactUpdate.evaluate(coordinate, found) : ArtifactUpdate.failed(coordinate, failure));
+
+                result.add(update);
+                listener.accept(update);
+            }
+        }
+
+        return result;
+    }
+
 }
@@ -0,0 +1,76 @@
+package com.rsomeara.artifact.repo.versions.type;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import com.google.common.base.Optional;
+
+/**
+ * Representation of a repository which provides artifacts for dependency management systems, where lookups are
+ * performed asynchronously. Allows many artifacts to be looked up concurrently, rather than one after another
+ *
+ * @author romeara
+ */
+public interface IAsyncArtifactRepository {
+
+    /**
+     * Retrieves information on the specified artifact
+     *
+     * @param artifactId
+     *            ID of the artifact
+     * @return Future which completes with a representation of the specified artifact, or an absent optional if the
+     *         information could not be retrieved
+     */
+    CompletableFuture<Optional<IArtifact>> findArtifact(String artifactId);
+
+    /**
+     * Retrieves information on each of the specified artifacts. Duplicate IDs are looked up once
+     *
+     * @param artifactIds
+     *            IDs of the artifacts
+     * @return Future which completes with a representation of each specified artifact, keyed by artifact ID in the
+     *         order first provided. Completes exceptionally if any lookup fails
+     */
+    CompletableFuture<Map<String, Optional<IArtifact>>> findArtifacts(Collection<String> artifactIds);
+
+    /**
+     * Retrieves information on the specified release for the given artifact
+     *
+     * @param artifactId
+     *            ID of the artifact
+     * @param releaseId
+     *            ID of the release
+     * @return Future which completes with a representation of the specified release, or an absent optional if
+     *         information could not be retrieved
+     */
+    CompletableFuture<Optional<IArtifactRelease>> findSpecifiedArtifactRelease(String artifactId, String releaseId);
+
+    /**
+     * Retrieves information on the most recent available for the given artifact
+     *
+     * @param artifactId
+     *            ID of the artifact
+     * @return Future which completes with a representation of the latest release, or an absent optional if information
+     *         could not be retrieved
+     */
+    CompletableFuture<Optional<IArtifactRelease>> findLatestArtifactRelease(String artifactId);
+
+    /**
+     * Checks each of the specified dependencies for newer releases. Each artifact is looked up once, however many
+     * releases of it are in use
+     *
+     * @param coordinates
+     *            The dependencies to check
+     * @param listener
+     *            Provided with the result for each distinct dependency as soon as its artifact has been looked up, in
+     *            order of completion. Called by one thread at a time
+     * @return Future which completes with the result for each distinct dependency, grouped by artifact in the order
+     *         artifacts are first provided, once all have been provided to the listener. A failed lookup is reported
+     *         as a failed result, rather than completing the future exceptionally
+     */
+    CompletableFuture<List<ArtifactUpdate>> checkForUpdates(Collection<ArtifactCoordinate> coordinates, Consumer<? super ArtifactUpdate> listener);
+
+}
@@ -0,0 +1,243 @@
+package com.rsomeara.artifact.repo.versions.type;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Streams JSON documents to content handlers, reusing a parser and decoding buffers per thread. JSON-Simple parsers
+ * allocate a sizable lexer buffer, and readers allocate their own decoding buffers, so creating them for each document
+ * costs more than parsing a small document
+ *
+ * <p>
+ * Parsing stops as soon as the handler indicates it has read all values of interest - the remainder of the stream is
+ * not read, and should be consumed or discarded by the caller as appropriate. Parsing is not re-entrant: handlers must
+ * not parse other documents from within their callbacks
+ * </p>
+ *
+ * @author romeara
+ */
+public final class PooledJsonParser {
+
+    /** Size of the byte and character buffers used to decode streams */
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private static final ThreadLocal<PooledJsonParser> PARSERS = ThreadLocal.withInitial(PooledJsonParser::new);
+
+    private final JSONParser parser;
+
+    private final Utf8Reader reader;
+
+    private PooledJsonParser() {
+        parser = new JSONParser();
+        reader = new Utf8Reader();
+    }
+
+    /**
+     * Parses a UTF-8 encoded JSON document
+     *
+     * @param json
+     *            Stream of the JSON document. Not closed by this method
+     * @param handler
+     *            Handler to provide the content of the document to
+     * @return The provided handler
+     * @throws IOException
+     *             If the stream cannot be read
+     * @throws ParseException
+     *             If the stream does not contain valid JSON
+     */
+    @Nonnull
+    public static <H extends AbstractContentHandler> H parse(@Nonnull InputStream json, @Nonnull H handler) throws IOException, ParseException {
+        Objects.requireNonNull(json);
+
+        PooledJsonParser pooled = PARSERS.get();
+        pooled.reader.open(json);
+
+        try {
+            pooled.parseDocument(pooled.reader, handler);
+        } finally {
+            // Release the stream, so it is not retained for the lifetime of the thread
+            pooled.reader.open(null);
+        }
+
+        return handler;
+    }
+
+    /**
+     * Parses a JSON document
+     *
+     * @param json
+     *            Reader of the JSON document. Not closed by this method
+     * @param handler
+     *            Handler to provide the content of the document to
+     * @return The provided handler
+     * @throws IOException
+     *             If the reader cannot be read
+     * @throws ParseException
+     *             If the reader does not contain valid JSON
+     */
+    @Nonnull
+    public static <H extends AbstractContentHandler> H parse(@Nonnull Reader json, @Nonnull H handler) throws IOException, ParseException {
+        Objects.requireNonNull(json);
+
+        PARSERS.get().parseDocument(json, handler);
+
+        return handler;
+    }
+
+    /**
+     * @param json
+     *            Reader of the JSON document
+     * @param handler
+     *            Handler to provide the content of the document to
+     * @throws IOException
+     *             If the reader cannot be read
+     * @throws ParseException
+     *             If the reader does not contain valid JSON
+     */
+    private void parseDocument(@Nonnull Reader json, @Nonnull AbstractContentHandler handler) throws IOException, ParseException {
+        Objects.requireNonNull(handler);
+
+        try {
+            parser.parse(json, handler, false);
+        } finally {
+            parser.reset(null);
+        }
+    }
+
+    /**
+     * Decodes UTF-8 from a stream using buffers retained between documents. Malformed input is replaced, matching
+     * {@link java.io.InputStreamReader}
+     *
+     * @author romeara
+     */
+    private static final class Utf8Reader extends Reader {
+
+        private final CharsetDecoder decoder;
+
+        /** Bytes read from the stream and not yet decoded, ready for reading */
+        private final ByteBuffer bytes;
+
+        /** Characters decoded and not yet provided to the parser, ready for reading */
+        private final CharBuffer chars;
+
+        private InputStream source;
+
+        private boolean endOfInput;
+
+        private boolean flushed;
+
+        private Utf8Reader() {
+            decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            bytes = ByteBuffer.allocate(BUFFER_SIZE);
+            chars = CharBuffer.allocate(BUFFER_SIZE);
+
+            open(null);
+        }
+
+        /**
+         * @param source
+         *            Stream to decode, or null to release the previous stream
+         */
+        private void open(InputStream source) {
+            this.source = source;
+
+            decoder.reset();
+            bytes.clear().flip();
+            chars.clear().flip();
+            endOfInput = false;
+            flushed = false;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            Preconditions.checkPositionIndexes(off, off + len, cbuf.length);
+
+            int result = 0;
+
+            if (len > 0) {
+                if (!chars.hasRemaining()) {
+                    decode();
+                }
+
+                if (chars.hasRemaining()) {
+                    result = Math.min(len, chars.remaining());
+                    chars.get(cbuf, off, result);
+                } else {
+                    result = -1;
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        public void close() {
+            // The stream is owned by the caller of the parser
+        }
+
+        /**
+         * Decodes characters until at least one is available, or the stream has ended
+         *
+         * @throws IOException
+         *             If the stream cannot be read
+         */
+        private void decode() throws IOException {
+            chars.clear();
+
+            while (chars.position() == 0 && !flushed) {
+                CoderResult result = decoder.decode(bytes, chars, endOfInput);
+
+                // Malformed input is replaced, and the character buffer is empty, so decoding only stops for more input
+                if (result.isUnderflow()) {
+                    if (endOfInput) {
+                        decoder.flush(chars);
+                        flushed = true;
+                    } else {
+                        readBytes();
+                    }
+                }
+            }
+
+            chars.flip();
+        }
+
+        /**
+         * Reads further bytes from the stream, retaining any undecoded bytes
+         *
+         * @throws IOException
+         *             If the stream cannot be read
+         */
+        private void readBytes() throws IOException {
+            bytes.compact();
+
+            int read = source.read(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                bytes.position(bytes.position() + read);
+            }
+
+            bytes.flip();
+        }
+
+    }
+
+}
@@ -0,0 +1,279 @@
+package com.rsomeara.artifact.repo.versions.type;
+
+import java.util.Objects;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Parsed form of a release ID, ordered by semantic versioning precedence
+ *
+ * <p>
+ * Release IDs are read as up to three numeric components, optionally preceded by "v". Missing components are read as
+ * zero, so "1.2" has the same precedence as "1.2.0". Text following a "-" after the numeric components is a pre-release
+ * qualifier, and orders the version before the same version without a qualifier. Any other trailing text (for example
+ * "1.2.3.RELEASE" or "1.2.3+build5") does not affect precedence
+ * </p>
+ *
+ * @author romeara
+ */
+@Immutable
+final class Version implements Comparable<Version> {
+
+    private final int major;
+
+    private final int minor;
+
+    private final int patch;
+
+    private final String preRelease;
+
+    /**
+     * @param major
+     *            The major version component
+     * @param minor
+     *            The minor version component
+     * @param patch
+     *            The patch version component
+     * @param preRelease
+     *            The pre-release qualifier, or null for a release
+     */
+    Version(int major, int minor, int patch, @Nullable String preRelease) {
+        this.major = major;
+        this.minor = minor;
+        this.patch = patch;
+        this.preRelease = preRelease;
+    }
+
+    /**
+     * @return The major version component
+     */
+    int getMajor() {
+        return major;
+    }
+
+    /**
+     * @return The minor version component
+     */
+    int getMinor() {
+        return minor;
+    }
+
+    /**
+     * @return The patch version component
+     */
+    int getPatch() {
+        return patch;
+    }
+
+    /**
+     * @return The pre-release qualifier, or null for a release
+     */
+    @CheckForNull
+    String getPreRelease() {
+        return preRelease;
+    }
+
+    @Override
+    public int compareTo(Version o) {
+        return compare(major, minor, patch, preRelease, o.major, o.minor, o.patch, o.preRelease);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(major, minor, patch, preRelease);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        boolean result = false;
+
+        if (this == obj) {
+            result = true;
+        } else if (obj instanceof Version) {
+            Version compare = (Version) obj;
+
+            result = compare.major == major
+                    && compare.minor == minor
+                    && compare.patch == patch
+                    && Objects.equals(compare.preRelease, preRelease);
+        }
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .omitNullValues()
+                .add("major", major)
+                .add("minor", minor)
+                .add("patch", patch)
+                .add("preRelease", preRelease)
+                .toString();
+    }
+
+    /**
+     * @param releaseId
+     *            A release ID
+     * @return The parsed release ID, or null if it does not begin with a numeric version component
+     */
+    @CheckForNull
+    static Version parse(@Nonnull String releaseId) {
+        Objects.requireNonNull(releaseId);
+
+        Version result = null;
+
+        int position = (releaseId.startsWith("v") || releaseId.startsWith("V") ? 1 : 0);
+        int[] components = new int[3];
+        int count = 0;
+        boolean valid = true;
+
+        while (valid && count < components.length && position < releaseId.length() && isDigit(releaseId.charAt(position))) {
+            long value = 0;
+
+            // Stop at the first digit which overflows, as further digits could wrap the value back into range
+            while (valid && position < releaseId.length() && isDigit(releaseId.charAt(position))) {
+                value = value * 10 + (releaseId.charAt(position) - '0');
+                valid = value <= Integer.MAX_VALUE;
+                position++;
+            }
+
+            components[count] = (int) value;
+            count++;
+
+            // Only continue to another component if one follows the separator
+            if (position + 1 < releaseId.length() && releaseId.charAt(position) == '.' && isDigit(releaseId.charAt(position + 1))) {
+                position++;
+            }
+        }
+
+        if (valid && count > 0) {
+            String preRelease = null;
+
+            if (position < releaseId.length() && releaseId.charAt(position) == '-') {
+                int end = releaseId.indexOf('+', position);
+
+                preRelease = releaseId.substring(position + 1, (end < 0 ? releaseId.length() : end));
+            }
+
+            result = new Version(components[0], components[1], components[2], preRelease);
+        }
+
+        return result;
+    }
+
+    /**
+     * Compares two versions by semantic versioning precedence, given as components so callers which store versions in
+     * unpacked form need not create instances to compare them
+     *
+     * @return A negative number, zero, or a positive number as the first version has lower, equal, or higher
+     *         precedence than the second
+     */
+    static int compare(int major, int minor, int patch, @Nullable String preRelease,
+            int otherMajor, int otherMinor, int otherPatch, @Nullable String otherPreRelease) {
+        int result = Integer.compare(major, otherMajor);
+
+        if (result == 0) {
+            result = Integer.compare(minor, otherMinor);
+        }
+
+        if (result == 0) {
+            result = Integer.compare(patch, otherPatch);
+        }
+
+        if (result == 0) {
+            result = comparePreRelease(preRelease, otherPreRelease);
+        }
+
+        return result;
+    }
+
+    /**
+     * Compares pre-release qualifiers as defined by semantic versioning - dot-separated identifiers are compared in
+     * turn, numerically if both are numeric. A release (no qualifier) follows all pre-releases of the same version
+     *
+     * @return A negative number, zero, or a positive number as the first qualifier has lower, equal, or higher
+     *         precedence than the second
+     */
+    private static int comparePreRelease(@Nullable String preRelease, @Nullable String otherPreRelease) {
+        int result = 0;
+
+        if (preRelease == null || otherPreRelease == null) {
+            result = (preRelease == null ? 1 : 0) - (otherPreRelease == null ? 1 : 0);
+        } else if (preRelease.isEmpty() || otherPreRelease.isEmpty()) {
+            // The empty qualifier precedes all others, and is used to express "before any pre-release"
+            result = (preRelease.isEmpty() ? 0 : 1) - (otherPreRelease.isEmpty() ? 0 : 1);
+        } else {
+            String[] identifiers = preRelease.split("\\.", -1);
+            String[] otherIdentifiers = otherPreRelease.split("\\.", -1);
+
+            for (int i = 0; result == 0 && i < Math.min(identifiers.length, otherIdentifiers.length); i++) {
+                result = compareIdentifier(identifiers[i], otherIdentifiers[i]);
+            }
+
+            if (result == 0) {
+                result = Integer.compare(identifiers.length, otherIdentifiers.length);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return Comparison of two pre-release identifiers - numeric identifiers are compared numerically, and precede
+     *         alphanumeric identifiers
+     */
+    private static int compareIdentifier(@Nonnull String identifier, @Nonnull String otherIdentifier) {
+        boolean numeric = isNumeric(identifier);
+        boolean otherNumeric = isNumeric(otherIdentifier);
+        int result = 0;
+
+        if (numeric && otherNumeric) {
+            // Compare by length first, so identifiers of any length are compared without overflow
+            String trimmed = trimLeadingZeros(identifier);
+            String otherTrimmed = trimLeadingZeros(otherIdentifier);
+
+            result = Integer.compare(trimmed.length(), otherTrimmed.length());
+
+            if (result == 0) {
+                result = trimmed.compareTo(otherTrimmed);
+            }
+        } else if (numeric || otherNumeric) {
+            result = (numeric ? -1 : 1);
+        } else {
+            result = identifier.compareTo(otherIdentifier);
+        }
+
+        return result;
+    }
+
+    private static boolean isNumeric(@Nonnull String identifier) {
+        boolean result = !identifier.isEmpty();
+
+        for (int i = 0; result && i < identifier.length(); i++) {
+            result = isDigit(identifier.charAt(i));
+        }
+
+        return result;
+    }
+
+    private static String trimLeadingZeros(@Nonnull String identifier) {
+        int start = 0;
+
+        while (start < identifier.length() - 1 && identifier.charAt(start) == '0') {
+            start++;
+        }
+
+        return identifier.substring(start);
+    }
+
+    private static boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+
+}
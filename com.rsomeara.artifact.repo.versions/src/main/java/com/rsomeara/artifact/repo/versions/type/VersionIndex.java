@@ -0,0 +1,276 @@
+package com.rsomeara.artifact.repo.versions.type;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+
+/**
+ * Sorted index of the releases of an artifact, answering version queries without scanning or re-parsing release IDs
+ *
+ * <p>
+ * Release IDs are parsed once, as described by {@link VersionRange}, and their components are stored in parallel
+ * primitive arrays ordered by version precedence - queries are binary searches over those arrays. Release IDs which
+ * cannot be read as versions are retained separately, and are only found by {@link #contains(String)}
+ * </p>
+ *
+ * @author romeara
+ */
+@Immutable
+public final class VersionIndex {
+
+    private static final VersionIndex EMPTY = new VersionIndex(Collections.emptyList());
+
+    /** Release IDs, in order of precedence. Releases of equal precedence are ordered by ID */
+    private final String[] releaseIds;
+
+    private final int[] majors;
+
+    private final int[] minors;
+
+    private final int[] patches;
+
+    /** Pre-release qualifiers, or null for releases */
+    private final String[] preReleases;
+
+    /** Release IDs which cannot be read as versions, sorted for search */
+    private final String[] unversioned;
+
+    /**
+     * @param releaseIds
+     *            IDs of the releases to index
+     */
+    private VersionIndex(@Nonnull Iterable<String> releaseIds) {
+        List<Entry> entries = Lists.newArrayList();
+        List<String> unversionedIds = Lists.newArrayList();
+
+        for (String releaseId : releaseIds) {
+            Version version = Version.parse(releaseId);
+
+            if (version != null) {
+                entries.add(new Entry(releaseId, version));
+            } else {
+                unversionedIds.add(releaseId);
+            }
+        }
+
+        Collections.sort(entries);
+
+        int size = entries.size();
+        this.releaseIds = new String[size];
+        majors = new int[size];
+        minors = new int[size];
+        patches = new int[size];
+        preReleases = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            Entry entry = entries.get(i);
+
+            this.releaseIds[i] = entry.releaseId;
+            majors[i] = entry.version.getMajor();
+            minors[i] = entry.version.getMinor();
+            patches[i] = entry.version.getPatch();
+            preReleases[i] = entry.version.getPreRelease();
+        }
+
+        unversioned = unversionedIds.toArray(new String[unversionedIds.size()]);
+        Arrays.sort(unversioned);
+    }
+
+    /**
+     * @return The number of indexed releases, including those which cannot be read as versions
+     */
+    public int size() {
+        return releaseIds.length + unversioned.length;
+    }
+
+    /**
+     * @return IDs of the releases which can be read as versions, from lowest to highest precedence
+     */
+    @Nonnull
+    public List<String> getOrderedReleaseIds() {
+        return Collections.unmodifiableList(Arrays.asList(releaseIds));
+    }
+
+    /**
+     * @param releaseId
+     *            A release ID
+     * @return True if a release with exactly the given ID is indexed
+     */
+    public boolean contains(@Nonnull String releaseId) {
+        Objects.requireNonNull(releaseId);
+
+        Version version = Version.parse(releaseId);
+        boolean result = false;
+
+        if (version != null) {
+            // Several IDs may share a precedence ("1.2" and "1.2.0"), and are ordered by ID within it
+            int position = Arrays.binarySearch(releaseIds, firstAtOrAbove(version), lastAtOrBelow(version) + 1, releaseId);
+
+            result = position >= 0;
+        } else {
+            result = Arrays.binarySearch(unversioned, releaseId) >= 0;
+        }
+
+        return result;
+    }
+
+    /**
+     * @param range
+     *            The range of versions to consider
+     * @return ID of the release of highest precedence within the range, or absent if no release is within the range
+     */
+    @Nonnull
+    public Optional<String> latestMatching(@Nonnull VersionRange range) {
+        Objects.requireNonNull(range);
+
+        int position = releaseIds.length - 1;
+        Version upper = range.getUpper();
+
+        if (upper != null) {
+            position = (range.isUpperInclusive() ? lastAtOrBelow(upper) : firstAtOrAbove(upper) - 1);
+        }
+
+        Optional<String> result = Optional.absent();
+
+        if (position >= 0 && range.contains(versionAt(position))) {
+            result = Optional.of(releaseIds[position]);
+        }
+
+        return result;
+    }
+
+    /**
+     * @param releaseId
+     *            A release ID
+     * @return IDs of releases of higher precedence than the given release, from lowest to highest precedence. Empty if
+     *         the release ID cannot be read as a version
+     */
+    @Nonnull
+    public List<String> newerThan(@Nonnull String releaseId) {
+        Objects.requireNonNull(releaseId);
+
+        Version version = Version.parse(releaseId);
+        List<String> result = Collections.emptyList();
+
+        if (version != null) {
+            result = getOrderedReleaseIds().subList(lastAtOrBelow(version) + 1, releaseIds.length);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return ID of the release of highest precedence, or absent if no release can be read as a version
+     */
+    @Nonnull
+    public Optional<String> latest() {
+        return (releaseIds.length > 0 ? Optional.of(releaseIds[releaseIds.length - 1]) : Optional.absent());
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("size", size())
+                .add("latest", latest().orNull())
+                .toString();
+    }
+
+    /**
+     * @param version
+     *            A parsed version
+     * @return Position of the first release with precedence equal to or higher than the version, or the number of
+     *         versioned releases if there is none
+     */
+    private int firstAtOrAbove(@Nonnull Version version) {
+        int low = 0;
+        int high = releaseIds.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (compareAt(middle, version) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * @param version
+     *            A parsed version
+     * @return Position of the last release with precedence equal to or lower than the version, or -1 if there is none
+     */
+    private int lastAtOrBelow(@Nonnull Version version) {
+        int low = 0;
+        int high = releaseIds.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (compareAt(middle, version) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low - 1;
+    }
+
+    private int compareAt(int position, @Nonnull Version version) {
+        return Version.compare(majors[position], minors[position], patches[position], preReleases[position],
+                version.getMajor(), version.getMinor(), version.getPatch(), version.getPreRelease());
+    }
+
+    private Version versionAt(int position) {
+        return new Version(majors[position], minors[position], patches[position], preReleases[position]);
+    }
+
+    /**
+     * @param releaseIds
+     *            IDs of the releases to index. May be null if there are no releases
+     * @return An index of the given releases
+     */
+    @Nonnull
+    public static VersionIndex of(@Nullable Iterable<String> releaseIds) {
+        return (releaseIds != null ? new VersionIndex(releaseIds) : EMPTY);
+    }
+
+    /**
+     * A release ID and its parsed version, used while sorting
+     *
+     * @author romeara
+     */
+    private static final class Entry implements Comparable<Entry> {
+
+        private final String releaseId;
+
+        private final Version version;
+
+        private Entry(@Nonnull String releaseId, @Nonnull Version version) {
+            this.releaseId = Objects.requireNonNull(releaseId);
+            this.version = Objects.requireNonNull(version);
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            int result = version.compareTo(o.version);
+
+            return (result != 0 ? result : releaseId.compareTo(o.releaseId));
+        }
+
+    }
+
+}
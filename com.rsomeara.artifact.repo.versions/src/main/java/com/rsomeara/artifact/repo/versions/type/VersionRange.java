@@ -0,0 +1,326 @@
+package com.rsomeara.artifact.repo.versions.type;
+
+import java.util.Objects;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * A range of release versions, used to query a {@link VersionIndex}
+ *
+ * <p>
+ * Ranges are parsed from Maven range notation - "[1.0,2.0)", "[1.5,)", "(,1.0]" or "[1.2.3]" - from a wildcard
+ * version such as "2.x", "2.4.*" or "*", or from an exact version such as "1.2.3". Wildcards may only be the last
+ * component. Wildcard ranges exclude pre-releases of the next version, so "2.x" does not match "3.0.0-beta"
+ * </p>
+ *
+ * @author romeara
+ */
+@Immutable
+public final class VersionRange {
+
+    private final String text;
+
+    private final Version lower;
+
+    private final boolean lowerInclusive;
+
+    private final Version upper;
+
+    private final boolean upperInclusive;
+
+    /**
+     * @param text
+     *            The text the range was parsed from
+     * @param lower
+     *            The lowest version in the range, or null if unbounded
+     * @param lowerInclusive
+     *            True if the lowest version is itself in the range
+     * @param upper
+     *            The highest version in the range, or null if unbounded
+     * @param upperInclusive
+     *            True if the highest version is itself in the range
+     */
+    private VersionRange(@Nonnull String text, @Nullable Version lower, boolean lowerInclusive, @Nullable Version upper, boolean upperInclusive) {
+        this.text = Objects.requireNonNull(text);
+        this.lower = lower;
+        this.lowerInclusive = lowerInclusive;
+        this.upper = upper;
+        this.upperInclusive = upperInclusive;
+    }
+
+    /**
+     * @return The lowest version in the range, or null if unbounded
+     */
+    @CheckForNull
+    Version getLower() {
+        return lower;
+    }
+
+    /**
+     * @return True if the lowest version is itself in the range
+     */
+    boolean isLowerInclusive() {
+        return lowerInclusive;
+    }
+
+    /**
+     * @return The highest version in the range, or null if unbounded
+     */
+    @CheckForNull
+    Version getUpper() {
+        return upper;
+    }
+
+    /**
+     * @return True if the highest version is itself in the range
+     */
+    boolean isUpperInclusive() {
+        return upperInclusive;
+    }
+
+    /**
+     * @param releaseId
+     *            A release ID
+     * @return True if the release ID is a version within this range. Release IDs which cannot be read as versions are
+     *         not within any range
+     */
+    public boolean contains(@Nonnull String releaseId) {
+        Objects.requireNonNull(releaseId);
+
+        Version version = Version.parse(releaseId);
+
+        return version != null && contains(version);
+    }
+
+    /**
+     * @param version
+     *            A parsed version
+     * @return True if the version is within this range
+     */
+    boolean contains(@Nonnull Version version) {
+        boolean result = true;
+
+        if (lower != null) {
+            int comparison = version.compareTo(lower);
+
+            result = (lowerInclusive ? comparison >= 0 : comparison > 0);
+        }
+
+        if (result && upper != null) {
+            int comparison = version.compareTo(upper);
+
+            result = (upperInclusive ? comparison <= 0 : comparison < 0);
+        }
+
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lower, lowerInclusive, upper, upperInclusive);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        boolean result = false;
+
+        if (this == obj) {
+            result = true;
+        } else if (obj instanceof VersionRange) {
+            VersionRange compare = (VersionRange) obj;
+
+            result = Objects.equals(compare.lower, lower)
+                    && compare.lowerInclusive == lowerInclusive
+                    && Objects.equals(compare.upper, upper)
+                    && compare.upperInclusive == upperInclusive;
+        }
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .addValue(text)
+                .toString();
+    }
+
+    /**
+     * @param range
+     *            A range in Maven notation, or a wildcard version
+     * @return The parsed range
+     * @throws IllegalArgumentException
+     *             If the range is not in a supported notation
+     */
+    @Nonnull
+    public static VersionRange parse(@Nonnull String range) {
+        Objects.requireNonNull(range);
+
+        String trimmed = range.trim();
+        Preconditions.checkArgument(!trimmed.isEmpty(), "Version range must not be empty");
+
+        VersionRange result = null;
+
+        if (trimmed.startsWith("[") || trimmed.startsWith("(")) {
+            result = parseBounded(trimmed);
+        } else {
+            result = parseWildcard(trimmed);
+        }
+
+        return result;
+    }
+
+    /**
+     * @param range
+     *            A range in Maven notation
+     * @return The parsed range
+     */
+    @Nonnull
+    private static VersionRange parseBounded(@Nonnull String range) {
+        char open = range.charAt(0);
+        char close = range.charAt(range.length() - 1);
+
+        Preconditions.checkArgument(range.length() > 2 && (close == ']' || close == ')'), "Unterminated version range %s", range);
+
+        String content = range.substring(1, range.length() - 1);
+        int separator = content.indexOf(',');
+
+        VersionRange result = null;
+
+        if (separator < 0) {
+            Preconditions.checkArgument(open == '[' && close == ']', "Single version range %s must be inclusive", range);
+
+            Version version = parseBound(content, range);
+            result = new VersionRange(range, version, true, version, true);
+        } else {
+            Preconditions.checkArgument(content.indexOf(',', separator + 1) < 0, "Unions of version ranges are not supported: %s", range);
+
+            String lowerText = content.substring(0, separator).trim();
+            String upperText = content.substring(separator + 1).trim();
+
+            Version lowerVersion = (lowerText.isEmpty() ? null : parseBound(lowerText, range));
+            Version upperVersion = (upperText.isEmpty() ? null : parseBound(upperText, range));
+
+            Preconditions.checkArgument(lowerVersion == null || upperVersion == null || lowerVersion.compareTo(upperVersion) <= 0,
+                    "Version range %s has a lower bound above its upper bound", range);
+
+            result = new VersionRange(range, lowerVersion, open == '[', upperVersion, close == ']');
+        }
+
+        return result;
+    }
+
+    /**
+     * @param range
+     *            A wildcard version such as "2.x", or an exact version
+     * @return The parsed range
+     */
+    @Nonnull
+    private static VersionRange parseWildcard(@Nonnull String range) {
+        String[] components = range.split("\\.");
+        int fixed = components.length;
+
+        if (isWildcard(components[components.length - 1])) {
+            fixed--;
+        }
+
+        VersionRange result = null;
+
+        if (fixed == components.length) {
+            checkExact(range);
+
+            Version version = parseBound(range, range);
+            result = new VersionRange(range, version, true, version, true);
+        } else if (fixed == 0) {
+            Preconditions.checkArgument(components.length == 1, "Invalid wildcard version %s", range);
+
+            result = new VersionRange(range, null, false, null, false);
+        } else {
+            Preconditions.checkArgument(fixed <= 2, "Invalid wildcard version %s", range);
+
+            int[] values = new int[3];
+
+            for (int i = 0; i < fixed; i++) {
+                values[i] = parseComponent(components[i], range);
+            }
+
+            Version lowerVersion = new Version(values[0], values[1], values[2], "");
+
+            // Exclude the next version and all of its pre-releases, which precede it
+            values[fixed - 1]++;
+            Version upperVersion = new Version(values[0], (fixed > 1 ? values[1] : 0), 0, "");
+
+            result = new VersionRange(range, lowerVersion, true, upperVersion, false);
+        }
+
+        return result;
+    }
+
+    /**
+     * @param bound
+     *            Text of a version bounding a range
+     * @param range
+     *            The full range, for error reporting
+     * @return The parsed version
+     */
+    @Nonnull
+    private static Version parseBound(@Nonnull String bound, @Nonnull String range) {
+        Version result = Version.parse(bound.trim());
+
+        Preconditions.checkArgument(result != null, "Invalid version %s in range %s", bound, range);
+
+        return result;
+    }
+
+    /**
+     * Verifies that a version without a trailing wildcard is exact - its components are numeric, optionally followed by
+     * a pre-release or build qualifier. Versions are otherwise read up to the first non-numeric component, so "1.*.3"
+     * would be read as "1.0.0"
+     *
+     * @param range
+     *            An exact version
+     */
+    private static void checkExact(@Nonnull String range) {
+        int qualifier = CharMatcher.anyOf("-+").indexIn(range);
+        String numeric = (qualifier < 0 ? range : range.substring(0, qualifier));
+
+        if (numeric.startsWith("v") || numeric.startsWith("V")) {
+            numeric = numeric.substring(1);
+        }
+
+        for (String component : numeric.split("\\.", -1)) {
+            parseComponent(component, range);
+        }
+    }
+
+    /**
+     * @param component
+     *            Text of a single numeric version component
+     * @param range
+     *            The full range, for error reporting
+     * @return The component value
+     */
+    private static int parseComponent(@Nonnull String component, @Nonnull String range) {
+        try {
+            int result = Integer.parseInt(component);
+
+            Preconditions.checkArgument(result >= 0 && result < Integer.MAX_VALUE, "Invalid version component %s in range %s", component, range);
+
+            return result;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid version component " + component + " in range " + range, e);
+        }
+    }
+
+    private static boolean isWildcard(@Nonnull String component) {
+        return "x".equalsIgnoreCase(component) || "*".equals(component);
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.rsomeara.artifact.repo.versions;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Ticker whose time only moves when advanced by a test, or optionally by a fixed step each time it is read
+ *
+ * @author romeara
+ */
+public final class FakeTicker extends Ticker {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private volatile long autoIncrementNanos = 0;
+
+    @Override
+    public long read() {
+        return nanos.getAndAdd(autoIncrementNanos);
+    }
+
+    /**
+     * @param time
+     *            Amount of time to move forward
+     * @param unit
+     *            The unit of the time
+     * @return This ticker instance
+     */
+    @Nonnull
+    public FakeTicker advance(long time, @Nonnull TimeUnit unit) {
+        nanos.addAndGet(unit.toNanos(time));
+
+        return this;
+    }
+
+    /**
+     * @param time
+     *            Amount of time to move forward each time the ticker is read
+     * @param unit
+     *            The unit of the time
+     * @return This ticker instance
+     */
+    @Nonnull
+    public FakeTicker setAutoIncrement(long time, @Nonnull TimeUnit unit) {
+        autoIncrementNanos = unit.toNanos(time);
+
+        return this;
+    }
+
+}
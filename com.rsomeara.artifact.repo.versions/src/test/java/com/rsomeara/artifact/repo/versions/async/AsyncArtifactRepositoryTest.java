@@ -0,0 +1,154 @@
+package com.rsomeara.artifact.repo.versions.async;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Sets;
+import com.rsomeara.artifact.repo.versions.jcenter.type.BinTrayStandIn;
+import com.rsomeara.artifact.repo.versions.jcenter.type.JCenterArtifactRepository;
+import com.rsomeara.artifact.repo.versions.type.ArtifactCoordinate;
+import com.rsomeara.artifact.repo.versions.type.ArtifactUpdate;
+import com.rsomeara.artifact.repo.versions.type.ArtifactUpdate.Status;
+import com.rsomeara.artifact.repo.versions.type.IArtifact;
+
+/**
+ * Tests concurrent lookups against a local stand-in for the BinTray APIs
+ *
+ * @author romeara
+ */
+public class AsyncArtifactRepositoryTest {
+
+    private BinTrayStandIn standIn;
+
+    private JCenterArtifactRepository repository;
+
+    @BeforeMethod
+    public void startStandIn() throws Exception {
+        standIn = new BinTrayStandIn();
+        repository = JCenterArtifactRepository.newBuilder("bintray", "jcenter")
+                .baseUrl(standIn.getBaseUrl())
+                .build();
+    }
+
+    @AfterMethod
+    public void stopStandIn() throws Exception {
+        standIn.close();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void createNoConcurrentRequests() throws Exception {
+        AsyncArtifactRepository.create(repository, 0);
+    }
+
+    @Test
+    public void concurrentRequestsLimited() throws Exception {
+        List<String> artifactIds = IntStream.range(0, 12).mapToObj(i -> "group:artifact" + i).collect(Collectors.toList());
+
+        // Requests are held long enough for every lookup permitted to be made at once
+        standIn.setResponseDelay(100);
+
+        try (AsyncArtifactRepository asyncRepository = AsyncArtifactRepository.create(repository, 3)) {
+            Map<String, Optional<IArtifact>> artifacts = asyncRepository.findArtifacts(artifactIds).join();
+
+            Assert.assertEquals(artifacts.keySet(), artifactIds.stream().collect(Collectors.toSet()));
+            Assert.assertTrue(artifacts.values().stream().allMatch(Optional::isPresent));
+        }
+
+        Assert.assertEquals(standIn.getRequestCount(), 12);
+        Assert.assertTrue(standIn.getPeakInFlight() <= 3, "Peak of " + standIn.getPeakInFlight() + " concurrent requests exceeds limit");
+        Assert.assertTrue(standIn.getPeakInFlight() > 1, "Lookups were not performed concurrently");
+    }
+
+    @Test
+    public void findArtifactsDeduplicated() throws Exception {
+        try (AsyncArtifactRepository asyncRepository = AsyncArtifactRepository.create(repository, 4)) {
+            Map<String, Optional<IArtifact>> artifacts = asyncRepository.findArtifacts(Arrays.asList("group:b", "group:a", "group:b", "group:b"))
+                    .join();
+
+            // Results are ordered by first request
+            Assert.assertEquals(artifacts.keySet().stream().collect(Collectors.toList()), Arrays.asList("group:b", "group:a"));
+            Assert.assertEquals(artifacts.get("group:a").get().getArtifactId(), "group:a");
+            Assert.assertEquals(artifacts.get("group:b").get().getLatestReleaseId(), "2.0.0");
+        }
+
+        Assert.assertEquals(standIn.getRequestCount(), 2);
+    }
+
+    @Test
+    public void checkForUpdates() throws Exception {
+        List<ArtifactCoordinate> coordinates = Arrays.asList(
+                ArtifactCoordinate.parse("group:a:1.0.0"),
+                ArtifactCoordinate.parse("group:failing:1.0.0"),
+                ArtifactCoordinate.parse("group:b:2.0.0"),
+                ArtifactCoordinate.parse("group:missing:1.0.0"),
+                ArtifactCoordinate.parse("group:a:2.0.0"),
+                ArtifactCoordinate.parse("group:b:2.0.0"));
+        List<ArtifactUpdate> notified = new CopyOnWriteArrayList<>();
+        AtomicInteger inListener = new AtomicInteger();
+        AtomicInteger peakInListener = new AtomicInteger();
+
+        standIn.setResponseDelay(50);
+
+        List<ArtifactUpdate> updates;
+
+        try (AsyncArtifactRepository asyncRepository = AsyncArtifactRepository.create(repository, 4)) {
+            updates = asyncRepository.checkForUpdates(coordinates, update -> {
+                peakInListener.accumulateAndGet(inListener.incrementAndGet(), Math::max);
+
+                try {
+                    // Held long enough for concurrently completed lookups to overlap, if calls were not serialized
+                    TimeUnit.MILLISECONDS.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inListener.decrementAndGet();
+                }
+
+                notified.add(update);
+            }).get(10, TimeUnit.SECONDS);
+        }
+
+        // Grouped by artifact in the order first provided, regardless of the order lookups complete
+        Assert.assertEquals(updates.stream().map(ArtifactUpdate::getCoordinate).collect(Collectors.toList()), Arrays.asList(
+                ArtifactCoordinate.parse("group:a:1.0.0"),
+                ArtifactCoordinate.parse("group:a:2.0.0"),
+                ArtifactCoordinate.parse("group:failing:1.0.0"),
+                ArtifactCoordinate.parse("group:b:2.0.0"),
+                ArtifactCoordinate.parse("group:missing:1.0.0")));
+        Assert.assertEquals(updates.stream().map(ArtifactUpdate::getStatus).collect(Collectors.toList()),
+                Arrays.asList(Status.OUTDATED, Status.CURRENT, Status.FAILED, Status.CURRENT, Status.NOT_FOUND));
+
+        // The failure is provided as thrown by the lookup, rather than wrapped by the future
+        Assert.assertFalse(updates.get(2).getFailure() instanceof CompletionException, "Failure not unwrapped " + updates.get(2).getFailure());
+
+        Assert.assertEquals(Sets.newHashSet(notified), Sets.newHashSet(updates));
+        Assert.assertEquals(notified.size(), updates.size());
+        Assert.assertEquals(peakInListener.get(), 1);
+        Assert.assertEquals(standIn.getRequestCount(), 4);
+        Assert.assertTrue(standIn.getPeakInFlight() > 1, "Lookups were not performed concurrently");
+    }
+
+    @Test
+    public void notFoundCompletesAbsent() throws Exception {
+        try (AsyncArtifactRepository asyncRepository = AsyncArtifactRepository.create(repository, 2)) {
+            Assert.assertFalse(asyncRepository.findArtifact("group:missing").join().isPresent());
+            Assert.assertFalse(asyncRepository.findArtifacts(Arrays.asList("group:missing")).join().get("group:missing").isPresent());
+        }
+
+        Assert.assertEquals(standIn.getRequestCount(), 2);
+    }
+
+}
@@ -0,0 +1,286 @@
+package com.rsomeara.artifact.repo.versions.cache;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Maps;
+import com.rsomeara.artifact.repo.versions.type.IArtifact;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRelease;
+
+/**
+ * Tests reading, writing, and recovery of artifact cache files
+ *
+ * @author romeara
+ */
+public class ArtifactLogTest {
+
+    private Path directory;
+
+    private Path path;
+
+    @BeforeMethod
+    public void createDirectory() throws Exception {
+        directory = Files.createTempDirectory("artifact-log");
+        path = directory.resolve("artifacts.log");
+    }
+
+    @AfterMethod
+    public void deleteDirectory() throws Exception {
+        Files.deleteIfExists(path.resolveSibling(path.getFileName() + ".compact"));
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    public void recordsReadBack() throws Exception {
+        Map<LookupKey, ArtifactLog.Record> records = Maps.newHashMap();
+
+        try (ArtifactLog log = ArtifactLog.open(path, records)) {
+            log.append(artifactRecord("group:a", 10, "1.1.0", "1.0.0"));
+            log.append(releaseRecord("group:a", "1.0.0", 20));
+            log.append(new ArtifactLog.Record(latestKey("group:missing"), 30, Optional.absent()));
+        }
+
+        Assert.assertTrue(records.isEmpty());
+
+        try (ArtifactLog log = ArtifactLog.open(path, records)) {
+            Assert.assertEquals(log.getRecordCount(), 3);
+        }
+
+        IArtifact artifact = (IArtifact) records.get(artifactKey("group:a")).getResult().get();
+        IArtifactRelease release = (IArtifactRelease) records.get(releaseKey("group:a", "1.0.0")).getResult().get();
+
+        Assert.assertEquals(records.size(), 3);
+        Assert.assertEquals(records.get(artifactKey("group:a")).getStoredAtMillis(), 10);
+        Assert.assertEquals(artifact.getArtifactId(), "group:a");
+        Assert.assertEquals(artifact.getLatestReleaseId(), "1.1.0");
+        Assert.assertEquals(artifact.getAvailableReleases(), Arrays.asList("1.1.0", "1.0.0"));
+        Assert.assertEquals(release.getReleaseId(), "1.0.0");
+        Assert.assertFalse(records.get(latestKey("group:missing")).getResult().isPresent());
+    }
+
+    @Test
+    public void tornTailTruncated() throws Exception {
+        try (ArtifactLog log = ArtifactLog.open(path, Maps.newHashMap())) {
+            log.append(artifactRecord("group:a", 10, "1.0.0"));
+        }
+
+        long validLength = Files.size(path);
+
+        try (ArtifactLog log = ArtifactLog.open(path, Maps.newHashMap())) {
+            log.append(artifactRecord("group:b", 20, "2.0.0"));
+        }
+
+        // The process stopped part way through writing the second record
+        truncate(path, Files.size(path) - 3);
+
+        Map<LookupKey, ArtifactLog.Record> records = Maps.newHashMap();
+
+        try (ArtifactLog log = ArtifactLog.open(path, records)) {
+            Assert.assertEquals(log.getRecordCount(), 1);
+            Assert.assertEquals(Files.size(path), validLength);
+
+            // Records appended after the removed tail are read back
+            log.append(artifactRecord("group:c", 30, "3.0.0"));
+        }
+
+        records.clear();
+
+        try (ArtifactLog log = ArtifactLog.open(path, records)) {
+            Assert.assertEquals(log.getRecordCount(), 2);
+        }
+
+        Assert.assertTrue(records.containsKey(artifactKey("group:a")));
+        Assert.assertFalse(records.containsKey(artifactKey("group:b")));
+        Assert.assertTrue(records.containsKey(artifactKey("group:c")));
+    }
+
+    @Test
+    public void checksumMismatchRejected() throws Exception {
+        try (ArtifactLog log = ArtifactLog.open(path, Maps.newHashMap())) {
+            log.append(releaseRecord("group:a", "1.0.0", 10));
+        }
+
+        long validLength = Files.size(path);
+
+        try (ArtifactLog log = ArtifactLog.open(path, Maps.newHashMap())) {
+            log.append(releaseRecord("group:b", "1.0.0", 20));
+        }
+
+        // Alter the last byte of the second record's content, leaving its length and checksum unchanged
+        byte[] content = Files.readAllBytes(path);
+        content[content.length - 1] ^= 0x01;
+        Files.write(path, content);
+
+        Map<LookupKey, ArtifactLog.Record> records = Maps.newHashMap();
+
+        try (ArtifactLog log = ArtifactLog.open(path, records)) {
+            Assert.assertEquals(log.getRecordCount(), 1);
+        }
+
+        Assert.assertEquals(records.keySet(), Collections.singleton(releaseKey("group:a", "1.0.0")));
+        Assert.assertEquals(Files.size(path), validLength);
+    }
+
+    @Test
+    public void unrecognizedFileReplaced() throws Exception {
+        Files.write(path, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+
+        Map<LookupKey, ArtifactLog.Record> records = Maps.newHashMap();
+
+        try (ArtifactLog log = ArtifactLog.open(path, records)) {
+            Assert.assertEquals(log.getRecordCount(), 0);
+            log.append(releaseRecord("group:a", "1.0.0", 10));
+        }
+
+        Assert.assertTrue(records.isEmpty());
+
+        try (ArtifactLog log = ArtifactLog.open(path, records)) {
+            Assert.assertEquals(log.getRecordCount(), 1);
+        }
+    }
+
+    @Test
+    public void interruptedCompactionDiscarded() throws Exception {
+        Path compactionPath = path.resolveSibling(path.getFileName() + ".compact");
+
+        try (ArtifactLog log = ArtifactLog.open(path, Maps.newHashMap())) {
+            log.append(artifactRecord("group:a", 10, "1.0.0"));
+        }
+
+        // The process stopped while writing a compacted copy, before it replaced the file
+        Files.write(compactionPath, new byte[] { 0x41, 0x52 });
+
+        Map<LookupKey, ArtifactLog.Record> records = Maps.newHashMap();
+
+        try (ArtifactLog log = ArtifactLog.open(path, records)) {
+            Assert.assertEquals(log.getRecordCount(), 1);
+        }
+
+        Assert.assertTrue(records.containsKey(artifactKey("group:a")));
+        Assert.assertFalse(Files.exists(compactionPath));
+    }
+
+    @Test
+    public void reopenAfterCompact() throws Exception {
+        Map<LookupKey, ArtifactLog.Record> records = Maps.newHashMap();
+
+        try (ArtifactLog log = ArtifactLog.open(path, records)) {
+            for (int i = 0; i < 5; i++) {
+                ArtifactLog.Record record = artifactRecord("group:a", i, "1." + i + ".0");
+
+                records.put(record.getKey(), record);
+                log.append(record);
+            }
+
+            ArtifactLog.Record release = releaseRecord("group:b", "1.0.0", 100);
+            records.put(release.getKey(), release);
+            log.append(release);
+
+            Assert.assertEquals(log.getRecordCount(), 6);
+
+            log.compact(records.values());
+
+            Assert.assertEquals(log.getRecordCount(), 2);
+            Assert.assertTrue(log.isAppendable());
+
+            // Records appended after compaction are written to the replacement file
+            log.append(artifactRecord("group:c", 200, "3.0.0"));
+        }
+
+        Map<LookupKey, ArtifactLog.Record> reopened = Maps.newHashMap();
+
+        try (ArtifactLog log = ArtifactLog.open(path, reopened)) {
+            Assert.assertEquals(log.getRecordCount(), 3);
+        }
+
+        Assert.assertEquals(reopened.size(), 3);
+        Assert.assertEquals(reopened.get(artifactKey("group:a")).getStoredAtMillis(), 4);
+        Assert.assertEquals(((IArtifact) reopened.get(artifactKey("group:a")).getResult().get()).getLatestReleaseId(), "1.4.0");
+        Assert.assertTrue(reopened.containsKey(releaseKey("group:b", "1.0.0")));
+        Assert.assertTrue(reopened.containsKey(artifactKey("group:c")));
+    }
+
+    /**
+     * @param path
+     *            File to shorten
+     * @param length
+     *            Length to shorten the file to
+     */
+    private static void truncate(Path path, long length) throws Exception {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+        }
+    }
+
+    private static LookupKey artifactKey(String artifactId) {
+        return new LookupKey(LookupKey.Kind.ARTIFACT, artifactId, null);
+    }
+
+    private static LookupKey releaseKey(String artifactId, String releaseId) {
+        return new LookupKey(LookupKey.Kind.SPECIFIED_RELEASE, artifactId, releaseId);
+    }
+
+    private static LookupKey latestKey(String artifactId) {
+        return new LookupKey(LookupKey.Kind.LATEST_RELEASE, artifactId, null);
+    }
+
+    /**
+     * @return Record of a found artifact, whose latest release is the first provided
+     */
+    private static ArtifactLog.Record artifactRecord(String artifactId, long storedAtMillis, String... releaseIds) {
+        IArtifact artifact = new IArtifact() {
+
+            @Override
+            public String getArtifactId() {
+                return artifactId;
+            }
+
+            @Override
+            public String getLatestReleaseId() {
+                return releaseIds[0];
+            }
+
+            @Override
+            public Iterable<String> getAvailableReleases() {
+                return Arrays.asList(releaseIds);
+            }
+
+        };
+
+        return new ArtifactLog.Record(artifactKey(artifactId), storedAtMillis, Optional.of(artifact));
+    }
+
+    /**
+     * @return Record of a found release
+     */
+    private static ArtifactLog.Record releaseRecord(String artifactId, String releaseId, long storedAtMillis) {
+        IArtifactRelease release = new IArtifactRelease() {
+
+            @Override
+            public String getArtifactId() {
+                return artifactId;
+            }
+
+            @Override
+            public String getReleaseId() {
+                return releaseId;
+            }
+
+        };
+
+        return new ArtifactLog.Record(releaseKey(artifactId, releaseId), storedAtMillis, Optional.of(release));
+    }
+
+}
@@ -0,0 +1,322 @@
+package com.rsomeara.artifact.repo.versions.cache;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
+import com.rsomeara.artifact.repo.versions.FakeTicker;
+import com.rsomeara.artifact.repo.versions.type.IArtifact;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRelease;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRepository;
+
+/**
+ * Tests expiry, single-flight loading, and statistics of in-memory retention of lookup results
+ *
+ * @author romeara
+ */
+public class CachingArtifactRepositoryTest {
+
+    private CountingRepository repository;
+
+    private FakeTicker ticker;
+
+    @BeforeMethod
+    public void createRepository() throws Exception {
+        repository = new CountingRepository();
+        ticker = new FakeTicker();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void maxEntriesNotPositive() throws Exception {
+        CachingArtifactRepository.newBuilder(repository).maxEntries(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void negativeTtlNotPositive() throws Exception {
+        CachingArtifactRepository.newBuilder(repository).negativeTtl(0, TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void repeatedLookupsRetained() throws Exception {
+        CachingArtifactRepository cache = newBuilder().build();
+
+        IArtifact first = cache.findArtifact("group:a").get();
+        IArtifact second = cache.findArtifact("group:a").get();
+
+        Assert.assertSame(second, first);
+        Assert.assertEquals(cache.findSpecifiedArtifactRelease("group:a", "1.0.0").get().getReleaseId(), "1.0.0");
+        Assert.assertEquals(cache.findLatestArtifactRelease("group:a").get().getReleaseId(), "2.0.0");
+        Assert.assertEquals(cache.findLatestArtifactRelease("group:a").get().getReleaseId(), "2.0.0");
+
+        // Each kind of lookup is retained separately
+        Assert.assertEquals(repository.getLookupCount(), 3);
+        Assert.assertEquals(cache.size(), 3);
+    }
+
+    @Test
+    public void notFoundExpiresBeforeFound() throws Exception {
+        CachingArtifactRepository cache = newBuilder().build();
+
+        Assert.assertTrue(cache.findArtifact("group:a").isPresent());
+        Assert.assertFalse(cache.findArtifact("group:missing").isPresent());
+
+        ticker.advance(5, TimeUnit.MINUTES);
+
+        Assert.assertTrue(cache.findArtifact("group:a").isPresent());
+        Assert.assertFalse(cache.findArtifact("group:missing").isPresent());
+
+        Assert.assertEquals(repository.getLookupCount("group:a"), 1);
+        Assert.assertEquals(repository.getLookupCount("group:missing"), 2);
+
+        ticker.advance(55, TimeUnit.MINUTES);
+
+        Assert.assertTrue(cache.findArtifact("group:a").isPresent());
+
+        Assert.assertEquals(repository.getLookupCount("group:a"), 2);
+    }
+
+    @Test
+    public void resultRetainedUntilExpiry() throws Exception {
+        CachingArtifactRepository cache = newBuilder().build();
+
+        cache.findArtifact("group:missing");
+        ticker.advance(TimeUnit.MINUTES.toNanos(5) - 1, TimeUnit.NANOSECONDS);
+        cache.findArtifact("group:missing");
+
+        Assert.assertEquals(repository.getLookupCount("group:missing"), 1);
+
+        ticker.advance(1, TimeUnit.NANOSECONDS);
+        cache.findArtifact("group:missing");
+
+        Assert.assertEquals(repository.getLookupCount("group:missing"), 2);
+    }
+
+    @Test
+    public void failedLookupNotRetained() throws Exception {
+        CachingArtifactRepository cache = newBuilder().build();
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.findArtifact("group:failing");
+                Assert.fail("Expected failed lookup to be provided to the caller");
+            } catch (IllegalStateException e) {
+                // Expected, unwrapped
+            }
+        }
+
+        Assert.assertEquals(repository.getLookupCount("group:failing"), 2);
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void concurrentLookupsLoadOnce() throws Exception {
+        CachingArtifactRepository cache = newBuilder().build();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // The wrapped repository holds the first lookup until every lookup has been started
+        CountDownLatch release = new CountDownLatch(1);
+        repository.setLatch(release);
+
+        try {
+            List<Future<Optional<IArtifact>>> lookups = Lists.newArrayList();
+
+            for (int i = 0; i < 8; i++) {
+                lookups.add(executor.submit(() -> cache.findArtifact("group:a")));
+            }
+
+            TimeUnit.MILLISECONDS.sleep(100);
+            release.countDown();
+
+            IArtifact first = lookups.get(0).get(5, TimeUnit.SECONDS).get();
+
+            for (Future<Optional<IArtifact>> lookup : lookups) {
+                Assert.assertSame(lookup.get(5, TimeUnit.SECONDS).get(), first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(repository.getLookupCount("group:a"), 1);
+        Assert.assertEquals(cache.getMissCount(), 1);
+        Assert.assertEquals(cache.getHitCount(), 7);
+    }
+
+    @Test
+    public void statistics() throws Exception {
+        CachingArtifactRepository cache = newBuilder().maxEntries(2).build();
+
+        cache.findArtifact("group:a");
+        cache.findArtifact("group:a");
+        cache.findArtifact("group:b");
+
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(cache.getMissCount(), 2);
+        Assert.assertEquals(cache.getEvictionCount(), 0);
+        Assert.assertEquals(cache.size(), 2);
+
+        // The least recently used result is evicted
+        cache.findArtifact("group:a");
+        cache.findArtifact("group:c");
+        cache.findArtifact("group:a");
+        cache.findArtifact("group:b");
+
+        Assert.assertEquals(cache.getHitCount(), 3);
+        Assert.assertEquals(cache.getMissCount(), 4);
+        Assert.assertEquals(cache.getEvictionCount(), 2);
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertEquals(repository.getLookupCount("group:b"), 2);
+
+        // Expired results are counted as misses
+        ticker.advance(60, TimeUnit.MINUTES);
+        cache.findArtifact("group:a");
+
+        Assert.assertEquals(cache.getHitCount(), 3);
+        Assert.assertEquals(cache.getMissCount(), 5);
+
+        // Statistics are retained when results are removed
+        cache.invalidateAll();
+
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(cache.getMissCount(), 5);
+    }
+
+    /**
+     * @return Builder for a cache of the counting repository, with the default lifetimes and the fake ticker
+     */
+    private CachingArtifactRepository.Builder newBuilder() {
+        return CachingArtifactRepository.newBuilder(repository)
+                .positiveTtl(60, TimeUnit.MINUTES)
+                .negativeTtl(5, TimeUnit.MINUTES)
+                .ticker(ticker);
+    }
+
+    /**
+     * Repository which finds every artifact with releases "1.0.0" and "2.0.0", and counts the lookups made of each.
+     * Artifacts whose ID contains "missing" are not found, and lookups of artifacts whose ID contains "failing" fail
+     *
+     * @author romeara
+     */
+    private static final class CountingRepository implements IArtifactRepository {
+
+        private final Multiset<String> lookups = ConcurrentHashMultiset.create();
+
+        private volatile CountDownLatch latch = new CountDownLatch(0);
+
+        /**
+         * @param latch
+         *            Latch each lookup waits for before it is answered
+         */
+        private void setLatch(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        /**
+         * @return The number of lookups made of any artifact
+         */
+        private int getLookupCount() {
+            return lookups.size();
+        }
+
+        /**
+         * @param artifactId
+         *            ID of an artifact
+         * @return The number of lookups made of the artifact
+         */
+        private int getLookupCount(String artifactId) {
+            return lookups.count(artifactId);
+        }
+
+        @Override
+        public Optional<IArtifact> findArtifact(String artifactId) {
+            Optional<IArtifact> result = Optional.absent();
+
+            if (isFound(artifactId)) {
+                result = Optional.of(new IArtifact() {
+
+                    @Override
+                    public String getArtifactId() {
+                        return artifactId;
+                    }
+
+                    @Override
+                    public String getLatestReleaseId() {
+                        return "2.0.0";
+                    }
+
+                    @Override
+                    public Iterable<String> getAvailableReleases() {
+                        return Lists.newArrayList("2.0.0", "1.0.0");
+                    }
+
+                });
+            }
+
+            return result;
+        }
+
+        @Override
+        public Optional<IArtifactRelease> findSpecifiedArtifactRelease(String artifactId, String releaseId) {
+            return (isFound(artifactId) ? Optional.of(newRelease(artifactId, releaseId)) : Optional.absent());
+        }
+
+        @Override
+        public Optional<IArtifactRelease> findLatestArtifactRelease(String artifactId) {
+            return (isFound(artifactId) ? Optional.of(newRelease(artifactId, "2.0.0")) : Optional.absent());
+        }
+
+        /**
+         * Records a lookup, and waits for the latch
+         *
+         * @param artifactId
+         *            ID of the artifact looked up
+         * @return True if the artifact is found
+         */
+        private boolean isFound(String artifactId) {
+            lookups.add(artifactId);
+
+            try {
+                if (!latch.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Lookup of " + artifactId + " was not released");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+
+            if (artifactId.contains("failing")) {
+                throw new IllegalStateException("Lookup of " + artifactId + " failed");
+            }
+
+            return !artifactId.contains("missing");
+        }
+
+        private static IArtifactRelease newRelease(String artifactId, String releaseId) {
+            return new IArtifactRelease() {
+
+                @Override
+                public String getArtifactId() {
+                    return artifactId;
+                }
+
+                @Override
+                public String getReleaseId() {
+                    return releaseId;
+                }
+
+            };
+        }
+
+    }
+
+}
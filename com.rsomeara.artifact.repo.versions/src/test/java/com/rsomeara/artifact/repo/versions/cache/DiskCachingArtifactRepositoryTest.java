@@ -0,0 +1,198 @@
+package com.rsomeara.artifact.repo.versions.cache;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Multiset;
+import com.rsomeara.artifact.repo.versions.type.IArtifact;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRelease;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRepository;
+
+/**
+ * Tests retention of lookup results in a file across restarts, and behavior once the file is closed
+ *
+ * @author romeara
+ */
+public class DiskCachingArtifactRepositoryTest {
+
+    private static final Instant START = Instant.parse("2020-01-01T00:00:00Z");
+
+    private Path directory;
+
+    private Path path;
+
+    private CountingRepository repository;
+
+    @BeforeMethod
+    public void createDirectory() throws Exception {
+        directory = Files.createTempDirectory("disk-cache");
+        path = directory.resolve("artifacts.log");
+        repository = new CountingRepository();
+    }
+
+    @AfterMethod
+    public void deleteDirectory() throws Exception {
+        Files.deleteIfExists(path.resolveSibling(path.getFileName() + ".compact"));
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    public void resultsRetainedAcrossRestart() throws Exception {
+        try (DiskCachingArtifactRepository cache = newBuilder(START).build()) {
+            Assert.assertEquals(cache.findLatestArtifactRelease("group:a").get().getReleaseId(), "2.0.0");
+            Assert.assertFalse(cache.findLatestArtifactRelease("group:missing").isPresent());
+            Assert.assertEquals(cache.size(), 2);
+        }
+
+        try (DiskCachingArtifactRepository cache = newBuilder(START.plusSeconds(60)).build()) {
+            Assert.assertEquals(cache.size(), 2);
+            Assert.assertEquals(cache.findLatestArtifactRelease("group:a").get().getReleaseId(), "2.0.0");
+            Assert.assertFalse(cache.findLatestArtifactRelease("group:missing").isPresent());
+        }
+
+        Assert.assertEquals(repository.getLookupCount("group:a"), 1);
+        Assert.assertEquals(repository.getLookupCount("group:missing"), 1);
+    }
+
+    @Test
+    public void staleResultRefreshedInBackground() throws Exception {
+        try (DiskCachingArtifactRepository cache = newBuilder(START).build()) {
+            cache.findLatestArtifactRelease("group:a");
+        }
+
+        repository.setLatestReleaseId("3.0.0");
+
+        try (DiskCachingArtifactRepository cache = newBuilder(START.plus(25, ChronoUnit.HOURS)).build()) {
+            // The stored result is provided immediately, and replaced once refreshed
+            Assert.assertEquals(cache.findLatestArtifactRelease("group:a").get().getReleaseId(), "2.0.0");
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            String releaseId = null;
+
+            while (!"3.0.0".equals(releaseId) && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);
+                releaseId = cache.findLatestArtifactRelease("group:a").get().getReleaseId();
+            }
+
+            Assert.assertEquals(releaseId, "3.0.0");
+        }
+    }
+
+    @Test
+    public void lookupAfterCloseNotStored() throws Exception {
+        DiskCachingArtifactRepository cache = newBuilder(START).build();
+
+        cache.findLatestArtifactRelease("group:a");
+        cache.close();
+
+        long closedLength = Files.size(path);
+
+        // Each lookup is delegated, and neither the file nor the retained results change
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(cache.findLatestArtifactRelease("group:b").get().getReleaseId(), "2.0.0");
+        }
+
+        cache.close();
+
+        Assert.assertEquals(repository.getLookupCount("group:b"), 3);
+        Assert.assertEquals(cache.size(), 1);
+        Assert.assertEquals(Files.size(path), closedLength);
+        Assert.assertFalse(Files.exists(path.resolveSibling(path.getFileName() + ".compact")));
+
+        try (DiskCachingArtifactRepository reopened = newBuilder(START).build()) {
+            Assert.assertEquals(reopened.size(), 1);
+        }
+    }
+
+    /**
+     * @param now
+     *            Fixed time results are stored at, and compared to
+     * @return Builder for a repository which stores results of the counting repository
+     */
+    private DiskCachingArtifactRepository.Builder newBuilder(Instant now) {
+        return DiskCachingArtifactRepository.newBuilder(repository, path)
+                .clock(Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    /**
+     * Repository which finds the latest release of every artifact, and counts the lookups made of each. Artifacts whose
+     * ID contains "missing" are not found
+     *
+     * @author romeara
+     */
+    private static final class CountingRepository implements IArtifactRepository {
+
+        private final Multiset<String> lookups = ConcurrentHashMultiset.create();
+
+        private volatile String latestReleaseId = "2.0.0";
+
+        /**
+         * @param latestReleaseId
+         *            Release ID provided by later lookups
+         */
+        private void setLatestReleaseId(String latestReleaseId) {
+            this.latestReleaseId = latestReleaseId;
+        }
+
+        /**
+         * @param artifactId
+         *            ID of an artifact
+         * @return The number of lookups made of the artifact
+         */
+        private int getLookupCount(String artifactId) {
+            return lookups.count(artifactId);
+        }
+
+        @Override
+        public Optional<IArtifact> findArtifact(String artifactId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<IArtifactRelease> findSpecifiedArtifactRelease(String artifactId, String releaseId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<IArtifactRelease> findLatestArtifactRelease(String artifactId) {
+            lookups.add(artifactId);
+
+            Optional<IArtifactRelease> result = Optional.absent();
+
+            if (!artifactId.contains("missing")) {
+                String releaseId = latestReleaseId;
+
+                result = Optional.of(new IArtifactRelease() {
+
+                    @Override
+                    public String getArtifactId() {
+                        return artifactId;
+                    }
+
+                    @Override
+                    public String getReleaseId() {
+                        return releaseId;
+                    }
+
+                });
+            }
+
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.rsomeara.artifact.repo.versions.http;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.security.auth.callback.Callback;
+import javax.security.auth.callback.CallbackHandler;
+import javax.security.auth.callback.NameCallback;
+import javax.security.auth.callback.PasswordCallback;
+import javax.security.auth.callback.UnsupportedCallbackException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.rsomeara.artifact.repo.versions.exception.AuthenticationException;
+
+/**
+ * Tests requesting, retaining, and invalidating of HTTP basic authentication credentials
+ *
+ * @author romeara
+ */
+public class HttpBasicAuthenticationTest {
+
+    @Test
+    public void credentialsRequestedOnce() throws Exception {
+        CountingHandler handler = new CountingHandler("user", "key");
+        HttpBasicAuthentication authentication = new HttpBasicAuthentication(handler);
+
+        String value = authentication.getAuthorizationValue();
+
+        Assert.assertEquals(value, encode("user:key"));
+        Assert.assertEquals(authentication.getAuthorizationValue(), value);
+        Assert.assertEquals(handler.getCallCount(), 1);
+    }
+
+    @Test
+    public void invalidateOnlyRejectedValue() throws Exception {
+        CountingHandler handler = new CountingHandler("user", "key");
+        HttpBasicAuthentication authentication = new HttpBasicAuthentication(handler);
+
+        String value = authentication.getAuthorizationValue();
+
+        // Credentials other than those retained were rejected, so the retained credentials are kept
+        Assert.assertFalse(authentication.invalidate(encode("user:other")));
+        Assert.assertEquals(authentication.getAuthorizationValue(), value);
+        Assert.assertEquals(handler.getCallCount(), 1);
+
+        Assert.assertTrue(authentication.invalidate(value));
+        handler.setPassword("replaced");
+
+        String replaced = authentication.getAuthorizationValue();
+
+        Assert.assertEquals(replaced, encode("user:replaced"));
+        Assert.assertEquals(handler.getCallCount(), 2);
+
+        // A later rejection of the original credentials does not discard their replacement
+        Assert.assertFalse(authentication.invalidate(value));
+        Assert.assertEquals(authentication.getAuthorizationValue(), replaced);
+        Assert.assertEquals(handler.getCallCount(), 2);
+    }
+
+    @Test
+    public void prePopulatedCallbacks() throws Exception {
+        CountingHandler handler = new CountingHandler("user", "key");
+        NameCallback nameCallback = new NameCallback("Username: ");
+        PasswordCallback passwordCallback = new PasswordCallback("Password: ", false);
+
+        nameCallback.setName("provided");
+        passwordCallback.setPassword("secret".toCharArray());
+
+        HttpBasicAuthentication authentication = new HttpBasicAuthentication(handler, nameCallback, passwordCallback);
+        String value = authentication.getAuthorizationValue();
+
+        Assert.assertEquals(value, encode("provided:secret"));
+        Assert.assertEquals(handler.getCallCount(), 0);
+
+        // Provided credentials are cleared once encoded, so replacements are requested from the handler
+        Assert.assertNull(passwordCallback.getPassword());
+        Assert.assertTrue(authentication.invalidate(value));
+        Assert.assertEquals(authentication.getAuthorizationValue(), encode("user:key"));
+        Assert.assertEquals(handler.getCallCount(), 1);
+    }
+
+    @Test(expectedExceptions = AuthenticationException.class)
+    public void passwordNotPopulated() throws Exception {
+        new HttpBasicAuthentication(new CountingHandler("user", null)).getAuthorizationValue();
+    }
+
+    @Test
+    public void unsupportedCallbacks() throws Exception {
+        HttpBasicAuthentication authentication = new HttpBasicAuthentication(callbacks -> {
+            throw new UnsupportedCallbackException(callbacks[0]);
+        });
+
+        try {
+            authentication.getAuthorizationValue();
+            Assert.fail("Expected handler without support for the callbacks to fail");
+        } catch (AuthenticationException e) {
+            Assert.assertTrue(e.getCause() instanceof UnsupportedCallbackException);
+        }
+    }
+
+    /**
+     * @param credentials
+     *            Username and password, separated by a colon
+     * @return The "Authorization" header value for the credentials
+     */
+    private static String encode(String credentials) {
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Handler which populates fixed credentials, and counts the times it is called
+     *
+     * @author romeara
+     */
+    private static final class CountingHandler implements CallbackHandler {
+
+        private final String username;
+
+        private volatile String password;
+
+        private final AtomicInteger callCount = new AtomicInteger();
+
+        /**
+         * @param username
+         *            Username to populate
+         * @param password
+         *            Password to populate, or null to leave the password callback unpopulated
+         */
+        private CountingHandler(String username, String password) {
+            this.username = username;
+            this.password = password;
+        }
+
+        /**
+         * @param password
+         *            Password to populate on later calls
+         */
+        private void setPassword(String password) {
+            this.password = password;
+        }
+
+        /**
+         * @return The number of times the handler has been called
+         */
+        private int getCallCount() {
+            return callCount.get();
+        }
+
+        @Override
+        public void handle(Callback[] callbacks) {
+            callCount.incrementAndGet();
+
+            for (Callback callback : callbacks) {
+                if (callback instanceof NameCallback) {
+                    ((NameCallback) callback).setName(username);
+                } else if (callback instanceof PasswordCallback && password != null) {
+                    ((PasswordCallback) callback).setPassword(password.toCharArray());
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,326 @@
+package com.rsomeara.artifact.repo.versions.jcenter.type;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+import org.json.simple.JSONValue;
+
+import com.google.common.base.Strings;
+import com.google.common.net.HttpHeaders;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the BinTray package APIs, which serves every requested artifact with a fixed set of releases and
+ * records the requests it receives. Artifacts whose ID contains "missing" are not found, and requests for artifacts
+ * whose ID contains "failing" are answered with "500 Internal Server Error"
+ *
+ * <p>
+ * Responses carry an ETag, and requests with a matching If-None-Match header are answered with "304 Not Modified".
+ * Once an allowance is set, responses report the remaining allowance in BinTray's rate limit headers, and requests
+ * beyond it are answered with "429 Too Many Requests". Requests with rejected credentials are answered with "401
+ * Unauthorized", and count against the allowance without reporting it
+ * </p>
+ *
+ * @author romeara
+ */
+public final class BinTrayStandIn implements Closeable {
+
+    /** Daily limit reported in rate limit headers */
+    public static final int QUERY_LIMIT = 300;
+
+    private static final String MISSING_ARTIFACT = "missing";
+
+    private static final String FAILING_ARTIFACT = "failing";
+
+    private static final String VERSIONS_PATH = "/versions/";
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private final AtomicInteger conditionalRequestCount = new AtomicInteger();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private final Set<SocketAddress> connections = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    private volatile List<String> releaseIds = Arrays.asList("2.0.0", "1.0.0");
+
+    private volatile boolean entityTags = true;
+
+    private volatile long responseDelayMillis = 0;
+
+    private volatile int trailingLength = 0;
+
+    /** "Authorization" header values answered with "401 Unauthorized" */
+    private final Set<String> rejectedAuthorizations = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    /** Queries remaining of the allowance, or -1 if no allowance is reported */
+    private final AtomicInteger allowance = new AtomicInteger(-1);
+
+    /**
+     * Starts a stand-in on an ephemeral port of the loopback interface
+     *
+     * @throws IOException
+     *             If the server cannot be started
+     */
+    public BinTrayStandIn() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newCachedThreadPool();
+
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @return Base URL of the stand-in, as provided to {@link JCenterArtifactRepository.Builder#baseUrl(String)}
+     */
+    @Nonnull
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * @param releaseIds
+     *            Releases of every artifact, newest first
+     */
+    public void setReleaseIds(@Nonnull String... releaseIds) {
+        this.releaseIds = Arrays.asList(releaseIds);
+    }
+
+    /**
+     * @param entityTags
+     *            True if responses carry an ETag, allowing conditional requests. Enabled by default
+     */
+    public void setEntityTags(boolean entityTags) {
+        this.entityTags = entityTags;
+    }
+
+    /**
+     * @param responseDelayMillis
+     *            Time each request is held before it is answered
+     */
+    public void setResponseDelay(long responseDelayMillis) {
+        this.responseDelayMillis = responseDelayMillis;
+    }
+
+    /**
+     * @param trailingLength
+     *            Length of a description field which follows the fields of interest in artifact responses, and is not
+     *            read by the parser
+     */
+    public void setTrailingLength(int trailingLength) {
+        this.trailingLength = trailingLength;
+    }
+
+    /**
+     * @param allowance
+     *            The number of queries answered before requests are refused, reported in rate limit headers
+     */
+    public void setAllowance(int allowance) {
+        this.allowance.set(allowance);
+    }
+
+    /**
+     * @param username
+     *            Username of credentials to reject
+     * @param password
+     *            Password, or API key, of credentials to reject
+     */
+    public void rejectCredentials(@Nonnull String username, @Nonnull String password) {
+        String credentials = username + ":" + password;
+
+        rejectedAuthorizations.add("Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @return The number of requests received
+     */
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return The number of requests received with an If-None-Match header
+     */
+    public int getConditionalRequestCount() {
+        return conditionalRequestCount.get();
+    }
+
+    /**
+     * @return The number of distinct client connections requests were received on
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * @return The most requests being answered at once
+     */
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param exchange
+     *            A request, and the response to it
+     * @throws IOException
+     *             If there is an error writing the response
+     */
+    private void handle(@Nonnull HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(current, Math::max);
+
+        try {
+            requestCount.incrementAndGet();
+            connections.add(exchange.getRemoteAddress());
+
+            if (responseDelayMillis > 0) {
+                TimeUnit.MILLISECONDS.sleep(responseDelayMillis);
+            }
+
+            respond(exchange);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    /**
+     * @param exchange
+     *            A request, and the response to it
+     * @throws IOException
+     *             If there is an error writing the response
+     */
+    private void respond(@Nonnull HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String entityTag = exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+
+        if (entityTag != null) {
+            conditionalRequestCount.incrementAndGet();
+        }
+
+        int remaining = allowance.getAndUpdate(value -> (value > 0 ? value - 1 : value));
+        String authorization = exchange.getRequestHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        boolean rejected = (authorization != null && rejectedAuthorizations.contains(authorization));
+
+        // The allowance belongs to a user, so it is not reported to requests whose user is not known
+        if (remaining >= 0 && !rejected) {
+            exchange.getResponseHeaders().add("X-RateLimit-Limit", String.valueOf(QUERY_LIMIT));
+            exchange.getResponseHeaders().add("X-RateLimit-Remaining", String.valueOf(Math.max(0, remaining - 1)));
+        }
+
+        if (remaining == 0) {
+            exchange.sendResponseHeaders(429, -1);
+        } else if (rejected) {
+            send(exchange, 401, "{\"message\":\"This resource requires authentication\"}");
+        } else if (path.contains(FAILING_ARTIFACT)) {
+            send(exchange, 500, "{\"message\":\"Internal error\"}");
+        } else if (path.contains(MISSING_ARTIFACT)) {
+            send(exchange, 404, "{\"message\":\"Package was not found\"}");
+        } else {
+            String body = JSONValue.toJSONString(path.contains(VERSIONS_PATH) ? toRelease(path) : toArtifact(path));
+            String responseTag = "\"" + Integer.toHexString(body.hashCode()) + "\"";
+
+            if (entityTags) {
+                exchange.getResponseHeaders().add(HttpHeaders.ETAG, responseTag);
+            }
+
+            if (entityTags && responseTag.equals(entityTag)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                send(exchange, 200, body);
+            }
+        }
+    }
+
+    /**
+     * @param path
+     *            Path of an artifact request
+     * @return Fields of the artifact response
+     */
+    @Nonnull
+    private Map<String, Object> toArtifact(@Nonnull String path) {
+        Map<String, Object> artifact = new LinkedHashMap<>();
+        artifact.put("name", path.substring(path.lastIndexOf('/') + 1));
+        artifact.put("latest_version", releaseIds.get(0));
+        artifact.put("versions", releaseIds);
+
+        if (trailingLength > 0) {
+            artifact.put("desc", Strings.repeat("x", trailingLength));
+        }
+
+        return artifact;
+    }
+
+    /**
+     * @param path
+     *            Path of a release request
+     * @return Fields of the release response
+     */
+    @Nonnull
+    private Map<String, Object> toRelease(@Nonnull String path) {
+        String artifactPath = path.substring(0, path.indexOf(VERSIONS_PATH));
+        String releaseId = path.substring(path.indexOf(VERSIONS_PATH) + VERSIONS_PATH.length());
+
+        Map<String, Object> release = new LinkedHashMap<>();
+        release.put("name", (releaseId.equals("_latest") ? releaseIds.get(0) : releaseId));
+        release.put("package", artifactPath.substring(artifactPath.lastIndexOf('/') + 1));
+
+        return release;
+    }
+
+    /**
+     * @param exchange
+     *            A request, and the response to it
+     * @param status
+     *            The status of the response
+     * @param body
+     *            The content of the response
+     * @throws IOException
+     *             If there is an error writing the response
+     */
+    private static void send(@Nonnull HttpExchange exchange, int status, @Nonnull String body) throws IOException {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+
+        exchange.sendResponseHeaders(status, content.length);
+
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(content);
+        }
+    }
+
+}
@@ -0,0 +1,367 @@
+package com.rsomeara.artifact.repo.versions.jcenter.type;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.security.auth.callback.Callback;
+import javax.security.auth.callback.CallbackHandler;
+import javax.security.auth.callback.NameCallback;
+import javax.security.auth.callback.PasswordCallback;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+import com.rsomeara.artifact.repo.versions.FakeTicker;
+import com.rsomeara.artifact.repo.versions.exception.AuthenticationException;
+import com.rsomeara.artifact.repo.versions.exception.QueryLimitExceededException;
+import com.rsomeara.artifact.repo.versions.type.ArtifactCoordinate;
+import com.rsomeara.artifact.repo.versions.type.ArtifactUpdate;
+import com.rsomeara.artifact.repo.versions.type.ArtifactUpdate.Status;
+import com.rsomeara.artifact.repo.versions.type.IArtifact;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRelease;
+
+/**
+ * Tests lookups against a local stand-in for the BinTray APIs
+ *
+ * @author romeara
+ */
+public class JCenterArtifactRepositoryTest {
+
+    private BinTrayStandIn standIn;
+
+    @BeforeMethod
+    public void startStandIn() throws Exception {
+        standIn = new BinTrayStandIn();
+    }
+
+    @AfterMethod
+    public void stopStandIn() throws Exception {
+        standIn.close();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void baseUrlWithoutSlash() throws Exception {
+        JCenterArtifactRepository.newBuilder("bintray", "jcenter").baseUrl("http://localhost");
+    }
+
+    @Test
+    public void findArtifact() throws Exception {
+        JCenterArtifactRepository repository = newBuilder().build();
+
+        Optional<IArtifact> artifact = repository.findArtifact("group:artifact");
+
+        Assert.assertTrue(artifact.isPresent());
+        Assert.assertEquals(artifact.get().getArtifactId(), "group:artifact");
+        Assert.assertEquals(artifact.get().getLatestReleaseId(), "2.0.0");
+        Assert.assertFalse(repository.findArtifact("group:missing").isPresent());
+    }
+
+    @Test
+    public void findLatestArtifactRelease() throws Exception {
+        JCenterArtifactRepository repository = newBuilder().build();
+
+        standIn.setReleaseIds("3.1.0", "3.0.0");
+
+        Optional<IArtifactRelease> release = repository.findLatestArtifactRelease("group:artifact");
+
+        Assert.assertEquals(release.get().getArtifactId(), "group:artifact");
+        Assert.assertEquals(release.get().getReleaseId(), "3.1.0");
+    }
+
+    @Test
+    public void connectionReused() throws Exception {
+        JCenterArtifactRepository repository = newBuilder().build();
+
+        // Without validators, each lookup is answered with a complete response. The JDK server closes connections
+        // after a 304 response, so reuse is only observable across complete responses
+        standIn.setEntityTags(false);
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(repository.findArtifact("group:artifact").isPresent());
+        }
+
+        Assert.assertEquals(standIn.getRequestCount(), 5);
+        Assert.assertEquals(standIn.getConnectionCount(), 1);
+    }
+
+    @Test
+    public void smallRemainderConsumed() throws Exception {
+        JCenterArtifactRepository repository = newBuilder().build();
+
+        standIn.setEntityTags(false);
+        standIn.setTrailingLength(1024);
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(repository.findArtifact("group:artifact").get().getLatestReleaseId(), "2.0.0");
+        }
+
+        Assert.assertEquals(standIn.getConnectionCount(), 1);
+    }
+
+    @Test
+    public void largeRemainderDisconnected() throws Exception {
+        JCenterArtifactRepository repository = newBuilder().build();
+
+        // Parsing stops before the remainder, which is too large to read so the connection could be reused. Beyond
+        // the JDK's own limit for draining remainders in the background, the connection is closed
+        standIn.setEntityTags(false);
+        standIn.setTrailingLength(1024 * 1024);
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(repository.findArtifact("group:artifact").get().getLatestReleaseId(), "2.0.0");
+        }
+
+        Assert.assertEquals(standIn.getRequestCount(), 3);
+        Assert.assertEquals(standIn.getConnectionCount(), 3);
+    }
+
+    @Test
+    public void checkForUpdates() throws Exception {
+        JCenterArtifactRepository repository = newBuilder().build();
+        List<ArtifactUpdate> notified = Lists.newArrayList();
+
+        List<ArtifactUpdate> updates = repository.checkForUpdates(Arrays.asList(
+                ArtifactCoordinate.parse("group:a:1.0.0"),
+                ArtifactCoordinate.parse("group:b:2.0.0"),
+                ArtifactCoordinate.parse("group:a:2.0.0"),
+                ArtifactCoordinate.parse("group:missing:1.0.0"),
+                ArtifactCoordinate.parse("group:failing:1.0.0"),
+                ArtifactCoordinate.parse("group:a:1.0.0")), notified::add);
+
+        // Grouped by artifact in the order first provided, without repeated dependencies
+        Assert.assertEquals(updates.stream().map(ArtifactUpdate::getCoordinate).collect(Collectors.toList()), Arrays.asList(
+                ArtifactCoordinate.parse("group:a:1.0.0"),
+                ArtifactCoordinate.parse("group:a:2.0.0"),
+                ArtifactCoordinate.parse("group:b:2.0.0"),
+                ArtifactCoordinate.parse("group:missing:1.0.0"),
+                ArtifactCoordinate.parse("group:failing:1.0.0")));
+        Assert.assertEquals(updates.stream().map(ArtifactUpdate::getStatus).collect(Collectors.toList()),
+                Arrays.asList(Status.OUTDATED, Status.CURRENT, Status.CURRENT, Status.NOT_FOUND, Status.FAILED));
+        Assert.assertEquals(updates.get(0).getLatestReleaseId(), "2.0.0");
+        Assert.assertNotNull(updates.get(4).getFailure());
+        Assert.assertEquals(notified, updates);
+
+        // Each artifact is looked up once
+        Assert.assertEquals(standIn.getRequestCount(), 4);
+    }
+
+    @Test
+    public void notModifiedUsesRetainedResult() throws Exception {
+        JCenterArtifactRepository repository = newBuilder().build();
+
+        Optional<IArtifact> first = repository.findArtifact("group:artifact");
+        Optional<IArtifact> second = repository.findArtifact("group:artifact");
+
+        Assert.assertEquals(standIn.getRequestCount(), 2);
+        Assert.assertEquals(standIn.getConditionalRequestCount(), 1);
+        Assert.assertEquals(repository.getNotModifiedCount(), 1);
+
+        // The retained result is provided, rather than parsed again
+        Assert.assertSame(second.get(), first.get());
+    }
+
+    @Test
+    public void changedResourceParsedAgain() throws Exception {
+        JCenterArtifactRepository repository = newBuilder().build();
+
+        repository.findArtifact("group:artifact");
+        standIn.setReleaseIds("2.1.0", "2.0.0", "1.0.0");
+
+        Assert.assertEquals(repository.findArtifact("group:artifact").get().getLatestReleaseId(), "2.1.0");
+        Assert.assertEquals(standIn.getConditionalRequestCount(), 1);
+        Assert.assertEquals(repository.getNotModifiedCount(), 0);
+    }
+
+    @Test
+    public void validatorsEvicted() throws Exception {
+        JCenterArtifactRepository repository = newBuilder().maxValidatedResponses(1).build();
+
+        repository.findArtifact("group:a");
+        repository.findArtifact("group:b");
+
+        // Validators of the first artifact were evicted for the second
+        repository.findArtifact("group:a");
+
+        Assert.assertEquals(standIn.getConditionalRequestCount(), 0);
+        Assert.assertEquals(repository.getNotModifiedCount(), 0);
+
+        repository.findArtifact("group:a");
+
+        Assert.assertEquals(standIn.getConditionalRequestCount(), 1);
+        Assert.assertEquals(repository.getNotModifiedCount(), 1);
+    }
+
+    @Test
+    public void validatorsDisabled() throws Exception {
+        JCenterArtifactRepository repository = newBuilder().maxValidatedResponses(0).build();
+
+        Optional<IArtifactRelease> first = repository.findSpecifiedArtifactRelease("group:artifact", "1.0.0");
+        Optional<IArtifactRelease> second = repository.findSpecifiedArtifactRelease("group:artifact", "1.0.0");
+
+        Assert.assertEquals(second.get().getReleaseId(), first.get().getReleaseId());
+        Assert.assertEquals(standIn.getConditionalRequestCount(), 0);
+    }
+
+    @Test
+    public void queryLimitExceeded() throws Exception {
+        FakeTicker ticker = new FakeTicker();
+        JCenterArtifactRepository repository = newBuilder().ticker(ticker).build();
+
+        // The first response reports no queries remaining, and later requests are refused
+        standIn.setAllowance(1);
+
+        Optional<IArtifact> retained = repository.findArtifact("group:a");
+
+        Assert.assertEquals(repository.getQueryLimit(), BinTrayStandIn.QUERY_LIMIT);
+        Assert.assertEquals(repository.getRemainingQueries(), 0);
+
+        // Once a query has refilled, a lookup without a retained result is attempted, and refused by the server
+        ticker.advance(TimeUnit.DAYS.toSeconds(1) / BinTrayStandIn.QUERY_LIMIT + 1, TimeUnit.SECONDS);
+
+        try {
+            repository.findArtifact("group:b");
+            Assert.fail("Expected lookup refused by the server to fail");
+        } catch (QueryLimitExceededException e) {
+            // Expected
+        }
+
+        Assert.assertEquals(standIn.getRequestCount(), 2);
+        Assert.assertEquals(repository.getRemainingQueries(), 0);
+
+        // A lookup with a retained result is answered from it, without a query
+        Assert.assertSame(repository.findArtifact("group:a").get(), retained.get());
+        Assert.assertEquals(repository.getDeferredCount(), 1);
+
+        try {
+            repository.findArtifact("group:b");
+            Assert.fail("Expected lookup without allowance to fail");
+        } catch (QueryLimitExceededException e) {
+            // Expected
+        }
+
+        Assert.assertEquals(standIn.getRequestCount(), 2);
+    }
+
+    @Test
+    public void credentialsRequestedOnce() throws Exception {
+        AtomicInteger requested = new AtomicInteger();
+        JCenterArtifactRepository repository = newBuilder(newHandler(requested, "key")).build();
+
+        Assert.assertEquals(repository.findLatestArtifactRelease("group:a").get().getReleaseId(), "2.0.0");
+        Assert.assertEquals(repository.findSpecifiedArtifactRelease("group:a", "1.0.0").get().getReleaseId(), "1.0.0");
+        Assert.assertEquals(repository.findSpecifiedArtifactRelease("group:b", "2.0.0").get().getReleaseId(), "2.0.0");
+
+        Assert.assertEquals(requested.get(), 1);
+    }
+
+    @Test
+    public void rejectedCredentialsRequestedAgain() throws Exception {
+        AtomicInteger requested = new AtomicInteger();
+        JCenterArtifactRepository repository = newBuilder(newHandler(requested, "expired", "key")).build();
+
+        standIn.rejectCredentials("user", "expired");
+
+        Assert.assertEquals(repository.findLatestArtifactRelease("group:a").get().getReleaseId(), "2.0.0");
+        Assert.assertEquals(requested.get(), 2);
+        Assert.assertEquals(standIn.getRequestCount(), 2);
+
+        // The replacement credentials are retained
+        Assert.assertTrue(repository.findLatestArtifactRelease("group:b").isPresent());
+        Assert.assertEquals(requested.get(), 2);
+        Assert.assertEquals(standIn.getRequestCount(), 3);
+    }
+
+    @Test
+    public void repeatedRejectionFails() throws Exception {
+        AtomicInteger requested = new AtomicInteger();
+        JCenterArtifactRepository repository = newBuilder(newHandler(requested, "expired", "revoked")).build();
+
+        standIn.rejectCredentials("user", "expired");
+        standIn.rejectCredentials("user", "revoked");
+
+        try {
+            repository.findLatestArtifactRelease("group:a");
+            Assert.fail("Expected lookup with rejected credentials to fail");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getCause() instanceof AuthenticationException, "Unexpected failure " + e);
+        }
+
+        // Retried once, with newly requested credentials
+        Assert.assertEquals(requested.get(), 2);
+        Assert.assertEquals(standIn.getRequestCount(), 2);
+    }
+
+    @Test
+    public void retryRequiresQueryAllowance() throws Exception {
+        AtomicInteger requested = new AtomicInteger();
+        JCenterArtifactRepository repository = newBuilder(newHandler(requested, "expired", "key")).ticker(new FakeTicker()).build();
+
+        // The first response reports one query remaining, which the rejected request uses
+        standIn.setAllowance(2);
+        standIn.rejectCredentials("user", "expired");
+
+        repository.findArtifact("group:a");
+
+        try {
+            repository.findLatestArtifactRelease("group:a");
+            Assert.fail("Expected retry without allowance to fail");
+        } catch (QueryLimitExceededException e) {
+            // Expected
+        }
+
+        Assert.assertEquals(standIn.getRequestCount(), 2);
+        Assert.assertEquals(repository.getRemainingQueries(), 0);
+    }
+
+    /**
+     * @return Builder for a repository which looks up artifacts from the stand-in, with fixed credentials
+     */
+    private JCenterArtifactRepository.Builder newBuilder() {
+        return newBuilder(newHandler(new AtomicInteger(), "key"));
+    }
+
+    /**
+     * @param callbackHandler
+     *            Handler which provides credentials
+     * @return Builder for a repository which looks up artifacts from the stand-in
+     */
+    private JCenterArtifactRepository.Builder newBuilder(CallbackHandler callbackHandler) {
+        return JCenterArtifactRepository.newBuilder("bintray", "jcenter")
+                .baseUrl(standIn.getBaseUrl())
+                .callbackHandler(callbackHandler);
+    }
+
+    /**
+     * @param requested
+     *            Counter incremented each time credentials are requested
+     * @param apiKeys
+     *            API keys provided on successive requests. The last is provided once the others are used
+     * @return Handler which provides the username "user" with each API key in turn
+     */
+    private static CallbackHandler newHandler(AtomicInteger requested, String... apiKeys) {
+        Iterator<String> keys = Arrays.asList(apiKeys).iterator();
+        String[] current = new String[1];
+
+        return callbacks -> {
+            requested.incrementAndGet();
+            current[0] = (keys.hasNext() ? keys.next() : current[0]);
+
+            for (Callback callback : callbacks) {
+                if (callback instanceof NameCallback) {
+                    ((NameCallback) callback).setName("user");
+                } else {
+                    ((PasswordCallback) callback).setPassword(current[0].toCharArray());
+                }
+            }
+        };
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.rsomeara.artifact.repo.versions.jcenter.type;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.rsomeara.artifact.repo.versions.type.IArtifact;
+import com.rsomeara.artifact.repo.versions.type.IArtifactRelease;
+
+/**
+ * Tests parsing of successive BinTray responses on one thread, with reused parsers and handlers
+ *
+ * @author romeara
+ */
+public class JCenterArtifactTest {
+
+    @Test
+    public void releasesNotSharedBetweenArtifacts() throws Exception {
+        IArtifact first = JCenterArtifact.create(toStream("{\"name\":\"first\",\"latest_version\":\"2.0\",\"versions\":[\"2.0\",\"1.0\"]}"));
+        IArtifact second = JCenterArtifact.create(toStream("{\"name\":\"second\",\"latest_version\":\"3.0\",\"versions\":[\"3.0\"]}"));
+
+        Assert.assertEquals(ImmutableList.copyOf(first.getAvailableReleases()), Arrays.asList("2.0", "1.0"));
+        Assert.assertEquals(ImmutableList.copyOf(second.getAvailableReleases()), Arrays.asList("3.0"));
+        Assert.assertEquals(second.getArtifactId(), "second");
+    }
+
+    @Test
+    public void notFoundAfterFound() throws Exception {
+        Assert.assertNotNull(JCenterArtifact.create(toStream("{\"name\":\"first\",\"latest_version\":\"2.0\",\"versions\":[\"2.0\"]}")));
+
+        // Values of the previous document are not carried over to a "not found" message
+        Assert.assertNull(JCenterArtifact.create(toStream("{\"message\":\"Package was not found\"}")));
+        Assert.assertNull(JCenterArtifact.create(new StringReader("{\"message\":\"Package was not found\"}")));
+    }
+
+    @Test
+    public void successiveReleases() throws Exception {
+        IArtifactRelease first = JCenterArtifactRelease.create(toStream("{\"name\":\"1.0\",\"package\":\"first\"}"));
+        IArtifactRelease second = JCenterArtifactRelease.create(toStream("{\"name\":\"2.0\",\"package\":\"second\"}"));
+
+        Assert.assertEquals(first.getReleaseId(), "1.0");
+        Assert.assertEquals(second.getArtifactId(), "second");
+        Assert.assertEquals(second.getReleaseId(), "2.0");
+        Assert.assertNull(JCenterArtifactRelease.create(toStream("{\"name\":\"3.0\"}")));
+    }
+
+    private static InputStream toStream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
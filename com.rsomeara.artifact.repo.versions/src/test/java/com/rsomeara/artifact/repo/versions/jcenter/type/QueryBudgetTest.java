@@ -0,0 +1,148 @@
+package com.rsomeara.artifact.repo.versions.jcenter.type;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Ticker;
+import com.rsomeara.artifact.repo.versions.FakeTicker;
+
+/**
+ * Tests tracking of the daily query allowance
+ *
+ * @author romeara
+ */
+public class QueryBudgetTest {
+
+    /** Time in which a limit of 300 queries per day refills one query, with a margin for rounding */
+    private static final long SECONDS_PER_QUERY = TimeUnit.DAYS.toSeconds(1) / 300 + 1;
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void reserveOutOfRange() throws Exception {
+        new QueryBudget(1.5, new FakeTicker());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void negativeLimit() throws Exception {
+        new QueryBudget(0.1, new FakeTicker()).update(-1, 0);
+    }
+
+    @Test
+    public void unknownLimitUnrestricted() throws Exception {
+        QueryBudget budget = new QueryBudget(0.1, new FakeTicker());
+
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(budget.tryAcquire(i % 2 == 0));
+        }
+
+        Assert.assertEquals(budget.getRemaining(), QueryBudget.UNKNOWN);
+        Assert.assertEquals(budget.getLimit(), QueryBudget.UNKNOWN);
+    }
+
+    @Test
+    public void updateLimitsRemaining() throws Exception {
+        QueryBudget budget = new QueryBudget(0.1, new FakeTicker());
+
+        budget.update(300, 500);
+
+        Assert.assertEquals(budget.getLimit(), 300);
+        Assert.assertEquals(budget.getRemaining(), 300);
+    }
+
+    @Test
+    public void refillsAtDailyLimit() throws Exception {
+        FakeTicker ticker = new FakeTicker();
+        QueryBudget budget = new QueryBudget(0.1, ticker);
+
+        budget.update(300, 0);
+
+        Assert.assertFalse(budget.tryAcquire(false));
+
+        ticker.advance(SECONDS_PER_QUERY, TimeUnit.SECONDS);
+
+        Assert.assertEquals(budget.getRemaining(), 1);
+        Assert.assertTrue(budget.tryAcquire(false));
+        Assert.assertFalse(budget.tryAcquire(false));
+
+        ticker.advance(2, TimeUnit.DAYS);
+
+        // Refilling stops at the daily limit
+        Assert.assertEquals(budget.getRemaining(), 300);
+    }
+
+    @Test
+    public void reserveHeldForUnanswerableLookups() throws Exception {
+        QueryBudget budget = new QueryBudget(0.1, new FakeTicker());
+
+        budget.update(300, 31);
+
+        Assert.assertTrue(budget.tryAcquire(true));
+
+        // At the reserve, only lookups without a retained result may query
+        Assert.assertFalse(budget.tryAcquire(true));
+        Assert.assertEquals(budget.getRemaining(), 30);
+        Assert.assertTrue(budget.tryAcquire(false));
+        Assert.assertEquals(budget.getRemaining(), 29);
+    }
+
+    @Test
+    public void exhausted() throws Exception {
+        FakeTicker ticker = new FakeTicker();
+        QueryBudget budget = new QueryBudget(0.1, ticker);
+
+        budget.update(300, 100);
+        budget.exhausted();
+
+        Assert.assertEquals(budget.getRemaining(), 0);
+        Assert.assertFalse(budget.tryAcquire(false));
+
+        ticker.advance(SECONDS_PER_QUERY, TimeUnit.SECONDS);
+
+        Assert.assertTrue(budget.tryAcquire(false));
+    }
+
+    @Test
+    public void acquireTimesOut() throws Exception {
+        // Time moves on each read, so the deadline passes without refilling a query
+        FakeTicker ticker = new FakeTicker().setAutoIncrement(10, TimeUnit.MILLISECONDS);
+        QueryBudget budget = new QueryBudget(0.1, ticker);
+
+        budget.update(300, 0);
+
+        Assert.assertFalse(budget.acquire(0, TimeUnit.MILLISECONDS));
+        Assert.assertFalse(budget.acquire(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void acquireAvailable() throws Exception {
+        QueryBudget budget = new QueryBudget(0.1, new FakeTicker());
+
+        budget.update(300, 1);
+
+        Assert.assertTrue(budget.acquire(0, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(budget.getRemaining(), 0);
+    }
+
+    @Test
+    public void acquireWokenByUpdate() throws Exception {
+        QueryBudget budget = new QueryBudget(0.1, Ticker.systemTicker());
+
+        budget.update(300, 0);
+
+        CompletableFuture<Boolean> acquired = CompletableFuture.supplyAsync(() -> {
+            try {
+                return budget.acquire(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        TimeUnit.MILLISECONDS.sleep(50);
+        budget.update(300, 5);
+
+        Assert.assertTrue(acquired.get(5, TimeUnit.SECONDS));
+    }
+
+}
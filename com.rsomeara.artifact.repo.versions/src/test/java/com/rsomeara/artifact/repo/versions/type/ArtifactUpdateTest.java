@@ -0,0 +1,107 @@
+package com.rsomeara.artifact.repo.versions.type;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Optional;
+import com.rsomeara.artifact.repo.versions.type.ArtifactUpdate.Status;
+
+/**
+ * Tests evaluation of dependencies against the releases of their artifacts
+ *
+ * @author romeara
+ */
+public class ArtifactUpdateTest {
+
+    private static final List<String> RELEASES = Arrays.asList("1.0.0", "1.1.0", "v1.2.0", "2.0.0-beta", "nightly");
+
+    @Test
+    public void notFound() throws Exception {
+        ArtifactUpdate update = ArtifactUpdate.evaluate(ArtifactCoordinate.parse("group:artifact:1.0"), Optional.absent());
+
+        Assert.assertEquals(update.getStatus(), Status.NOT_FOUND);
+        Assert.assertNull(update.getLatestReleaseId());
+        Assert.assertEquals(update.getNewerReleaseIds(), Collections.emptyList());
+    }
+
+    @Test
+    public void failed() throws Exception {
+        IOException failure = new IOException("unavailable");
+        ArtifactUpdate update = ArtifactUpdate.failed(ArtifactCoordinate.parse("group:artifact:1.0"), failure);
+
+        Assert.assertEquals(update.getStatus(), Status.FAILED);
+        Assert.assertSame(update.getFailure(), failure);
+        Assert.assertFalse(update.isOutdated());
+    }
+
+    @Test
+    public void outdatedExcludesPreReleases() throws Exception {
+        ArtifactUpdate update = evaluate("1.0", "2.0.0-beta");
+
+        Assert.assertEquals(update.getStatus(), Status.OUTDATED);
+        Assert.assertEquals(update.getNewerReleaseIds(), Arrays.asList("1.1.0", "v1.2.0"));
+        Assert.assertEquals(update.getLatestReleaseId(), "v1.2.0");
+    }
+
+    @Test
+    public void preReleaseInUseConsidersPreReleases() throws Exception {
+        ArtifactUpdate update = evaluate("2.0.0-alpha", "2.0.0-beta");
+
+        Assert.assertEquals(update.getStatus(), Status.OUTDATED);
+        Assert.assertEquals(update.getNewerReleaseIds(), Arrays.asList("2.0.0-beta"));
+        Assert.assertEquals(update.getLatestReleaseId(), "2.0.0-beta");
+    }
+
+    @Test
+    public void currentWithPrefixAndSuffix() throws Exception {
+        // "1.2.0.RELEASE" has the same precedence as the latest release, "v1.2.0"
+        ArtifactUpdate update = evaluate("1.2.0.RELEASE", "2.0.0-beta");
+
+        Assert.assertEquals(update.getStatus(), Status.CURRENT);
+        Assert.assertEquals(update.getNewerReleaseIds(), Collections.emptyList());
+        Assert.assertEquals(update.getLatestReleaseId(), "2.0.0-beta");
+    }
+
+    @Test
+    public void unversionedComparedToLatest() throws Exception {
+        Assert.assertEquals(evaluate("nightly", "v1.2.0").getStatus(), Status.OUTDATED);
+        Assert.assertEquals(evaluate("nightly", "v1.2.0").getLatestReleaseId(), "v1.2.0");
+        Assert.assertEquals(evaluate("nightly", "nightly").getStatus(), Status.CURRENT);
+    }
+
+    /**
+     * @param currentReleaseId
+     *            The release in use
+     * @param latestReleaseId
+     *            The release the repository reports as latest
+     * @return Evaluation of the release in use against {@link #RELEASES}
+     */
+    private static ArtifactUpdate evaluate(String currentReleaseId, String latestReleaseId) {
+        IArtifact artifact = new IArtifact() {
+
+            @Override
+            public String getArtifactId() {
+                return "group:artifact";
+            }
+
+            @Override
+            public String getLatestReleaseId() {
+                return latestReleaseId;
+            }
+
+            @Override
+            public Iterable<String> getAvailableReleases() {
+                return RELEASES;
+            }
+
+        };
+
+        return ArtifactUpdate.evaluate(ArtifactCoordinate.create("group:artifact", currentReleaseId), Optional.of(artifact));
+    }
+
+}
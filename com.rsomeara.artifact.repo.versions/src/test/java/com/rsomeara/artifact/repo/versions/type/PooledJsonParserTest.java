@@ -0,0 +1,184 @@
+package com.rsomeara.artifact.repo.versions.type;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.json.simple.parser.ParseException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * Tests parsing of successive documents, and decoding of UTF-8 streams, with reused parsers
+ *
+ * @author romeara
+ */
+public class PooledJsonParserTest {
+
+    /** Size of the buffers the parser decodes streams with */
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    /** Characters encoded in two, three, and four bytes */
+    @DataProvider(name = "multiByteValues")
+    public Object[][] getMultiByteValues() {
+        return new Object[][] {
+                { "\u00e9" },
+                { "\u20ac" },
+                { "\ud834\udd1e" } };
+    }
+
+    @Test
+    public void successiveDocumentsReset() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+
+        PooledJsonParser.parse(toStream("{\"name\":\"first\",\"version\":\"1.0\"}"), handler);
+
+        Assert.assertEquals(handler.getValues(), ImmutableMap.of("name", "first", "version", "1.0"));
+
+        PooledJsonParser.parse(toStream("{\"name\":\"second\"}"), handler);
+
+        Assert.assertEquals(handler.getValues(), ImmutableMap.of("name", "second"));
+
+        PooledJsonParser.parse(new StringReader("{\"version\":\"3.0\"}"), handler);
+
+        Assert.assertEquals(handler.getValues(), ImmutableMap.of("version", "3.0"));
+    }
+
+    @Test
+    public void stopsOnceComplete() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        String remainder = Strings.repeat("x", 4 * BUFFER_SIZE);
+        InputStream json = toStream("{\"name\":\"first\",\"stop\":true,\"desc\":\"" + remainder + "\"}");
+
+        PooledJsonParser.parse(json, handler);
+
+        Assert.assertEquals(handler.getValues(), ImmutableMap.of("name", "first", "stop", "true"));
+        Assert.assertTrue(json.available() > 2 * BUFFER_SIZE, "Remainder of the stream was read");
+
+        // Buffered content of the stopped document is not provided to the next
+        PooledJsonParser.parse(toStream("{\"version\":\"2.0\"}"), handler);
+
+        Assert.assertEquals(handler.getValues(), ImmutableMap.of("version", "2.0"));
+    }
+
+    @Test
+    public void invalidDocumentDoesNotAffectNext() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+
+        try {
+            PooledJsonParser.parse(toStream("{\"name\":\"first\",\"version\":"), handler);
+            Assert.fail("Expected incomplete document to fail");
+        } catch (ParseException e) {
+            // Expected
+        }
+
+        PooledJsonParser.parse(toStream("{\"name\":\"second\"}"), handler);
+
+        Assert.assertEquals(handler.getValues(), ImmutableMap.of("name", "second"));
+    }
+
+    @Test(dataProvider = "multiByteValues")
+    public void multiByteSplitAcrossReads(String value) throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        String json = "{\"name\":\"a" + value + "b" + value + "\"}";
+
+        PooledJsonParser.parse(new SingleByteStream(json.getBytes(StandardCharsets.UTF_8)), handler);
+
+        Assert.assertEquals(handler.getValues().get("name"), "a" + value + "b" + value);
+    }
+
+    @Test(dataProvider = "multiByteValues")
+    public void multiByteSplitAcrossBuffers(String value) throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        String prefix = "{\"name\":\"";
+        int encodedLength = value.getBytes(StandardCharsets.UTF_8).length;
+
+        // Each offset places a different split of the encoded character at the end of the first buffer
+        for (int offset = 0; offset < encodedLength; offset++) {
+            String padding = Strings.repeat("x", BUFFER_SIZE - prefix.length() - offset - 1);
+            String expected = padding + value + "end";
+
+            PooledJsonParser.parse(toStream(prefix + expected + "\"}"), handler);
+
+            Assert.assertEquals(handler.getValues().get("name"), expected, "Split at offset " + offset);
+        }
+    }
+
+    @Test
+    public void malformedInputReplaced() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        byte[] json = { '{', '"', 'n', 'a', 'm', 'e', '"', ':', '"', 'a', (byte) 0xff, 'b', '"', '}' };
+
+        PooledJsonParser.parse(new ByteArrayInputStream(json), handler);
+
+        Assert.assertEquals(handler.getValues().get("name"), "a\ufffdb");
+    }
+
+    private static InputStream toStream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Handler which records every primitive value by key, and completes once a "stop" key is read
+     *
+     * @author romeara
+     */
+    private static final class RecordingHandler extends AbstractContentHandler {
+
+        private final Map<String, String> values = Maps.newLinkedHashMap();
+
+        @Override
+        protected void reset() {
+            super.reset();
+
+            values.clear();
+        }
+
+        /**
+         * @return Values read from the last document, by key
+         */
+        private Map<String, String> getValues() {
+            return values;
+        }
+
+        @Override
+        public boolean primitive(Object value) throws ParseException, IOException {
+            values.put(getCurrentKey(), String.valueOf(value));
+
+            return !isComplete();
+        }
+
+        @Override
+        protected boolean isComplete() {
+            return values.containsKey("stop");
+        }
+
+    }
+
+    /**
+     * Stream which provides at most one byte per read, so multi-byte characters are split across reads
+     *
+     * @author romeara
+     */
+    private static final class SingleByteStream extends ByteArrayInputStream {
+
+        private SingleByteStream(byte[] content) {
+            super(content);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 1));
+        }
+
+    }
+
+}
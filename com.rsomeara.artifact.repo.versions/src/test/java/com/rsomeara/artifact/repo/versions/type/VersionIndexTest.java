@@ -0,0 +1,117 @@
+package com.rsomeara.artifact.repo.versions.type;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Optional;
+
+/**
+ * Tests ordering and queries of artifact release indexes
+ *
+ * @author romeara
+ */
+public class VersionIndexTest {
+
+    @Test
+    public void empty() throws Exception {
+        VersionIndex index = VersionIndex.of(null);
+
+        Assert.assertEquals(index.size(), 0);
+        Assert.assertEquals(index.latest(), Optional.absent());
+        Assert.assertEquals(index.latestMatching(VersionRange.parse("*")), Optional.absent());
+        Assert.assertEquals(index.newerThan("1.0"), Collections.emptyList());
+        Assert.assertFalse(index.contains("1.0"));
+    }
+
+    @Test
+    public void preReleaseOrdering() throws Exception {
+        // Semantic versioning precedence example, provided out of order
+        VersionIndex index = VersionIndex.of(Arrays.asList("1.0.0-rc.1", "1.0.0-beta.11", "1.0.0", "1.0.0-alpha.beta", "1.0.0-alpha",
+                "1.0.0-beta.2", "1.0.0-alpha.1", "1.0.0-beta"));
+
+        Assert.assertEquals(index.getOrderedReleaseIds(), Arrays.asList("1.0.0-alpha", "1.0.0-alpha.1", "1.0.0-alpha.beta", "1.0.0-beta",
+                "1.0.0-beta.2", "1.0.0-beta.11", "1.0.0-rc.1", "1.0.0"));
+        Assert.assertEquals(index.latest().get(), "1.0.0");
+    }
+
+    @Test
+    public void numericOrdering() throws Exception {
+        VersionIndex index = VersionIndex.of(Arrays.asList("1.10.0", "v1.9", "1.2.3.RELEASE", "1.2.10", "2.0.0+build5"));
+
+        Assert.assertEquals(index.getOrderedReleaseIds(), Arrays.asList("1.2.3.RELEASE", "1.2.10", "v1.9", "1.10.0", "2.0.0+build5"));
+    }
+
+    @Test
+    public void unversionedReleases() throws Exception {
+        VersionIndex index = VersionIndex.of(Arrays.asList("snapshot", "1.0", "latest"));
+
+        Assert.assertEquals(index.size(), 3);
+        Assert.assertEquals(index.getOrderedReleaseIds(), Arrays.asList("1.0"));
+        Assert.assertTrue(index.contains("snapshot"));
+        Assert.assertFalse(index.contains("nightly"));
+        Assert.assertEquals(index.newerThan("snapshot"), Collections.emptyList());
+    }
+
+    @Test
+    public void overflowingComponentsUnversioned() throws Exception {
+        VersionIndex index = VersionIndex.of(Arrays.asList("9223372036854775808.1.0", "1.0.0", "0.2.0", "1.99999999999.0"));
+
+        Assert.assertEquals(index.getOrderedReleaseIds(), Arrays.asList("0.2.0", "1.0.0"));
+        Assert.assertEquals(index.latest().get(), "1.0.0");
+        Assert.assertTrue(index.contains("9223372036854775808.1.0"));
+        Assert.assertEquals(index.newerThan("0.1.0"), Arrays.asList("0.2.0", "1.0.0"));
+    }
+
+    @Test
+    public void containsEqualPrecedence() throws Exception {
+        VersionIndex index = VersionIndex.of(Arrays.asList("1.2", "1.2.0", "v1.2.0", "1.2.0.RELEASE", "1.1", "1.3"));
+
+        Assert.assertTrue(index.contains("1.2"));
+        Assert.assertTrue(index.contains("1.2.0"));
+        Assert.assertTrue(index.contains("v1.2.0"));
+        Assert.assertTrue(index.contains("1.2.0.RELEASE"));
+        Assert.assertTrue(index.contains("1.1"));
+
+        // Equal in precedence to indexed releases, but not indexed itself
+        Assert.assertFalse(index.contains("v1.2"));
+        Assert.assertFalse(index.contains("1.2.0+build5"));
+        Assert.assertFalse(index.contains("1.2.0-rc1"));
+    }
+
+    @Test
+    public void newerThanSkipsEqualPrecedence() throws Exception {
+        VersionIndex index = VersionIndex.of(Arrays.asList("1.2", "1.2.0", "1.2.1-rc1", "1.3", "1.1"));
+
+        Assert.assertEquals(index.newerThan("v1.2.0"), Arrays.asList("1.2.1-rc1", "1.3"));
+        Assert.assertEquals(index.newerThan("1.2.1-rc1"), Arrays.asList("1.3"));
+        Assert.assertEquals(index.newerThan("1.3"), Collections.emptyList());
+        Assert.assertEquals(index.newerThan("0.1"), Arrays.asList("1.1", "1.2", "1.2.0", "1.2.1-rc1", "1.3"));
+    }
+
+    @Test
+    public void latestMatchingWildcard() throws Exception {
+        VersionIndex index = VersionIndex.of(Arrays.asList("1.0.0", "2.0.0", "2.5.1", "3.0.0-beta", "3.0.0"));
+
+        Assert.assertEquals(index.latestMatching(VersionRange.parse("2.x")).get(), "2.5.1");
+        Assert.assertEquals(index.latestMatching(VersionRange.parse("2.0.*")).get(), "2.0.0");
+        Assert.assertEquals(index.latestMatching(VersionRange.parse("*")).get(), "3.0.0");
+        Assert.assertFalse(index.latestMatching(VersionRange.parse("4.x")).isPresent());
+        Assert.assertFalse(index.latestMatching(VersionRange.parse("1.5.x")).isPresent());
+    }
+
+    @Test
+    public void latestMatchingExclusiveUpperBound() throws Exception {
+        VersionIndex index = VersionIndex.of(Arrays.asList("1.0.0", "1.5.0", "2.0.0-alpha", "2.0.0-beta", "2.0.0"));
+
+        // The exclusive bound falls among pre-releases of the bound, which precede it
+        Assert.assertEquals(index.latestMatching(VersionRange.parse("[1.0,2.0)")).get(), "2.0.0-beta");
+        Assert.assertEquals(index.latestMatching(VersionRange.parse("(,2.0.0-beta)")).get(), "2.0.0-alpha");
+        Assert.assertEquals(index.latestMatching(VersionRange.parse("1.x")).get(), "1.5.0");
+        Assert.assertEquals(index.latestMatching(VersionRange.parse("[1.0,2.0]")).get(), "2.0.0");
+        Assert.assertFalse(index.latestMatching(VersionRange.parse("(1.5,2.0.0-alpha)")).isPresent());
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.rsomeara.artifact.repo.versions.type;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Tests parsing of version ranges, and matching of release IDs against them
+ *
+ * @author romeara
+ */
+public class VersionRangeTest {
+
+    @DataProvider(name = "invalidRanges")
+    public Object[][] getInvalidRanges() {
+        return new Object[][] {
+                { "" },
+                { "1.*.3" },
+                { "x.2" },
+                { "1.x.x" },
+                { "1.2.3.x" },
+                { "1.2.beta" },
+                { "[1.0" },
+                { "(1.0]" },
+                { "[2.0,1.0]" },
+                { "[1.0,2.0],[3.0,)" },
+                { "[snapshot]" },
+                { "9223372036854775808.1.0" } };
+    }
+
+    @Test(dataProvider = "invalidRanges", expectedExceptions = IllegalArgumentException.class)
+    public void parseInvalid(String range) throws Exception {
+        VersionRange.parse(range);
+    }
+
+    @Test
+    public void exactVersion() throws Exception {
+        VersionRange range = VersionRange.parse("1.2");
+
+        Assert.assertEquals(range, VersionRange.parse("[1.2.0]"));
+        Assert.assertTrue(range.contains("1.2.0"));
+        Assert.assertTrue(range.contains("v1.2"));
+        Assert.assertTrue(range.contains("1.2.0.RELEASE"));
+        Assert.assertTrue(range.contains("1.2.0+build5"));
+        Assert.assertFalse(range.contains("1.2.1"));
+        Assert.assertFalse(range.contains("1.2.0-rc1"));
+    }
+
+    @Test
+    public void overflowingComponentNotContained() throws Exception {
+        // The first component wraps to zero if accumulated without stopping at the first overflow
+        Assert.assertFalse(VersionRange.parse("0.1.0").contains("9223372036854775808.1.0"));
+        Assert.assertFalse(VersionRange.parse("*").contains("9223372036854775808.1.0"));
+        Assert.assertFalse(VersionRange.parse("[0,)").contains("2147483648.0.0"));
+        Assert.assertTrue(VersionRange.parse("[0,)").contains("2147483647.0.0"));
+    }
+
+    @Test
+    public void exactPreRelease() throws Exception {
+        VersionRange range = VersionRange.parse("v2.0.0-beta.1+build5");
+
+        Assert.assertTrue(range.contains("2.0.0-beta.1"));
+        Assert.assertFalse(range.contains("2.0.0-beta.2"));
+        Assert.assertFalse(range.contains("2.0.0"));
+    }
+
+    @Test
+    public void wildcardExcludesNextPreReleases() throws Exception {
+        VersionRange range = VersionRange.parse("2.x");
+
+        Assert.assertEquals(range, VersionRange.parse("2.*"));
+        Assert.assertTrue(range.contains("2.0.0"));
+        Assert.assertTrue(range.contains("2.0.0-alpha"));
+        Assert.assertTrue(range.contains("2.99.1"));
+        Assert.assertFalse(range.contains("3.0.0-beta"));
+        Assert.assertFalse(range.contains("3.0.0"));
+        Assert.assertFalse(range.contains("1.9.9"));
+    }
+
+    @Test
+    public void minorWildcard() throws Exception {
+        VersionRange range = VersionRange.parse("2.4.*");
+
+        Assert.assertTrue(range.contains("2.4.0"));
+        Assert.assertTrue(range.contains("2.4.10"));
+        Assert.assertFalse(range.contains("2.5.0-rc1"));
+        Assert.assertFalse(range.contains("2.3.9"));
+    }
+
+    @Test
+    public void anyVersion() throws Exception {
+        VersionRange range = VersionRange.parse("*");
+
+        Assert.assertTrue(range.contains("0.0.1-alpha"));
+        Assert.assertTrue(range.contains("999.0.0"));
+        Assert.assertFalse(range.contains("snapshot"));
+    }
+
+    @Test
+    public void boundedRange() throws Exception {
+        VersionRange range = VersionRange.parse("[1.0,2.0)");
+
+        Assert.assertTrue(range.contains("1.0"));
+        Assert.assertTrue(range.contains("1.9.9"));
+        Assert.assertFalse(range.contains("2.0.0"));
+        Assert.assertFalse(range.contains("1.0.0-rc1"));
+
+        // Unlike wildcards, an exclusive upper bound does not exclude pre-releases of the bound
+        Assert.assertTrue(range.contains("2.0.0-beta"));
+    }
+
+    @Test
+    public void unboundedRanges() throws Exception {
+        Assert.assertTrue(VersionRange.parse("[1.5,)").contains("100.0"));
+        Assert.assertFalse(VersionRange.parse("[1.5,)").contains("1.4"));
+        Assert.assertTrue(VersionRange.parse("(,1.0]").contains("1.0.0"));
+        Assert.assertFalse(VersionRange.parse("(,1.0)").contains("1.0.0"));
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Shapes of text data used by benchmarks, chosen to exercise the different escaping paths of literal construction
+ *
+ * @author romeara
+ * @since 0.1
+ */
+public enum DataShape {
+
+    /** Plain ASCII text which requires no escaping */
+    ASCII("value", "-"),
+
+    /** Text where roughly every other character is a single quote, requiring escaping */
+    QUOTES("o'k'", "'"),
+
+    /** Text containing Windows-style paths. Backslashes are not special in standard conforming strings */
+    BACKSLASHES("C:\\a\\", "\\");
+
+    /** Number of distinct cell values generated per shape - large enough to defeat trivial caching */
+    private static final int DISTINCT_VALUES = 1024;
+
+    private final String prefix;
+
+    private final String separator;
+
+    /**
+     * @param prefix
+     *            Leading text of each generated value
+     * @param separator
+     *            Text placed between the prefix and the numeric suffix of each generated value
+     */
+    private DataShape(String prefix, String separator) {
+        this.prefix = prefix;
+        this.separator = separator;
+    }
+
+    /**
+     * @param index
+     *            Position of the value to generate
+     * @return A data value of this shape
+     * @since 0.1
+     */
+    @Nonnull
+    public String value(int index) {
+        return prefix + separator + (index % DISTINCT_VALUES);
+    }
+
+    /**
+     * @param rows
+     *            The number of rows to generate
+     * @param columns
+     *            The number of values in each row
+     * @return Rows of data of this shape. Values are shared between rows to bound the memory used by large data sets
+     * @since 0.1
+     */
+    @Nonnull
+    public List<List<String>> rows(int rows, int columns) {
+        List<String> distinct = new ArrayList<>(DISTINCT_VALUES);
+
+        for (int i = 0; i < DISTINCT_VALUES; i++) {
+            distinct.add(value(i));
+        }
+
+        List<List<String>> result = new ArrayList<>(rows);
+
+        for (int row = 0; row < rows; row++) {
+            List<String> values = new ArrayList<>(columns);
+
+            for (int column = 0; column < columns; column++) {
+                values.add(distinct.get((row * 31 + column) % DISTINCT_VALUES));
+            }
+
+            result.add(values);
+        }
+
+        return result;
+    }
+
+}
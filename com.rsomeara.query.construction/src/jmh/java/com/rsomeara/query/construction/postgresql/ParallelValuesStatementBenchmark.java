@@ -0,0 +1,82 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rsomeara.query.construction.postgresql.type.RowFunction;
+
+/**
+ * Compares sequential and concurrent rendering of large values statements. Concurrent rendering uses the common
+ * fork/join pool, so results depend on the number of available processors
+ *
+ * @author romeara
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g" })
+public class ParallelValuesStatementBenchmark {
+
+    @Param({ "100000", "1000000", "5000000" })
+    private int rows;
+
+    @Param({ "10" })
+    private int columns;
+
+    @Param({ "ASCII", "QUOTES" })
+    private DataShape shape;
+
+    private List<List<String>> data;
+
+    private List<String> labels;
+
+    private RowFunction<List<String>> rowFunction;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        data = shape.rows(rows, columns);
+        labels = new ArrayList<>(columns);
+
+        for (int column = 0; column < columns; column++) {
+            labels.add("column" + column);
+        }
+
+        rowFunction = (row, writer) -> {
+            for (String value : row) {
+                writer.writeText(value);
+            }
+        };
+    }
+
+    @Benchmark
+    public ValuesStatement sequential() {
+        return newBuilder().addValues(data).build();
+    }
+
+    @Benchmark
+    public ValuesStatement parallel() {
+        return newBuilder().parallelThreshold(1).addValues(data).build();
+    }
+
+    private ValuesStatement.Builder<List<String>> newBuilder() {
+        return ValuesStatement.newBuilder(rowFunction).tableName("data").addLabels(labels);
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rsomeara.query.construction.postgresql.type.RowFunction;
+
+/**
+ * Measures the cost of validating the column count of each rendered row, by rendering the same rows with and without
+ * the check. The two should be indistinguishable in both time and allocation
+ *
+ * @author romeara
+ * @since 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowShapeBenchmark {
+
+    @Param({ "10000" })
+    private int rows;
+
+    @Param({ "1", "10" })
+    private int columns;
+
+    private List<List<String>> data;
+
+    private RowFunction<List<String>> rowFunction;
+
+    private StringBuilder buffer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        data = DataShape.ASCII.rows(rows, columns);
+        buffer = new StringBuilder();
+
+        rowFunction = (row, writer) -> {
+            for (String value : row) {
+                writer.writeText(value);
+            }
+        };
+    }
+
+    @Benchmark
+    public int unchecked() {
+        buffer.setLength(0);
+
+        ValuesRowWriter rowWriter = new ValuesRowWriter(buffer);
+
+        for (List<String> row : data) {
+            rowWriter.writeRow(rowFunction, row);
+        }
+
+        return buffer.length();
+    }
+
+    @Benchmark
+    public int checked() {
+        buffer.setLength(0);
+
+        ValuesRowWriter rowWriter = new ValuesRowWriter(buffer);
+        long rowIndex = 0;
+
+        for (List<String> row : data) {
+            ValuesRowWriter.checkColumns(rowIndex++, rowWriter.writeRow(rowFunction, row), columns);
+        }
+
+        return buffer.length();
+    }
+
+}
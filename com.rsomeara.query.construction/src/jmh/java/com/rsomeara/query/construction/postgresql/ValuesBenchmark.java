@@ -0,0 +1,76 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rsomeara.query.construction.postgresql.type.Values;
+
+/**
+ * Measures escaping and quoting of individual data values
+ *
+ * @author romeara
+ * @since 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValuesBenchmark {
+
+    /** Number of pre-generated values cycled through, so branch prediction does not see a single input */
+    private static final int VALUE_COUNT = 256;
+
+    @Param({ "ASCII", "QUOTES", "BACKSLASHES" })
+    private DataShape shape;
+
+    /** Number of times the base value is repeated in each input */
+    @Param({ "1", "16" })
+    private int repeat;
+
+    private String[] values;
+
+    private Function<String, String> protectString;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        values = new String[VALUE_COUNT];
+
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            StringBuilder value = new StringBuilder();
+
+            for (int j = 0; j < repeat; j++) {
+                value.append(shape.value(i));
+            }
+
+            values[i] = value.toString();
+        }
+
+        protectString = Values.protectString();
+        index = 0;
+    }
+
+    @Benchmark
+    public String protectString() {
+        index = (index + 1) & (VALUE_COUNT - 1);
+
+        return protectString.apply(values[index]);
+    }
+
+}
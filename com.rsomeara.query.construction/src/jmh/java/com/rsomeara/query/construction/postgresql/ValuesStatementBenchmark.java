@@ -0,0 +1,112 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rsomeara.query.construction.postgresql.type.Values;
+import com.rsomeara.query.construction.postgresql.type.ValuesFunction;
+
+/**
+ * Measures construction of values statements across data sizes and shapes
+ *
+ * <p>
+ * The largest parameter combinations render statements of several hundred million characters, and require a large heap
+ * - the fork is configured accordingly. Run a subset with, for example, {@code -p rows=1000 -p columns=10}
+ * </p>
+ *
+ * @author romeara
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g" })
+public class ValuesStatementBenchmark {
+
+    @Param({ "10", "1000", "100000", "1000000" })
+    private int rows;
+
+    @Param({ "1", "10", "50" })
+    private int columns;
+
+    @Param({ "ASCII", "QUOTES", "BACKSLASHES" })
+    private DataShape shape;
+
+    private List<List<String>> data;
+
+    private List<String> labels;
+
+    private ValuesFunction<List<String>> valuesFunction;
+
+    private ValuesStatement statement;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        data = shape.rows(rows, columns);
+        labels = new ArrayList<>(columns);
+
+        for (int column = 0; column < columns; column++) {
+            labels.add("column" + column);
+        }
+
+        Function<String, String> protect = Values.protectString();
+
+        valuesFunction = Values.asValuesFunction(row -> {
+            List<String> result = new ArrayList<>(row.size());
+
+            for (String value : row) {
+                result.add(protect.apply(value));
+            }
+
+            return result;
+        });
+
+        statement = newBuilder().addValues(data).build();
+    }
+
+    /**
+     * Measures rendering of all rows into a builder, without generating the final statement
+     */
+    @Benchmark
+    public ValuesStatement.Builder<List<String>> addValues() {
+        return newBuilder().addValues(data);
+    }
+
+    /**
+     * Measures rendering of all rows and generation of the final statement
+     */
+    @Benchmark
+    public ValuesStatement build() {
+        return newBuilder().addValues(data).build();
+    }
+
+    /**
+     * Measures retrieval of SQL from an already constructed statement
+     */
+    @Benchmark
+    public String getSQL() {
+        return statement.getSQL();
+    }
+
+    private ValuesStatement.Builder<List<String>> newBuilder() {
+        return ValuesStatement.newBuilder(valuesFunction).tableName("data").addLabels(labels);
+    }
+
+}
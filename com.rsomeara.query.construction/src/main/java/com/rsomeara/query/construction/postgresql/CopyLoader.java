@@ -0,0 +1,933 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.rsomeara.query.construction.postgresql.type.LiteralEscaper;
+import com.rsomeara.query.construction.postgresql.type.RowFunction;
+import com.rsomeara.query.construction.postgresql.type.RowWriter;
+import com.rsomeara.query.construction.postgresql.type.ValuesFunction;
+
+/**
+ * Loads data into a temporary table using the PostgreSQL COPY protocol, as an alternative to a values statement for
+ * data sets too large to embed in a query.
+ *
+ * <p>
+ * Data is provided by the same functions used for {@link ValuesStatement}s, and the resulting table may be joined to in
+ * the same way, using the table name. Rows are streamed to the server as they are read, in either text or binary COPY
+ * format. Column types of the table are taken from the typed {@link RowWriter} methods used for the first row, including
+ * typed NULLs - pre-formatted values from a {@link ValuesFunction}, and columns written by {@link RowWriter#writeNull()}
+ * in the first row, are loaded as text. Pre-formatted values must be plain quoted string literals or NULL in either
+ * format - casts, escape string syntax, and other expressions are rejected. In binary format, each later row must write
+ * its non-NULL values with the type of the column
+ * </p>
+ *
+ * @author romeara
+ * @since 0.1
+ */
+@Immutable
+public final class CopyLoader<T> {
+
+    /** Logger reference to output information to the application log files */
+    private static final Logger logger = LoggerFactory.getLogger(CopyLoader.class);
+
+    /** Column type used when no type is declared by the first row */
+    private static final String DEFAULT_TYPE = "text";
+
+    /** Signature which begins binary COPY data */
+    private static final byte[] BINARY_SIGNATURE = new byte[] { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0 };
+
+    /** The epoch PostgreSQL binary timestamps are relative to */
+    private static final Instant POSTGRESQL_EPOCH = Instant.parse("2000-01-01T00:00:00Z");
+
+    private final RowFunction<T> rowFunction;
+
+    private final String tableName;
+
+    private final List<String> labels;
+
+    private final Format format;
+
+    /**
+     * @param builder
+     *            Loader builder which contains information required to load data
+     */
+    private CopyLoader(@Nonnull Builder<T> builder) {
+        Objects.requireNonNull(builder);
+
+        rowFunction = Objects.requireNonNull(builder.rowFunction);
+        tableName = Objects.requireNonNull(builder.asTableName);
+        labels = builder.labels.build();
+        format = Objects.requireNonNull(builder.format);
+    }
+
+    /**
+     * Creates a temporary table and loads the provided data into it
+     *
+     * @param connection
+     *            Connection to a PostgreSQL database. The table is visible only to this connection's session
+     * @param values
+     *            Data to load into the table
+     * @return The name of the created table, which can be joined to PostgreSQL queries on the same connection
+     * @throws SQLException
+     *             If there is an error creating the table or loading data
+     * @since 0.1
+     */
+    @Nonnull
+    public String load(@Nonnull Connection connection, @Nonnull Iterable<T> values) throws SQLException {
+        Objects.requireNonNull(connection);
+        Objects.requireNonNull(values);
+
+        Iterator<T> iterator = values.iterator();
+        T first = (iterator.hasNext() ? Objects.requireNonNull(iterator.next()) : null);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(getCreateTableSQL(first));
+        }
+
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(getCopySQL());
+        PGCopyOutputStream copyStream = new PGCopyOutputStream(copyIn);
+
+        try {
+            long rows = write(first, iterator, copyStream);
+            copyStream.endCopy();
+
+            logger.debug("Loaded {} rows into {}", rows, tableName);
+        } catch (IOException e) {
+            cancel(copyIn);
+            throw new SQLException("Error streaming COPY data", e);
+        } catch (RuntimeException e) {
+            cancel(copyIn);
+            throw e;
+        }
+
+        return tableName;
+    }
+
+    /**
+     * Writes the provided data in the COPY format of this loader, as read by {@link #getCopySQL()}. The stream is
+     * flushed, but not closed, once writing completes
+     *
+     * @param values
+     *            Data to write
+     * @param destination
+     *            Stream to write COPY data to
+     * @return The number of rows written
+     * @throws IOException
+     *             If there is an error writing to the destination
+     * @since 0.1
+     */
+    public long write(@Nonnull Iterable<T> values, @Nonnull OutputStream destination) throws IOException {
+        Objects.requireNonNull(values);
+        Objects.requireNonNull(destination);
+
+        Iterator<T> iterator = values.iterator();
+        T first = (iterator.hasNext() ? Objects.requireNonNull(iterator.next()) : null);
+
+        return write(first, iterator, destination);
+    }
+
+    /**
+     * @param sample
+     *            Value to determine column types from, as the first row loaded would. If null, all columns are text
+     * @return The statement which creates the temporary table data is loaded into
+     * @since 0.1
+     */
+    @Nonnull
+    public String getCreateTableSQL(@Nullable T sample) {
+        List<String> types = getColumnTypes(sample);
+        StringBuilder statement = new StringBuilder("CREATE TEMPORARY TABLE ").append(tableName).append(" (");
+
+        for (int i = 0; i < labels.size(); i++) {
+            if (i > 0) {
+                statement.append(", ");
+            }
+
+            statement.append(labels.get(i)).append(' ').append(types.get(i));
+        }
+
+        return statement.append(')').toString();
+    }
+
+    /**
+     * @param sample
+     *            Value to determine column types from, as the first row loaded would. If null, all columns are text
+     * @return The PostgreSQL type of each column, in label order
+     */
+    @Nonnull
+    private List<String> getColumnTypes(@Nullable T sample) {
+        List<String> types = Collections.nCopies(labels.size(), DEFAULT_TYPE);
+
+        if (sample != null) {
+            TypeRecorder recorder = new TypeRecorder();
+            rowFunction.writeRow(sample, recorder);
+
+            types = recorder.getTypes();
+            ValuesRowWriter.checkColumns(0, types.size(), labels.size());
+        }
+
+        return types;
+    }
+
+    /**
+     * @return The COPY statement which reads data in the format written by this loader
+     * @since 0.1
+     */
+    @Nonnull
+    public String getCopySQL() {
+        StringBuilder statement = new StringBuilder("COPY ").append(tableName).append(" (");
+        Joiner.on(", ").appendTo(statement, labels);
+        statement.append(") FROM STDIN");
+
+        if (format == Format.BINARY) {
+            statement.append(" WITH (FORMAT binary)");
+        }
+
+        return statement.toString();
+    }
+
+    /**
+     * @param first
+     *            The first value to write, or null if there is no data
+     * @param remaining
+     *            Values to write after the first
+     * @param destination
+     *            Stream to write COPY data to
+     * @return The number of rows written
+     * @throws IOException
+     *             If there is an error writing to the destination
+     */
+    private long write(@Nullable T first, @Nonnull Iterator<T> remaining, @Nonnull OutputStream destination) throws IOException {
+        long rows = 0;
+
+        if (format == Format.BINARY) {
+            OutputStream output = new BufferedOutputStream(destination);
+            BinaryRowWriter rowWriter = new BinaryRowWriter();
+
+            output.write(BINARY_SIGNATURE);
+            output.write(new byte[8]);
+
+            if (first != null) {
+                // The server decodes each column as the type the table was created with
+                List<String> types = getColumnTypes(first);
+
+                writeBinaryRow(first, rows++, types, rowWriter, output);
+
+                while (remaining.hasNext()) {
+                    writeBinaryRow(Objects.requireNonNull(remaining.next()), rows++, types, rowWriter, output);
+                }
+            }
+
+            // Trailer is a field count of -1
+            output.write(0xFF);
+            output.write(0xFF);
+            output.flush();
+        } else {
+            // Closing the writer would close the client's stream, which is left to the client
+            Writer output = new BufferedWriter(new OutputStreamWriter(destination, StandardCharsets.UTF_8));
+            TextRowWriter rowWriter = new TextRowWriter();
+
+            if (first != null) {
+                writeTextRow(first, rows++, rowWriter, output);
+
+                while (remaining.hasNext()) {
+                    writeTextRow(Objects.requireNonNull(remaining.next()), rows++, rowWriter, output);
+                }
+            }
+
+            output.flush();
+        }
+
+        return rows;
+    }
+
+    /**
+     * @param value
+     *            Data to write as a row
+     * @param rowIndex
+     *            The index of the row within the written data
+     * @param rowWriter
+     *            Writer to encode the row with
+     * @param output
+     *            Destination of the encoded row
+     * @throws IOException
+     *             If there is an error writing to the destination
+     */
+    private void writeTextRow(@Nonnull T value, long rowIndex, @Nonnull TextRowWriter rowWriter, @Nonnull Writer output) throws IOException {
+        rowWriter.startRow();
+        rowFunction.writeRow(value, rowWriter);
+        ValuesRowWriter.checkColumns(rowIndex, rowWriter.getColumns(), labels.size());
+
+        rowWriter.row.append('\n');
+        output.append(rowWriter.row);
+    }
+
+    /**
+     * @param value
+     *            Data to write as a row
+     * @param rowIndex
+     *            The index of the row within the written data
+     * @param types
+     *            The PostgreSQL type of each column, as recorded from the first row
+     * @param rowWriter
+     *            Writer to encode the row with
+     * @param output
+     *            Destination of the encoded row
+     * @throws IOException
+     *             If there is an error writing to the destination
+     */
+    private void writeBinaryRow(@Nonnull T value, long rowIndex, @Nonnull List<String> types, @Nonnull BinaryRowWriter rowWriter,
+            @Nonnull OutputStream output) throws IOException {
+        rowWriter.startRow();
+        rowFunction.writeRow(value, rowWriter);
+        ValuesRowWriter.checkColumns(rowIndex, rowWriter.getColumns(), labels.size());
+        checkTypes(rowIndex, rowWriter.getTypes(), types);
+
+        output.write(rowWriter.getColumns() >>> 8);
+        output.write(rowWriter.getColumns());
+        rowWriter.row.writeTo(output);
+    }
+
+    /**
+     * Verifies the values of a binary row are encoded as the types of the columns they are loaded into, as the server
+     * cannot detect a mismatch in binary data
+     *
+     * @param rowIndex
+     *            The index of the row within the written data
+     * @param written
+     *            The type each column of the row was written as, or null for NULL columns
+     * @param expected
+     *            The PostgreSQL type of each column
+     */
+    private static void checkTypes(long rowIndex, @Nonnull List<String> written, @Nonnull List<String> expected) {
+        for (int i = 0; i < written.size(); i++) {
+            String type = written.get(i);
+
+            if (type != null && !type.equals(expected.get(i))) {
+                throw new IllegalArgumentException("Row " + rowIndex + " column " + i + " is written as " + type + ", but the column type is "
+                        + expected.get(i));
+            }
+        }
+    }
+
+    /**
+     * @param copyIn
+     *            COPY operation to abandon, so the connection may be used for further queries
+     * @throws SQLException
+     *             If there is an error cancelling the operation
+     */
+    private static void cancel(@Nonnull CopyIn copyIn) throws SQLException {
+        if (copyIn.isActive()) {
+            copyIn.cancelCopy();
+        }
+    }
+
+    /**
+     * @param valuesFunction
+     *            Function which converts between a data representation and SQL-consumable representation
+     * @return A new, empty builder for COPY loader construction
+     * @since 0.1
+     */
+    @Nonnull
+    public static <T> Builder<T> newBuilder(@Nonnull ValuesFunction<T> valuesFunction) {
+        Objects.requireNonNull(valuesFunction);
+
+        return new Builder<T>(valuesFunction);
+    }
+
+    /**
+     * @param rowFunction
+     *            Function which writes a data representation as typed SQL-consumable values
+     * @return A new, empty builder for COPY loader construction
+     * @since 0.1
+     */
+    @Nonnull
+    public static <T> Builder<T> newBuilder(@Nonnull RowFunction<T> rowFunction) {
+        Objects.requireNonNull(rowFunction);
+
+        return new Builder<T>(rowFunction);
+    }
+
+    /**
+     * @param sql
+     *            A pre-formatted SQL value
+     * @return True if the value is a single quoted string literal, with each quote it contains doubled
+     */
+    private static boolean isStringLiteral(@Nonnull String sql) {
+        boolean result = sql.length() >= 2 && sql.charAt(0) == '\'' && sql.charAt(sql.length() - 1) == '\'';
+        int position = 1;
+
+        while (result && position < sql.length() - 1) {
+            if (sql.charAt(position) == '\'') {
+                result = position + 1 < sql.length() - 1 && sql.charAt(position + 1) == '\'';
+                position += 2;
+            } else {
+                position++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @param sql
+     *            A pre-formatted SQL value
+     * @return True if the value is a NULL literal
+     */
+    private static boolean isNullLiteral(@Nonnull String sql) {
+        return sql.equalsIgnoreCase("NULL");
+    }
+
+    /**
+     * @param sql
+     *            A quoted string literal
+     * @return The value represented by the literal, with its quotes removed and escaping reversed
+     */
+    @Nonnull
+    private static String unquote(@Nonnull String sql) {
+        return sql.substring(1, sql.length() - 1).replace("''", "'");
+    }
+
+    /**
+     * Formats of COPY data which may be generated
+     *
+     * @author romeara
+     * @since 0.1
+     */
+    public enum Format {
+
+        /** Tab-delimited text, the default COPY format */
+        TEXT,
+
+        /** PostgreSQL binary COPY format, which avoids parsing text on the server */
+        BINARY;
+    }
+
+    /**
+     * Records the PostgreSQL type of each column written for a row, without encoding any data
+     *
+     * @author romeara
+     */
+    private static final class TypeRecorder implements RowWriter {
+
+        private final List<String> types = Lists.newArrayList();
+
+        /**
+         * @return The types of the columns written, in order
+         */
+        public List<String> getTypes() {
+            return types;
+        }
+
+        @Override
+        public RowWriter writeInt(int value) {
+            types.add("int4");
+            return this;
+        }
+
+        @Override
+        public RowWriter writeLong(long value) {
+            types.add("int8");
+            return this;
+        }
+
+        @Override
+        public RowWriter writeDouble(double value) {
+            types.add("float8");
+            return this;
+        }
+
+        @Override
+        public RowWriter writeBoolean(boolean value) {
+            types.add("boolean");
+            return this;
+        }
+
+        @Override
+        public RowWriter writeText(CharSequence value) {
+            types.add("text");
+            return this;
+        }
+
+        @Override
+        public RowWriter writeUuid(UUID value) {
+            types.add("uuid");
+            return this;
+        }
+
+        @Override
+        public RowWriter writeTimestamp(Instant value) {
+            types.add("timestamptz");
+            return this;
+        }
+
+        @Override
+        public RowWriter writeNull() {
+            types.add(DEFAULT_TYPE);
+            return this;
+        }
+
+        @Override
+        public RowWriter writeLiteral(CharSequence sql) {
+            types.add(DEFAULT_TYPE);
+            return this;
+        }
+
+    }
+
+    /**
+     * Encodes rows in the COPY text format - tab separated columns, with backslash escapes for special characters and
+     * \N for NULL. A single instance is reused for every row
+     *
+     * @author romeara
+     */
+    private static final class TextRowWriter implements RowWriter {
+
+        private static final String NULL = "\\N";
+
+        private final StringBuilder row = new StringBuilder();
+
+        private int columns = 0;
+
+        /**
+         * Clears the row buffer for a new row
+         */
+        public void startRow() {
+            row.setLength(0);
+            columns = 0;
+        }
+
+        /**
+         * @return The number of columns written to the current row
+         */
+        public int getColumns() {
+            return columns;
+        }
+
+        @Override
+        public RowWriter writeInt(int value) {
+            startColumn().append(value);
+            return this;
+        }
+
+        @Override
+        public RowWriter writeLong(long value) {
+            startColumn().append(value);
+            return this;
+        }
+
+        @Override
+        public RowWriter writeDouble(double value) {
+            // Java and PostgreSQL share names for non-finite values (NaN, Infinity, -Infinity)
+            startColumn().append(value);
+            return this;
+        }
+
+        @Override
+        public RowWriter writeBoolean(boolean value) {
+            startColumn().append(value ? 't' : 'f');
+            return this;
+        }
+
+        @Override
+        public RowWriter writeText(CharSequence value) {
+            startColumn();
+
+            if (value != null) {
+                appendEscaped(value);
+            } else {
+                row.append(NULL);
+            }
+
+            return this;
+        }
+
+        @Override
+        public RowWriter writeUuid(UUID value) {
+            startColumn().append(value != null ? value.toString() : NULL);
+            return this;
+        }
+
+        @Override
+        public RowWriter writeTimestamp(Instant value) {
+            startColumn();
+
+            if (value != null) {
+                DateTimeFormatter.ISO_INSTANT.formatTo(value, row);
+            } else {
+                row.append(NULL);
+            }
+
+            return this;
+        }
+
+        @Override
+        public RowWriter writeNull() {
+            startColumn().append(NULL);
+            return this;
+        }
+
+        @Override
+        public RowWriter writeLiteral(CharSequence sql) {
+            String value = sql.toString();
+
+            // Other literals would be loaded as their SQL text, rather than the value they represent
+            if (isNullLiteral(value)) {
+                writeNull();
+            } else {
+                Preconditions.checkArgument(isStringLiteral(value), "Text COPY supports pre-formatted string literals and NULL only, found %s", value);
+
+                writeText(unquote(value));
+            }
+
+            return this;
+        }
+
+        /**
+         * @return The row buffer, after separating the column about to be written from any previous column
+         */
+        private StringBuilder startColumn() {
+            if (columns > 0) {
+                row.append('\t');
+            }
+
+            columns++;
+
+            return row;
+        }
+
+        /**
+         * @param value
+         *            Text to write, escaping characters which are special to the COPY text format
+         */
+        private void appendEscaped(CharSequence value) {
+            Preconditions.checkArgument(LiteralEscaper.isValid(value), "PostgreSQL text may not contain a '\\0' character");
+
+            for (int i = 0; i < value.length(); i++) {
+                char ch = value.charAt(i);
+
+                if (ch == '\\') {
+                    row.append("\\\\");
+                } else if (ch == '\t') {
+                    row.append("\\t");
+                } else if (ch == '\n') {
+                    row.append("\\n");
+                } else if (ch == '\r') {
+                    row.append("\\r");
+                } else {
+                    row.append(ch);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Encodes rows in the COPY binary format - each column is a 32-bit length followed by the type's binary
+     * representation, with a length of -1 for NULL. A single instance is reused for every row
+     *
+     * @author romeara
+     */
+    private static final class BinaryRowWriter implements RowWriter {
+
+        private final ByteArrayOutputStream row = new ByteArrayOutputStream();
+
+        /** The type each column of the current row was written as, or null for NULL columns */
+        private final List<String> types = Lists.newArrayList();
+
+        private int columns = 0;
+
+        /**
+         * Clears the row buffer for a new row
+         */
+        public void startRow() {
+            row.reset();
+            types.clear();
+            columns = 0;
+        }
+
+        /**
+         * @return The number of columns written to the current row
+         */
+        public int getColumns() {
+            return columns;
+        }
+
+        /**
+         * @return The type each column of the current row was written as, or null for NULL columns
+         */
+        public List<String> getTypes() {
+            return types;
+        }
+
+        @Override
+        public RowWriter writeInt(int value) {
+            startColumn("int4", 4);
+            writeInt32(value);
+            return this;
+        }
+
+        @Override
+        public RowWriter writeLong(long value) {
+            startColumn("int8", 8);
+            writeInt64(value);
+            return this;
+        }
+
+        @Override
+        public RowWriter writeDouble(double value) {
+            startColumn("float8", 8);
+            writeInt64(Double.doubleToLongBits(value));
+            return this;
+        }
+
+        @Override
+        public RowWriter writeBoolean(boolean value) {
+            startColumn("boolean", 1);
+            row.write(value ? 1 : 0);
+            return this;
+        }
+
+        @Override
+        public RowWriter writeText(CharSequence value) {
+            if (value != null) {
+                Preconditions.checkArgument(LiteralEscaper.isValid(value), "PostgreSQL text may not contain a '\\0' character");
+
+                byte[] encoded = value.toString().getBytes(StandardCharsets.UTF_8);
+
+                startColumn("text", encoded.length);
+                row.write(encoded, 0, encoded.length);
+            } else {
+                writeNull();
+            }
+
+            return this;
+        }
+
+        @Override
+        public RowWriter writeUuid(UUID value) {
+            if (value != null) {
+                startColumn("uuid", 16);
+                writeInt64(value.getMostSignificantBits());
+                writeInt64(value.getLeastSignificantBits());
+            } else {
+                writeNull();
+            }
+
+            return this;
+        }
+
+        @Override
+        public RowWriter writeTimestamp(Instant value) {
+            if (value != null) {
+                // Microseconds relative to the PostgreSQL epoch, for servers using integer date/times (the default)
+                Duration offset = Duration.between(POSTGRESQL_EPOCH, value);
+
+                startColumn("timestamptz", 8);
+                writeInt64(Math.addExact(Math.multiplyExact(offset.getSeconds(), 1_000_000L), offset.getNano() / 1_000));
+            } else {
+                writeNull();
+            }
+
+            return this;
+        }
+
+        @Override
+        public RowWriter writeNull() {
+            startColumn(null, -1);
+            return this;
+        }
+
+        @Override
+        public RowWriter writeLiteral(CharSequence sql) {
+            String value = sql.toString();
+
+            // Only text and NULL have an unambiguous binary representation
+            if (isNullLiteral(value)) {
+                writeNull();
+            } else {
+                Preconditions.checkArgument(isStringLiteral(value), "Binary COPY supports pre-formatted string literals and NULL only, found %s", value);
+
+                writeText(unquote(value));
+            }
+
+            return this;
+        }
+
+        /**
+         * @param type
+         *            The PostgreSQL type of the column about to be written, or null for NULL
+         * @param length
+         *            The number of bytes of the column about to be written, or -1 for NULL
+         */
+        private void startColumn(@Nullable String type, int length) {
+            writeInt32(length);
+            types.add(type);
+            columns++;
+        }
+
+        /**
+         * @param value
+         *            Value to write in network byte order
+         */
+        private void writeInt32(int value) {
+            row.write(value >>> 24);
+            row.write(value >>> 16);
+            row.write(value >>> 8);
+            row.write(value);
+        }
+
+        /**
+         * @param value
+         *            Value to write in network byte order
+         */
+        private void writeInt64(long value) {
+            writeInt32((int) (value >>> 32));
+            writeInt32((int) value);
+        }
+
+    }
+
+    /**
+     * Allows incremental construction of immutable COPY loaders
+     *
+     * @author romeara
+     *
+     * @param <T>
+     *            Type which represents the data to load
+     * @since 0.1
+     */
+    public static final class Builder<T> {
+
+        private final RowFunction<T> rowFunction;
+
+        private final ImmutableList.Builder<String> labels;
+
+        private boolean hasLabels;
+
+        private String asTableName;
+
+        private Format format;
+
+        /**
+         * @param rowFunction
+         *            Function which writes an arbitrary data representation as a set of SQL-consumable data
+         */
+        private Builder(@Nonnull RowFunction<T> rowFunction) {
+            Objects.requireNonNull(rowFunction);
+
+            this.rowFunction = rowFunction;
+            labels = ImmutableList.builder();
+            hasLabels = false;
+            asTableName = null;
+            format = Format.TEXT;
+        }
+
+        /**
+         * @param tableName
+         *            The name of the temporary table to create - used when referencing data within a query
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> tableName(@Nonnull String tableName) {
+            Objects.requireNonNull(tableName);
+
+            this.asTableName = tableName;
+
+            return this;
+        }
+
+        /**
+         * @param label
+         *            Adds a label to the set of column names of the table
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addLabel(@Nonnull String label) {
+            Objects.requireNonNull(label);
+
+            labels.add(label);
+            hasLabels = true;
+
+            return this;
+        }
+
+        /**
+         * @param labels
+         *            Group of labels to add (in the provided order) to the set of column names of the table
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addLabels(@Nonnull List<String> labels) {
+            Objects.requireNonNull(labels);
+
+            for (String label : labels) {
+                addLabel(label);
+            }
+
+            return this;
+        }
+
+        /**
+         * @param format
+         *            The COPY format to transfer data in. Defaults to {@link Format#TEXT}
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> format(@Nonnull Format format) {
+            Objects.requireNonNull(format);
+
+            this.format = format;
+
+            return this;
+        }
+
+        /**
+         * @return An immutable loader which loads data into a table with the configured name and columns
+         * @since 0.1
+         */
+        @Nonnull
+        public CopyLoader<T> build() {
+            Preconditions.checkArgument(asTableName != null, "Tables must have a name to be referenced by query statements");
+            Preconditions.checkArgument(hasLabels, "Labels are required to reference loaded data");
+
+            return new CopyLoader<T>(this);
+        }
+    }
+
+}
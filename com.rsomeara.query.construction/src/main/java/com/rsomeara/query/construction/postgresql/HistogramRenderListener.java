@@ -0,0 +1,266 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Records measurements of rendered values statements in memory, as histograms of each measured quantity. Suitable for
+ * sharing between all builders of an application, and periodically reporting to a monitoring system
+ *
+ * <p>
+ * Histograms use power-of-two buckets, so percentiles are approximate - each is reported as the upper bound of the
+ * bucket containing it, which is at most double the true value. Counts, sums, and maximums are exact
+ * </p>
+ *
+ * @author romeara
+ * @since 0.1
+ */
+@ThreadSafe
+public final class HistogramRenderListener implements RenderListener {
+
+    private final Histogram rows;
+
+    private final Histogram columns;
+
+    private final Histogram characters;
+
+    private final Histogram escapedValues;
+
+    private final Histogram renderNanos;
+
+    /**
+     * Creates a listener with empty histograms
+     *
+     * @since 0.1
+     */
+    public HistogramRenderListener() {
+        rows = new Histogram();
+        columns = new Histogram();
+        characters = new Histogram();
+        escapedValues = new Histogram();
+        renderNanos = new Histogram();
+    }
+
+    @Override
+    public void onRender(@Nonnull RenderMetrics metrics) {
+        Objects.requireNonNull(metrics);
+
+        rows.record(metrics.getRowCount());
+        columns.record(metrics.getColumnCount());
+        characters.record(metrics.getCharacterCount());
+        escapedValues.record(metrics.getEscapedValueCount());
+        renderNanos.record(metrics.getRenderNanos());
+    }
+
+    /**
+     * @return Distribution of the number of rows per statement
+     * @since 0.1
+     */
+    @Nonnull
+    public Histogram getRows() {
+        return rows;
+    }
+
+    /**
+     * @return Distribution of the number of columns per statement
+     * @since 0.1
+     */
+    @Nonnull
+    public Histogram getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return Distribution of the length, in characters, of each statement
+     * @since 0.1
+     */
+    @Nonnull
+    public Histogram getCharacters() {
+        return characters;
+    }
+
+    /**
+     * @return Distribution of the number of text values requiring escaping per statement
+     * @since 0.1
+     */
+    @Nonnull
+    public Histogram getEscapedValues() {
+        return escapedValues;
+    }
+
+    /**
+     * @return Distribution of the time, in nanoseconds, spent rendering each statement
+     * @since 0.1
+     */
+    @Nonnull
+    public Histogram getRenderNanos() {
+        return renderNanos;
+    }
+
+    /**
+     * Discards all recorded measurements
+     *
+     * @since 0.1
+     */
+    public void reset() {
+        rows.reset();
+        columns.reset();
+        characters.reset();
+        escapedValues.reset();
+        renderNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("rows", rows)
+                .add("columns", columns)
+                .add("characters", characters)
+                .add("escapedValues", escapedValues)
+                .add("renderNanos", renderNanos)
+                .toString();
+    }
+
+    /**
+     * Distribution of a non-negative measured quantity. Values are counted in buckets by their highest set bit, so
+     * recording a value is a small, fixed amount of lock-free work
+     *
+     * <p>
+     * Reads are not atomic with respect to concurrent recording, so a summary read while measurements are recorded may
+     * be slightly inconsistent
+     * </p>
+     *
+     * @author romeara
+     * @since 0.1
+     */
+    @ThreadSafe
+    public static final class Histogram {
+
+        /** Bucket 0 holds zero, and bucket N holds values in [2^(N-1), 2^N) - the sign bit is never set */
+        private static final int BUCKETS = Long.SIZE;
+
+        private final AtomicLongArray buckets;
+
+        private final LongAdder count;
+
+        private final LongAdder sum;
+
+        private final AtomicLong max;
+
+        private Histogram() {
+            buckets = new AtomicLongArray(BUCKETS);
+            count = new LongAdder();
+            sum = new LongAdder();
+            max = new AtomicLong();
+        }
+
+        /**
+         * @param value
+         *            Measurement to record. Negative values are recorded as zero
+         */
+        private void record(long value) {
+            long recorded = Math.max(0, value);
+
+            buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(recorded));
+            count.increment();
+            sum.add(recorded);
+            max.accumulateAndGet(recorded, Math::max);
+        }
+
+        /**
+         * Discards all recorded measurements
+         */
+        private void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+
+            count.reset();
+            sum.reset();
+            max.set(0);
+        }
+
+        /**
+         * @return The number of measurements recorded
+         * @since 0.1
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * @return The total of all measurements recorded
+         * @since 0.1
+         */
+        public long getSum() {
+            return sum.sum();
+        }
+
+        /**
+         * @return The largest measurement recorded, or 0 if none have been recorded
+         * @since 0.1
+         */
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * @return The average of all measurements recorded, or 0 if none have been recorded
+         * @since 0.1
+         */
+        public double getMean() {
+            long measurements = getCount();
+
+            return (measurements > 0 ? (double) getSum() / measurements : 0.0);
+        }
+
+        /**
+         * @param percentile
+         *            The percentile to find, between 0 and 100
+         * @return An upper bound for the given percentile of recorded measurements, or 0 if none have been recorded
+         * @since 0.1
+         */
+        public long getPercentile(double percentile) {
+            Preconditions.checkArgument(percentile >= 0.0 && percentile <= 100.0, "Percentile must be between 0 and 100");
+
+            long measurements = getCount();
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * measurements));
+            long result = 0;
+            long seen = 0;
+
+            for (int i = 0; i < BUCKETS && measurements > 0; i++) {
+                seen += buckets.get(i);
+
+                if (seen >= rank) {
+                    // The largest value in the bucket - which overflows to the maximum long for the last bucket - or the
+                    // maximum measurement, which is a tighter bound for the highest populated bucket
+                    result = Math.min((1L << i) - 1, getMax());
+                    break;
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("count", getCount())
+                    .add("mean", getMean())
+                    .add("p50", getPercentile(50))
+                    .add("p99", getPercentile(99))
+                    .add("max", getMax())
+                    .toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,651 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.rsomeara.query.construction.postgresql.ParameterizedValuesStatement.Placeholder;
+import com.rsomeara.query.construction.postgresql.type.ParameterFunction;
+import com.rsomeara.query.construction.postgresql.type.RowFunction;
+import com.rsomeara.query.construction.postgresql.type.ValuesFunction;
+
+/**
+ * Represents a multi-row PostgreSQL insert statement, optionally with an "on conflict" clause to perform an upsert and
+ * a "returning" clause to retrieve inserted data.
+ *
+ * <p>
+ * Data is either inlined as escaped literals, using the same row functions as {@link ValuesStatement}, or provided as
+ * bind parameters, using the same parameter functions as {@link ParameterizedValuesStatement}. Large sets of data are
+ * split across several statements, bounded by row count and parameter count - each is a complete statement which may be
+ * executed independently. Conflict clauses require PostgreSQL 9.5 or later
+ * </p>
+ *
+ * @author romeara
+ * @since 0.1
+ */
+@Immutable
+public final class InsertStatement {
+
+    private final String statement;
+
+    private final Object[] parameters;
+
+    private final int rowCount;
+
+    /**
+     * @param statement
+     *            Complete insert statement SQL
+     * @param parameters
+     *            Values to bind to the placeholders of the statement, in placeholder order. Empty for inlined statements
+     * @param rowCount
+     *            The number of rows inserted by the statement
+     */
+    private InsertStatement(@Nonnull String statement, @Nonnull Object[] parameters, int rowCount) {
+        this.statement = Objects.requireNonNull(statement);
+        this.parameters = Objects.requireNonNull(parameters);
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * @return The insert represented as a SQL statement
+     * @since 0.1
+     */
+    @Nonnull
+    public String getSQL() {
+        return statement;
+    }
+
+    /**
+     * @return Values to bind to the placeholders of the statement, in placeholder order. Empty if data is inlined
+     * @since 0.1
+     */
+    @Nonnull
+    public List<Object> getParameters() {
+        return Collections.unmodifiableList(Arrays.asList(parameters));
+    }
+
+    /**
+     * @return The number of rows the statement inserts
+     * @since 0.1
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Binds the parameters of this insert statement to a prepared statement. Has no effect for inlined statements
+     *
+     * @param preparedStatement
+     *            Prepared statement created from the SQL of this insert statement
+     * @throws SQLException
+     *             If there is an error binding parameters to the statement
+     * @since 0.1
+     */
+    public void bind(@Nonnull PreparedStatement preparedStatement) throws SQLException {
+        Objects.requireNonNull(preparedStatement);
+
+        ParameterizedValuesStatement.bindParameters(preparedStatement, 1, parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(statement, Arrays.hashCode(parameters));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        boolean result = false;
+
+        if (this == obj) {
+            result = true;
+        } else if (obj instanceof InsertStatement) {
+            InsertStatement compare = (InsertStatement) obj;
+
+            result = Objects.equals(compare.getSQL(), getSQL())
+                    && Arrays.equals(compare.parameters, parameters);
+        }
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return statement;
+    }
+
+    /**
+     * @param valuesFunction
+     *            Function which converts between a data representation and SQL-consumable representation
+     * @return A new, empty builder for insert statements with inlined data
+     * @since 0.1
+     */
+    @Nonnull
+    public static <T> Builder<T> newBuilder(@Nonnull ValuesFunction<T> valuesFunction) {
+        Objects.requireNonNull(valuesFunction);
+
+        return new Builder<T>(valuesFunction, null);
+    }
+
+    /**
+     * @param rowFunction
+     *            Function which writes a data representation as typed SQL-consumable values
+     * @return A new, empty builder for insert statements with inlined data
+     * @since 0.1
+     */
+    @Nonnull
+    public static <T> Builder<T> newBuilder(@Nonnull RowFunction<T> rowFunction) {
+        Objects.requireNonNull(rowFunction);
+
+        return new Builder<T>(rowFunction, null);
+    }
+
+    /**
+     * @param parameterFunction
+     *            Function which converts between a data representation and statement parameters
+     * @return A new, empty builder for insert statements with data provided as bind parameters
+     * @since 0.1
+     */
+    @Nonnull
+    public static <T> Builder<T> newParameterizedBuilder(@Nonnull ParameterFunction<T> parameterFunction) {
+        Objects.requireNonNull(parameterFunction);
+
+        return new Builder<T>(null, parameterFunction);
+    }
+
+    /**
+     * Action to take when an inserted row conflicts with an existing row
+     *
+     * @author romeara
+     */
+    private enum ConflictAction {
+
+        /** No conflict clause - conflicts cause the statement to fail */
+        NONE,
+
+        /** Conflicting rows are skipped */
+        NOTHING,
+
+        /** Conflicting rows update the existing row with the inserted values */
+        UPDATE;
+    }
+
+    /**
+     * Rows of a single insert statement
+     *
+     * @author romeara
+     */
+    private static final class Chunk {
+
+        /** Comma-separated rendered rows, for inlined statements */
+        private final StringBuilder rows;
+
+        /** Parameter values of all rows, for parameterized statements */
+        private final List<Object> parameters;
+
+        private int rowCount;
+
+        private int parameterCount;
+
+        private Chunk() {
+            rows = new StringBuilder();
+            parameters = Lists.newArrayList();
+            rowCount = 0;
+            parameterCount = 0;
+        }
+
+    }
+
+    /**
+     * Allows incremental construction of immutable insert statements
+     *
+     * @author romeara
+     *
+     * @param <T>
+     *            Type which represents the data to insert
+     * @since 0.1
+     */
+    public static final class Builder<T> {
+
+        private final RowFunction<T> rowFunction;
+
+        private final ParameterFunction<T> parameterFunction;
+
+        /** Reused buffer which each inlined row is rendered to before it is assigned to a statement */
+        private final StringBuilder row;
+
+        private final ValuesRowWriter rowWriter;
+
+        private final List<Chunk> chunks;
+
+        private int totalRows;
+
+        /** The number of columns in each row, or -1 if no rows have been added */
+        private int rowColumns;
+
+        private String asTableName;
+
+        private final List<String> columns;
+
+        private final List<String> conflictTargets;
+
+        private ConflictAction conflictAction;
+
+        private final List<String> returning;
+
+        private Placeholder placeholder;
+
+        private int maxRows;
+
+        private int maxParameters;
+
+        /**
+         * @param rowFunction
+         *            Function which writes data as inlined literals, or null if data is provided as parameters
+         * @param parameterFunction
+         *            Function which converts data into parameters, or null if data is inlined
+         */
+        private Builder(@CheckForNull RowFunction<T> rowFunction, @CheckForNull ParameterFunction<T> parameterFunction) {
+            this.rowFunction = rowFunction;
+            this.parameterFunction = parameterFunction;
+
+            row = new StringBuilder();
+
+            // Inserted literals take the types of their target columns, so no rows declare types
+            rowWriter = new ValuesRowWriter(row, false);
+            chunks = Lists.newArrayList();
+            totalRows = 0;
+            rowColumns = -1;
+            asTableName = null;
+            columns = Lists.newArrayList();
+            conflictTargets = Lists.newArrayList();
+            conflictAction = ConflictAction.NONE;
+            returning = Lists.newArrayList();
+            placeholder = Placeholder.JDBC;
+            maxRows = Integer.MAX_VALUE;
+
+            // Parameterized statements may not exceed PostgreSQL's bind parameter limit
+            maxParameters = (parameterFunction != null ? ValuesStatementChunker.MAX_BIND_PARAMETERS : Integer.MAX_VALUE);
+        }
+
+        /**
+         * @param tableName
+         *            The table to insert data into
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> tableName(@Nonnull String tableName) {
+            Objects.requireNonNull(tableName);
+
+            this.asTableName = tableName;
+
+            return this;
+        }
+
+        /**
+         * @param column
+         *            Adds a column to the set of columns data is inserted into, in data order
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addColumn(@Nonnull String column) {
+            Objects.requireNonNull(column);
+
+            columns.add(column);
+
+            return this;
+        }
+
+        /**
+         * @param columns
+         *            Group of columns to add (in the provided order) to the set of columns data is inserted into
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addColumns(@Nonnull List<String> columns) {
+            Objects.requireNonNull(columns);
+
+            for (String column : columns) {
+                addColumn(column);
+            }
+
+            return this;
+        }
+
+        /**
+         * @param column
+         *            Adds a column to the conflict target - the columns of a unique index or constraint which identify
+         *            conflicting rows
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addConflictTarget(@Nonnull String column) {
+            Objects.requireNonNull(column);
+
+            conflictTargets.add(column);
+
+            return this;
+        }
+
+        /**
+         * @param columns
+         *            Group of columns to add to the conflict target
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addConflictTargets(@Nonnull List<String> columns) {
+            Objects.requireNonNull(columns);
+
+            for (String column : columns) {
+                addConflictTarget(column);
+            }
+
+            return this;
+        }
+
+        /**
+         * Skips rows which conflict with existing rows. If no conflict target is provided, conflicts with any unique
+         * index or constraint are skipped
+         *
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> onConflictDoNothing() {
+            conflictAction = ConflictAction.NOTHING;
+
+            return this;
+        }
+
+        /**
+         * Updates existing rows which conflict with inserted rows, setting every inserted column which is not part of the
+         * conflict target to its inserted value. Requires a conflict target
+         *
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> onConflictUpdate() {
+            conflictAction = ConflictAction.UPDATE;
+
+            return this;
+        }
+
+        /**
+         * @param column
+         *            Adds a column, or other output expression, to the values returned for each inserted row
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addReturning(@Nonnull String column) {
+            Objects.requireNonNull(column);
+
+            returning.add(column);
+
+            return this;
+        }
+
+        /**
+         * @param placeholder
+         *            Style of placeholder to generate for parameterized statements. Defaults to JDBC placeholders
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> placeholder(@Nonnull Placeholder placeholder) {
+            Objects.requireNonNull(placeholder);
+
+            this.placeholder = placeholder;
+
+            return this;
+        }
+
+        /**
+         * @param maxRows
+         *            The maximum number of rows to insert in a single statement. Unbounded by default
+         * @return This builder instance
+         * @throws IllegalStateException
+         *             If values have already been added
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> maxRows(int maxRows) {
+            Preconditions.checkArgument(maxRows > 0, "Statements must be allowed at least one row");
+            Preconditions.checkState(totalRows == 0, "Statement limits must be set before values are added");
+
+            this.maxRows = maxRows;
+
+            return this;
+        }
+
+        /**
+         * @param maxParameters
+         *            The maximum number of data values to include in a single statement. Defaults to
+         *            {@link ValuesStatementChunker#MAX_BIND_PARAMETERS} for parameterized statements, and unbounded for
+         *            inlined statements
+         * @return This builder instance
+         * @throws IllegalStateException
+         *             If values have already been added
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> maxParameters(int maxParameters) {
+            Preconditions.checkArgument(maxParameters > 0, "Statements must be allowed at least one parameter");
+            Preconditions.checkState(totalRows == 0, "Statement limits must be set before values are added");
+
+            this.maxParameters = maxParameters;
+
+            return this;
+        }
+
+        /**
+         * @param value
+         *            Value to insert as a row
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addValue(@Nonnull T value) {
+            Objects.requireNonNull(value);
+
+            if (rowFunction != null) {
+                row.setLength(0);
+
+                int columnCount = rowWriter.writeRow(rowFunction, value);
+
+                Chunk chunk = chunkFor(columnCount);
+
+                // The row is already counted, so is preceded by a comma unless it is alone
+                if (chunk.rowCount > 1) {
+                    chunk.rows.append(',');
+                }
+
+                chunk.rows.append(row);
+            } else {
+                List<Object> rowParameters = Objects.requireNonNull(parameterFunction.apply(value));
+
+                chunkFor(rowParameters.size()).parameters.addAll(rowParameters);
+            }
+
+            return this;
+        }
+
+        /**
+         * @param values
+         *            Group of values to insert as rows
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addValues(@Nonnull Iterable<T> values) {
+            Objects.requireNonNull(values);
+
+            for (T value : values) {
+                addValue(value);
+            }
+
+            return this;
+        }
+
+        /**
+         * @return Immutable insert statements which together insert all provided values, in order
+         * @since 0.1
+         */
+        @Nonnull
+        public List<InsertStatement> build() {
+            Preconditions.checkArgument(asTableName != null, "Insert statements must have a target table");
+            Preconditions.checkArgument(!columns.isEmpty(), "Columns are required to insert data");
+            Preconditions.checkArgument(totalRows > 0, "Must have at least one value row to construct an insert statement");
+            Preconditions.checkArgument(rowColumns == columns.size(), "Rows contain %s values, but %s columns were provided",
+                    rowColumns, columns.size());
+
+            String prefix = buildPrefix();
+            String suffix = buildSuffix();
+
+            ImmutableList.Builder<InsertStatement> result = ImmutableList.builder();
+
+            for (Chunk chunk : chunks) {
+                StringBuilder statement = new StringBuilder(prefix);
+
+                if (rowFunction != null) {
+                    statement.append(chunk.rows);
+                } else {
+                    appendPlaceholders(statement, chunk.rowCount);
+                }
+
+                statement.append(suffix);
+
+                result.add(new InsertStatement(statement.toString(), chunk.parameters.toArray(), chunk.rowCount));
+            }
+
+            return result.build();
+        }
+
+        /**
+         * Assigns a row to a statement, starting a new statement if the current one has reached its limits
+         *
+         * @param columnCount
+         *            The number of values in the row
+         * @return The statement the row belongs to, with the row counted
+         */
+        @Nonnull
+        private Chunk chunkFor(int columnCount) {
+            ValuesRowWriter.checkColumns(totalRows, columnCount, (rowColumns < 0 ? columnCount : rowColumns));
+
+            Chunk chunk = (chunks.isEmpty() ? null : chunks.get(chunks.size() - 1));
+
+            // A statement always accepts its first row, even one which alone exceeds the parameter limit
+            if (chunk == null || chunk.rowCount >= maxRows || chunk.parameterCount + columnCount > maxParameters) {
+                chunk = new Chunk();
+                chunks.add(chunk);
+            }
+
+            chunk.rowCount++;
+            chunk.parameterCount += columnCount;
+            rowColumns = columnCount;
+            totalRows++;
+
+            return chunk;
+        }
+
+        /**
+         * @return The portion of each statement preceding its rows
+         */
+        @Nonnull
+        private String buildPrefix() {
+            StringBuilder prefix = new StringBuilder("insert into ").append(asTableName).append(" (");
+            Joiner.on(',').appendTo(prefix, columns);
+
+            return prefix.append(") values ").toString();
+        }
+
+        /**
+         * @return The portion of each statement following its rows
+         */
+        @Nonnull
+        private String buildSuffix() {
+            StringBuilder suffix = new StringBuilder();
+
+            if (conflictAction != ConflictAction.NONE) {
+                suffix.append(" on conflict");
+
+                if (!conflictTargets.isEmpty()) {
+                    suffix.append(" (");
+                    Joiner.on(',').appendTo(suffix, conflictTargets);
+                    suffix.append(')');
+                }
+            }
+
+            if (conflictAction == ConflictAction.NOTHING) {
+                suffix.append(" do nothing");
+            } else if (conflictAction == ConflictAction.UPDATE) {
+                Preconditions.checkArgument(!conflictTargets.isEmpty(), "Updating conflicting rows requires a conflict target");
+
+                List<String> updates = Lists.newArrayList();
+
+                for (String column : columns) {
+                    if (!conflictTargets.contains(column)) {
+                        updates.add(column + "=excluded." + column);
+                    }
+                }
+
+                Preconditions.checkArgument(!updates.isEmpty(), "Updating conflicting rows requires a column outside the conflict target");
+
+                suffix.append(" do update set ");
+                Joiner.on(',').appendTo(suffix, updates);
+            }
+
+            if (!returning.isEmpty()) {
+                suffix.append(" returning ");
+                Joiner.on(',').appendTo(suffix, returning);
+            }
+
+            return suffix.toString();
+        }
+
+        /**
+         * @param destination
+         *            Location to write placeholder rows to
+         * @param rows
+         *            The number of rows to write placeholders for
+         */
+        private void appendPlaceholders(@Nonnull StringBuilder destination, int rows) {
+            int index = 1;
+
+            for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
+                if (rowIndex > 0) {
+                    destination.append(',');
+                }
+
+                destination.append('(');
+
+                for (int column = 0; column < rowColumns; column++) {
+                    if (column > 0) {
+                        destination.append(',');
+                    }
+
+                    placeholder.append(destination, index++);
+                }
+
+                destination.append(')');
+            }
+        }
+    }
+
+}
@@ -0,0 +1,235 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import com.rsomeara.query.construction.postgresql.type.RowFunction;
+
+/**
+ * Renders values statement rows from a random-access list concurrently. The list is split into contiguous segments,
+ * each segment is rendered into its own buffer, and the buffers are appended to the destination in order - producing
+ * output identical to rendering each row in sequence
+ *
+ * @author romeara
+ */
+final class ParallelRowRenderer {
+
+    /** The smallest number of rows worth rendering as a separate task */
+    private static final int MIN_SEGMENT_ROWS = 1024;
+
+    /** Segments per thread, allowing threads which finish early to take on additional work */
+    private static final int SEGMENTS_PER_THREAD = 4;
+
+    /**
+     * Prevent instantiation of utility class
+     */
+    private ParallelRowRenderer() throws InstantiationException {
+        throw new InstantiationException("Cannot instantiate instance of utility class '" + getClass().getName() + "'");
+    }
+
+    /**
+     * Renders rows, appending them to a destination which already contains at least one row
+     *
+     * <p>
+     * If a row cannot be rendered, all rows before it are still appended to the destination, matching sequential
+     * rendering
+     * </p>
+     *
+     * @param rowFunction
+     *            Function which writes the columns of each row
+     * @param values
+     *            Data to render as rows
+     * @param firstRowIndex
+     *            The index of the first value within the complete statement, used to report failures
+     * @param expectedColumns
+     *            The number of columns each row must contain
+     * @param executor
+     *            Executor to render segments on
+     * @param destination
+     *            Buffer to append comma-separated rows to
+     * @return The outcome of rendering, including the number of rows appended
+     */
+    @Nonnull
+    static <T> Result render(@Nonnull RowFunction<T> rowFunction, @Nonnull List<T> values, long firstRowIndex, int expectedColumns,
+            @Nonnull Executor executor, @Nonnull StringBuilder destination) {
+        Objects.requireNonNull(rowFunction);
+        Objects.requireNonNull(values);
+        Objects.requireNonNull(executor);
+        Objects.requireNonNull(destination);
+
+        int parallelism = (executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).getParallelism()
+                : Runtime.getRuntime().availableProcessors());
+        int segmentRows = Math.max(MIN_SEGMENT_ROWS, values.size() / (parallelism * SEGMENTS_PER_THREAD) + 1);
+
+        List<CompletableFuture<Result>> segments = new ArrayList<>();
+
+        for (int start = 0; start < values.size(); start += segmentRows) {
+            List<T> segment = values.subList(start, Math.min(values.size(), start + segmentRows));
+            long segmentRowIndex = firstRowIndex + start;
+
+            segments.add(CompletableFuture.supplyAsync(() -> renderSegment(rowFunction, segment, segmentRowIndex, expectedColumns),
+                    executor));
+        }
+
+        // Wait for all segments before appending any, so their total length is known
+        List<Result> results = new ArrayList<>(segments.size());
+
+        for (CompletableFuture<Result> segment : segments) {
+            results.add(join(segment));
+        }
+
+        long length = destination.length();
+
+        for (Result result : results) {
+            length += result.rows.length();
+        }
+
+        destination.ensureCapacity((int) Math.min(length, Integer.MAX_VALUE));
+
+        int rowCount = 0;
+        long escapedValueCount = 0;
+        RuntimeException failure = null;
+
+        for (Result result : results) {
+            destination.append(result.rows);
+            rowCount += result.rowCount;
+            escapedValueCount += result.escapedValueCount;
+            failure = result.failure;
+
+            // Rows after a failure would not have been reached sequentially
+            if (failure != null) {
+                break;
+            }
+        }
+
+        return new Result(destination, rowCount, escapedValueCount, failure);
+    }
+
+    /**
+     * @param rowFunction
+     *            Function which writes the columns of each row
+     * @param values
+     *            Data to render as rows
+     * @param firstRowIndex
+     *            The index of the first value within the complete statement, used to report failures
+     * @param expectedColumns
+     *            The number of columns each row must contain
+     * @return The rendered rows, each preceded by a comma
+     */
+    @Nonnull
+    private static <T> Result renderSegment(@Nonnull RowFunction<T> rowFunction, @Nonnull List<T> values, long firstRowIndex,
+            int expectedColumns) {
+        StringBuilder rows = new StringBuilder();
+        ValuesRowWriter rowWriter = new ValuesRowWriter(rows, false);
+
+        int rowCount = 0;
+        RuntimeException failure = null;
+
+        for (T value : values) {
+            int rowStart = rows.length();
+
+            try {
+                rows.append(',');
+
+                int columns = rowWriter.writeRow(rowFunction, Objects.requireNonNull(value));
+                ValuesRowWriter.checkColumns(firstRowIndex + rowCount, columns, expectedColumns);
+            } catch (RuntimeException e) {
+                // Discard the partially written row, and any rows which would follow it
+                rows.setLength(rowStart);
+                rowWriter.discardRow();
+                failure = e;
+                break;
+            }
+
+            rowCount++;
+        }
+
+        return new Result(rows, rowCount, rowWriter.getEscapedValueCount(), failure);
+    }
+
+    /**
+     * @param segment
+     *            Rendering task to wait for
+     * @return The result of the task
+     */
+    @Nonnull
+    private static Result join(@Nonnull CompletableFuture<Result> segment) {
+        try {
+            return segment.join();
+        } catch (CompletionException e) {
+            // Failures of row functions are captured in results - anything else is unexpected, and rethrown as-is
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Rows rendered by a rendering pass, and the failure which stopped it if any
+     *
+     * @author romeara
+     */
+    static final class Result {
+
+        private final StringBuilder rows;
+
+        private final int rowCount;
+
+        private final long escapedValueCount;
+
+        private final RuntimeException failure;
+
+        /**
+         * @param rows
+         *            Rendered rows
+         * @param rowCount
+         *            The number of complete rows rendered
+         * @param escapedValueCount
+         *            The number of rendered text values which required escaping
+         * @param failure
+         *            The failure which stopped rendering, or null if all rows were rendered
+         */
+        private Result(@Nonnull StringBuilder rows, int rowCount, long escapedValueCount, @CheckForNull RuntimeException failure) {
+            this.rows = Objects.requireNonNull(rows);
+            this.rowCount = rowCount;
+            this.escapedValueCount = escapedValueCount;
+            this.failure = failure;
+        }
+
+        /**
+         * @return The number of complete rows rendered
+         */
+        int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * @return The number of rendered text values which required escaping
+         */
+        long getEscapedValueCount() {
+            return escapedValueCount;
+        }
+
+        /**
+         * @return The failure which stopped rendering, or null if all rows were rendered
+         */
+        @CheckForNull
+        RuntimeException getFailure() {
+            return failure;
+        }
+
+    }
+
+}
@@ -0,0 +1,506 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+import com.rsomeara.query.construction.postgresql.type.ParameterFunction;
+
+/**
+ * Represents a PostgreSQL values statement whose data is provided as bind parameters instead of inlined literals.
+ *
+ * <p>
+ * Statement text depends only on the number of rows, columns, handle and labels - not the data itself - which allows
+ * PostgreSQL and the JDBC driver to reuse prepared statements across data sets. To further limit the number of distinct
+ * statements, row counts are rounded up to a small set of buckets, and the additional rows are bound as NULL. Padding
+ * rows never match a join condition, but are visible to queries which select from the values statement directly
+ * </p>
+ *
+ * @author romeara
+ * @since 0.1
+ */
+@Immutable
+public final class ParameterizedValuesStatement {
+
+    /** Default row counts which statements are padded up to, chosen to keep the number of distinct statements small */
+    private static final int[] DEFAULT_ROW_BUCKETS = new int[] { 1, 8, 64, 512 };
+
+    private final String statement;
+
+    private final Object[] parameters;
+
+    private final int rowCount;
+
+    /**
+     * @param builder
+     *            Statement builder which contains information required to generate a values statement
+     */
+    private ParameterizedValuesStatement(@Nonnull Builder<?> builder) {
+        Objects.requireNonNull(builder);
+        Objects.requireNonNull(builder.parameters);
+        Objects.requireNonNull(builder.asTableName);
+        Objects.requireNonNull(builder.labels);
+        Objects.requireNonNull(builder.placeholder);
+
+        int columns = builder.labels.size();
+
+        rowCount = getBucketedRowCount(builder.rowCount, builder.rowBuckets);
+
+        // Any rows beyond the provided data are left as null, which are bound as SQL NULL
+        parameters = Arrays.copyOf(builder.parameters.toArray(), rowCount * columns);
+        statement = buildStatement(rowCount, columns, builder.placeholder, builder.firstParameterIndex, builder.asTableName, builder.labels);
+    }
+
+    /**
+     * @return The values represented as a SQL statement with parameter placeholders, which can be joined to PostgreSQL
+     *         queries
+     * @since 0.1
+     */
+    @Nonnull
+    public String getSQL() {
+        return statement;
+    }
+
+    /**
+     * @return Values to bind to the placeholders of the statement, in placeholder order. Includes null values for any
+     *         padding rows
+     * @since 0.1
+     */
+    @Nonnull
+    public List<Object> getParameters() {
+        return Collections.unmodifiableList(Arrays.asList(parameters));
+    }
+
+    /**
+     * @return The number of rows in the statement, including any padding rows
+     * @since 0.1
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Binds the parameters of this values statement to a prepared statement, starting at the first parameter
+     *
+     * @param preparedStatement
+     *            Prepared statement created from SQL containing this values statement
+     * @throws SQLException
+     *             If there is an error binding parameters to the statement
+     * @since 0.1
+     */
+    public void bind(@Nonnull PreparedStatement preparedStatement) throws SQLException {
+        bind(preparedStatement, 1);
+    }
+
+    /**
+     * Binds the parameters of this values statement to a prepared statement. Used when the values statement is
+     * contained in a larger query which has additional parameters
+     *
+     * @param preparedStatement
+     *            Prepared statement created from SQL containing this values statement
+     * @param firstIndex
+     *            The JDBC (1-based) index of the first parameter belonging to this values statement
+     * @return The index of the first parameter after those belonging to this values statement
+     * @throws SQLException
+     *             If there is an error binding parameters to the statement
+     * @since 0.1
+     */
+    public int bind(@Nonnull PreparedStatement preparedStatement, int firstIndex) throws SQLException {
+        Objects.requireNonNull(preparedStatement);
+        Preconditions.checkArgument(firstIndex > 0, "JDBC parameter indices start at 1");
+
+        return bindParameters(preparedStatement, firstIndex, parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(statement, Arrays.hashCode(parameters));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        boolean result = false;
+
+        if (this == obj) {
+            result = true;
+        } else if (obj instanceof ParameterizedValuesStatement) {
+            ParameterizedValuesStatement compare = (ParameterizedValuesStatement) obj;
+
+            result = Objects.equals(compare.getSQL(), getSQL())
+                    && Arrays.equals(compare.parameters, parameters);
+        }
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return statement;
+    }
+
+    /**
+     * @param parameterFunction
+     *            Function which converts between a data representation and statement parameters
+     * @return A new, empty builder for incremental value statement construction
+     * @since 0.1
+     */
+    @Nonnull
+    public static <T> Builder<T> newBuilder(@Nonnull ParameterFunction<T> parameterFunction) {
+        Objects.requireNonNull(parameterFunction);
+
+        return new Builder<T>(parameterFunction);
+    }
+
+    /**
+     * Binds parameters to a prepared statement, binding null values as SQL NULL
+     *
+     * @param preparedStatement
+     *            Prepared statement to bind parameters to
+     * @param firstIndex
+     *            The JDBC (1-based) index of the first parameter
+     * @param parameters
+     *            Values to bind, in placeholder order
+     * @return The index of the first parameter after those bound
+     * @throws SQLException
+     *             If there is an error binding parameters to the statement
+     */
+    static int bindParameters(@Nonnull PreparedStatement preparedStatement, int firstIndex, @Nonnull Object[] parameters)
+            throws SQLException {
+        int index = firstIndex;
+
+        for (Object parameter : parameters) {
+            if (parameter != null) {
+                preparedStatement.setObject(index, parameter);
+            } else {
+                preparedStatement.setNull(index, Types.NULL);
+            }
+
+            index++;
+        }
+
+        return index;
+    }
+
+    /**
+     * @param rows
+     *            The number of data rows provided
+     * @param rowBuckets
+     *            Ascending row counts to pad statements to. If empty, the row count is used as-is
+     * @return The smallest bucket which can contain the provided rows. Row counts larger than all buckets are rounded
+     *         up to a multiple of the largest bucket
+     */
+    private static int getBucketedRowCount(int rows, @Nonnull int[] rowBuckets) {
+        int result = rows;
+
+        if (rowBuckets.length > 0) {
+            int largest = rowBuckets[rowBuckets.length - 1];
+
+            // Default to a multiple of the largest bucket, in case no bucket is large enough
+            result = ((rows + largest - 1) / largest) * largest;
+
+            for (int bucket : rowBuckets) {
+                if (bucket >= rows) {
+                    result = bucket;
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @param rows
+     *            The number of rows to include placeholders for
+     * @param columns
+     *            The number of columns in each row
+     * @param placeholder
+     *            Style of placeholder to generate
+     * @param firstParameterIndex
+     *            The index of the first placeholder, for placeholder styles which are numbered
+     * @param tableName
+     *            The handle to assign to the generated values statement
+     * @param valueLabels
+     *            Labels for data columns within the statement
+     * @return SQL snippet which represents a values statement of the given shape with placeholders for all data
+     */
+    @Nonnull
+    private static String buildStatement(int rows, int columns, @Nonnull Placeholder placeholder, int firstParameterIndex,
+            @Nonnull String tableName, @Nonnull List<String> valueLabels) {
+        StringBuilder statementBuilder = new StringBuilder(ValuesStatement.VALUES_PREFIX);
+
+        int index = firstParameterIndex;
+
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                statementBuilder.append(',');
+            }
+
+            statementBuilder.append('(');
+
+            for (int column = 0; column < columns; column++) {
+                if (column > 0) {
+                    statementBuilder.append(',');
+                }
+
+                placeholder.append(statementBuilder, index++);
+            }
+
+            statementBuilder.append(')');
+        }
+
+        statementBuilder.append(") ").append(tableName).append('(');
+        Joiner.on(',').appendTo(statementBuilder, valueLabels);
+
+        return statementBuilder.append(')').toString();
+    }
+
+    /**
+     * Styles of bind parameter placeholder which may be generated
+     *
+     * @author romeara
+     * @since 0.1
+     */
+    public enum Placeholder {
+
+        /** Standard JDBC placeholders ({@code ?}), bound in order of appearance */
+        JDBC {
+
+            @Override
+            void append(StringBuilder destination, int index) {
+                destination.append('?');
+            }
+
+        },
+
+        /** PostgreSQL numbered placeholders ({@code $1}), as used in server-side prepared statements */
+        NUMBERED {
+
+            @Override
+            void append(StringBuilder destination, int index) {
+                destination.append('$').append(index);
+            }
+
+        };
+
+        /**
+         * @param destination
+         *            Location to write the placeholder to
+         * @param index
+         *            The 1-based index of the parameter the placeholder represents
+         */
+        abstract void append(StringBuilder destination, int index);
+    }
+
+    /**
+     * Allows incremental construction of immutable parameterized values statements
+     *
+     * @author romeara
+     *
+     * @param <T>
+     *            Type which represents the data to provide as data in a values statement
+     * @since 0.1
+     */
+    public static final class Builder<T> {
+
+        private final ParameterFunction<T> parameterFunction;
+
+        private List<Object> parameters;
+
+        private int rowCount;
+
+        private List<String> labels;
+
+        private String asTableName;
+
+        private Placeholder placeholder;
+
+        private int firstParameterIndex;
+
+        private int[] rowBuckets;
+
+        /**
+         * @param parameterFunction
+         *            Function which converts an arbitrary data representation into a set of statement parameters
+         */
+        private Builder(@Nonnull ParameterFunction<T> parameterFunction) {
+            Objects.requireNonNull(parameterFunction);
+
+            this.parameterFunction = parameterFunction;
+            parameters = Lists.newArrayList();
+            rowCount = 0;
+            labels = Lists.newArrayList();
+            asTableName = null;
+            placeholder = Placeholder.JDBC;
+            firstParameterIndex = 1;
+            rowBuckets = DEFAULT_ROW_BUCKETS;
+        }
+
+        /**
+         * @param tableName
+         *            The handle to assign to the generated values statement - used when referencing data within a query
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> tableName(@Nonnull String tableName) {
+            Objects.requireNonNull(tableName);
+
+            this.asTableName = tableName;
+
+            return this;
+        }
+
+        /**
+         * @param placeholder
+         *            Style of placeholder to generate. Defaults to {@link Placeholder#JDBC}
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> placeholder(@Nonnull Placeholder placeholder) {
+            Objects.requireNonNull(placeholder);
+
+            this.placeholder = placeholder;
+
+            return this;
+        }
+
+        /**
+         * @param firstParameterIndex
+         *            The number of the first generated {@link Placeholder#NUMBERED} placeholder, for statements
+         *            contained within larger queries with other parameters. Defaults to 1
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> firstParameterIndex(int firstParameterIndex) {
+            Preconditions.checkArgument(firstParameterIndex > 0, "Parameter indices start at 1");
+
+            this.firstParameterIndex = firstParameterIndex;
+
+            return this;
+        }
+
+        /**
+         * @param rowBuckets
+         *            Row counts which the statement will be padded up to. If none are provided, statements contain
+         *            exactly the rows added. Defaults to 1, 8, 64, and 512 rows
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> rowBuckets(@Nonnull int... rowBuckets) {
+            Objects.requireNonNull(rowBuckets);
+
+            int[] sorted = Arrays.copyOf(rowBuckets, rowBuckets.length);
+            Arrays.sort(sorted);
+
+            Preconditions.checkArgument(sorted.length == 0 || sorted[0] > 0, "Row buckets must be positive");
+
+            this.rowBuckets = sorted;
+
+            return this;
+        }
+
+        /**
+         * @param value
+         *            Value to add to the values provided by the statement
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addValue(@Nonnull T value) {
+            Objects.requireNonNull(value);
+
+            List<Object> row = parameterFunction.apply(value);
+            Objects.requireNonNull(row);
+
+            // Rows must have a consistent width for padding and placeholder generation
+            Preconditions.checkArgument(rowCount == 0 || row.size() * rowCount == parameters.size(),
+                    "All value rows must contain the same number of columns");
+
+            parameters.addAll(row);
+            rowCount++;
+
+            return this;
+        }
+
+        /**
+         * @param values
+         *            Group of values to add to the values provided by the statement
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addValues(@Nonnull Iterable<T> values) {
+            Objects.requireNonNull(values);
+
+            for (T value : values) {
+                addValue(value);
+            }
+
+            return this;
+        }
+
+        /**
+         * @param label
+         *            Adds a label to the set of labels for data columns in the values statement
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addLabel(@Nonnull String label) {
+            Objects.requireNonNull(label);
+
+            this.labels.add(label);
+
+            return this;
+        }
+
+        /**
+         * @param labels
+         *            Group of labels to add (in the provided order) to the set of labels for data columns in the values
+         *            statement
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addLabels(@Nonnull List<String> labels) {
+            Objects.requireNonNull(labels);
+
+            for (String label : labels) {
+                addLabel(label);
+            }
+
+            return this;
+        }
+
+        /**
+         * @return An immutable ParameterizedValuesStatement instance which represents the provided values
+         * @since 0.1
+         */
+        @Nonnull
+        public ParameterizedValuesStatement build() {
+            Preconditions.checkArgument(asTableName != null, "Values statements must have a handle to be referenced by query statements");
+            Preconditions.checkArgument(!labels.isEmpty(), "Labels are required to reference value data");
+            Preconditions.checkArgument(rowCount > 0, "Must have at least one value row to construct a values statement");
+            Preconditions.checkArgument(parameters.size() == Ints.checkedCast((long) rowCount * labels.size()),
+                    "Value rows must contain one column per label");
+
+            return new ParameterizedValuesStatement(this);
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.rsomeara.query.construction.postgresql;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receives measurements of values statements as they are rendered, allowing the size and cost of generated SQL to be
+ * monitored. Listeners are registered with {@link ValuesStatement.Builder#listener(RenderListener)}, and are notified
+ * once for each call to {@link ValuesStatement.Builder#build()} or {@link ValuesStatement.Builder#writeTo(Appendable)}
+ *
+ * <p>
+ * Listeners are called on the thread which builds the statement, so should return quickly. A single listener may be
+ * shared by many builders, and must then be safe for concurrent use
+ * </p>
+ *
+ * @author romeara
+ * @see HistogramRenderListener
+ * @since 0.1
+ */
+public interface RenderListener {
+
+    /**
+     * Listener which ignores all measurements. Builders with this listener do not take any measurements, so incur no
+     * instrumentation cost
+     *
+     * @since 0.1
+     */
+    RenderListener NONE = metrics -> {
+        // Measurements are not taken for this listener
+    };
+
+    /**
+     * @param metrics
+     *            Measurements of a rendered values statement
+     * @since 0.1
+     */
+    void onRender(@Nonnull RenderMetrics metrics);
+
+}
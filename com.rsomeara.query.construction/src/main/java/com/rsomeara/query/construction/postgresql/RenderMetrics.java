@@ -0,0 +1,119 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Measurements of a single rendered values statement, provided to a {@link RenderListener}
+ *
+ * @author romeara
+ * @since 0.1
+ */
+@Immutable
+public final class RenderMetrics {
+
+    private final String tableName;
+
+    private final long rowCount;
+
+    private final int columnCount;
+
+    private final long characterCount;
+
+    private final long escapedValueCount;
+
+    private final long renderNanos;
+
+    /**
+     * @param tableName
+     *            The handle assigned to the statement
+     * @param rowCount
+     *            The number of rows in the statement
+     * @param columnCount
+     *            The number of columns in each row
+     * @param characterCount
+     *            The length of the complete statement
+     * @param escapedValueCount
+     *            The number of text values which required escaping
+     * @param renderNanos
+     *            The time spent rendering the statement
+     */
+    RenderMetrics(@Nonnull String tableName, long rowCount, int columnCount, long characterCount, long escapedValueCount,
+            long renderNanos) {
+        this.tableName = Objects.requireNonNull(tableName);
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.characterCount = characterCount;
+        this.escapedValueCount = escapedValueCount;
+        this.renderNanos = renderNanos;
+    }
+
+    /**
+     * @return The handle assigned to the statement
+     * @since 0.1
+     */
+    @Nonnull
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * @return The number of rows in the statement
+     * @since 0.1
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return The number of columns in each row of the statement
+     * @since 0.1
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * @return The length, in characters, of the complete statement
+     * @since 0.1
+     */
+    public long getCharacterCount() {
+        return characterCount;
+    }
+
+    /**
+     * @return The number of text values in the statement which contained characters requiring escaping. Pre-formatted
+     *         values count if they are string literals containing escaped quotes. Rows rejected while building the
+     *         statement are not counted
+     * @since 0.1
+     */
+    public long getEscapedValueCount() {
+        return escapedValueCount;
+    }
+
+    /**
+     * @return The time, in nanoseconds, spent rendering rows and assembling the statement. Time spent by the client
+     *         between adding values is not included
+     * @since 0.1
+     */
+    public long getRenderNanos() {
+        return renderNanos;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("tableName", tableName)
+                .add("rowCount", rowCount)
+                .add("columnCount", columnCount)
+                .add("characterCount", characterCount)
+                .add("escapedValueCount", escapedValueCount)
+                .add("renderNanos", renderNanos)
+                .toString();
+    }
+
+}
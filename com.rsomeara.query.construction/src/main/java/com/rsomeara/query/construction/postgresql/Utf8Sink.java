@@ -0,0 +1,312 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Encodes text as UTF-8 directly into a byte sink, such as a socket or file, allowing SQL to be written without
+ * creating an intermediate {@link String} or transcoding {@link java.io.Writer}. As an {@link Appendable}, a sink may
+ * be provided to {@link ValuesStatement.Builder#writeTo(Appendable)} and {@link ValuesStatementWriter}
+ *
+ * <p>
+ * Encoded bytes are collected in a buffer, which is taken from a shared pool and returned when the sink is closed.
+ * Closing the sink flushes it, but does not close the underlying stream or channel. Unpaired surrogate characters are
+ * encoded as '?', matching {@link String#getBytes(java.nio.charset.Charset)}
+ * </p>
+ *
+ * @author romeara
+ * @since 0.1
+ */
+@NotThreadSafe
+public final class Utf8Sink implements Appendable, Flushable, Closeable {
+
+    /** Size of each pooled buffer, in bytes */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** The maximum number of idle buffers retained by the pool */
+    private static final int MAX_POOLED_BUFFERS = 16;
+
+    /** The maximum number of bytes a single character, or surrogate pair, is encoded as */
+    private static final int MAX_CHARACTER_BYTES = 4;
+
+    /** Encoding of characters which cannot be represented */
+    private static final byte REPLACEMENT = '?';
+
+    private static final Queue<byte[]> BUFFER_POOL = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicInteger POOLED_BUFFERS = new AtomicInteger();
+
+    private final OutputStream stream;
+
+    private final WritableByteChannel channel;
+
+    private byte[] buffer;
+
+    private int position;
+
+    /** A high surrogate at the end of previously appended text, which is encoded once its pair is appended */
+    private char pendingHighSurrogate;
+
+    private boolean hasPendingHighSurrogate;
+
+    /**
+     * @param stream
+     *            Stream to write encoded text to, or null if writing to a channel
+     * @param channel
+     *            Channel to write encoded text to, or null if writing to a stream
+     */
+    private Utf8Sink(@Nullable OutputStream stream, @Nullable WritableByteChannel channel) {
+        this.stream = stream;
+        this.channel = channel;
+
+        buffer = borrowBuffer();
+        position = 0;
+        hasPendingHighSurrogate = false;
+    }
+
+    /**
+     * @param destination
+     *            Stream to write UTF-8 encoded text to
+     * @return A new sink which writes to the provided stream
+     * @since 0.1
+     */
+    @Nonnull
+    public static Utf8Sink to(@Nonnull OutputStream destination) {
+        Objects.requireNonNull(destination);
+
+        return new Utf8Sink(destination, null);
+    }
+
+    /**
+     * @param destination
+     *            Channel to write UTF-8 encoded text to
+     * @return A new sink which writes to the provided channel
+     * @since 0.1
+     */
+    @Nonnull
+    public static Utf8Sink to(@Nonnull WritableByteChannel destination) {
+        Objects.requireNonNull(destination);
+
+        return new Utf8Sink(null, destination);
+    }
+
+    @Override
+    public Utf8Sink append(CharSequence csq) throws IOException {
+        CharSequence value = (csq != null ? csq : "null");
+
+        return append(value, 0, value.length());
+    }
+
+    @Override
+    public Utf8Sink append(CharSequence csq, int start, int end) throws IOException {
+        CharSequence value = (csq != null ? csq : "null");
+
+        if (start < 0 || start > end || end > value.length()) {
+            throw new IndexOutOfBoundsException("Invalid range [" + start + ", " + end + ") of sequence of length " + value.length());
+        }
+
+        checkOpen();
+
+        for (int i = start; i < end; i++) {
+            char ch = value.charAt(i);
+
+            // Most SQL is ASCII, which is encoded without any further checks
+            if (ch < 0x80 && !hasPendingHighSurrogate) {
+                if (position == buffer.length) {
+                    drain();
+                }
+
+                buffer[position++] = (byte) ch;
+            } else {
+                encode(ch);
+            }
+        }
+
+        return this;
+    }
+
+    @Override
+    public Utf8Sink append(char c) throws IOException {
+        checkOpen();
+        encode(c);
+
+        return this;
+    }
+
+    /**
+     * Writes all encoded text to the underlying stream or channel, and flushes the stream. A trailing high surrogate is
+     * retained until its pair is appended or the sink is closed
+     *
+     * @throws IOException
+     *             If there is an error writing to the destination
+     * @since 0.1
+     */
+    @Override
+    public void flush() throws IOException {
+        checkOpen();
+        drain();
+
+        if (stream != null) {
+            stream.flush();
+        }
+    }
+
+    /**
+     * Flushes all encoded text, and returns the buffer of this sink to the shared pool. The underlying stream or channel
+     * is not closed
+     *
+     * @throws IOException
+     *             If there is an error writing to the destination
+     * @since 0.1
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffer != null) {
+            try {
+                // A high surrogate which was never paired cannot be represented
+                if (hasPendingHighSurrogate) {
+                    hasPendingHighSurrogate = false;
+
+                    if (position == buffer.length) {
+                        drain();
+                    }
+
+                    buffer[position++] = REPLACEMENT;
+                }
+
+                flush();
+            } finally {
+                releaseBuffer(buffer);
+                buffer = null;
+            }
+        }
+    }
+
+    /**
+     * Encodes a single character, which may be part of a surrogate pair
+     *
+     * @param ch
+     *            Character to encode
+     * @throws IOException
+     *             If there is an error writing to the destination
+     */
+    private void encode(char ch) throws IOException {
+        if (buffer.length - position < MAX_CHARACTER_BYTES) {
+            drain();
+        }
+
+        if (hasPendingHighSurrogate && Character.isLowSurrogate(ch)) {
+            hasPendingHighSurrogate = false;
+            encodeCodePoint(Character.toCodePoint(pendingHighSurrogate, ch));
+        } else {
+            // A high surrogate followed by anything other than a low surrogate cannot be represented
+            if (hasPendingHighSurrogate) {
+                hasPendingHighSurrogate = false;
+                buffer[position++] = REPLACEMENT;
+            }
+
+            if (Character.isHighSurrogate(ch)) {
+                pendingHighSurrogate = ch;
+                hasPendingHighSurrogate = true;
+            } else if (Character.isLowSurrogate(ch)) {
+                buffer[position++] = REPLACEMENT;
+            } else {
+                encodeCodePoint(ch);
+            }
+        }
+    }
+
+    /**
+     * @param codePoint
+     *            Unicode code point to write to the buffer, which must have room for its encoding
+     */
+    private void encodeCodePoint(int codePoint) {
+        if (codePoint < 0x80) {
+            buffer[position++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (codePoint >> 6));
+            buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            buffer[position++] = (byte) (0xE0 | (codePoint >> 12));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the destination, and empties the buffer
+     *
+     * @throws IOException
+     *             If there is an error writing to the destination
+     */
+    private void drain() throws IOException {
+        if (position > 0) {
+            if (stream != null) {
+                stream.write(buffer, 0, position);
+            } else {
+                ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, position);
+
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+
+            position = 0;
+        }
+    }
+
+    /**
+     * Verifies the sink may still be written to
+     */
+    private void checkOpen() {
+        if (buffer == null) {
+            throw new IllegalStateException("Cannot write to a closed sink");
+        }
+    }
+
+    /**
+     * @return A buffer from the shared pool, or a new buffer if none are available
+     */
+    @Nonnull
+    private static byte[] borrowBuffer() {
+        byte[] result = BUFFER_POOL.poll();
+
+        if (result != null) {
+            POOLED_BUFFERS.decrementAndGet();
+        } else {
+            result = new byte[BUFFER_SIZE];
+        }
+
+        return result;
+    }
+
+    /**
+     * @param buffer
+     *            Buffer to return to the shared pool. Discarded if the pool is full
+     */
+    private static void releaseBuffer(@Nonnull byte[] buffer) {
+        if (POOLED_BUFFERS.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            BUFFER_POOL.offer(buffer);
+        } else {
+            POOLED_BUFFERS.decrementAndGet();
+        }
+    }
+
+}
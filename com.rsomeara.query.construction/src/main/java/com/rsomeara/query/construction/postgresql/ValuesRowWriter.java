@@ -0,0 +1,394 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+import java.util.UUID;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.rsomeara.query.construction.postgresql.type.LiteralEscaper;
+import com.rsomeara.query.construction.postgresql.type.RowFunction;
+import com.rsomeara.query.construction.postgresql.type.RowWriter;
+
+/**
+ * Writes values statement rows directly to a shared buffer. A single instance is reused for every row of a statement,
+ * and counts the rows, characters, and escaped text values it has written
+ *
+ * @author romeara
+ */
+final class ValuesRowWriter implements RowWriter {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final String INT4 = "int4";
+
+    private static final String INT8 = "int8";
+
+    private static final String FLOAT8 = "float8";
+
+    private static final String UUID_TYPE = "uuid";
+
+    private static final String TIMESTAMPTZ = "timestamptz";
+
+    private final StringBuilder destination;
+
+    private boolean firstRow;
+
+    private int columns;
+
+    private long rowCount;
+
+    private long characterCount;
+
+    private long escapedValueCount;
+
+    /** Counts at the start of the most recent row, restored if the row is discarded */
+    private boolean rowStartFirstRow;
+
+    private long rowStartRowCount;
+
+    private long rowStartCharacterCount;
+
+    private long rowStartEscapedValueCount;
+
+    /**
+     * @param destination
+     *            Buffer to write rows to
+     */
+    ValuesRowWriter(@Nonnull StringBuilder destination) {
+        this(destination, true);
+    }
+
+    /**
+     * @param destination
+     *            Buffer to write rows to
+     * @param firstRow
+     *            True if the next row written is the first row of a statement, and must declare column types
+     */
+    ValuesRowWriter(@Nonnull StringBuilder destination, boolean firstRow) {
+        this.destination = Objects.requireNonNull(destination);
+        this.firstRow = firstRow;
+
+        columns = 0;
+        rowCount = 0;
+        characterCount = 0;
+        escapedValueCount = 0;
+    }
+
+    /**
+     * Verifies that a rendered row contains the expected number of columns. Allocates only on failure, so may be called
+     * for every row without cost
+     *
+     * @param rowIndex
+     *            The 0-based index of the row within its input
+     * @param columns
+     *            The number of columns written for the row
+     * @param expectedColumns
+     *            The number of columns each row must contain
+     * @throws IllegalArgumentException
+     *             If the row does not contain the expected number of columns
+     */
+    static void checkColumns(long rowIndex, int columns, int expectedColumns) {
+        if (columns != expectedColumns) {
+            throw new IllegalArgumentException("Row " + rowIndex + " contains " + columns + " values, but " + expectedColumns
+                    + " columns are expected");
+        }
+    }
+
+    /**
+     * Writes a complete, parentheses-contained row
+     *
+     * @param rowFunction
+     *            Function which writes the columns of the row
+     * @param value
+     *            Data to represent as the row
+     * @return The number of columns written
+     */
+    <T> int writeRow(@Nonnull RowFunction<T> rowFunction, @Nonnull T value) {
+        int rowStart = destination.length();
+        columns = 0;
+
+        rowStartFirstRow = firstRow;
+        rowStartRowCount = rowCount;
+        rowStartCharacterCount = characterCount;
+        rowStartEscapedValueCount = escapedValueCount;
+
+        destination.append('(');
+        rowFunction.writeRow(value, this);
+        destination.append(')');
+
+        firstRow = false;
+        rowCount++;
+        characterCount += destination.length() - rowStart;
+
+        return columns;
+    }
+
+    /**
+     * Reverts the counts of the most recently started row, whether or not it was completed, for callers which remove
+     * the row from the buffer. If the row was the first row of a statement, the next row declares column types in its
+     * place
+     */
+    void discardRow() {
+        firstRow = rowStartFirstRow;
+        rowCount = rowStartRowCount;
+        characterCount = rowStartCharacterCount;
+        escapedValueCount = rowStartEscapedValueCount;
+    }
+
+    /**
+     * @return The number of rows written, excluding discarded rows
+     */
+    long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return The total length of all rows written, excluding any separators between rows
+     */
+    long getCharacterCount() {
+        return characterCount;
+    }
+
+    /**
+     * @return The number of text values written which contained characters requiring escaping, including
+     *         pre-formatted string literals containing escaped quotes, and excluding discarded rows
+     */
+    long getEscapedValueCount() {
+        return escapedValueCount;
+    }
+
+    @Override
+    public RowWriter writeInt(int value) {
+        startColumn();
+
+        boolean grouped = openNumber(value < 0);
+        destination.append(value);
+        closeNumber(grouped, INT4);
+
+        return this;
+    }
+
+    @Override
+    public RowWriter writeLong(long value) {
+        startColumn();
+
+        boolean grouped = openNumber(value < 0);
+        destination.append(value);
+        closeNumber(grouped, INT8);
+
+        return this;
+    }
+
+    @Override
+    public RowWriter writeDouble(double value) {
+        startColumn();
+
+        // Non-finite values have no numeric literal form, and must be provided as strings
+        if (Double.isNaN(value)) {
+            appendTyped("'NaN'", FLOAT8);
+        } else if (Double.isInfinite(value)) {
+            appendTyped(value > 0 ? "'Infinity'" : "'-Infinity'", FLOAT8);
+        } else {
+            boolean grouped = openNumber(value < 0);
+            destination.append(value);
+            closeNumber(grouped, FLOAT8);
+        }
+
+        return this;
+    }
+
+    @Override
+    public RowWriter writeBoolean(boolean value) {
+        startColumn();
+        destination.append(value);
+
+        return this;
+    }
+
+    @Override
+    public RowWriter writeText(@Nullable CharSequence value) {
+        startColumn();
+
+        if (value != null) {
+            int valueStart = destination.length();
+            LiteralEscaper.appendQuoted(destination, value);
+
+            // Quoting adds exactly two characters, so any further growth is from escaping
+            if (destination.length() - valueStart != value.length() + 2) {
+                escapedValueCount++;
+            }
+        } else {
+            destination.append("NULL");
+        }
+
+        return this;
+    }
+
+    @Override
+    public RowWriter writeUuid(@Nullable UUID value) {
+        startColumn();
+
+        if (value != null) {
+            long most = value.getMostSignificantBits();
+            long least = value.getLeastSignificantBits();
+
+            destination.append('\'');
+            appendHex(most >>> 32, 8);
+            destination.append('-');
+            appendHex(most >>> 16, 4);
+            destination.append('-');
+            appendHex(most, 4);
+            destination.append('-');
+            appendHex(least >>> 48, 4);
+            destination.append('-');
+            appendHex(least, 12);
+            destination.append('\'');
+        } else {
+            destination.append("NULL");
+        }
+
+        appendCast(UUID_TYPE);
+
+        return this;
+    }
+
+    @Override
+    public RowWriter writeTimestamp(@Nullable Instant value) {
+        startColumn();
+
+        if (value != null) {
+            destination.append('\'');
+            DateTimeFormatter.ISO_INSTANT.formatTo(value, destination);
+            destination.append('\'');
+        } else {
+            destination.append("NULL");
+        }
+
+        appendCast(TIMESTAMPTZ);
+
+        return this;
+    }
+
+    @Override
+    public RowWriter writeNull() {
+        startColumn();
+        destination.append("NULL");
+
+        return this;
+    }
+
+    @Override
+    public RowWriter writeLiteral(@Nonnull CharSequence sql) {
+        Objects.requireNonNull(sql);
+
+        startColumn();
+        destination.append(sql);
+
+        if (isEscapedLiteral(sql)) {
+            escapedValueCount++;
+        }
+
+        return this;
+    }
+
+    /**
+     * @param sql
+     *            A pre-formatted SQL value
+     * @return True if the value is a string literal containing an escaped (doubled) quote
+     */
+    private static boolean isEscapedLiteral(@Nonnull CharSequence sql) {
+        boolean result = false;
+
+        if (sql.length() > 3 && sql.charAt(0) == '\'' && sql.charAt(sql.length() - 1) == '\'') {
+            for (int i = 1; !result && i < sql.length() - 2; i++) {
+                result = sql.charAt(i) == '\'' && sql.charAt(i + 1) == '\'';
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Separates the column about to be written from any previous column in the row
+     */
+    private void startColumn() {
+        if (columns > 0) {
+            destination.append(',');
+        }
+
+        columns++;
+    }
+
+    /**
+     * Begins a numeric value. Casts bind more tightly than unary minus, so negative values which will be cast must be
+     * grouped to cast the complete value
+     *
+     * @param negative
+     *            True if the value about to be written is negative
+     * @return True if the value was grouped, and the group must be closed
+     */
+    private boolean openNumber(boolean negative) {
+        boolean grouped = firstRow && negative;
+
+        if (grouped) {
+            destination.append('(');
+        }
+
+        return grouped;
+    }
+
+    /**
+     * Completes a numeric value started by {@link #openNumber(boolean)}
+     *
+     * @param grouped
+     *            True if the value was grouped
+     * @param type
+     *            The PostgreSQL type of the value
+     */
+    private void closeNumber(boolean grouped, @Nonnull String type) {
+        if (grouped) {
+            destination.append(')');
+        }
+
+        appendCast(type);
+    }
+
+    /**
+     * @param sql
+     *            SQL value to write
+     * @param type
+     *            The PostgreSQL type of the value
+     */
+    private void appendTyped(@Nonnull String sql, @Nonnull String type) {
+        destination.append(sql);
+        appendCast(type);
+    }
+
+    /**
+     * Declares the type of the current column, if this is the first row of a statement
+     *
+     * @param type
+     *            The PostgreSQL type of the value
+     */
+    private void appendCast(@Nonnull String type) {
+        if (firstRow) {
+            destination.append("::").append(type);
+        }
+    }
+
+    /**
+     * @param value
+     *            Value containing digits to write in the lowest bits
+     * @param digits
+     *            The number of hexadecimal digits to write
+     */
+    private void appendHex(long value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            destination.append(HEX_DIGITS[(int) (value >>> shift) & 0xF]);
+        }
+    }
+
+}
@@ -1,7 +1,12 @@
 package com.rsomeara.query.construction.postgresql;
 
+import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
@@ -11,7 +16,9 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.rsomeara.query.construction.postgresql.type.RowFunction;
 import com.rsomeara.query.construction.postgresql.type.ValuesFunction;
 
 /**
@@ -27,6 +34,15 @@ public final class ValuesStatement {
     /** Logger reference to output information to the application log files */
     private static final Logger logger = LoggerFactory.getLogger(ValuesStatement.class);
 
+    /** Opens the group containing all value rows of a statement */
+    static final String VALUES_PREFIX = "(values ";
+
+    /** The largest buffer size reserved in advance - some virtual machines cannot allocate arrays of the maximum size */
+    private static final int MAX_BUFFER_LENGTH = Integer.MAX_VALUE - 8;
+
+    /** Rendered rows are trace logged at this interval, as logging every row is expensive even when enabled */
+    private static final int TRACE_SAMPLE_INTERVAL = 1000;
+
     private final String statement;
 
     /**
@@ -34,14 +50,37 @@ public final class ValuesStatement {
      *            Statement builder which contains information required to generate a values statement
      */
     private ValuesStatement(@Nonnull Builder<?> builder) {
-        Objects.requireNonNull(builder);
-        Objects.requireNonNull(builder.values);
-        Objects.requireNonNull(builder.asTableName);
-        Objects.requireNonNull(builder.labels);
-
-        statement = new StringBuilder().append(buildValuesStatement(builder.values))
-                .append(' ').append(builder.asTableName)
-                .append(buildLabelsStatement(builder.labels)).toString();
+        this(Objects.requireNonNull(builder).rows, builder.asTableName, builder.labels);
+    }
+
+    /**
+     * @param rows
+     *            Comma-separated, parentheses-contained rows of SQL-consumable data
+     * @param tableName
+     *            The handle to assign to the generated values statement
+     * @param valueLabels
+     *            Group of labels for data columns within the statement
+     */
+    ValuesStatement(@Nonnull CharSequence rows, @Nonnull String tableName, @Nonnull List<String> valueLabels) {
+        Objects.requireNonNull(rows);
+        Objects.requireNonNull(tableName);
+        Objects.requireNonNull(valueLabels);
+
+        String labelsStatement = toLabelsStatement(tableName, valueLabels);
+
+        // Size the statement exactly, so rows are copied once without intermediate growth of the buffer
+        StringBuilder statementBuilder = new StringBuilder(VALUES_PREFIX.length() + rows.length() + 1 + labelsStatement.length());
+        statementBuilder.append(VALUES_PREFIX).append(rows).append(')').append(labelsStatement);
+
+        statement = statementBuilder.toString();
+    }
+
+    /**
+     * @param statement
+     *            Complete SQL of the values statement
+     */
+    ValuesStatement(@Nonnull String statement) {
+        this.statement = Objects.requireNonNull(statement);
     }
 
     /**
@@ -92,50 +131,111 @@ public final class ValuesStatement {
     }
 
     /**
-     * @param values
-     *            Groups of data to represent as a values statement
-     * @return SQL snippet which represents the provided data in a way which can be joined to by PostgreSQL queries
+     * @param rowFunction
+     *            Function which writes a data representation as typed SQL-consumable values
+     * @return A new, empty builder for incremental value statement construction
+     * @since 0.1
      */
     @Nonnull
-    private static String buildValuesStatement(@Nonnull Iterable<List<String>> values) {
-        Objects.requireNonNull(values);
-
-        StringBuilder valuesBuilder = new StringBuilder();
+    public static <T> Builder<T> newBuilder(@Nonnull RowFunction<T> rowFunction) {
+        Objects.requireNonNull(rowFunction);
 
-        List<String> valueRows = Lists.newLinkedList();
+        return new Builder<T>(rowFunction);
+    }
 
-        // For each row of values, separate data with a comma and contain within a set of parentheses. Note that no
-        // escaping of special characters is done - this processing is expected to be handled by the client calling
-        // this function before it is invoked
-        for (List<String> valueRow : values) {
-            String row = new StringBuilder().append('(').append(Joiner.on(',').skipNulls().join(valueRow)).append(')').toString();
-            valueRows.add(row);
-            logger.trace("Built value row {}", row);
-        }
+    /**
+     * Writes a complete values statement to the provided destination
+     *
+     * @param destination
+     *            Location to write the SQL snippet to
+     * @param rows
+     *            Comma-separated, parentheses-contained rows of SQL-consumable data
+     * @param tableName
+     *            The handle to assign to the generated values statement
+     * @param valueLabels
+     *            Group of labels for data columns within the statement
+     * @throws IOException
+     *             If there is an error writing to the destination
+     */
+    static void writeStatement(@Nonnull Appendable destination, @Nonnull CharSequence rows, @Nonnull String tableName,
+            @Nonnull List<String> valueLabels) throws IOException {
+        Objects.requireNonNull(destination);
+        Objects.requireNonNull(rows);
 
-        // Combine all values rows with a comma, and contain within a "values" group
-        valuesBuilder.append("(values ").append(Joiner.on(',').skipNulls().join(valueRows)).append(")");
+        // Contain all values rows within a "values" group
+        destination.append(VALUES_PREFIX).append(rows).append(')');
 
-        return valuesBuilder.toString();
+        writeLabelsStatement(destination, tableName, valueLabels);
     }
 
     /**
+     * Writes the trailing handle and labels portion of a values statement to the provided destination
+     *
+     * @param destination
+     *            Location to write the SQL snippet to
+     * @param tableName
+     *            The handle to assign to the generated values statement
      * @param valueLabels
      *            Group of labels to create a SQL snippet representation for
-     * @return A SQL snippet which, when inserted into a values statement, provides labels for data columns within the
-     *         statement
+     * @throws IOException
+     *             If there is an error writing to the destination
      */
-    @Nonnull
-    private static String buildLabelsStatement(@Nonnull List<String> valueLabels) {
+    static void writeLabelsStatement(@Nonnull Appendable destination, @Nonnull String tableName, @Nonnull List<String> valueLabels)
+            throws IOException {
+        Objects.requireNonNull(destination);
+        Objects.requireNonNull(tableName);
         Objects.requireNonNull(valueLabels);
 
         // Create a parentheses-contained label statement
-        return new StringBuilder().append('(').append(Joiner.on(',').skipNulls().join(valueLabels)).append(')').toString();
+        destination.append(' ').append(tableName).append('(');
+        Joiner.on(',').appendTo(destination, valueLabels);
+        destination.append(')');
+    }
+
+    /**
+     * @param tableName
+     *            The handle to assign to the generated values statement
+     * @param valueLabels
+     *            Group of labels to create a SQL snippet representation for
+     * @return The trailing handle and labels portion of a values statement
+     */
+    @Nonnull
+    static String toLabelsStatement(@Nonnull String tableName, @Nonnull List<String> valueLabels) {
+        StringBuilder labelsStatement = new StringBuilder();
+
+        try {
+            writeLabelsStatement(labelsStatement, tableName, valueLabels);
+        } catch (IOException e) {
+            // StringBuilder does not throw IOExceptions on append
+            throw new AssertionError(e);
+        }
+
+        return labelsStatement.toString();
     }
 
     /**
      * Allows incremental construction of immutable values statements
      *
+     * <p>
+     * Rows are rendered as they are added into a single character buffer, rather than retained as individual values, so
+     * building requires only one copy of the rendered rows. Clients which know the approximate number of rows in advance
+     * may call {@link #ensureCapacity(int)} to avoid repeated growth of the buffer
+     * </p>
+     *
+     * <p>
+     * Very large random-access lists may optionally be rendered concurrently, see {@link #parallelThreshold(int)}
+     * </p>
+     *
+     * <p>
+     * Alternatively, a builder may be placed in {@link #lazy() lazy} mode, where values are retained by reference and
+     * rendered only when the statement is built or written
+     * </p>
+     *
+     * <p>
+     * The size and cost of each rendered statement may be monitored by registering a {@link #listener(RenderListener)
+     * listener}
+     * </p>
+     *
      * @author romeara
      *
      * @param <T>
@@ -144,25 +244,68 @@ public final class ValuesStatement {
      */
     public static final class Builder<T> {
 
-        private final ValuesFunction<T> valuesFunction;
+        private final RowFunction<T> rowFunction;
+
+        /** Rendered rows of the statement, separated by commas */
+        private final StringBuilder rows;
+
+        private final ValuesRowWriter rowWriter;
+
+        private int rowCount;
 
-        private List<List<String>> values;
+        /** The number of columns in each row, or -1 if no rows have been added */
+        private int rowColumns;
+
+        /** The number of rows the client expects to add, used to size the row buffer */
+        private int expectedRows;
 
         private List<String> labels;
 
         private String asTableName;
 
+        private int parallelThreshold;
+
+        private Executor parallelExecutor;
+
+        private boolean lazy;
+
+        /** Sources of values retained in lazy mode, in the order they were added */
+        private final List<Iterable<T>> sources;
+
+        /** The most recent source in lazy mode, if it holds values added individually */
+        private List<T> individualValues;
+
+        private RenderListener listener;
+
+        /** Time spent rendering rows added so far, measured only if a listener is registered */
+        private long renderNanos;
+
+        /** Escaped text values in rows rendered concurrently, which are not counted by the row writer */
+        private long parallelEscapedValueCount;
+
         /**
-         * @param valuesFunction
-         *            Function which converts an arbitrary data representation into a set of SQL-consumable data
+         * @param rowFunction
+         *            Function which writes an arbitrary data representation as a set of SQL-consumable data
          */
-        private Builder(@Nonnull ValuesFunction<T> valuesFunction) {
-            Objects.requireNonNull(valuesFunction);
-
-            this.valuesFunction = valuesFunction;
-            values = Lists.newLinkedList();
-            labels = Lists.newLinkedList();
+        private Builder(@Nonnull RowFunction<T> rowFunction) {
+            Objects.requireNonNull(rowFunction);
+
+            this.rowFunction = rowFunction;
+            rows = new StringBuilder();
+            rowWriter = new ValuesRowWriter(rows);
+            rowCount = 0;
+            rowColumns = -1;
+            expectedRows = 0;
+            labels = Lists.newArrayList();
             asTableName = null;
+            parallelThreshold = Integer.MAX_VALUE;
+            parallelExecutor = ForkJoinPool.commonPool();
+            lazy = false;
+            sources = Lists.newArrayList();
+            individualValues = null;
+            listener = RenderListener.NONE;
+            renderNanos = 0;
+            parallelEscapedValueCount = 0;
         }
 
         /**
@@ -190,7 +333,13 @@ public final class ValuesStatement {
         public Builder<T> addValue(@Nonnull T value) {
             Objects.requireNonNull(value);
 
-            values.add(valuesFunction.apply(value));
+            if (lazy) {
+                addLazyValue(value);
+            } else {
+                long start = startTiming();
+                renderValue(value);
+                stopTiming(start);
+            }
 
             return this;
         }
@@ -205,13 +354,141 @@ public final class ValuesStatement {
         public Builder<T> addValues(@Nonnull Iterable<T> values) {
             Objects.requireNonNull(values);
 
-            for (T value : values) {
-                addValue(value);
+            if (lazy) {
+                // The source is retained as-is, and iterated each time the statement is rendered
+                sources.add(values);
+                individualValues = null;
+            } else {
+                if (values instanceof Collection) {
+                    ensureCapacity(rowCount + ((Collection<?>) values).size());
+                }
+
+                long start = startTiming();
+
+                if (values instanceof List && values instanceof RandomAccess && ((List<T>) values).size() >= parallelThreshold) {
+                    addValuesParallel((List<T>) values);
+                } else {
+                    for (T value : values) {
+                        renderValue(Objects.requireNonNull(value));
+                    }
+                }
+
+                stopTiming(start);
             }
 
             return this;
         }
 
+        /**
+         * Places this builder in lazy mode. Rather than rendering values as they are added, the builder retains
+         * references to individual values and to the provided {@link Iterable} sources, and renders them each time
+         * {@link #build()} or {@link #writeTo(Appendable)} is called. Sources are iterated again on each render, so they
+         * must be re-iterable - for example, an {@code Iterable} which opens a new database cursor on each call to
+         * {@link Iterable#iterator()}
+         *
+         * <p>
+         * Combined with {@link #writeTo(Appendable)} and a streaming destination such as {@link Utf8Sink}, this allows
+         * statements to be written over data which would not fit in memory once rendered. Rows rendered lazily are not
+         * rendered concurrently or logged individually, and failures of the row function are reported when rendering
+         * </p>
+         *
+         * @return This builder instance
+         * @throws IllegalStateException
+         *             If values have already been added to this builder
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> lazy() {
+            Preconditions.checkState(rowCount == 0, "Lazy mode must be enabled before values are added");
+
+            lazy = true;
+
+            return this;
+        }
+
+        /**
+         * Enables concurrent rendering of large inputs. Inputs provided to {@link #addValues(Iterable)} which are
+         * random-access lists of at least the given number of rows are split into segments, which are rendered on the
+         * {@link #parallelExecutor(Executor) parallel executor} and joined in order. The resulting statement is identical
+         * to one rendered sequentially. Disabled by default
+         *
+         * <p>
+         * Row functions must be safe to call from multiple threads to use concurrent rendering. Rows rendered
+         * concurrently are not logged individually
+         * </p>
+         *
+         * @param parallelThreshold
+         *            The minimum number of rows in an input before it is rendered concurrently
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> parallelThreshold(int parallelThreshold) {
+            Preconditions.checkArgument(parallelThreshold > 0, "Parallel threshold must be positive");
+
+            this.parallelThreshold = parallelThreshold;
+
+            return this;
+        }
+
+        /**
+         * @param parallelExecutor
+         *            Executor to render segments of large inputs on. Defaults to the common fork/join pool
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> parallelExecutor(@Nonnull Executor parallelExecutor) {
+            Objects.requireNonNull(parallelExecutor);
+
+            this.parallelExecutor = parallelExecutor;
+
+            return this;
+        }
+
+        /**
+         * Registers a listener to receive measurements of each statement rendered by this builder: the number of rows
+         * and columns, the length of the statement, the number of text values which required escaping, and the time
+         * spent rendering. Measurements are only taken when a listener other than {@link RenderListener#NONE} is
+         * registered, which is the default
+         *
+         * @param listener
+         *            Listener to notify each time a statement is built or written
+         * @return This builder instance
+         * @throws IllegalStateException
+         *             If values have already been added to this builder, as their rendering time was not measured
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> listener(@Nonnull RenderListener listener) {
+            Objects.requireNonNull(listener);
+            Preconditions.checkState(rowCount == 0, "Listeners must be registered before values are added");
+
+            this.listener = listener;
+
+            return this;
+        }
+
+        /**
+         * Indicates the total number of rows expected to be added to the statement, so storage for them may be reserved
+         * in advance. Row lengths are estimated from the rows already added - if no rows have been added, storage is
+         * reserved once the first row is added
+         *
+         * @param expectedRows
+         *            The total number of rows expected in the statement
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> ensureCapacity(int expectedRows) {
+            Preconditions.checkArgument(expectedRows >= 0, "Expected row count may not be negative");
+
+            this.expectedRows = Math.max(this.expectedRows, expectedRows);
+            reserveRows();
+
+            return this;
+        }
+
         /**
          * @param label
          *            Adds a label to the set of labels for data columns in the values statement
@@ -253,11 +530,264 @@ public final class ValuesStatement {
          */
         @Nonnull
         public ValuesStatement build() {
+            checkComplete();
+
+            ValuesStatement result = null;
+
+            if (lazy) {
+                result = buildLazily();
+            } else {
+                long start = startTiming();
+                result = new ValuesStatement(this);
+
+                if (isInstrumented()) {
+                    notifyListener(rowCount, result.getSQL().length(), rowWriter.getEscapedValueCount() + parallelEscapedValueCount,
+                            renderNanos + System.nanoTime() - start);
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Writes the values statement represented by this builder directly to the provided destination, without
+         * creating an intermediate {@link ValuesStatement}
+         *
+         * <p>
+         * Output is identical to {@link ValuesStatement#getSQL()} for a statement built from this builder
+         * </p>
+         *
+         * @param destination
+         *            Location to write the SQL snippet to, such as a {@link java.io.Writer} or {@link StringBuilder}
+         * @return The provided destination
+         * @throws IOException
+         *             If there is an error writing to the destination
+         * @since 0.1
+         */
+        @Nonnull
+        public <A extends Appendable> A writeTo(@Nonnull A destination) throws IOException {
+            Objects.requireNonNull(destination);
+            checkComplete();
+
+            long start = startTiming();
+
+            if (lazy) {
+                // Rows are streamed to the destination as they are rendered, and not retained
+                ValuesRowWriter lazyRowWriter = ValuesStatementWriter.newBuilder(rowFunction)
+                        .tableName(asTableName)
+                        .addLabels(labels)
+                        .build()
+                        .writeStatement(Iterables.concat(sources).iterator(), destination);
+
+                if (isInstrumented()) {
+                    // Rows are separated by commas, which the row writer does not count
+                    long rowCharacters = lazyRowWriter.getCharacterCount() + lazyRowWriter.getRowCount() - 1;
+
+                    notifyListener(lazyRowWriter.getRowCount(), statementLength(rowCharacters), lazyRowWriter.getEscapedValueCount(),
+                            System.nanoTime() - start);
+                }
+            } else {
+                writeStatement(destination, rows, asTableName, labels);
+
+                if (isInstrumented()) {
+                    notifyListener(rowCount, statementLength(rows.length()), rowWriter.getEscapedValueCount() + parallelEscapedValueCount,
+                            renderNanos + System.nanoTime() - start);
+                }
+            }
+
+            return destination;
+        }
+
+        /**
+         * Renders a value as a row of the statement
+         *
+         * @param value
+         *            Value to render
+         */
+        private void renderValue(@Nonnull T value) {
+            int rowStart = rows.length();
+
+            try {
+                // Separate each row of values with a comma. Note that no escaping of special characters is done for
+                // pre-formatted values - this processing is expected to be handled by the client before it is invoked
+                if (rowCount > 0) {
+                    rows.append(',');
+                }
+
+                int columns = rowWriter.writeRow(rowFunction, value);
+
+                // Rows are checked against labels if available, and always against previous rows
+                int expectedColumns = (rowCount > 0 ? rowColumns : labels.isEmpty() ? columns : labels.size());
+                ValuesRowWriter.checkColumns(rowCount, columns, expectedColumns);
+
+                rowColumns = columns;
+            } catch (RuntimeException e) {
+                // Discard any partially written row, so the builder remains usable
+                rows.setLength(rowStart);
+                rowWriter.discardRow();
+                throw e;
+            }
+
+            rowCount++;
+
+            // The first row is the earliest point an estimate of row length is available
+            if (rowCount == 1) {
+                reserveRows();
+            }
+
+            if (rowCount % TRACE_SAMPLE_INTERVAL == 1 && logger.isTraceEnabled()) {
+                logger.trace("Built value row {}: {}", rowCount, rows.substring(rowStart));
+            }
+        }
+
+        /**
+         * @param value
+         *            Value to retain for rendering in lazy mode
+         */
+        private void addLazyValue(@Nonnull T value) {
+            // Consecutive individual values share a single source
+            if (individualValues == null) {
+                individualValues = Lists.newArrayList();
+                sources.add(individualValues);
+            }
+
+            individualValues.add(value);
+        }
+
+        /**
+         * @return A statement rendered from the sources retained in lazy mode
+         */
+        @Nonnull
+        private ValuesStatement buildLazily() {
+            long start = startTiming();
+            StringBuilder rendered = new StringBuilder();
+            ValuesRowWriter lazyRowWriter = new ValuesRowWriter(rendered);
+            int renderedRows = 0;
+
+            for (T value : Iterables.concat(sources)) {
+                if (renderedRows > 0) {
+                    rendered.append(',');
+                }
+
+                int columns = lazyRowWriter.writeRow(rowFunction, Objects.requireNonNull(value));
+                ValuesRowWriter.checkColumns(renderedRows, columns, labels.size());
+
+                renderedRows++;
+            }
+
+            Preconditions.checkArgument(renderedRows > 0, "Must have at least one value row to construct a values statement");
+
+            ValuesStatement result = new ValuesStatement(rendered, asTableName, labels);
+
+            if (isInstrumented()) {
+                notifyListener(renderedRows, result.getSQL().length(), lazyRowWriter.getEscapedValueCount(), System.nanoTime() - start);
+            }
+
+            return result;
+        }
+
+        /**
+         * Renders a random-access list of values concurrently, appending the result to the rendered rows
+         *
+         * @param values
+         *            Group of values to add to the values provided by the statement
+         */
+        private void addValuesParallel(@Nonnull List<T> values) {
+            int start = 0;
+
+            // The first row of a statement declares column types, so is always rendered in sequence
+            if (rowCount == 0 && !values.isEmpty()) {
+                renderValue(Objects.requireNonNull(values.get(0)));
+                start = 1;
+            }
+
+            ParallelRowRenderer.Result result = ParallelRowRenderer.render(rowFunction, values.subList(start, values.size()),
+                    rowCount, rowColumns, parallelExecutor, rows);
+
+            rowCount += result.getRowCount();
+            parallelEscapedValueCount += result.getEscapedValueCount();
+
+            logger.debug("Rendered {} value rows concurrently", result.getRowCount());
+
+            if (result.getFailure() != null) {
+                throw result.getFailure();
+            }
+        }
+
+        /**
+         * @return True if measurements of rendering are provided to a listener
+         */
+        private boolean isInstrumented() {
+            return listener != RenderListener.NONE;
+        }
+
+        /**
+         * @return The current time in nanoseconds if rendering is measured, or 0 otherwise
+         */
+        private long startTiming() {
+            return (isInstrumented() ? System.nanoTime() : 0L);
+        }
+
+        /**
+         * Adds time spent rendering rows to the total for the statement, if rendering is measured
+         *
+         * @param start
+         *            The time rendering started, from {@link #startTiming()}
+         */
+        private void stopTiming(long start) {
+            if (isInstrumented()) {
+                renderNanos += System.nanoTime() - start;
+            }
+        }
+
+        /**
+         * @param rowCharacters
+         *            The length of all rendered rows, including separating commas
+         * @return The length of the complete statement containing the rows
+         */
+        private long statementLength(long rowCharacters) {
+            return VALUES_PREFIX.length() + rowCharacters + 1 + toLabelsStatement(asTableName, labels).length();
+        }
+
+        /**
+         * Provides measurements of a rendered statement to the registered listener
+         *
+         * @param renderedRows
+         *            The number of rows in the statement
+         * @param characterCount
+         *            The length of the statement
+         * @param escapedValueCount
+         *            The number of text values which required escaping
+         * @param nanos
+         *            The time spent rendering the statement
+         */
+        private void notifyListener(long renderedRows, long characterCount, long escapedValueCount, long nanos) {
+            listener.onRender(new RenderMetrics(asTableName, renderedRows, labels.size(), characterCount, escapedValueCount, nanos));
+        }
+
+        /**
+         * Reserves row buffer storage for the expected number of rows, based on the average length of rows added so far
+         */
+        private void reserveRows() {
+            if (rowCount > 0 && expectedRows > rowCount) {
+                // Each remaining row also requires a separating comma
+                long averageLength = rows.length() / rowCount + 1;
+                long required = rows.length() + averageLength * (expectedRows - rowCount);
+
+                rows.ensureCapacity((int) Math.min(required, MAX_BUFFER_LENGTH));
+            }
+        }
+
+        /**
+         * Verifies that all information required to generate a values statement has been provided
+         */
+        private void checkComplete() {
             Preconditions.checkArgument(asTableName != null, "Values statements must have a handle to be referenced by query statements");
             Preconditions.checkArgument(!labels.isEmpty(), "Labels are required to reference value data");
-            Preconditions.checkArgument(!values.isEmpty(), "Must have at least one value row to construct a values statement");
-
-            return new ValuesStatement(this);
+            // Lazy sources may only be checked for values as they are rendered
+            Preconditions.checkArgument(lazy || rowCount > 0, "Must have at least one value row to construct a values statement");
+            Preconditions.checkArgument(lazy || rowColumns == labels.size(), "Rows contain %s values, but %s labels were provided",
+                    rowColumns, labels.size());
         }
     }
 }
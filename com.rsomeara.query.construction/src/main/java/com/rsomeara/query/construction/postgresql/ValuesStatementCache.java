@@ -0,0 +1,409 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.rsomeara.query.construction.postgresql.type.RowFunction;
+
+/**
+ * Retains rendered values statements for re-use when the same data is requested again, such as reference data which is
+ * joined to many queries.
+ *
+ * <p>
+ * Statements are keyed on the handle, labels, row function, and content of the provided rows. Rows must implement
+ * value-based {@link Object#equals(Object)} and {@link Object#hashCode()}, and must not be modified while cached, as
+ * they are retained as part of the key. Row functions are compared by equality, so the same function instance should be
+ * provided on each request. The cache is bounded by both the number of statements and their total weight, and the least
+ * recently used statements are evicted first. An entry weighs the length of its statement, plus an estimate of the rows
+ * retained by its key - the rendered length again, as rows are rendered from their content, and a fixed cost per row
+ * </p>
+ *
+ * <p>
+ * Statements are rendered outside of any lock, so concurrent requests for the same uncached data may each render it -
+ * only one result is retained
+ * </p>
+ *
+ * @author romeara
+ * @since 0.1
+ */
+@ThreadSafe
+public final class ValuesStatementCache {
+
+    /** Logger reference to output information to the application log files */
+    private static final Logger logger = LoggerFactory.getLogger(ValuesStatementCache.class);
+
+    /** Estimated cost, in characters, of each row retained by a key beyond its content - a list slot and object header */
+    private static final int KEY_ROW_CHARACTERS = 16;
+
+    private final int maxEntries;
+
+    private final long maxCharacters;
+
+    @GuardedBy("entries")
+    private final LinkedHashMap<Key, ValuesStatement> entries;
+
+    @GuardedBy("entries")
+    private long characters;
+
+    @GuardedBy("entries")
+    private long hitCount;
+
+    @GuardedBy("entries")
+    private long missCount;
+
+    @GuardedBy("entries")
+    private long evictionCount;
+
+    /**
+     * @param builder
+     *            Cache builder which contains the configured bounds of the cache
+     */
+    private ValuesStatementCache(@Nonnull Builder builder) {
+        Objects.requireNonNull(builder);
+
+        maxEntries = builder.maxEntries;
+        maxCharacters = builder.maxCharacters;
+
+        // Access ordering causes iteration to begin at the least recently used entry
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+        characters = 0;
+        hitCount = 0;
+        missCount = 0;
+        evictionCount = 0;
+    }
+
+    /**
+     * @param rowFunction
+     *            Function which writes a data representation as SQL-consumable values
+     * @param tableName
+     *            The handle to assign to the values statement
+     * @param labels
+     *            Group of labels for data columns in the values statement
+     * @param values
+     *            Data to provide as rows of the values statement
+     * @return A previously rendered statement for the same handle, labels, function, and data if one is cached, or a
+     *         newly rendered statement otherwise
+     * @since 0.1
+     */
+    @Nonnull
+    public <T> ValuesStatement get(@Nonnull RowFunction<T> rowFunction, @Nonnull String tableName, @Nonnull List<String> labels,
+            @Nonnull Iterable<T> values) {
+        Objects.requireNonNull(rowFunction);
+        Objects.requireNonNull(tableName);
+        Objects.requireNonNull(labels);
+        Objects.requireNonNull(values);
+
+        // Copied once, so values which may only be iterated once are both compared and rendered
+        List<T> rows = ImmutableList.copyOf(values);
+        Key key = new Key(rowFunction, tableName, labels, rows);
+        ValuesStatement result = null;
+
+        synchronized (entries) {
+            result = entries.get(key);
+
+            if (result != null) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        }
+
+        if (result == null) {
+            result = ValuesStatement.newBuilder(rowFunction)
+                    .tableName(tableName)
+                    .addLabels(labels)
+                    .addValues(rows)
+                    .build();
+
+            result = put(key, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes all statements from the cache. Counters are not reset
+     *
+     * @since 0.1
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            characters = 0;
+        }
+    }
+
+    /**
+     * @return The number of statements currently cached
+     * @since 0.1
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return The total weight, in characters, of all statements currently cached and the rows retained by their keys
+     * @since 0.1
+     */
+    public long getCharacterCount() {
+        synchronized (entries) {
+            return characters;
+        }
+    }
+
+    /**
+     * @return The number of requests which were answered with a cached statement
+     * @since 0.1
+     */
+    public long getHitCount() {
+        synchronized (entries) {
+            return hitCount;
+        }
+    }
+
+    /**
+     * @return The number of requests which required a statement to be rendered
+     * @since 0.1
+     */
+    public long getMissCount() {
+        synchronized (entries) {
+            return missCount;
+        }
+    }
+
+    /**
+     * @return The number of statements removed from the cache to remain within its bounds
+     * @since 0.1
+     */
+    public long getEvictionCount() {
+        synchronized (entries) {
+            return evictionCount;
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (entries) {
+            return MoreObjects.toStringHelper(this)
+                    .add("size", entries.size())
+                    .add("characters", characters)
+                    .add("hitCount", hitCount)
+                    .add("missCount", missCount)
+                    .add("evictionCount", evictionCount)
+                    .toString();
+        }
+    }
+
+    /**
+     * @return A new builder for cache construction, unbounded by default
+     * @since 0.1
+     */
+    @Nonnull
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Adds a rendered statement to the cache, evicting least recently used statements as required
+     *
+     * @param key
+     *            Identifies the data the statement was rendered from
+     * @param statement
+     *            The rendered statement
+     * @return The statement to provide to the client - an equivalent statement if one was cached concurrently
+     */
+    @Nonnull
+    private ValuesStatement put(@Nonnull Key key, @Nonnull ValuesStatement statement) {
+        ValuesStatement result = statement;
+        long weight = weigh(key, statement);
+
+        // Statements which alone exceed the bounds are provided, but would evict everything else if retained
+        if (weight > maxCharacters) {
+            logger.debug("Not caching values statement {} weighing {} characters, which exceeds the cache limit", key.tableName, weight);
+        } else {
+            synchronized (entries) {
+                ValuesStatement existing = entries.get(key);
+
+                if (existing != null) {
+                    result = existing;
+                } else {
+                    entries.put(key, statement);
+                    characters += weight;
+
+                    evict();
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes least recently used statements until the cache is within its bounds
+     */
+    @GuardedBy("entries")
+    private void evict() {
+        Iterator<Map.Entry<Key, ValuesStatement>> iterator = entries.entrySet().iterator();
+
+        while ((entries.size() > maxEntries || characters > maxCharacters) && iterator.hasNext()) {
+            Map.Entry<Key, ValuesStatement> entry = iterator.next();
+
+            characters -= weigh(entry.getKey(), entry.getValue());
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * @param key
+     *            Identifies the data the statement was rendered from
+     * @param statement
+     *            The rendered statement
+     * @return The estimated size, in characters, retained by caching the statement under the key
+     */
+    private static long weigh(@Nonnull Key key, @Nonnull ValuesStatement statement) {
+        long length = statement.getSQL().length();
+
+        return length + length + (long) key.values.size() * KEY_ROW_CHARACTERS;
+    }
+
+    /**
+     * Identifies the complete set of inputs which determine the content of a values statement
+     *
+     * @author romeara
+     */
+    @Immutable
+    private static final class Key {
+
+        private final RowFunction<?> rowFunction;
+
+        private final String tableName;
+
+        private final List<String> labels;
+
+        private final List<?> values;
+
+        /** Calculated once, as keys are hashed on every request */
+        private final int hash;
+
+        /**
+         * @param rowFunction
+         *            Function which writes a data representation as SQL-consumable values
+         * @param tableName
+         *            The handle assigned to the values statement
+         * @param labels
+         *            Group of labels for data columns in the values statement
+         * @param values
+         *            Data provided as rows of the values statement
+         */
+        private Key(@Nonnull RowFunction<?> rowFunction, @Nonnull String tableName, @Nonnull List<String> labels,
+                @Nonnull Iterable<?> values) {
+            this.rowFunction = Objects.requireNonNull(rowFunction);
+            this.tableName = Objects.requireNonNull(tableName);
+            this.labels = ImmutableList.copyOf(labels);
+            this.values = ImmutableList.copyOf(values);
+
+            hash = Objects.hash(rowFunction, tableName, this.labels, this.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            boolean result = false;
+
+            if (this == obj) {
+                result = true;
+            } else if (obj instanceof Key) {
+                Key compare = (Key) obj;
+
+                result = hash == compare.hash
+                        && Objects.equals(compare.rowFunction, rowFunction)
+                        && Objects.equals(compare.tableName, tableName)
+                        && Objects.equals(compare.labels, labels)
+                        && Objects.equals(compare.values, values);
+            }
+
+            return result;
+        }
+
+    }
+
+    /**
+     * Allows configuration of the bounds of a values statement cache
+     *
+     * @author romeara
+     * @since 0.1
+     */
+    public static final class Builder {
+
+        private int maxEntries;
+
+        private long maxCharacters;
+
+        private Builder() {
+            maxEntries = Integer.MAX_VALUE;
+            maxCharacters = Long.MAX_VALUE;
+        }
+
+        /**
+         * @param maxEntries
+         *            The maximum number of statements to retain. Unbounded by default
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder maxEntries(int maxEntries) {
+            Preconditions.checkArgument(maxEntries > 0, "Cache must be allowed at least one entry");
+
+            this.maxEntries = maxEntries;
+
+            return this;
+        }
+
+        /**
+         * @param maxCharacters
+         *            The maximum total weight, in characters, of all retained statements and the rows retained by their
+         *            keys. Unbounded by default
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder maxCharacters(long maxCharacters) {
+            Preconditions.checkArgument(maxCharacters > 0, "Cache must be allowed at least one character");
+
+            this.maxCharacters = maxCharacters;
+
+            return this;
+        }
+
+        /**
+         * @return A new, empty cache with the configured bounds
+         * @since 0.1
+         */
+        @Nonnull
+        public ValuesStatementCache build() {
+            return new ValuesStatementCache(this);
+        }
+    }
+
+}
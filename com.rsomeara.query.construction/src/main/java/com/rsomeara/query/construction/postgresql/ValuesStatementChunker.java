@@ -0,0 +1,370 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.rsomeara.query.construction.postgresql.type.RowFunction;
+import com.rsomeara.query.construction.postgresql.type.ValuesFunction;
+
+/**
+ * Splits large sets of data into several values statements, each bounded in size.
+ *
+ * <p>
+ * Statements are generated lazily as they are requested, so clients may execute each statement while later data has
+ * not yet been read or converted. A single row is never split across statements - a row which alone exceeds the
+ * configured character limit is provided as a statement of its own
+ * </p>
+ *
+ * @author romeara
+ *
+ * @param <T>
+ *            Type which represents the data to provide as data in a values statement
+ * @since 0.1
+ */
+@Immutable
+public final class ValuesStatementChunker<T> {
+
+    /** The maximum number of bind parameters PostgreSQL allows within a single statement */
+    public static final int MAX_BIND_PARAMETERS = 65535;
+
+    /** Length of the "(values " prefix and ")" suffix surrounding value rows */
+    private static final int VALUES_GROUP_LENGTH = ValuesStatement.VALUES_PREFIX.length() + 1;
+
+    private final RowFunction<T> rowFunction;
+
+    private final String tableName;
+
+    private final List<String> labels;
+
+    private final int maxRows;
+
+    private final long maxCharacters;
+
+    private final int maxParameters;
+
+    /** Length of the portion of each statement which does not depend on value rows */
+    private final int fixedLength;
+
+    /**
+     * @param builder
+     *            Chunker builder which contains information required to generate values statements
+     */
+    private ValuesStatementChunker(@Nonnull Builder<T> builder) {
+        Objects.requireNonNull(builder);
+
+        rowFunction = Objects.requireNonNull(builder.rowFunction);
+        tableName = Objects.requireNonNull(builder.asTableName);
+        labels = builder.labels.build();
+        maxRows = builder.maxRows;
+        maxCharacters = builder.maxCharacters;
+        maxParameters = builder.maxParameters;
+
+        fixedLength = VALUES_GROUP_LENGTH + ValuesStatement.toLabelsStatement(tableName, labels).length();
+    }
+
+    /**
+     * @param values
+     *            Data to represent as values statements
+     * @return Values statements which together represent all provided data, in order. Statements are generated as
+     *         the iterator is advanced
+     * @since 0.1
+     */
+    @Nonnull
+    public Iterator<ValuesStatement> chunks(@Nonnull Iterator<T> values) {
+        Objects.requireNonNull(values);
+
+        return new ChunkIterator(values);
+    }
+
+    /**
+     * @param values
+     *            Data to represent as values statements
+     * @return Values statements which together represent all provided data, in order. Statements are generated as
+     *         the iterator is advanced
+     * @since 0.1
+     */
+    @Nonnull
+    public Iterator<ValuesStatement> chunks(@Nonnull Iterable<T> values) {
+        Objects.requireNonNull(values);
+
+        return chunks(values.iterator());
+    }
+
+    /**
+     * @param values
+     *            Data to represent as values statements
+     * @return Sequential stream of values statements which together represent all provided data, in order.
+     *         Statements are generated as the stream is consumed
+     * @since 0.1
+     */
+    @Nonnull
+    public Stream<ValuesStatement> stream(@Nonnull Iterable<T> values) {
+        Objects.requireNonNull(values);
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chunks(values),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * @param valuesFunction
+     *            Function which converts between a data representation and SQL-consumable representation
+     * @return A new, empty builder for values statement chunker construction
+     * @since 0.1
+     */
+    @Nonnull
+    public static <T> Builder<T> newBuilder(@Nonnull ValuesFunction<T> valuesFunction) {
+        Objects.requireNonNull(valuesFunction);
+
+        return new Builder<T>(valuesFunction);
+    }
+
+    /**
+     * @param rowFunction
+     *            Function which writes a data representation as typed SQL-consumable values
+     * @return A new, empty builder for values statement chunker construction
+     * @since 0.1
+     */
+    @Nonnull
+    public static <T> Builder<T> newBuilder(@Nonnull RowFunction<T> rowFunction) {
+        Objects.requireNonNull(rowFunction);
+
+        return new Builder<T>(rowFunction);
+    }
+
+    /**
+     * Reads source data and groups rendered rows into statements as each statement is requested
+     *
+     * @author romeara
+     */
+    private final class ChunkIterator implements Iterator<ValuesStatement> {
+
+        private final Iterator<T> values;
+
+        /** A source value which did not fit in the previous statement, and begins the next */
+        private T pendingValue;
+
+        /** The index within the source data of the next row to render */
+        private long rowIndex;
+
+        /**
+         * @param values
+         *            Source data to convert into statements
+         */
+        private ChunkIterator(@Nonnull Iterator<T> values) {
+            this.values = Objects.requireNonNull(values);
+            pendingValue = null;
+            rowIndex = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pendingValue != null || values.hasNext();
+        }
+
+        @Override
+        public ValuesStatement next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            StringBuilder rows = new StringBuilder();
+            ValuesRowWriter rowWriter = new ValuesRowWriter(rows);
+
+            int rowCount = 0;
+            long parameters = 0;
+
+            while (rowCount < maxRows && (pendingValue != null || values.hasNext())) {
+                T value = (pendingValue != null ? pendingValue : Objects.requireNonNull(values.next()));
+                pendingValue = null;
+
+                int rowStart = rows.length();
+
+                if (rowCount > 0) {
+                    rows.append(',');
+                }
+
+                int columns = rowWriter.writeRow(rowFunction, value);
+                ValuesRowWriter.checkColumns(rowIndex, columns, labels.size());
+
+                // The first row of each statement is always accepted. Rows which exceed a limit are rendered again as
+                // the first row of the next statement, as the first row of a statement declares column types
+                if (rowCount > 0 && (fixedLength + rows.length() > maxCharacters || parameters + columns > maxParameters)) {
+                    rows.setLength(rowStart);
+                    pendingValue = value;
+                    break;
+                }
+
+                rowCount++;
+                rowIndex++;
+                parameters += columns;
+            }
+
+            return new ValuesStatement(rows, tableName, labels);
+        }
+
+    }
+
+    /**
+     * Allows incremental construction of immutable values statement chunkers
+     *
+     * @author romeara
+     *
+     * @param <T>
+     *            Type which represents the data to provide as data in a values statement
+     * @since 0.1
+     */
+    public static final class Builder<T> {
+
+        private final RowFunction<T> rowFunction;
+
+        private final ImmutableList.Builder<String> labels;
+
+        private boolean hasLabels;
+
+        private String asTableName;
+
+        private int maxRows;
+
+        private long maxCharacters;
+
+        private int maxParameters;
+
+        /**
+         * @param rowFunction
+         *            Function which writes an arbitrary data representation as a set of SQL-consumable data
+         */
+        private Builder(@Nonnull RowFunction<T> rowFunction) {
+            Objects.requireNonNull(rowFunction);
+
+            this.rowFunction = rowFunction;
+            labels = ImmutableList.builder();
+            hasLabels = false;
+            asTableName = null;
+            maxRows = Integer.MAX_VALUE;
+            maxCharacters = Long.MAX_VALUE;
+            maxParameters = Integer.MAX_VALUE;
+        }
+
+        /**
+         * @param tableName
+         *            The handle to assign to the generated values statements - used when referencing data within a
+         *            query
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> tableName(@Nonnull String tableName) {
+            Objects.requireNonNull(tableName);
+
+            this.asTableName = tableName;
+
+            return this;
+        }
+
+        /**
+         * @param label
+         *            Adds a label to the set of labels for data columns in the values statements
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addLabel(@Nonnull String label) {
+            Objects.requireNonNull(label);
+
+            labels.add(label);
+            hasLabels = true;
+
+            return this;
+        }
+
+        /**
+         * @param labels
+         *            Group of labels to add (in the provided order) to the set of labels for data columns in the values
+         *            statements
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addLabels(@Nonnull List<String> labels) {
+            Objects.requireNonNull(labels);
+
+            for (String label : labels) {
+                addLabel(label);
+            }
+
+            return this;
+        }
+
+        /**
+         * @param maxRows
+         *            The maximum number of value rows to include in a single statement. Unbounded by default
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> maxRows(int maxRows) {
+            Preconditions.checkArgument(maxRows > 0, "Statements must be allowed at least one row");
+
+            this.maxRows = maxRows;
+
+            return this;
+        }
+
+        /**
+         * @param maxCharacters
+         *            The maximum length of a single generated statement, in characters. Unbounded by default
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> maxCharacters(long maxCharacters) {
+            Preconditions.checkArgument(maxCharacters > 0, "Statements must be allowed at least one character");
+
+            this.maxCharacters = maxCharacters;
+
+            return this;
+        }
+
+        /**
+         * @param maxParameters
+         *            The maximum number of data values to include in a single statement - equivalent to the number of
+         *            bind parameters the statement would require if parameterized. Unbounded by default, see
+         *            {@link ValuesStatementChunker#MAX_BIND_PARAMETERS}
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> maxParameters(int maxParameters) {
+            Preconditions.checkArgument(maxParameters > 0, "Statements must be allowed at least one parameter");
+
+            this.maxParameters = maxParameters;
+
+            return this;
+        }
+
+        /**
+         * @return An immutable chunker which generates values statements with the configured handle, labels, and
+         *         limits
+         * @since 0.1
+         */
+        @Nonnull
+        public ValuesStatementChunker<T> build() {
+            Preconditions.checkArgument(asTableName != null, "Values statements must have a handle to be referenced by query statements");
+            Preconditions.checkArgument(hasLabels, "Labels are required to reference value data");
+
+            return new ValuesStatementChunker<T>(this);
+        }
+    }
+
+}
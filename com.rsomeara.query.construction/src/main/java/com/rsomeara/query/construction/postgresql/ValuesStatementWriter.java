@@ -0,0 +1,294 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.rsomeara.query.construction.postgresql.type.RowFunction;
+import com.rsomeara.query.construction.postgresql.type.ValuesFunction;
+
+/**
+ * Writes PostgreSQL values statements directly to a destination as source data is read, rather than holding the full
+ * statement in memory.
+ *
+ * <p>
+ * Each source value is converted and written before the next is read, so memory use is bounded by a single row instead
+ * of the complete statement. Output is identical to {@link ValuesStatement#getSQL()} for the same input
+ * </p>
+ *
+ * @author romeara
+ *
+ * @param <T>
+ *            Type which represents the data to provide as data in a values statement
+ * @since 0.1
+ */
+@Immutable
+public final class ValuesStatementWriter<T> {
+
+    private final RowFunction<T> rowFunction;
+
+    private final String tableName;
+
+    private final List<String> labels;
+
+    /**
+     * @param builder
+     *            Writer builder which contains information required to generate values statements
+     */
+    private ValuesStatementWriter(@Nonnull Builder<T> builder) {
+        Objects.requireNonNull(builder);
+
+        rowFunction = Objects.requireNonNull(builder.rowFunction);
+        tableName = Objects.requireNonNull(builder.asTableName);
+        labels = builder.labels.build();
+    }
+
+    /**
+     * @param values
+     *            Data to represent as a values statement. Must contain at least one element
+     * @param destination
+     *            Location to write the SQL snippet to, such as a {@link Writer} or {@link StringBuilder}
+     * @return The provided destination
+     * @throws IOException
+     *             If there is an error writing to the destination
+     * @since 0.1
+     */
+    @Nonnull
+    public <A extends Appendable> A write(@Nonnull Iterator<T> values, @Nonnull A destination) throws IOException {
+        writeStatement(values, destination);
+
+        return destination;
+    }
+
+    /**
+     * Writes a complete values statement, as {@link #write(Iterator, Appendable)}
+     *
+     * @param values
+     *            Data to represent as a values statement. Must contain at least one element
+     * @param destination
+     *            Location to write the SQL snippet to
+     * @return The writer used to render rows, which holds counts of the written content
+     * @throws IOException
+     *             If there is an error writing to the destination
+     */
+    @Nonnull
+    ValuesRowWriter writeStatement(@Nonnull Iterator<T> values, @Nonnull Appendable destination) throws IOException {
+        Objects.requireNonNull(values);
+        Objects.requireNonNull(destination);
+        Preconditions.checkArgument(values.hasNext(), "Must have at least one value row to construct a values statement");
+
+        // Each row is rendered to a small buffer, which is reused for every row
+        StringBuilder row = new StringBuilder();
+        ValuesRowWriter rowWriter = new ValuesRowWriter(row);
+
+        destination.append(ValuesStatement.VALUES_PREFIX);
+
+        long rowIndex = 0;
+
+        while (values.hasNext()) {
+            int columns = rowWriter.writeRow(rowFunction, Objects.requireNonNull(values.next()));
+            ValuesRowWriter.checkColumns(rowIndex++, columns, labels.size());
+
+            if (values.hasNext()) {
+                row.append(',');
+            }
+
+            destination.append(row);
+            row.setLength(0);
+        }
+
+        destination.append(')');
+        ValuesStatement.writeLabelsStatement(destination, tableName, labels);
+
+        return rowWriter;
+    }
+
+    /**
+     * @param values
+     *            Data to represent as a values statement. Must contain at least one element
+     * @param destination
+     *            Location to write the SQL snippet to, such as a {@link Writer} or {@link StringBuilder}
+     * @return The provided destination
+     * @throws IOException
+     *             If there is an error writing to the destination
+     * @since 0.1
+     */
+    @Nonnull
+    public <A extends Appendable> A write(@Nonnull Iterable<T> values, @Nonnull A destination) throws IOException {
+        Objects.requireNonNull(values);
+
+        return write(values.iterator(), destination);
+    }
+
+    /**
+     * Writes the values statement as UTF-8 encoded text. The stream is flushed, but not closed, once writing completes
+     *
+     * @param values
+     *            Data to represent as a values statement. Must contain at least one element
+     * @param destination
+     *            Stream to write the encoded SQL snippet to
+     * @throws IOException
+     *             If there is an error writing to the destination
+     * @since 0.1
+     */
+    public void write(@Nonnull Iterable<T> values, @Nonnull OutputStream destination) throws IOException {
+        Objects.requireNonNull(values);
+        Objects.requireNonNull(destination);
+
+        // Closing the sink returns its buffer, but leaves the client's stream open
+        try (Utf8Sink sink = Utf8Sink.to(destination)) {
+            write(values.iterator(), sink);
+        }
+    }
+
+    /**
+     * Writes the values statement as UTF-8 encoded text, without creating an intermediate {@link String}. The channel is
+     * not closed once writing completes
+     *
+     * @param values
+     *            Data to represent as a values statement. Must contain at least one element
+     * @param destination
+     *            Channel to write the encoded SQL snippet to, such as a socket or file
+     * @throws IOException
+     *             If there is an error writing to the destination
+     * @since 0.1
+     */
+    public void write(@Nonnull Iterable<T> values, @Nonnull WritableByteChannel destination) throws IOException {
+        Objects.requireNonNull(values);
+        Objects.requireNonNull(destination);
+
+        try (Utf8Sink sink = Utf8Sink.to(destination)) {
+            write(values.iterator(), sink);
+        }
+    }
+
+    /**
+     * @param valuesFunction
+     *            Function which converts between a data representation and SQL-consumable representation
+     * @return A new, empty builder for values statement writer construction
+     * @since 0.1
+     */
+    @Nonnull
+    public static <T> Builder<T> newBuilder(@Nonnull ValuesFunction<T> valuesFunction) {
+        Objects.requireNonNull(valuesFunction);
+
+        return new Builder<T>(valuesFunction);
+    }
+
+    /**
+     * @param rowFunction
+     *            Function which writes a data representation as typed SQL-consumable values
+     * @return A new, empty builder for values statement writer construction
+     * @since 0.1
+     */
+    @Nonnull
+    public static <T> Builder<T> newBuilder(@Nonnull RowFunction<T> rowFunction) {
+        Objects.requireNonNull(rowFunction);
+
+        return new Builder<T>(rowFunction);
+    }
+
+    /**
+     * Allows incremental construction of immutable values statement writers
+     *
+     * @author romeara
+     *
+     * @param <T>
+     *            Type which represents the data to provide as data in a values statement
+     * @since 0.1
+     */
+    public static final class Builder<T> {
+
+        private final RowFunction<T> rowFunction;
+
+        private final ImmutableList.Builder<String> labels;
+
+        private boolean hasLabels;
+
+        private String asTableName;
+
+        /**
+         * @param rowFunction
+         *            Function which writes an arbitrary data representation as a set of SQL-consumable data
+         */
+        private Builder(@Nonnull RowFunction<T> rowFunction) {
+            Objects.requireNonNull(rowFunction);
+
+            this.rowFunction = rowFunction;
+            labels = ImmutableList.builder();
+            hasLabels = false;
+            asTableName = null;
+        }
+
+        /**
+         * @param tableName
+         *            The handle to assign to the generated values statement - used when referencing data within a query
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> tableName(@Nonnull String tableName) {
+            Objects.requireNonNull(tableName);
+
+            this.asTableName = tableName;
+
+            return this;
+        }
+
+        /**
+         * @param label
+         *            Adds a label to the set of labels for data columns in the values statement
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addLabel(@Nonnull String label) {
+            Objects.requireNonNull(label);
+
+            labels.add(label);
+            hasLabels = true;
+
+            return this;
+        }
+
+        /**
+         * @param labels
+         *            Group of labels to add (in the provided order) to the set of labels for data columns in the values
+         *            statement
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addLabels(@Nonnull List<String> labels) {
+            Objects.requireNonNull(labels);
+
+            for (String label : labels) {
+                addLabel(label);
+            }
+
+            return this;
+        }
+
+        /**
+         * @return An immutable writer which generates values statements with the configured handle and labels
+         * @since 0.1
+         */
+        @Nonnull
+        public ValuesStatementWriter<T> build() {
+            Preconditions.checkArgument(asTableName != null, "Values statements must have a handle to be referenced by query statements");
+            Preconditions.checkArgument(hasLabels, "Labels are required to reference value data");
+
+            return new ValuesStatementWriter<T>(this);
+        }
+    }
+
+}
@@ -0,0 +1,235 @@
+package com.rsomeara.query.construction.postgresql;
+
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.rsomeara.query.construction.postgresql.type.RowFunction;
+import com.rsomeara.query.construction.postgresql.type.ValuesFunction;
+
+/**
+ * A reusable, pre-compiled form of a values statement with a fixed handle, labels, and row function. The portions of
+ * the statement which do not depend on data are generated once, so each render only writes data rows.
+ *
+ * <p>
+ * Templates are safe for concurrent use, so a single template may be shared by all requests for the same kind of data.
+ * Each thread renders rows into its own reused buffer, and each statement is then sized exactly
+ * </p>
+ *
+ * @author romeara
+ *
+ * @param <T>
+ *            Type which represents the data to provide as data in a values statement
+ * @since 0.1
+ */
+@ThreadSafe
+public final class ValuesTemplate<T> {
+
+    /** The largest row buffer, in characters, retained by a thread between renders */
+    private static final int MAX_RETAINED_BUFFER = 1024 * 1024;
+
+    private final RowFunction<T> rowFunction;
+
+    /** The closing parenthesis of the rows, followed by the handle and labels */
+    private final String suffix;
+
+    private final int columnCount;
+
+    /** Per-thread buffer which rows are rendered to before the exactly sized statement is created */
+    private final ThreadLocal<StringBuilder> rowBuffers;
+
+    /**
+     * @param builder
+     *            Template builder which contains information required to generate values statements
+     */
+    private ValuesTemplate(@Nonnull Builder<T> builder) {
+        Objects.requireNonNull(builder);
+
+        rowFunction = Objects.requireNonNull(builder.rowFunction);
+
+        List<String> labels = builder.labels.build();
+
+        suffix = ")" + ValuesStatement.toLabelsStatement(Objects.requireNonNull(builder.asTableName), labels);
+        columnCount = labels.size();
+        rowBuffers = ThreadLocal.withInitial(StringBuilder::new);
+    }
+
+    /**
+     * @param values
+     *            Data to represent as a values statement. Must contain at least one element, and each row must contain
+     *            one value per label
+     * @return A values statement which represents the provided data
+     * @since 0.1
+     */
+    @Nonnull
+    public ValuesStatement render(@Nonnull Iterable<T> values) {
+        Objects.requireNonNull(values);
+
+        StringBuilder rows = rowBuffers.get();
+        ValuesRowWriter rowWriter = new ValuesRowWriter(rows);
+
+        try {
+            int rowCount = 0;
+
+            for (T value : values) {
+                if (rowCount > 0) {
+                    rows.append(',');
+                }
+
+                int columns = rowWriter.writeRow(rowFunction, Objects.requireNonNull(value));
+
+                ValuesRowWriter.checkColumns(rowCount, columns, columnCount);
+
+                rowCount++;
+            }
+
+            Preconditions.checkArgument(rowCount > 0, "Must have at least one value row to construct a values statement");
+
+            StringBuilder statement = new StringBuilder(ValuesStatement.VALUES_PREFIX.length() + rows.length() + suffix.length());
+            statement.append(ValuesStatement.VALUES_PREFIX).append(rows).append(suffix);
+
+            return new ValuesStatement(statement.toString());
+        } finally {
+            releaseRowBuffer(rows);
+        }
+    }
+
+    /**
+     * @param rows
+     *            Row buffer of the current thread, to reset for the next render
+     */
+    private void releaseRowBuffer(@Nonnull StringBuilder rows) {
+        // Avoid retaining memory for the lifetime of the thread after an unusually large render
+        if (rows.capacity() > MAX_RETAINED_BUFFER) {
+            rowBuffers.remove();
+        } else {
+            rows.setLength(0);
+        }
+    }
+
+    /**
+     * @param valuesFunction
+     *            Function which converts between a data representation and SQL-consumable representation
+     * @return A new, empty builder for values template construction
+     * @since 0.1
+     */
+    @Nonnull
+    public static <T> Builder<T> newBuilder(@Nonnull ValuesFunction<T> valuesFunction) {
+        Objects.requireNonNull(valuesFunction);
+
+        return new Builder<T>(valuesFunction);
+    }
+
+    /**
+     * @param rowFunction
+     *            Function which writes a data representation as typed SQL-consumable values
+     * @return A new, empty builder for values template construction
+     * @since 0.1
+     */
+    @Nonnull
+    public static <T> Builder<T> newBuilder(@Nonnull RowFunction<T> rowFunction) {
+        Objects.requireNonNull(rowFunction);
+
+        return new Builder<T>(rowFunction);
+    }
+
+    /**
+     * Allows incremental construction of immutable values templates
+     *
+     * @author romeara
+     *
+     * @param <T>
+     *            Type which represents the data to provide as data in a values statement
+     * @since 0.1
+     */
+    public static final class Builder<T> {
+
+        private final RowFunction<T> rowFunction;
+
+        private final ImmutableList.Builder<String> labels;
+
+        private boolean hasLabels;
+
+        private String asTableName;
+
+        /**
+         * @param rowFunction
+         *            Function which writes an arbitrary data representation as a set of SQL-consumable data
+         */
+        private Builder(@Nonnull RowFunction<T> rowFunction) {
+            Objects.requireNonNull(rowFunction);
+
+            this.rowFunction = rowFunction;
+            labels = ImmutableList.builder();
+            hasLabels = false;
+            asTableName = null;
+        }
+
+        /**
+         * @param tableName
+         *            The handle to assign to the generated values statements - used when referencing data within a
+         *            query
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> tableName(@Nonnull String tableName) {
+            Objects.requireNonNull(tableName);
+
+            this.asTableName = tableName;
+
+            return this;
+        }
+
+        /**
+         * @param label
+         *            Adds a label to the set of labels for data columns in the values statements
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addLabel(@Nonnull String label) {
+            Objects.requireNonNull(label);
+
+            labels.add(label);
+            hasLabels = true;
+
+            return this;
+        }
+
+        /**
+         * @param labels
+         *            Group of labels to add (in the provided order) to the set of labels for data columns in the values
+         *            statements
+         * @return This builder instance
+         * @since 0.1
+         */
+        @Nonnull
+        public Builder<T> addLabels(@Nonnull List<String> labels) {
+            Objects.requireNonNull(labels);
+
+            for (String label : labels) {
+                addLabel(label);
+            }
+
+            return this;
+        }
+
+        /**
+         * @return An immutable template which generates values statements with the configured handle and labels
+         * @since 0.1
+         */
+        @Nonnull
+        public ValuesTemplate<T> build() {
+            Preconditions.checkArgument(asTableName != null, "Values statements must have a handle to be referenced by query statements");
+            Preconditions.checkArgument(hasLabels, "Labels are required to reference value data");
+
+            return new ValuesTemplate<T>(this);
+        }
+    }
+
+}
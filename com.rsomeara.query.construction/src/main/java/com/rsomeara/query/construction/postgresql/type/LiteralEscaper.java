@@ -0,0 +1,332 @@
+package com.rsomeara.query.construction.postgresql.type;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Escapes data for use within PostgreSQL string literals, assuming standard conforming strings (the default since
+ * PostgreSQL 9.1). Within such literals only the single quote is special, and is escaped by doubling it. NUL characters
+ * cannot be represented by PostgreSQL text, and are rejected.
+ *
+ * <p>
+ * Each value is scanned once to find the first character requiring escaping. Values which require no escaping are
+ * returned or appended as-is without intermediate copies, and escaped values are written directly to their destination
+ * </p>
+ *
+ * @author romeara
+ * @since 0.1
+ */
+public final class LiteralEscaper {
+
+    /** Character which surrounds, and must be escaped within, PostgreSQL string literals */
+    private static final char QUOTE = '\'';
+
+    /** Character which PostgreSQL cannot store within text values */
+    private static final char NUL = '\0';
+
+    /** Scan result which indicates no characters in the value require escaping */
+    private static final int NO_ESCAPE = -1;
+
+    /** Scan result which indicates the value contains characters which cannot be represented */
+    private static final int INVALID = -2;
+
+    /**
+     * Prevent instantiation of utility class
+     */
+    private LiteralEscaper() throws InstantiationException {
+        throw new InstantiationException("Cannot instantiate instance of utility class '" + getClass().getName() + "'");
+    }
+
+    /**
+     * @param value
+     *            Data to check
+     * @return True if the value may be represented as a PostgreSQL string literal
+     * @since 0.1
+     */
+    public static boolean isValid(@Nonnull CharSequence value) {
+        Objects.requireNonNull(value);
+
+        return findFirstEscape(value) != INVALID;
+    }
+
+    /**
+     * @param value
+     *            Data to escape
+     * @return The escaped value, the provided instance if no escaping was required, or null if the value contains a
+     *         NUL character
+     * @since 0.1
+     */
+    @CheckForNull
+    public static String escape(@Nonnull String value) {
+        Objects.requireNonNull(value);
+
+        String result = value;
+        int firstEscape = findFirstEscape(value);
+
+        if (firstEscape == INVALID) {
+            result = null;
+        } else if (firstEscape != NO_ESCAPE) {
+            char[] escaped = new char[value.length() + countQuotes(value, firstEscape)];
+            value.getChars(0, firstEscape, escaped, 0);
+            copyEscaped(value, firstEscape, escaped, firstEscape);
+
+            result = new String(escaped);
+        }
+
+        return result;
+    }
+
+    /**
+     * @param value
+     *            Data to escape and quote
+     * @return The value as an escaped string literal surrounded by single quotes, or null if the value contains a NUL
+     *         character
+     * @since 0.1
+     */
+    @CheckForNull
+    public static String quote(@Nonnull String value) {
+        Objects.requireNonNull(value);
+
+        String result = null;
+        int firstEscape = findFirstEscape(value);
+
+        if (firstEscape != INVALID) {
+            int copied = (firstEscape != NO_ESCAPE ? firstEscape : value.length());
+            char[] quoted = new char[value.length() + 2 + (firstEscape != NO_ESCAPE ? countQuotes(value, firstEscape) : 0)];
+
+            quoted[0] = QUOTE;
+            value.getChars(0, copied, quoted, 1);
+
+            if (firstEscape != NO_ESCAPE) {
+                copyEscaped(value, firstEscape, quoted, firstEscape + 1);
+            }
+
+            quoted[quoted.length - 1] = QUOTE;
+
+            result = new String(quoted);
+        }
+
+        return result;
+    }
+
+    /**
+     * Appends the escaped form of a value to a destination
+     *
+     * @param destination
+     *            Location to write the escaped value to
+     * @param value
+     *            Data to escape
+     * @return The provided destination
+     * @throws IOException
+     *             If there is an error writing to the destination
+     * @throws IllegalArgumentException
+     *             If the value contains a NUL character. Nothing is written to the destination in this case
+     * @since 0.1
+     */
+    @Nonnull
+    public static <A extends Appendable> A appendEscaped(@Nonnull A destination, @Nonnull CharSequence value) throws IOException {
+        Objects.requireNonNull(destination);
+        Objects.requireNonNull(value);
+
+        writeEscaped(destination, value, checkedFirstEscape(value));
+
+        return destination;
+    }
+
+    /**
+     * Appends the escaped form of a value to a destination
+     *
+     * @param destination
+     *            Location to write the escaped value to
+     * @param value
+     *            Data to escape
+     * @return The provided destination
+     * @throws IllegalArgumentException
+     *             If the value contains a NUL character. Nothing is written to the destination in this case
+     * @since 0.1
+     */
+    @Nonnull
+    public static StringBuilder appendEscaped(@Nonnull StringBuilder destination, @Nonnull CharSequence value) {
+        try {
+            appendEscaped((Appendable) destination, value);
+        } catch (IOException e) {
+            // StringBuilder does not throw IOExceptions on append
+            throw new AssertionError(e);
+        }
+
+        return destination;
+    }
+
+    /**
+     * Appends a value as an escaped string literal surrounded by single quotes to a destination
+     *
+     * @param destination
+     *            Location to write the string literal to
+     * @param value
+     *            Data to escape and quote
+     * @return The provided destination
+     * @throws IOException
+     *             If there is an error writing to the destination
+     * @throws IllegalArgumentException
+     *             If the value contains a NUL character. Nothing is written to the destination in this case
+     * @since 0.1
+     */
+    @Nonnull
+    public static <A extends Appendable> A appendQuoted(@Nonnull A destination, @Nonnull CharSequence value) throws IOException {
+        Objects.requireNonNull(destination);
+        Objects.requireNonNull(value);
+
+        int firstEscape = checkedFirstEscape(value);
+
+        destination.append(QUOTE);
+        writeEscaped(destination, value, firstEscape);
+        destination.append(QUOTE);
+
+        return destination;
+    }
+
+    /**
+     * Appends a value as an escaped string literal surrounded by single quotes to a destination
+     *
+     * @param destination
+     *            Location to write the string literal to
+     * @param value
+     *            Data to escape and quote
+     * @return The provided destination
+     * @throws IllegalArgumentException
+     *             If the value contains a NUL character. Nothing is written to the destination in this case
+     * @since 0.1
+     */
+    @Nonnull
+    public static StringBuilder appendQuoted(@Nonnull StringBuilder destination, @Nonnull CharSequence value) {
+        try {
+            appendQuoted((Appendable) destination, value);
+        } catch (IOException e) {
+            // StringBuilder does not throw IOExceptions on append
+            throw new AssertionError(e);
+        }
+
+        return destination;
+    }
+
+    /**
+     * @param value
+     *            Data to scan
+     * @return The index of the first character which must be escaped, {@link #NO_ESCAPE} if there are none, or
+     *         {@link #INVALID} if the value contains a NUL character
+     */
+    private static int findFirstEscape(@Nonnull CharSequence value) {
+        int result = NO_ESCAPE;
+        int length = value.length();
+
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+
+            if (ch == NUL) {
+                result = INVALID;
+                break;
+            } else if (ch == QUOTE && result == NO_ESCAPE) {
+                result = i;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @param value
+     *            Data to scan
+     * @return The index of the first character which must be escaped, or {@link #NO_ESCAPE} if there are none
+     * @throws IllegalArgumentException
+     *             If the value contains a NUL character
+     */
+    private static int checkedFirstEscape(@Nonnull CharSequence value) {
+        int firstEscape = findFirstEscape(value);
+
+        if (firstEscape == INVALID) {
+            throw new IllegalArgumentException("PostgreSQL string literals may not contain a '\\0' character");
+        }
+
+        return firstEscape;
+    }
+
+    /**
+     * @param value
+     *            Data to count quotes within
+     * @param start
+     *            Index to begin counting from
+     * @return The number of quote characters in the value at or after the start index
+     */
+    private static int countQuotes(@Nonnull String value, int start) {
+        int count = 0;
+
+        for (int i = value.indexOf(QUOTE, start); i >= 0; i = value.indexOf(QUOTE, i + 1)) {
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Copies a value into a pre-sized array, doubling each quote character
+     *
+     * @param value
+     *            Data to escape
+     * @param start
+     *            Index of the first character of the value to copy
+     * @param destination
+     *            Array to copy into, which must have room for the escaped remainder of the value
+     * @param offset
+     *            Index in the destination to begin copying at
+     */
+    private static void copyEscaped(@Nonnull String value, int start, @Nonnull char[] destination, int offset) {
+        int position = offset;
+        int length = value.length();
+
+        for (int i = start; i < length; i++) {
+            char ch = value.charAt(i);
+
+            if (ch == QUOTE) {
+                destination[position++] = QUOTE;
+            }
+
+            destination[position++] = ch;
+        }
+    }
+
+    /**
+     * Writes a value to a destination, doubling each quote character
+     *
+     * @param destination
+     *            Location to write the escaped value to
+     * @param value
+     *            Data to escape
+     * @param firstEscape
+     *            Index of the first character in the value requiring escaping, or {@link #NO_ESCAPE}
+     * @throws IOException
+     *             If there is an error writing to the destination
+     */
+    private static void writeEscaped(@Nonnull Appendable destination, @Nonnull CharSequence value, int firstEscape) throws IOException {
+        int length = value.length();
+
+        if (firstEscape == NO_ESCAPE) {
+            destination.append(value);
+        } else {
+            int segmentStart = 0;
+
+            // Write runs of unescaped characters in bulk, ending each run with a doubled quote
+            for (int i = firstEscape; i < length; i++) {
+                if (value.charAt(i) == QUOTE) {
+                    destination.append(value, segmentStart, i + 1).append(QUOTE);
+                    segmentStart = i + 1;
+                }
+            }
+
+            destination.append(value, segmentStart, length);
+        }
+    }
+
+}
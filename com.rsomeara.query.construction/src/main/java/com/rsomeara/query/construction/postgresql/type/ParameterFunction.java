@@ -0,0 +1,22 @@
+package com.rsomeara.query.construction.postgresql.type;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Converts a data representation to a set of values to bind as statement parameters.
+ *
+ * <p>
+ * Unlike {@link ValuesFunction}, produced values are not escaped or quoted - they are provided to the JDBC driver as-is
+ * and must be types supported by {@link java.sql.PreparedStatement#setObject(int, Object)}. Clients may wrap existing
+ * functions via {@link Values#asParameterFunction(Function)}
+ * </p>
+ *
+ * @author romeara
+ *
+ * @param <T>
+ *            Type to represent as statement parameters
+ */
+public interface ParameterFunction<T> extends Function<T, List<Object>> {
+
+}
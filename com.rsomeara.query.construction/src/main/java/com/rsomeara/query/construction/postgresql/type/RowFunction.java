@@ -0,0 +1,26 @@
+package com.rsomeara.query.construction.postgresql.type;
+
+/**
+ * Writes a data representation as a row of SQL-consumable values.
+ *
+ * <p>
+ * This allows typed data to be written directly to a statement, instead of first being converted to strings as done by
+ * {@link ValuesFunction}
+ * </p>
+ *
+ * @author romeara
+ *
+ * @param <T>
+ *            Type to represent as SQL-consumable data
+ */
+public interface RowFunction<T> {
+
+    /**
+     * @param value
+     *            The data to represent
+     * @param writer
+     *            Writer to provide the columns representing the data to, in order
+     */
+    void writeRow(T value, RowWriter writer);
+
+}
@@ -0,0 +1,110 @@
+package com.rsomeara.query.construction.postgresql.type;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Writes the columns of a single values statement row, in order, directly to the statement being generated.
+ *
+ * <p>
+ * Typed values are formatted without intermediate strings where possible. On the first row of a statement, columns
+ * written with a type which PostgreSQL would not otherwise infer include an explicit cast (such as {@code ::int8}), which
+ * determines the type of the column for all following rows. Columns which are NULL in the first row should be written
+ * with a typed method (such as {@link #writeUuid(UUID)}) so that the cast is still provided
+ * </p>
+ *
+ * @author romeara
+ * @since 0.1
+ */
+public interface RowWriter {
+
+    /**
+     * @param value
+     *            Value to write as an {@code int4} column
+     * @return This writer instance
+     * @since 0.1
+     */
+    @Nonnull
+    RowWriter writeInt(int value);
+
+    /**
+     * @param value
+     *            Value to write as an {@code int8} column
+     * @return This writer instance
+     * @since 0.1
+     */
+    @Nonnull
+    RowWriter writeLong(long value);
+
+    /**
+     * @param value
+     *            Value to write as a {@code float8} column
+     * @return This writer instance
+     * @since 0.1
+     */
+    @Nonnull
+    RowWriter writeDouble(double value);
+
+    /**
+     * @param value
+     *            Value to write as a {@code boolean} column
+     * @return This writer instance
+     * @since 0.1
+     */
+    @Nonnull
+    RowWriter writeBoolean(boolean value);
+
+    /**
+     * @param value
+     *            Value to write as an escaped string literal, or null to write NULL
+     * @return This writer instance
+     * @throws IllegalArgumentException
+     *             If the value contains a NUL character, which PostgreSQL text cannot represent
+     * @since 0.1
+     */
+    @Nonnull
+    RowWriter writeText(@Nullable CharSequence value);
+
+    /**
+     * @param value
+     *            Value to write as a {@code uuid} column, or null to write NULL
+     * @return This writer instance
+     * @since 0.1
+     */
+    @Nonnull
+    RowWriter writeUuid(@Nullable UUID value);
+
+    /**
+     * @param value
+     *            Value to write as a {@code timestamptz} column, or null to write NULL
+     * @return This writer instance
+     * @since 0.1
+     */
+    @Nonnull
+    RowWriter writeTimestamp(@Nullable Instant value);
+
+    /**
+     * Writes an untyped NULL column
+     *
+     * @return This writer instance
+     * @since 0.1
+     */
+    @Nonnull
+    RowWriter writeNull();
+
+    /**
+     * Writes a column which is already in SQL form. No escaping is done - this processing is expected to be handled by
+     * the client before calling this method
+     *
+     * @param sql
+     *            SQL-consumable value to write as-is
+     * @return This writer instance
+     * @since 0.1
+     */
+    @Nonnull
+    RowWriter writeLiteral(@Nonnull CharSequence sql);
+
+}
@@ -1,6 +1,5 @@
 package com.rsomeara.query.construction.postgresql.type;
 
-import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -8,7 +7,6 @@ import java.util.function.Function;
 
 import javax.annotation.Nonnull;
 
-import org.postgresql.core.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,10 +21,9 @@ public final class Values {
     /** Logger reference to output information to the application log files */
     private static final Logger logger = LoggerFactory.getLogger(Values.class);
 
-    private static final Function<String, String> ESCAPE_SPECIAL_CHARACTERS = new SpecialCharacterEscapeFunction();
+    private static final Function<String, String> ESCAPE_SPECIAL_CHARACTERS = new SpecialCharacterEscapeFunction(false);
 
-    private static final Function<String, String> PROTECT_STRING = ESCAPE_SPECIAL_CHARACTERS
-            .andThen((String t) -> t != null ? new StringBuilder().append('\'').append(t).append('\'').toString() : null);
+    private static final Function<String, String> PROTECT_STRING = new SpecialCharacterEscapeFunction(true);
 
     /**
      * Prevent instantiation of utility class
@@ -78,21 +75,64 @@ public final class Values {
     }
 
     /**
-     * Function which escapes special characters in SQL data values for PostgreSQL
+     * @return Row function which writes each value as a single escaped string literal column, without intermediate
+     *         copies of the value
+     * @since 0.1
+     */
+    @Nonnull
+    public static RowFunction<String> protectedText() {
+        return ((String t, RowWriter writer) -> writer.writeText(t));
+    }
+
+    /**
+     * @param input
+     *            A standard Java function which a parameter function compatible signature
+     * @return A parameter function representation of the provided function
+     * @since 0.1
+     */
+    @Nonnull
+    public static <T> ParameterFunction<T> asParameterFunction(@Nonnull Function<T, List<Object>> input) {
+        Objects.requireNonNull(input);
+
+        return ((T t) -> input.apply(t));
+    }
+
+    /**
+     * @return Parameter function which provides each value as a single string parameter
+     * @since 0.1
+     */
+    @Nonnull
+    public static ParameterFunction<String> stringParameters() {
+        return ((String t) -> (t != null ? Arrays.<Object> asList(t) : null));
+    }
+
+    /**
+     * Function which escapes special characters in SQL data values for PostgreSQL, optionally surrounding the result
+     * with quotes in the same pass
      *
      * @author romeara
      */
     private static final class SpecialCharacterEscapeFunction implements Function<String, String> {
 
+        private final boolean quote;
+
+        /**
+         * @param quote
+         *            True if escaped values should be surrounded with ', causing them to be treated as string literals
+         */
+        private SpecialCharacterEscapeFunction(boolean quote) {
+            this.quote = quote;
+        }
+
         @Override
         public String apply(String input) {
             String result = null;
 
             if (input != null) {
-                try {
-                    result = Utils.appendEscapedLiteral(null, input, true).toString();
-                } catch (SQLException e) {
-                    logger.error("Error escaping query string - string contained a '\\0' chracter", e);
+                result = (quote ? LiteralEscaper.quote(input) : LiteralEscaper.escape(input));
+
+                if (result == null) {
+                    logger.error("Error escaping query string - string contained a '\\0' chracter");
                 }
             }
 
@@ -1,6 +1,7 @@
 package com.rsomeara.query.construction.postgresql.type;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Function;
 
 /**
@@ -16,6 +17,23 @@ import java.util.function.Function;
  * @param <T>
  *            Type to represent as SQL-consumable data
  */
-public interface ValuesFunction<T> extends Function<T, List<String>> {
+public interface ValuesFunction<T> extends Function<T, List<String>>, RowFunction<T> {
+
+    /**
+     * Writes the converted values as pre-formatted SQL. Null values are written as SQL NULL
+     */
+    @Override
+    default void writeRow(T value, RowWriter writer) {
+        List<String> row = apply(value);
+        Objects.requireNonNull(row);
+
+        for (String column : row) {
+            if (column != null) {
+                writer.writeLiteral(column);
+            } else {
+                writer.writeNull();
+            }
+        }
+    }
 
 }
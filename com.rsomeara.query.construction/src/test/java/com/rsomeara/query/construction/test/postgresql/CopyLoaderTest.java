@@ -0,0 +1,250 @@
+package com.rsomeara.query.construction.test.postgresql;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.rsomeara.query.construction.postgresql.CopyLoader;
+import com.rsomeara.query.construction.postgresql.CopyLoader.Format;
+import com.rsomeara.query.construction.postgresql.type.RowFunction;
+import com.rsomeara.query.construction.postgresql.type.RowWriter;
+import com.rsomeara.query.construction.postgresql.type.Values;
+
+/**
+ * Tests generation of COPY statements and data streams
+ *
+ * @author romeara
+ */
+public class CopyLoaderTest {
+
+    private static final RowFunction<Integer> TYPED_ROW = (Integer t, RowWriter writer) -> writer
+            .writeInt(t)
+            .writeText(t > 1 ? "a\tb\\c" : null)
+            .writeUuid(new UUID(0, t))
+            .writeTimestamp(Instant.parse("2000-01-01T00:00:01Z"));
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void buildNoTableName() throws Exception {
+        CopyLoader.newBuilder(Values.protectedStrings()).addLabel("label").build();
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void createTableSQL() throws Exception {
+        CopyLoader<Integer> loader = CopyLoader.newBuilder(TYPED_ROW)
+                .tableName("t")
+                .addLabels(Arrays.asList("a", "b", "c", "d")).build();
+
+        Assert.assertEquals(loader.getCreateTableSQL(1), "CREATE TEMPORARY TABLE t (a int4, b text, c uuid, d timestamptz)");
+        Assert.assertEquals(loader.getCreateTableSQL(null), "CREATE TEMPORARY TABLE t (a text, b text, c text, d text)");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void copySQL() throws Exception {
+        CopyLoader.Builder<Integer> builder = CopyLoader.newBuilder(TYPED_ROW)
+                .tableName("t")
+                .addLabels(Arrays.asList("a", "b"));
+
+        Assert.assertEquals(builder.build().getCopySQL(), "COPY t (a, b) FROM STDIN");
+        Assert.assertEquals(builder.format(Format.BINARY).build().getCopySQL(), "COPY t (a, b) FROM STDIN WITH (FORMAT binary)");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void writeText() throws Exception {
+        CopyLoader<Integer> loader = CopyLoader.newBuilder(TYPED_ROW)
+                .tableName("t")
+                .addLabels(Arrays.asList("a", "b", "c", "d")).build();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        Assert.assertEquals(loader.write(Arrays.asList(1, 2), output), 2);
+        Assert.assertEquals(new String(output.toByteArray(), StandardCharsets.UTF_8),
+                "1\t\\N\t00000000-0000-0000-0000-000000000001\t2000-01-01T00:00:01Z\n"
+                        + "2\ta\\tb\\\\c\t00000000-0000-0000-0000-000000000002\t2000-01-01T00:00:01Z\n");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void writeTextLiterals() throws Exception {
+        CopyLoader<String> loader = CopyLoader.newBuilder(Values.protectedStrings())
+                .tableName("t")
+                .addLabel("a").build();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        loader.write(Arrays.asList("it's", "line\n"), output);
+
+        Assert.assertEquals(new String(output.toByteArray(), StandardCharsets.UTF_8), "it's\nline\\n\n");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void writeTextNonStringLiteral() throws Exception {
+        CopyLoader<String> loader = CopyLoader.newBuilder(Values.<String> asValuesFunction(t -> Arrays.asList(t)))
+                .tableName("t")
+                .addLabel("a").build();
+
+        // Each value would otherwise be loaded as its SQL text, rather than the value it represents
+        for (String literal : Arrays.asList("42", "'2020-01-01'::date", "E'a\\tb'", "'a' || 'b'")) {
+            try {
+                loader.write(Arrays.asList(literal), new ByteArrayOutputStream());
+                Assert.fail("Expected " + literal + " to be rejected");
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        loader.write(Arrays.asList("'it''s'", "NULL"), output);
+
+        Assert.assertEquals(new String(output.toByteArray(), StandardCharsets.UTF_8), "it's\n\\N\n");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void writeBinary() throws Exception {
+        CopyLoader<Integer> loader = CopyLoader.newBuilder(TYPED_ROW)
+                .tableName("t")
+                .addLabels(Arrays.asList("a", "b", "c", "d"))
+                .format(Format.BINARY).build();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        loader.write(Arrays.asList(1, 2), output);
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+
+        byte[] signature = new byte[11];
+        input.readFully(signature);
+
+        Assert.assertEquals(signature, "PGCOPY\n\u00ff\r\n\0".getBytes(StandardCharsets.ISO_8859_1));
+        Assert.assertEquals(input.readInt(), 0);
+        Assert.assertEquals(input.readInt(), 0);
+
+        for (int row = 1; row <= 2; row++) {
+            Assert.assertEquals(input.readShort(), 4);
+
+            Assert.assertEquals(input.readInt(), 4);
+            Assert.assertEquals(input.readInt(), row);
+
+            if (row == 1) {
+                Assert.assertEquals(input.readInt(), -1);
+            } else {
+                byte[] text = new byte[input.readInt()];
+                input.readFully(text);
+                Assert.assertEquals(new String(text, StandardCharsets.UTF_8), "a\tb\\c");
+            }
+
+            Assert.assertEquals(input.readInt(), 16);
+            Assert.assertEquals(input.readLong(), 0);
+            Assert.assertEquals(input.readLong(), row);
+
+            Assert.assertEquals(input.readInt(), 8);
+            Assert.assertEquals(input.readLong(), 1000000L);
+        }
+
+        Assert.assertEquals(input.readShort(), -1);
+        Assert.assertEquals(input.available(), 0);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void writeBinaryTypedNull() throws Exception {
+        RowFunction<UUID> rowFunction = (UUID t, RowWriter writer) -> writer.writeUuid(t.getLeastSignificantBits() > 0 ? t : null);
+        CopyLoader<UUID> loader = CopyLoader.newBuilder(rowFunction)
+                .tableName("t")
+                .addLabel("a")
+                .format(Format.BINARY).build();
+
+        UUID nullRow = new UUID(0, 0);
+        UUID valueRow = new UUID(3, 4);
+
+        Assert.assertEquals(loader.getCreateTableSQL(nullRow), "CREATE TEMPORARY TABLE t (a uuid)");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Assert.assertEquals(loader.write(Arrays.asList(nullRow, valueRow), output), 2);
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+        input.readFully(new byte[19]);
+
+        Assert.assertEquals(input.readShort(), 1);
+        Assert.assertEquals(input.readInt(), -1);
+
+        Assert.assertEquals(input.readShort(), 1);
+        Assert.assertEquals(input.readInt(), 16);
+        Assert.assertEquals(input.readLong(), 3);
+        Assert.assertEquals(input.readLong(), 4);
+
+        Assert.assertEquals(input.readShort(), -1);
+        Assert.assertEquals(input.available(), 0);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void writeBinaryTypeMismatch() throws Exception {
+        RowFunction<Integer> rowFunction = (Integer t, RowWriter writer) -> {
+            if (t > 1) {
+                writer.writeLong(t);
+            } else {
+                writer.writeInt(t);
+            }
+        };
+
+        CopyLoader.newBuilder(rowFunction)
+                .tableName("t")
+                .addLabel("a")
+                .format(Format.BINARY).build()
+                .write(Arrays.asList(1, 2), new ByteArrayOutputStream());
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void writeBinaryNonStringLiteral() throws Exception {
+        CopyLoader.newBuilder(Values.<String> asValuesFunction(t -> Arrays.asList(t)))
+                .tableName("t")
+                .addLabel("a")
+                .format(Format.BINARY).build()
+                .write(Arrays.asList("42"), new ByteArrayOutputStream());
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void writeColumnMismatch() throws Exception {
+        CopyLoader.newBuilder(Values.protectedStrings())
+                .tableName("t")
+                .addLabels(Arrays.asList("a", "b")).build()
+                .write(Collections.singletonList("value"), new ByteArrayOutputStream());
+    }
+
+}
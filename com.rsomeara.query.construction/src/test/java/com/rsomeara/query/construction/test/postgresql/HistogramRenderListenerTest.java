@@ -0,0 +1,118 @@
+package com.rsomeara.query.construction.test.postgresql;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.rsomeara.query.construction.postgresql.HistogramRenderListener;
+import com.rsomeara.query.construction.postgresql.HistogramRenderListener.Histogram;
+import com.rsomeara.query.construction.postgresql.ValuesStatement;
+import com.rsomeara.query.construction.postgresql.type.Values;
+
+/**
+ * Tests recording of values statement measurements in histograms
+ *
+ * @author romeara
+ */
+public class HistogramRenderListenerTest {
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void emptyHistogram() throws Exception {
+        Histogram rows = new HistogramRenderListener().getRows();
+
+        Assert.assertEquals(rows.getCount(), 0);
+        Assert.assertEquals(rows.getMax(), 0);
+        Assert.assertEquals(rows.getMean(), 0.0);
+        Assert.assertEquals(rows.getPercentile(99), 0);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void percentileOutOfRange() throws Exception {
+        new HistogramRenderListener().getRows().getPercentile(101);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void recordsStatements() throws Exception {
+        HistogramRenderListener listener = new HistogramRenderListener();
+
+        for (int rowCount = 1; rowCount <= 100; rowCount++) {
+            ValuesStatement.Builder<String> builder = ValuesStatement.newBuilder(Values.protectedText()).tableName("t").addLabel("a")
+                    .listener(listener);
+
+            for (int i = 0; i < rowCount; i++) {
+                builder.addValue("value");
+            }
+
+            builder.build();
+        }
+
+        Histogram rows = listener.getRows();
+
+        Assert.assertEquals(rows.getCount(), 100);
+        Assert.assertEquals(rows.getSum(), 5050);
+        Assert.assertEquals(rows.getMax(), 100);
+        Assert.assertEquals(rows.getMean(), 50.5);
+        // Percentiles are reported as the upper bound of power-of-two buckets
+        Assert.assertEquals(rows.getPercentile(50), 63);
+        Assert.assertEquals(rows.getPercentile(10), 15);
+        Assert.assertEquals(rows.getPercentile(100), 100);
+
+        Assert.assertEquals(listener.getColumns().getPercentile(50), 1);
+        Assert.assertEquals(listener.getEscapedValues().getMax(), 0);
+        Assert.assertEquals(listener.getRenderNanos().getCount(), 100);
+
+        listener.reset();
+
+        Assert.assertEquals(rows.getCount(), 0);
+        Assert.assertEquals(rows.getPercentile(50), 0);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void recordsEscapedLiterals() throws Exception {
+        HistogramRenderListener listener = new HistogramRenderListener();
+
+        // Values containing "reject" are written with an extra column, so are rejected by the builder
+        ValuesStatement.Builder<String> builder = ValuesStatement
+                .newBuilder(Values.<String> asValuesFunction(t -> {
+                    String literal = Values.protectString().apply(t);
+
+                    return (t.contains("reject") ? Arrays.asList(literal, literal) : Collections.singletonList(literal));
+                }))
+                .tableName("t")
+                .addLabel("a")
+                .listener(listener);
+
+        builder.addValue("it's");
+        builder.addValue("plain");
+
+        try {
+            builder.addValue("reject's");
+            Assert.fail("Expected row with extra column to be rejected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        builder.addValue("o'k");
+
+        Assert.assertEquals(builder.build().getSQL(), "(values ('it''s'),('plain'),('o''k')) t(a)");
+
+        Assert.assertEquals(listener.getRows().getMax(), 3);
+        Assert.assertEquals(listener.getEscapedValues().getCount(), 1);
+        Assert.assertEquals(listener.getEscapedValues().getMax(), 2);
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.rsomeara.query.construction.test.postgresql;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.rsomeara.query.construction.postgresql.InsertStatement;
+import com.rsomeara.query.construction.postgresql.ParameterizedValuesStatement.Placeholder;
+import com.rsomeara.query.construction.postgresql.type.RowFunction;
+import com.rsomeara.query.construction.postgresql.type.Values;
+
+/**
+ * Tests construction of multi-row insert and upsert statements
+ *
+ * @author romeara
+ */
+public class InsertStatementTest {
+
+    private static final RowFunction<Integer> ROW_FUNCTION = (value, writer) -> writer.writeInt(value).writeText("name'" + value);
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void buildNoTableName() throws Exception {
+        InsertStatement.newBuilder(ROW_FUNCTION).addColumn("id").addColumn("name").addValue(1).build();
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void buildNoValues() throws Exception {
+        InsertStatement.newBuilder(ROW_FUNCTION).tableName("table").addColumn("id").addColumn("name").build();
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void buildColumnCountMismatch() throws Exception {
+        InsertStatement.newBuilder(ROW_FUNCTION).tableName("table").addColumn("id").addValue(1).build();
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void maxRowsAfterValues() throws Exception {
+        InsertStatement.newBuilder(ROW_FUNCTION).addValue(1).maxRows(1);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void buildInlined() throws Exception {
+        List<InsertStatement> statements = InsertStatement.newBuilder(ROW_FUNCTION)
+                .tableName("table")
+                .addColumn("id")
+                .addColumn("name")
+                .addValues(Arrays.asList(1, -2))
+                .build();
+
+        Assert.assertEquals(statements.size(), 1);
+        Assert.assertEquals(statements.get(0).getSQL(), "insert into table (id,name) values (1,'name''1'),(-2,'name''-2')");
+        Assert.assertEquals(statements.get(0).getRowCount(), 2);
+        Assert.assertTrue(statements.get(0).getParameters().isEmpty());
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void buildUpsertReturning() throws Exception {
+        List<InsertStatement> statements = InsertStatement.newBuilder(Values.protectedStrings())
+                .tableName("table")
+                .addColumn("id")
+                .addConflictTarget("id")
+                .onConflictDoNothing()
+                .addReturning("id")
+                .addValue("a")
+                .build();
+
+        Assert.assertEquals(statements.get(0).getSQL(), "insert into table (id) values ('a') on conflict (id) do nothing returning id");
+
+        statements = InsertStatement.newBuilder(ROW_FUNCTION)
+                .tableName("table")
+                .addColumn("id")
+                .addColumn("name")
+                .addConflictTarget("id")
+                .onConflictUpdate()
+                .addValue(1)
+                .build();
+
+        Assert.assertEquals(statements.get(0).getSQL(),
+                "insert into table (id,name) values (1,'name''1') on conflict (id) do update set name=excluded.name");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void buildUpdateNoConflictTarget() throws Exception {
+        InsertStatement.newBuilder(ROW_FUNCTION).tableName("table").addColumn("id").addColumn("name").onConflictUpdate().addValue(1).build();
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void buildParameterizedChunks() throws Exception {
+        List<InsertStatement> statements = InsertStatement.newParameterizedBuilder(Values.asParameterFunction((Integer value) -> Arrays.<Object> asList(value, null)))
+                .tableName("table")
+                .addColumn("id")
+                .addColumn("name")
+                .placeholder(Placeholder.NUMBERED)
+                .maxParameters(5)
+                .addValues(Arrays.asList(1, 2, 3))
+                .build();
+
+        Assert.assertEquals(statements.size(), 2);
+        Assert.assertEquals(statements.get(0).getSQL(), "insert into table (id,name) values ($1,$2),($3,$4)");
+        Assert.assertEquals(statements.get(0).getParameters(), Arrays.asList(1, null, 2, null));
+        Assert.assertEquals(statements.get(1).getSQL(), "insert into table (id,name) values ($1,$2)");
+        Assert.assertEquals(statements.get(1).getParameters(), Arrays.asList(3, null));
+        Assert.assertEquals(statements.get(1).getRowCount(), 1);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void buildInlinedMaxRows() throws Exception {
+        List<InsertStatement> statements = InsertStatement.newBuilder(ROW_FUNCTION)
+                .tableName("table")
+                .addColumn("id")
+                .addColumn("name")
+                .maxRows(2)
+                .addValues(Arrays.asList(1, 2, 3, 4, 5))
+                .build();
+
+        Assert.assertEquals(statements.size(), 3);
+        Assert.assertEquals(statements.get(2).getSQL(), "insert into table (id,name) values (5,'name''5')");
+    }
+
+}
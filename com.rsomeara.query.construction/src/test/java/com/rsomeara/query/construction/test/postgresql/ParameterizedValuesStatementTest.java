@@ -0,0 +1,148 @@
+package com.rsomeara.query.construction.test.postgresql;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Maps;
+import com.rsomeara.query.construction.postgresql.ParameterizedValuesStatement;
+import com.rsomeara.query.construction.postgresql.ParameterizedValuesStatement.Placeholder;
+import com.rsomeara.query.construction.postgresql.type.Values;
+
+/**
+ * Tests general operation of construction of parameterized values statements
+ *
+ * @author romeara
+ */
+public class ParameterizedValuesStatementTest {
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = NullPointerException.class)
+    public void newBuilderNullFunction() throws Exception {
+        ParameterizedValuesStatement.newBuilder(null);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void buildNoValues() throws Exception {
+        ParameterizedValuesStatement.newBuilder(Values.stringParameters()).tableName("table").addLabel("label").build();
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void buildLabelMismatch() throws Exception {
+        ParameterizedValuesStatement.newBuilder(Values.stringParameters()).tableName("table").addLabels(Arrays.asList("a", "b"))
+                .addValue("value").build();
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void addValueInconsistentColumns() throws Exception {
+        ParameterizedValuesStatement.newBuilder(Values.<List<Object>> asParameterFunction(t -> t))
+                .addValue(Arrays.<Object> asList(1, 2))
+                .addValue(Arrays.<Object> asList(1));
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void buildJdbcStatement() throws Exception {
+        ParameterizedValuesStatement statement = ParameterizedValuesStatement.newBuilder(Values.<List<Object>> asParameterFunction(t -> t))
+                .tableName("t")
+                .addLabels(Arrays.asList("a", "b"))
+                .addValue(Arrays.<Object> asList(1, "x"))
+                .addValue(Arrays.<Object> asList(2, "y"))
+                .rowBuckets().build();
+
+        Assert.assertEquals(statement.getSQL(), "(values (?,?),(?,?)) t(a,b)");
+        Assert.assertEquals(statement.getParameters(), Arrays.<Object> asList(1, "x", 2, "y"));
+        Assert.assertEquals(statement.getRowCount(), 2);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void buildNumberedStatement() throws Exception {
+        ParameterizedValuesStatement statement = ParameterizedValuesStatement.newBuilder(Values.<List<Object>> asParameterFunction(t -> t))
+                .tableName("t")
+                .addLabels(Arrays.asList("a", "b"))
+                .addValue(Arrays.<Object> asList(1, "x"))
+                .addValue(Arrays.<Object> asList(2, "y"))
+                .placeholder(Placeholder.NUMBERED)
+                .firstParameterIndex(3)
+                .rowBuckets().build();
+
+        Assert.assertEquals(statement.getSQL(), "(values ($3,$4),($5,$6)) t(a,b)");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void buildBucketedStatement() throws Exception {
+        ParameterizedValuesStatement.Builder<String> builder = ParameterizedValuesStatement.newBuilder(Values.stringParameters())
+                .tableName("t")
+                .addLabel("a")
+                .rowBuckets(4, 2);
+
+        ParameterizedValuesStatement two = builder.addValues(Arrays.asList("1", "2")).build();
+        ParameterizedValuesStatement three = builder.addValue("3").build();
+        ParameterizedValuesStatement five = builder.addValues(Arrays.asList("4", "5")).build();
+
+        Assert.assertEquals(two.getSQL(), "(values (?),(?)) t(a)");
+        Assert.assertEquals(three.getSQL(), "(values (?),(?),(?),(?)) t(a)");
+        Assert.assertEquals(three.getParameters(), Arrays.<Object> asList("1", "2", "3", null));
+        Assert.assertEquals(five.getRowCount(), 8);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void bind() throws Exception {
+        ParameterizedValuesStatement statement = ParameterizedValuesStatement.newBuilder(Values.stringParameters())
+                .tableName("t")
+                .addLabel("a")
+                .addValue("value")
+                .rowBuckets(2).build();
+
+        Map<Integer, Object> bound = Maps.newHashMap();
+
+        PreparedStatement preparedStatement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("setObject")) {
+                        bound.put((Integer) args[0], args[1]);
+                    } else if (method.getName().equals("setNull")) {
+                        Assert.assertEquals(args[1], Types.NULL);
+                        bound.put((Integer) args[0], null);
+                    } else {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+
+                    return null;
+                });
+
+        Assert.assertEquals(statement.bind(preparedStatement, 2), 4);
+        Assert.assertEquals(bound.get(2), "value");
+        Assert.assertTrue(bound.containsKey(3));
+        Assert.assertNull(bound.get(3));
+        Assert.assertEquals(bound.size(), 2);
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.rsomeara.query.construction.test.postgresql;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.rsomeara.query.construction.postgresql.Utf8Sink;
+import com.rsomeara.query.construction.postgresql.ValuesStatement;
+import com.rsomeara.query.construction.postgresql.ValuesStatementWriter;
+import com.rsomeara.query.construction.postgresql.type.Values;
+
+/**
+ * Tests UTF-8 encoding of SQL written directly to byte destinations
+ *
+ * @author romeara
+ */
+public class Utf8SinkTest {
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = NullPointerException.class)
+    public void toNullStream() throws Exception {
+        Utf8Sink.to((ByteArrayOutputStream) null);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void appendAfterClose() throws Exception {
+        Utf8Sink sink = Utf8Sink.to(new ByteArrayOutputStream());
+        sink.close();
+
+        sink.append("value");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void encodeMatchesString() throws Exception {
+        String text = "ascii \u00e9\u00df \u20ac\u4e2d \ud83d\ude00 lone \ud800 and \udc00 end\ud800";
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (Utf8Sink sink = Utf8Sink.to(bytes)) {
+            sink.append(text);
+        }
+
+        Assert.assertEquals(bytes.toByteArray(), text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void encodeSurrogatePairAcrossAppends() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (Utf8Sink sink = Utf8Sink.to(bytes)) {
+            sink.append("a\ud83d").append('\ude00').append("b", 0, 1);
+        }
+
+        Assert.assertEquals(bytes.toByteArray(), "a\ud83d\ude00b".getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Verifies text larger than the internal buffer is encoded correctly to channels
+     *
+     * @since 0.1
+     */
+    @Test
+    public void encodeRandomLargeText() throws Exception {
+        Random random = new Random(42);
+        char[] chars = new char[300000];
+
+        for (int i = 0; i < chars.length; i++) {
+            int kind = random.nextInt(4);
+
+            chars[i] = (char) (kind == 0 ? random.nextInt(0x80) : kind == 1 ? random.nextInt(0x800) : random.nextInt(0x10000));
+        }
+
+        String text = new String(chars);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (Utf8Sink sink = Utf8Sink.to(Channels.newChannel(bytes))) {
+            sink.append(text);
+        }
+
+        Assert.assertEquals(bytes.toByteArray(), text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void writeBuilderToSink() throws Exception {
+        ValuesStatement.Builder<String> builder = ValuesStatement.newBuilder(Values.protectedText())
+                .tableName("table")
+                .addLabel("label")
+                .addValues(Arrays.asList("caf\u00e9", "it's"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (Utf8Sink sink = Utf8Sink.to(bytes)) {
+            builder.writeTo(sink);
+        }
+
+        Assert.assertEquals(bytes.toByteArray(), builder.build().getSQL().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void writeStatementToChannel() throws Exception {
+        ValuesStatementWriter<String> writer = ValuesStatementWriter.newBuilder(Values.protectedText())
+                .tableName("table")
+                .addLabel("label")
+                .build();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writer.write(Arrays.asList("\u4e2d", "b"), Channels.newChannel(bytes));
+
+        Assert.assertEquals(new String(bytes.toByteArray(), StandardCharsets.UTF_8), "(values ('\u4e2d'),('b')) table(label)");
+    }
+
+}
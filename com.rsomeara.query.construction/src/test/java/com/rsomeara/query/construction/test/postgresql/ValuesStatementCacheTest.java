@@ -0,0 +1,165 @@
+package com.rsomeara.query.construction.test.postgresql;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.rsomeara.query.construction.postgresql.ValuesStatement;
+import com.rsomeara.query.construction.postgresql.ValuesStatementCache;
+import com.rsomeara.query.construction.postgresql.type.Values;
+
+/**
+ * Tests re-use and eviction of cached values statements
+ *
+ * @author romeara
+ */
+public class ValuesStatementCacheTest {
+
+    private static final List<String> LABELS = Collections.singletonList("label");
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void maxEntriesZero() throws Exception {
+        ValuesStatementCache.newBuilder().maxEntries(0);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void getReturnsCachedInstance() throws Exception {
+        ValuesStatementCache cache = ValuesStatementCache.newBuilder().build();
+
+        ValuesStatement first = cache.get(Values.protectedText(), "table", LABELS, Arrays.asList("a", "b"));
+        ValuesStatement second = cache.get(Values.protectedText(), "table", LABELS, Arrays.asList("a", "b"));
+
+        Assert.assertSame(second, first);
+        Assert.assertEquals(first.getSQL(), "(values ('a'),('b')) table(label)");
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(cache.getMissCount(), 1);
+        Assert.assertEquals(cache.size(), 1);
+        // Weighs the statement, and the rows retained by its key
+        Assert.assertEquals(cache.getCharacterCount(), first.getSQL().length() * 2 + 2 * 16);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void getReadsValuesOnce() throws Exception {
+        ValuesStatementCache cache = ValuesStatementCache.newBuilder().build();
+
+        // Stream iterators may only be requested once
+        Iterable<String> values = Stream.of("a", "b")::iterator;
+
+        ValuesStatement statement = cache.get(Values.protectedText(), "table", LABELS, values);
+
+        Assert.assertEquals(statement.getSQL(), "(values ('a'),('b')) table(label)");
+        Assert.assertSame(cache.get(Values.protectedText(), "table", LABELS, Stream.of("a", "b")::iterator), statement);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void getDistinguishesInputs() throws Exception {
+        ValuesStatementCache cache = ValuesStatementCache.newBuilder().build();
+
+        ValuesStatement statement = cache.get(Values.protectedText(), "table", LABELS, Arrays.asList("a", "b"));
+
+        Assert.assertNotSame(cache.get(Values.protectedText(), "other", LABELS, Arrays.asList("a", "b")), statement);
+        Assert.assertNotSame(cache.get(Values.protectedText(), "table", Arrays.asList("other"), Arrays.asList("a", "b")), statement);
+        Assert.assertNotSame(cache.get(Values.protectedText(), "table", LABELS, Arrays.asList("b", "a")), statement);
+        Assert.assertNotSame(cache.get(Values.protectedStrings(), "table", LABELS, Arrays.asList("a", "b")), statement);
+
+        Assert.assertEquals(cache.getHitCount(), 0);
+        Assert.assertEquals(cache.getMissCount(), 5);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void evictLeastRecentlyUsedEntry() throws Exception {
+        ValuesStatementCache cache = ValuesStatementCache.newBuilder().maxEntries(2).build();
+
+        ValuesStatement first = cache.get(Values.protectedText(), "table", LABELS, Arrays.asList("a"));
+        cache.get(Values.protectedText(), "table", LABELS, Arrays.asList("b"));
+
+        // Access the first entry, so the second is least recently used
+        cache.get(Values.protectedText(), "table", LABELS, Arrays.asList("a"));
+        cache.get(Values.protectedText(), "table", LABELS, Arrays.asList("c"));
+
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+        Assert.assertSame(cache.get(Values.protectedText(), "table", LABELS, Arrays.asList("a")), first);
+        Assert.assertEquals(cache.getHitCount(), 2);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void evictByCharacters() throws Exception {
+        // Each single-row statement is 27 characters, and weighs 70 with its key
+        ValuesStatementCache cache = ValuesStatementCache.newBuilder().maxCharacters(150).build();
+
+        cache.get(Values.protectedText(), "table", LABELS, Arrays.asList("a"));
+        cache.get(Values.protectedText(), "table", LABELS, Arrays.asList("b"));
+        cache.get(Values.protectedText(), "table", LABELS, Arrays.asList("c"));
+
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertEquals(cache.getCharacterCount(), 140);
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void statementExceedingLimitNotCached() throws Exception {
+        ValuesStatementCache cache = ValuesStatementCache.newBuilder().maxCharacters(10).build();
+
+        ValuesStatement statement = cache.get(Values.protectedText(), "table", LABELS, Arrays.asList("a"));
+
+        Assert.assertEquals(statement.getSQL(), "(values ('a')) table(label)");
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(cache.getEvictionCount(), 0);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void statementWithKeyExceedingLimitNotCached() throws Exception {
+        // The statement alone fits, but not with the rows retained by its key
+        ValuesStatementCache cache = ValuesStatementCache.newBuilder().maxCharacters(60).build();
+
+        cache.get(Values.protectedText(), "table", LABELS, Arrays.asList("a"));
+
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(cache.getCharacterCount(), 0);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void invalidateAll() throws Exception {
+        ValuesStatementCache cache = ValuesStatementCache.newBuilder().build();
+
+        cache.get(Values.protectedText(), "table", LABELS, Arrays.asList("a"));
+        cache.invalidateAll();
+
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(cache.getCharacterCount(), 0);
+        Assert.assertEquals(cache.getMissCount(), 1);
+    }
+
+}
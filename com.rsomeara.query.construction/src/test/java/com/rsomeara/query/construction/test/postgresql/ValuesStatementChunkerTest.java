@@ -0,0 +1,178 @@
+package com.rsomeara.query.construction.test.postgresql;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.rsomeara.query.construction.postgresql.ValuesStatement;
+import com.rsomeara.query.construction.postgresql.ValuesStatementChunker;
+import com.rsomeara.query.construction.postgresql.type.RowWriter;
+import com.rsomeara.query.construction.postgresql.type.Values;
+
+/**
+ * Tests splitting of data into multiple bounded values statements
+ *
+ * @author romeara
+ */
+public class ValuesStatementChunkerTest {
+
+    private static final List<String> VALUES = Arrays.asList("a", "bb", "ccc", "dddd", "eeeee");
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void buildNoTableName() throws Exception {
+        ValuesStatementChunker.newBuilder(Values.protectedStrings()).addLabel("label").build();
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void maxRowsNotPositive() throws Exception {
+        ValuesStatementChunker.newBuilder(Values.protectedStrings()).maxRows(0);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void chunksEmpty() throws Exception {
+        Iterator<ValuesStatement> chunks = ValuesStatementChunker.newBuilder(Values.protectedStrings())
+                .tableName("t").addLabel("l").build()
+                .chunks(Collections.<String> emptyList());
+
+        Assert.assertFalse(chunks.hasNext());
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void chunksUnbounded() throws Exception {
+        List<ValuesStatement> chunks = ValuesStatementChunker.newBuilder(Values.protectedStrings())
+                .tableName("t").addLabel("l").build()
+                .stream(VALUES).collect(Collectors.toList());
+
+        Assert.assertEquals(chunks, Arrays.asList(statement(VALUES)));
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void chunksByRows() throws Exception {
+        List<ValuesStatement> chunks = ValuesStatementChunker.newBuilder(Values.protectedStrings())
+                .tableName("t").addLabel("l")
+                .maxRows(2).build()
+                .stream(VALUES).collect(Collectors.toList());
+
+        Assert.assertEquals(chunks, Arrays.asList(
+                statement(VALUES.subList(0, 2)),
+                statement(VALUES.subList(2, 4)),
+                statement(VALUES.subList(4, 5))));
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void chunksByParameters() throws Exception {
+        List<ValuesStatement> chunks = ValuesStatementChunker.newBuilder(Values.<String> asValuesFunction(t -> Arrays.asList(t, t)))
+                .tableName("t").addLabels(Arrays.asList("a", "b"))
+                .maxParameters(5).build()
+                .stream(VALUES).collect(Collectors.toList());
+
+        Assert.assertEquals(chunks.size(), 3);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void chunksByCharacters() throws Exception {
+        // Exactly fits the first three values: (values ('a'),('bb'),('ccc')) t(l)
+        int limit = statement(VALUES.subList(0, 3)).getSQL().length();
+
+        List<ValuesStatement> chunks = ValuesStatementChunker.newBuilder(Values.protectedStrings())
+                .tableName("t").addLabel("l")
+                .maxCharacters(limit).build()
+                .stream(VALUES).collect(Collectors.toList());
+
+        Assert.assertEquals(chunks, Arrays.asList(
+                statement(VALUES.subList(0, 3)),
+                statement(VALUES.subList(3, 5))));
+
+        for (ValuesStatement chunk : chunks) {
+            Assert.assertTrue(chunk.getSQL().length() <= limit);
+        }
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void chunksOversizedRow() throws Exception {
+        List<ValuesStatement> chunks = ValuesStatementChunker.newBuilder(Values.protectedStrings())
+                .tableName("t").addLabel("l")
+                .maxCharacters(1).build()
+                .stream(VALUES).collect(Collectors.toList());
+
+        Assert.assertEquals(chunks.size(), VALUES.size());
+        Assert.assertEquals(chunks.get(0), statement(ImmutableList.of("a")));
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void chunksDeclareTypes() throws Exception {
+        List<ValuesStatement> chunks = ValuesStatementChunker.newBuilder((Long t, RowWriter writer) -> writer.writeLong(t))
+                .tableName("t").addLabel("l")
+                .maxRows(2).build()
+                .stream(Arrays.asList(1L, 2L, 3L)).collect(Collectors.toList());
+
+        Assert.assertEquals(chunks.get(0).getSQL(), "(values (1::int8),(2)) t(l)");
+        Assert.assertEquals(chunks.get(1).getSQL(), "(values (3::int8)) t(l)");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void chunksColumnCountMismatch() throws Exception {
+        Iterator<ValuesStatement> chunks = ValuesStatementChunker.newBuilder((Long t, RowWriter writer) -> {
+            for (long i = 0; i < t; i++) {
+                writer.writeLong(i);
+            }
+        }).tableName("t").addLabel("l")
+                .maxRows(2).build()
+                .chunks(Arrays.asList(1L, 1L, 1L, 2L));
+
+        chunks.next();
+
+        try {
+            chunks.next();
+            Assert.fail("Expected column count mismatch to be rejected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals(e.getMessage(), "Row 3 contains 2 values, but 1 columns are expected");
+        }
+    }
+
+    /**
+     * @param values
+     *            Values to represent
+     * @return A single values statement representing the provided values, built without chunking
+     */
+    private static ValuesStatement statement(List<String> values) {
+        return ValuesStatement.newBuilder(Values.protectedStrings()).tableName("t").addLabel("l").addValues(values).build();
+    }
+
+}
@@ -1,9 +1,20 @@
 package com.rsomeara.query.construction.test.postgresql;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import com.rsomeara.query.construction.postgresql.RenderMetrics;
 import com.rsomeara.query.construction.postgresql.ValuesStatement;
+import com.rsomeara.query.construction.postgresql.type.RowFunction;
+import com.rsomeara.query.construction.postgresql.type.RowWriter;
 import com.rsomeara.query.construction.postgresql.type.Values;
 
 /**
@@ -59,4 +70,400 @@ public class ValuesStatementTest {
         Assert.assertEquals(statement.getSQL(), "(values (\'value1\'),(\'value2\')) table(label)");
     }
 
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void writeToMatchesBuild() throws Exception {
+        ValuesStatement.Builder<String> builder = ValuesStatement.newBuilder(Values.protectedStrings())
+                .tableName("table")
+                .addValue("value1")
+                .addValue("val\'ue2")
+                .addLabel("label");
+
+        Assert.assertEquals(builder.writeTo(new StringBuilder()).toString(), builder.build().getSQL());
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void writeToNoValues() throws Exception {
+        ValuesStatement.newBuilder(Values.protectedStrings()).tableName("table").addLabel("label").writeTo(new StringBuilder());
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void buildTypedStatement() throws Exception {
+        RowFunction<Integer> rowFunction = (Integer t, RowWriter writer) -> writer
+                .writeInt(t)
+                .writeLong(-t)
+                .writeDouble(t / 2.0)
+                .writeBoolean(t > 1)
+                .writeText("it's")
+                .writeUuid(new UUID(0x0123456789abcdefL, t))
+                .writeTimestamp(Instant.ofEpochSecond(t))
+                .writeNull();
+
+        ValuesStatement statement = ValuesStatement.newBuilder(rowFunction)
+                .tableName("t")
+                .addValue(1)
+                .addValue(2)
+                .addLabels(Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h")).build();
+
+        Assert.assertEquals(statement.getSQL(), "(values "
+                + "(1::int4,(-1)::int8,0.5::float8,false,'it''s','01234567-89ab-cdef-0000-000000000001'::uuid,'1970-01-01T00:00:01Z'::timestamptz,NULL),"
+                + "(2,-2,1.0,true,'it''s','01234567-89ab-cdef-0000-000000000002','1970-01-01T00:00:02Z',NULL)"
+                + ") t(a,b,c,d,e,f,g,h)");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void buildTypedNulls() throws Exception {
+        RowFunction<String> rowFunction = (String t, RowWriter writer) -> writer
+                .writeText(null)
+                .writeUuid(null)
+                .writeTimestamp(null)
+                .writeDouble(Double.NEGATIVE_INFINITY);
+
+        ValuesStatement statement = ValuesStatement.newBuilder(rowFunction)
+                .tableName("t")
+                .addValue("value")
+                .addLabels(Arrays.asList("a", "b", "c", "d")).build();
+
+        Assert.assertEquals(statement.getSQL(), "(values (NULL,NULL::uuid,NULL::timestamptz,'-Infinity'::float8)) t(a,b,c,d)");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void addValueFailureDiscardsRow() throws Exception {
+        ValuesStatement.Builder<String> builder = ValuesStatement.newBuilder(Values.protectedText())
+                .tableName("table")
+                .addValue("value1")
+                .addLabel("label");
+
+        try {
+            builder.addValue("val\0ue");
+            Assert.fail("Expected NUL character to be rejected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        Assert.assertEquals(builder.addValue("value2").build().getSQL(), "(values (\'value1\'),(\'value2\')) table(label)");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void ensureCapacityNegative() throws Exception {
+        ValuesStatement.newBuilder(Values.protectedStrings()).ensureCapacity(-1);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void ensureCapacityMatchesUnsized() throws Exception {
+        List<String> values = Arrays.asList("value1", "value2", "it's");
+
+        ValuesStatement.Builder<String> sized = ValuesStatement.newBuilder(Values.protectedText())
+                .ensureCapacity(10)
+                .tableName("table")
+                .addLabel("label");
+        ValuesStatement.Builder<String> unsized = ValuesStatement.newBuilder(Values.protectedText())
+                .tableName("table")
+                .addLabel("label");
+
+        for (String value : values) {
+            sized.addValue(value);
+            unsized.addValue(value);
+        }
+
+        Assert.assertEquals(sized.ensureCapacity(1000).build().getSQL(), unsized.build().getSQL());
+        Assert.assertEquals(sized.build().getSQL(), "(values (\'value1\'),(\'value2\'),(\'it\'\'s\')) table(label)");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void parallelThresholdZero() throws Exception {
+        ValuesStatement.newBuilder(Values.protectedStrings()).parallelThreshold(0);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void parallelMatchesSequential() throws Exception {
+        List<Integer> values = new ArrayList<>();
+
+        for (int i = -5000; i < 5000; i++) {
+            values.add(i);
+        }
+
+        RowFunction<Integer> rowFunction = (value, writer) -> writer.writeInt(value).writeText("it's " + value);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            String sequential = ValuesStatement.newBuilder(rowFunction).tableName("table").addLabel("a").addLabel("b")
+                    .addValues(values)
+                    .build().getSQL();
+            String parallel = ValuesStatement.newBuilder(rowFunction).tableName("table").addLabel("a").addLabel("b")
+                    .parallelThreshold(1)
+                    .parallelExecutor(executor)
+                    .addValues(values)
+                    .addValues(values)
+                    .build().getSQL();
+            String sequentialTwice = ValuesStatement.newBuilder(rowFunction).tableName("table").addLabel("a").addLabel("b")
+                    .addValues(values)
+                    .addValues(values)
+                    .build().getSQL();
+
+            Assert.assertTrue(sequential.startsWith("(values ((-5000)::int4,'it''s -5000'),(-4999,"));
+            Assert.assertEquals(parallel, sequentialTwice);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void parallelFailureRetainsPrecedingRows() throws Exception {
+        List<Integer> values = new ArrayList<>();
+
+        for (int i = 0; i < 10000; i++) {
+            values.add(i);
+        }
+
+        RowFunction<Integer> rowFunction = (value, writer) -> {
+            writer.writeInt(value);
+
+            if (value == 6000 || value == 9000) {
+                throw new IllegalStateException("Failed at " + value);
+            }
+        };
+
+        ValuesStatement.Builder<Integer> builder = ValuesStatement.newBuilder(rowFunction).tableName("table").addLabel("a")
+                .parallelThreshold(1);
+
+        try {
+            builder.addValues(values);
+            Assert.fail("Expected row function failure");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(e.getMessage(), "Failed at 6000");
+        }
+
+        ValuesStatement.Builder<Integer> expected = ValuesStatement.newBuilder(rowFunction).tableName("table").addLabel("a");
+
+        try {
+            expected.addValues(values);
+            Assert.fail("Expected row function failure");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(e.getMessage(), "Failed at 6000");
+        }
+
+        Assert.assertEquals(builder.build().getSQL(), expected.build().getSQL());
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void lazyAfterValues() throws Exception {
+        ValuesStatement.newBuilder(Values.protectedText()).addValue("value").lazy();
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void lazyBuildNoValues() throws Exception {
+        ValuesStatement.newBuilder(Values.protectedText()).lazy()
+                .tableName("table")
+                .addLabel("label")
+                .addValues(new ArrayList<String>())
+                .build();
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void lazyRendersRetainedSources() throws Exception {
+        List<String> source = new ArrayList<>(Arrays.asList("b", "c"));
+
+        ValuesStatement.Builder<String> builder = ValuesStatement.newBuilder(Values.protectedText()).lazy()
+                .tableName("table")
+                .addLabel("label")
+                .addValue("a")
+                .addValues(source)
+                .addValue("d")
+                .addValue("e");
+
+        Assert.assertEquals(builder.build().getSQL(), "(values ('a'),('b'),('c'),('d'),('e')) table(label)");
+
+        // Sources are retained by reference, and rendered again on each build
+        source.add("it's");
+
+        Assert.assertEquals(builder.build().getSQL(), "(values ('a'),('b'),('c'),('it''s'),('d'),('e')) table(label)");
+        Assert.assertEquals(builder.writeTo(new StringBuilder()).toString(), builder.build().getSQL());
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void lazyFailureReportedOnBuild() throws Exception {
+        ValuesStatement.Builder<String> builder = ValuesStatement.newBuilder(Values.protectedText()).lazy()
+                .tableName("table")
+                .addLabel("label")
+                .addValue("val\0ue");
+
+        try {
+            builder.build();
+            Assert.fail("Expected NUL character to be rejected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void buildValuesFunctionNulls() throws Exception {
+        ValuesStatement statement = ValuesStatement.newBuilder(Values.asValuesFunction((String value) -> Arrays.asList(value, null, value)))
+                .tableName("t")
+                .addLabels(Arrays.asList("a", "b", "c"))
+                .addValue("1")
+                .build();
+
+        Assert.assertEquals(statement.getSQL(), "(values (1,NULL,1)) t(a,b,c)");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void addValueColumnCountMismatch() throws Exception {
+        RowFunction<Integer> rowFunction = (value, writer) -> {
+            for (int i = 0; i < value; i++) {
+                writer.writeInt(i);
+            }
+        };
+
+        ValuesStatement.Builder<Integer> builder = ValuesStatement.newBuilder(rowFunction).tableName("t").addLabel("a").addLabel("b")
+                .addValue(2)
+                .addValue(2);
+
+        try {
+            builder.addValue(3);
+            Assert.fail("Expected column count mismatch to be rejected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals(e.getMessage(), "Row 2 contains 3 values, but 2 columns are expected");
+        }
+
+        Assert.assertEquals(builder.build().getSQL(), "(values (0::int4,1::int4),(0,1)) t(a,b)");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void buildLabelCountMismatch() throws Exception {
+        ValuesStatement.newBuilder(Values.protectedText()).tableName("t").addValue("value").addLabel("a").addLabel("b").build();
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void listenerAfterValues() throws Exception {
+        ValuesStatement.newBuilder(Values.protectedText()).addValue("value").listener(metrics -> {
+        });
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void listenerReceivesMetrics() throws Exception {
+        List<RenderMetrics> measured = new ArrayList<>();
+
+        ValuesStatement statement = ValuesStatement.newBuilder(Values.protectedText()).tableName("t").addLabel("a")
+                .listener(measured::add)
+                .addValue("one")
+                .addValues(Arrays.asList("it's", "o'clock", "two"))
+                .build();
+
+        Assert.assertEquals(measured.size(), 1);
+
+        RenderMetrics metrics = measured.get(0);
+
+        Assert.assertEquals(metrics.getTableName(), "t");
+        Assert.assertEquals(metrics.getRowCount(), 4);
+        Assert.assertEquals(metrics.getColumnCount(), 1);
+        Assert.assertEquals(metrics.getCharacterCount(), statement.getSQL().length());
+        Assert.assertEquals(metrics.getEscapedValueCount(), 2);
+        Assert.assertTrue(metrics.getRenderNanos() >= 0);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void listenerReceivesLazyWriteMetrics() throws Exception {
+        List<RenderMetrics> measured = new ArrayList<>();
+
+        StringBuilder written = ValuesStatement.newBuilder(Values.protectedText()).tableName("t").addLabel("a")
+                .lazy()
+                .listener(measured::add)
+                .addValues(Arrays.asList("one", "it's"))
+                .addValue("two")
+                .writeTo(new StringBuilder());
+
+        Assert.assertEquals(measured.size(), 1);
+
+        RenderMetrics metrics = measured.get(0);
+
+        Assert.assertEquals(metrics.getRowCount(), 3);
+        Assert.assertEquals(metrics.getCharacterCount(), written.length());
+        Assert.assertEquals(metrics.getEscapedValueCount(), 1);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void listenerReceivesParallelMetrics() throws Exception {
+        List<String> values = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            values.add(i % 2 == 0 ? "row's " + i : "row " + i);
+        }
+
+        List<RenderMetrics> measured = new ArrayList<>();
+
+        StringBuilder written = ValuesStatement.newBuilder(Values.protectedText()).tableName("t").addLabel("a")
+                .listener(measured::add)
+                .parallelThreshold(1)
+                .addValues(values)
+                .writeTo(new StringBuilder());
+
+        Assert.assertEquals(measured.size(), 1);
+        Assert.assertEquals(measured.get(0).getRowCount(), 5000);
+        Assert.assertEquals(measured.get(0).getCharacterCount(), written.length());
+        Assert.assertEquals(measured.get(0).getEscapedValueCount(), 2500);
+    }
+
 }
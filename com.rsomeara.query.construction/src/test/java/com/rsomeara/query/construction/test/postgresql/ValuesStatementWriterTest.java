@@ -0,0 +1,92 @@
+package com.rsomeara.query.construction.test.postgresql;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.rsomeara.query.construction.postgresql.ValuesStatement;
+import com.rsomeara.query.construction.postgresql.ValuesStatementWriter;
+import com.rsomeara.query.construction.postgresql.type.Values;
+
+/**
+ * Tests streaming output of values statements
+ *
+ * @author romeara
+ */
+public class ValuesStatementWriterTest {
+
+    private static final List<String> VALUES = Arrays.asList("value1", "val\'ue2", "val\u00fce3");
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = NullPointerException.class)
+    public void newBuilderNullFunction() throws Exception {
+        ValuesStatementWriter.newBuilder(null);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void buildNoTableName() throws Exception {
+        ValuesStatementWriter.newBuilder(Values.protectedStrings()).addLabel("label").build();
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void buildNoLabels() throws Exception {
+        ValuesStatementWriter.newBuilder(Values.protectedStrings()).tableName("table").build();
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void writeNoValues() throws Exception {
+        ValuesStatementWriter.newBuilder(Values.protectedStrings()).tableName("table").addLabel("label").build()
+                .write(Collections.<String> emptyList(), new StringBuilder());
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void writeMatchesStatement() throws Exception {
+        ValuesStatementWriter<String> writer = ValuesStatementWriter.newBuilder(Values.protectedStrings())
+                .tableName("table")
+                .addLabel("label").build();
+
+        String expected = ValuesStatement.newBuilder(Values.protectedStrings())
+                .tableName("table")
+                .addValues(VALUES)
+                .addLabel("label").build().getSQL();
+
+        Assert.assertEquals(writer.write(VALUES, new StringWriter()).toString(), expected);
+        Assert.assertEquals(writer.write(VALUES.iterator(), new StringBuilder()).toString(), expected);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void writeOutputStream() throws Exception {
+        ValuesStatementWriter<String> writer = ValuesStatementWriter.newBuilder(Values.protectedStrings())
+                .tableName("table")
+                .addLabel("label").build();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writer.write(VALUES, output);
+
+        Assert.assertEquals(new String(output.toByteArray(), StandardCharsets.UTF_8), writer.write(VALUES, new StringBuilder()).toString());
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.rsomeara.query.construction.test.postgresql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.rsomeara.query.construction.postgresql.ValuesStatement;
+import com.rsomeara.query.construction.postgresql.ValuesTemplate;
+import com.rsomeara.query.construction.postgresql.type.RowFunction;
+import com.rsomeara.query.construction.postgresql.type.Values;
+
+/**
+ * Tests rendering of values statements from pre-compiled templates
+ *
+ * @author romeara
+ */
+public class ValuesTemplateTest {
+
+    private static final RowFunction<Integer> ROW_FUNCTION = (value, writer) -> writer.writeInt(value).writeText("it's " + value);
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void buildNoTableName() throws Exception {
+        ValuesTemplate.newBuilder(ROW_FUNCTION).addLabel("a").build();
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void renderNoValues() throws Exception {
+        ValuesTemplate.newBuilder(ROW_FUNCTION).tableName("table").addLabel("a").addLabel("b").build()
+                .render(Collections.<Integer> emptyList());
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void renderColumnCountMismatch() throws Exception {
+        ValuesTemplate.newBuilder(ROW_FUNCTION).tableName("table").addLabel("a").build().render(Arrays.asList(1));
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void renderMatchesBuilder() throws Exception {
+        ValuesTemplate<String> template = ValuesTemplate.newBuilder(Values.protectedText()).tableName("table").addLabel("label").build();
+
+        List<String> values = Arrays.asList("a", "it's", "c");
+        ValuesStatement expected = ValuesStatement.newBuilder(Values.protectedText()).tableName("table").addLabel("label")
+                .addValues(values)
+                .build();
+
+        Assert.assertEquals(template.render(values), expected);
+
+        // Buffers are reused between renders, and must not carry over data
+        Assert.assertEquals(template.render(Arrays.asList("b")).getSQL(), "(values ('b')) table(label)");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void renderConcurrently() throws Exception {
+        ValuesTemplate<Integer> template = ValuesTemplate.newBuilder(ROW_FUNCTION).tableName("table").addLabel("a").addLabel("b").build();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+
+            for (int task = 0; task < 16; task++) {
+                int offset = task * 1000;
+
+                results.add(executor.submit(() -> {
+                    List<Integer> values = new ArrayList<>();
+
+                    for (int i = offset; i < offset + 1000; i++) {
+                        values.add(i);
+                    }
+
+                    String expected = ValuesStatement.newBuilder(ROW_FUNCTION).tableName("table").addLabel("a").addLabel("b")
+                            .addValues(values)
+                            .build().getSQL();
+
+                    return expected.equals(template.render(values).getSQL());
+                }));
+            }
+
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.rsomeara.query.construction.test.postgresql.type;
+
+import java.util.Random;
+
+import org.postgresql.core.Utils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.rsomeara.query.construction.postgresql.type.LiteralEscaper;
+
+/**
+ * Tests escaping of values for PostgreSQL string literals
+ *
+ * @author romeara
+ */
+public class LiteralEscaperTest {
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void escapeUnchanged() throws Exception {
+        String value = "string\\\"";
+
+        Assert.assertSame(LiteralEscaper.escape(value), value);
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void escapeQuotes() throws Exception {
+        Assert.assertEquals(LiteralEscaper.escape("'str'ing'"), "''str''ing''");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void escapeNul() throws Exception {
+        Assert.assertNull(LiteralEscaper.escape("str\0ing"));
+        Assert.assertNull(LiteralEscaper.quote("str\0ing"));
+        Assert.assertFalse(LiteralEscaper.isValid("str\0ing"));
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void quote() throws Exception {
+        Assert.assertEquals(LiteralEscaper.quote(""), "''");
+        Assert.assertEquals(LiteralEscaper.quote("string"), "'string'");
+        Assert.assertEquals(LiteralEscaper.quote("str'ing"), "'str''ing'");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void appendQuoted() throws Exception {
+        StringBuilder builder = new StringBuilder("x");
+
+        LiteralEscaper.appendQuoted(builder, "a'b");
+        LiteralEscaper.appendEscaped(builder, "c'");
+
+        Assert.assertEquals(builder.toString(), "x'a''b'c''");
+    }
+
+    /**
+     * @since 0.1
+     */
+    @Test
+    public void appendQuotedNul() throws Exception {
+        StringBuilder builder = new StringBuilder();
+
+        try {
+            LiteralEscaper.appendQuoted(builder, "a'\0");
+            Assert.fail("Expected NUL character to be rejected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals(builder.length(), 0);
+        }
+    }
+
+    /**
+     * Verifies output matches the PostgreSQL JDBC driver's escaping for standard conforming strings
+     *
+     * @since 0.1
+     */
+    @Test
+    public void escapeMatchesDriver() throws Exception {
+        Random random = new Random(42);
+        char[] alphabet = new char[] { 'a', 'Z', '\'', '\\', '"', '\n', '\u00e9', '\u2603' };
+
+        for (int i = 0; i < 1000; i++) {
+            char[] value = new char[random.nextInt(16)];
+
+            for (int j = 0; j < value.length; j++) {
+                value[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+
+            String input = new String(value);
+            String expected = Utils.appendEscapedLiteral(null, input, true).toString();
+
+            Assert.assertEquals(LiteralEscaper.escape(input), expected);
+            Assert.assertEquals(LiteralEscaper.quote(input), "'" + expected + "'");
+            Assert.assertEquals(LiteralEscaper.appendQuoted(new StringBuilder(), input).toString(), "'" + expected + "'");
+        }
+    }
+
+}
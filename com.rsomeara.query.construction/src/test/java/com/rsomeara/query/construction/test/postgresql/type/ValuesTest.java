@@ -46,4 +46,20 @@ public class ValuesTest {
         Assert.assertEquals(Values.protectedStrings().apply("string"), Arrays.asList("\'string\'"));
     }
 
+    /**
+     * @since.01
+     */
+    @Test(expectedExceptions = NullPointerException.class)
+    public void asParameterFunctionNullInput() throws Exception {
+        Values.asParameterFunction(null);
+    }
+
+    /**
+     * @since.01
+     */
+    @Test
+    public void stringParameters() throws Exception {
+        Assert.assertEquals(Values.stringParameters().apply("str\'ing"), Arrays.asList("str\'ing"));
+    }
+
 }